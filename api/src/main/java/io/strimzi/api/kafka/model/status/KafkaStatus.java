@@ -21,12 +21,13 @@ import java.util.List;
         builderPackage = "io.fabric8.kubernetes.api.builder"
 )
 @JsonInclude(JsonInclude.Include.NON_NULL)
-@JsonPropertyOrder({ "conditions", "observedGeneration", "listeners" })
+@JsonPropertyOrder({ "conditions", "observedGeneration", "listeners", "rollingUpdates" })
 @EqualsAndHashCode
 public class KafkaStatus extends Status {
     private static final long serialVersionUID = 1L;
 
     private List<ListenerStatus> listeners;
+    private List<RollingUpdateStatus> rollingUpdates;
 
     @Description("Addresses of the internal and external listeners")
     public List<ListenerStatus> getListeners() {
@@ -36,4 +37,13 @@ public class KafkaStatus extends Status {
     public void setListeners(List<ListenerStatus> listeners) {
         this.listeners = listeners;
     }
+
+    @Description("Summaries of the last rolling update of each component")
+    public List<RollingUpdateStatus> getRollingUpdates() {
+        return rollingUpdates;
+    }
+
+    public void setRollingUpdates(List<RollingUpdateStatus> rollingUpdates) {
+        this.rollingUpdates = rollingUpdates;
+    }
 }
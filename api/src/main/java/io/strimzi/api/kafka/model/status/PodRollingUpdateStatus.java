@@ -0,0 +1,88 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.api.kafka.model.status;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.strimzi.api.kafka.model.UnknownPropertyPreserving;
+import io.strimzi.crdgenerator.annotations.Description;
+import io.sundr.builder.annotations.Buildable;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Represents what happened to a single pod during a rolling update
+ */
+@Buildable(
+        editableEnabled = false,
+        generateBuilderPackage = false,
+        builderPackage = "io.fabric8.kubernetes.api.builder"
+)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({ "pod", "restarted", "phases", "retries" })
+@EqualsAndHashCode
+public class PodRollingUpdateStatus implements UnknownPropertyPreserving, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String pod;
+    private boolean restarted;
+    private Map<String, Long> phases;
+    private Map<String, Integer> retries;
+    private Map<String, Object> additionalProperties;
+
+    @Description("The name of the pod.")
+    public String getPod() {
+        return pod;
+    }
+
+    public void setPod(String pod) {
+        this.pod = pod;
+    }
+
+    @Description("Whether the pod was restarted.")
+    public boolean isRestarted() {
+        return restarted;
+    }
+
+    public void setRestarted(boolean restarted) {
+        this.restarted = restarted;
+    }
+
+    @Description("How long each phase of the rolling update of the pod took, in milliseconds, by phase.")
+    public Map<String, Long> getPhases() {
+        return phases;
+    }
+
+    public void setPhases(Map<String, Long> phases) {
+        this.phases = phases;
+    }
+
+    @Description("How many times the rolling update of the pod was retried, by the kind of problem which caused the retry.")
+    public Map<String, Integer> getRetries() {
+        return retries;
+    }
+
+    public void setRetries(Map<String, Integer> retries) {
+        this.retries = retries;
+    }
+
+    @Override
+    public Map<String, Object> getAdditionalProperties() {
+        return this.additionalProperties != null ? this.additionalProperties : emptyMap();
+    }
+
+    @Override
+    public void setAdditionalProperty(String name, Object value) {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<>();
+        }
+        this.additionalProperties.put(name, value);
+    }
+}
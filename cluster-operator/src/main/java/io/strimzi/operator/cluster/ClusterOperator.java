@@ -4,24 +4,24 @@
  */
 package io.strimzi.operator.cluster;
 
-import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.Watch;
 import io.strimzi.operator.cluster.operator.assembly.KafkaAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaBridgeAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectS2IAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMakerAssemblyOperator;
+import io.strimzi.operator.common.MetricsProvider;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 
 /**
  * An "operator" for managing assemblies of various types <em>in a particular namespace</em>.
@@ -38,7 +38,6 @@ public class ClusterOperator extends AbstractVerticle {
 
     private static final int HEALTH_SERVER_PORT = 8080;
 
-    private final KubernetesClient client;
     private final String namespace;
     private final long reconciliationInterval;
 
@@ -50,33 +49,31 @@ public class ClusterOperator extends AbstractVerticle {
     private final KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator;
     private final KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator;
     private final KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator;
+    private final MetricsProvider metricsProvider;
 
     public ClusterOperator(String namespace,
                            long reconciliationInterval,
-                           KubernetesClient client,
                            KafkaAssemblyOperator kafkaAssemblyOperator,
                            KafkaConnectAssemblyOperator kafkaConnectAssemblyOperator,
                            KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator,
                            KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator,
-                           KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator) {
+                           KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator,
+                           MetricsProvider metricsProvider) {
         log.info("Creating ClusterOperator for namespace {}", namespace);
         this.namespace = namespace;
         this.reconciliationInterval = reconciliationInterval;
-        this.client = client;
         this.kafkaAssemblyOperator = kafkaAssemblyOperator;
         this.kafkaConnectAssemblyOperator = kafkaConnectAssemblyOperator;
         this.kafkaConnectS2IAssemblyOperator = kafkaConnectS2IAssemblyOperator;
         this.kafkaMirrorMakerAssemblyOperator = kafkaMirrorMakerAssemblyOperator;
         this.kafkaBridgeAssemblyOperator = kafkaBridgeAssemblyOperator;
+        this.metricsProvider = metricsProvider;
     }
 
     @Override
     public void start(Future<Void> start) {
         log.info("Starting ClusterOperator for namespace {}", namespace);
 
-        // Configure the executor here, but it is used only in other places
-        getVertx().createSharedWorkerExecutor("kubernetes-ops-pool", 10, TimeUnit.SECONDS.toNanos(120));
-
         kafkaAssemblyOperator.createWatch(namespace, kafkaAssemblyOperator.recreateWatch(namespace))
             .compose(w -> {
                 log.info("Started operator for {} kind", "Kafka");
@@ -109,7 +106,7 @@ public class ClusterOperator extends AbstractVerticle {
                     log.info("Triggering periodic reconciliation for namespace {}...", namespace);
                     reconcileAll("timer");
                 });
-                return startHealthServer().map((Void) null);
+                return startHealthServer(vertx, metricsProvider).map((Void) null);
             }).compose(start::complete, start);
     }
 
@@ -124,7 +121,6 @@ public class ClusterOperator extends AbstractVerticle {
             }
             // TODO remove the watch from the watchByKind
         }
-        client.close();
 
         stop.complete();
     }
@@ -145,17 +141,24 @@ public class ClusterOperator extends AbstractVerticle {
     }
 
     /**
-     * Start an HTTP health server
+     * Start an HTTP health server, which also serves the operator's metrics in the Prometheus format on {@code /metrics}
      */
-    private Future<HttpServer> startHealthServer() {
+    static Future<HttpServer> startHealthServer(Vertx vertx, MetricsProvider metricsProvider) {
         Future<HttpServer> result = Future.future();
-        this.vertx.createHttpServer()
+        vertx.createHttpServer()
                 .requestHandler(request -> {
 
                     if (request.path().equals("/healthy")) {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
                         request.response().setStatusCode(200).end();
+                    } else if (request.path().equals("/metrics")) {
+                        String metrics = metricsProvider.scrape();
+                        if (metrics != null) {
+                            request.response().setStatusCode(200).end(metrics);
+                        } else {
+                            request.response().setStatusCode(404).end();
+                        }
                     }
                 })
                 .listen(HEALTH_SERVER_PORT, ar -> {
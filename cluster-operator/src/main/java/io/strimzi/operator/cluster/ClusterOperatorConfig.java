@@ -9,8 +9,10 @@ import io.fabric8.kubernetes.api.model.LocalObjectReferenceBuilder;
 import io.strimzi.operator.cluster.model.ImagePullPolicy;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.NoImageException;
+import io.strimzi.operator.cluster.operator.resource.KafkaRollingOptions;
 import io.strimzi.operator.common.InvalidConfigurationException;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkQueue;
 import io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator;
 
 import java.util.Arrays;
@@ -35,6 +37,16 @@ public class ClusterOperatorConfig {
     public static final String STRIMZI_CREATE_CLUSTER_ROLES = "STRIMZI_CREATE_CLUSTER_ROLES";
     public static final String STRIMZI_IMAGE_PULL_POLICY = "STRIMZI_IMAGE_PULL_POLICY";
     public static final String STRIMZI_IMAGE_PULL_SECRETS = "STRIMZI_IMAGE_PULL_SECRETS";
+    public static final String STRIMZI_RESOURCE_CACHE_ENABLED = "STRIMZI_RESOURCE_CACHE_ENABLED";
+    public static final String STRIMZI_MAX_CONCURRENT_RECONCILIATIONS = "STRIMZI_MAX_CONCURRENT_RECONCILIATIONS";
+    public static final String STRIMZI_NAMESPACE_SHARDING_ENABLED = "STRIMZI_NAMESPACE_SHARDING_ENABLED";
+    public static final String STRIMZI_LEADER_ELECTION_ENABLED = "STRIMZI_LEADER_ELECTION_ENABLED";
+    public static final String STRIMZI_LEASE_NAMESPACE = "STRIMZI_LEASE_NAMESPACE";
+    public static final String STRIMZI_LEASE_DURATION_MS = "STRIMZI_LEASE_DURATION_MS";
+    public static final String STRIMZI_KAFKA_ROLLING_BATCH_SIZE = "STRIMZI_KAFKA_ROLLING_BATCH_SIZE";
+    public static final String STRIMZI_KAFKA_LEADERSHIP_DRAIN_TIMEOUT_MS = "STRIMZI_KAFKA_LEADERSHIP_DRAIN_TIMEOUT_MS";
+    public static final String STRIMZI_KAFKA_ISR_CATCH_UP_PERCENTAGE = "STRIMZI_KAFKA_ISR_CATCH_UP_PERCENTAGE";
+    public static final String STRIMZI_KAFKA_ISR_CATCH_UP_TIMEOUT_MS = "STRIMZI_KAFKA_ISR_CATCH_UP_TIMEOUT_MS";
 
     // Env vars for configuring images
     public static final String STRIMZI_KAFKA_IMAGES = "STRIMZI_KAFKA_IMAGES";
@@ -54,6 +66,15 @@ public class ClusterOperatorConfig {
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final long DEFAULT_OPERATION_TIMEOUT_MS = 300_000;
     public static final boolean DEFAULT_CREATE_CLUSTER_ROLES = false;
+    public static final boolean DEFAULT_RESOURCE_CACHE_ENABLED = false;
+    public static final int DEFAULT_MAX_CONCURRENT_RECONCILIATIONS = WorkQueue.DEFAULT_MAX_IN_FLIGHT;
+    public static final boolean DEFAULT_NAMESPACE_SHARDING_ENABLED = false;
+    public static final boolean DEFAULT_LEADER_ELECTION_ENABLED = false;
+    public static final long DEFAULT_LEASE_DURATION_MS = 15_000;
+    public static final int DEFAULT_KAFKA_ROLLING_BATCH_SIZE = 1;
+    public static final long DEFAULT_KAFKA_LEADERSHIP_DRAIN_TIMEOUT_MS = 0;
+    public static final int DEFAULT_KAFKA_ISR_CATCH_UP_PERCENTAGE = 0;
+    public static final long DEFAULT_KAFKA_ISR_CATCH_UP_TIMEOUT_MS = 300_000;
 
     private final Set<String> namespaces;
     private final long reconciliationIntervalMs;
@@ -62,6 +83,7 @@ public class ClusterOperatorConfig {
     private final KafkaVersion.Lookup versions;
     private final ImagePullPolicy imagePullPolicy;
     private final List<LocalObjectReference> imagePullSecrets;
+    private final ClusterOperatorOptions options;
 
     /**
      * Constructor
@@ -75,6 +97,25 @@ public class ClusterOperatorConfig {
      * @param imagePullSecrets Set of secrets for pulling container images from secured repositories
      */
     public ClusterOperatorConfig(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles, KafkaVersion.Lookup versions, ImagePullPolicy imagePullPolicy, List<LocalObjectReference> imagePullSecrets) {
+        this(namespaces, reconciliationIntervalMs, operationTimeoutMs, createClusterRoles, versions, imagePullPolicy, imagePullSecrets,
+                ClusterOperatorOptions.DEFAULT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param namespaces namespace in which the operator will run and create resources
+     * @param reconciliationIntervalMs    specify every how many milliseconds the reconciliation runs
+     * @param operationTimeoutMs    timeout for internal operations specified in milliseconds
+     * @param createClusterRoles true to create the cluster roles
+     * @param versions The configured Kafka versions
+     * @param imagePullPolicy Image pull policy configured by the user
+     * @param imagePullSecrets Set of secrets for pulling container images from secured repositories
+     * @param options The options tuning caching, concurrency, the coordination of the operator's replicas and Kafka rolling restarts
+     */
+    public ClusterOperatorConfig(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles,
+                                 KafkaVersion.Lookup versions, ImagePullPolicy imagePullPolicy, List<LocalObjectReference> imagePullSecrets,
+                                 ClusterOperatorOptions options) {
         this.namespaces = unmodifiableSet(new HashSet<>(namespaces));
         this.reconciliationIntervalMs = reconciliationIntervalMs;
         this.operationTimeoutMs = operationTimeoutMs;
@@ -82,6 +123,7 @@ public class ClusterOperatorConfig {
         this.versions = versions;
         this.imagePullPolicy = imagePullPolicy;
         this.imagePullSecrets = imagePullSecrets;
+        this.options = options;
     }
 
     /**
@@ -98,8 +140,29 @@ public class ClusterOperatorConfig {
         ImagePullPolicy imagePullPolicy = parseImagePullPolicy(map.get(ClusterOperatorConfig.STRIMZI_IMAGE_PULL_POLICY));
         KafkaVersion.Lookup lookup = parseKafkaVersions(map.get(STRIMZI_KAFKA_IMAGES), map.get(STRIMZI_KAFKA_CONNECT_IMAGES), map.get(STRIMZI_KAFKA_CONNECT_S2I_IMAGES), map.get(STRIMZI_KAFKA_MIRROR_MAKER_IMAGES));
         List<LocalObjectReference> imagePullSecrets = parseImagePullSecrets(map.get(ClusterOperatorConfig.STRIMZI_IMAGE_PULL_SECRETS));
-
-        return new ClusterOperatorConfig(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, lookup, imagePullPolicy, imagePullSecrets);
+        boolean namespaceShardingEnabled = parseNamespaceShardingEnabled(map.get(ClusterOperatorConfig.STRIMZI_NAMESPACE_SHARDING_ENABLED));
+        boolean leaderElectionEnabled = parseLeaderElectionEnabled(map.get(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_ENABLED));
+        if (namespaceShardingEnabled && leaderElectionEnabled) {
+            throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_NAMESPACE_SHARDING_ENABLED + " and "
+                    + ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_ENABLED + " cannot both be enabled");
+        }
+        KafkaRollingOptions kafkaRollingOptions = new KafkaRollingOptions(
+                parseKafkaRollingBatchSize(map.get(ClusterOperatorConfig.STRIMZI_KAFKA_ROLLING_BATCH_SIZE)),
+                parseKafkaLeadershipDrainTimeout(map.get(ClusterOperatorConfig.STRIMZI_KAFKA_LEADERSHIP_DRAIN_TIMEOUT_MS)),
+                parseKafkaIsrCatchUpPercentage(map.get(ClusterOperatorConfig.STRIMZI_KAFKA_ISR_CATCH_UP_PERCENTAGE)),
+                parseKafkaIsrCatchUpTimeout(map.get(ClusterOperatorConfig.STRIMZI_KAFKA_ISR_CATCH_UP_TIMEOUT_MS)));
+        ClusterOperatorOptions options = new ClusterOperatorOptions.Builder()
+                .withResourceCacheEnabled(parseResourceCacheEnabled(map.get(ClusterOperatorConfig.STRIMZI_RESOURCE_CACHE_ENABLED)))
+                .withMaxConcurrentReconciliations(parseMaxConcurrentReconciliations(map.get(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS)))
+                .withNamespaceShardingEnabled(namespaceShardingEnabled)
+                .withLeaderElectionEnabled(leaderElectionEnabled)
+                .withLeaseNamespace(map.get(ClusterOperatorConfig.STRIMZI_LEASE_NAMESPACE))
+                .withLeaseDurationMs(parseLeaseDuration(map.get(ClusterOperatorConfig.STRIMZI_LEASE_DURATION_MS)))
+                .withKafkaRollingOptions(kafkaRollingOptions)
+                .build();
+
+        return new ClusterOperatorConfig(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, lookup, imagePullPolicy, imagePullSecrets,
+                options);
     }
 
     private static Set<String> parseNamespaceList(String namespacesList)   {
@@ -151,6 +214,120 @@ public class ClusterOperatorConfig {
         return createClusterRoles;
     }
 
+    private static boolean parseResourceCacheEnabled(String resourceCacheEnabledEnvVar) {
+        boolean resourceCacheEnabled = DEFAULT_RESOURCE_CACHE_ENABLED;
+
+        if (resourceCacheEnabledEnvVar != null) {
+            resourceCacheEnabled = Boolean.parseBoolean(resourceCacheEnabledEnvVar);
+        }
+
+        return resourceCacheEnabled;
+    }
+
+    private static int parseMaxConcurrentReconciliations(String maxConcurrentReconciliationsEnvVar) {
+        int maxConcurrentReconciliations = DEFAULT_MAX_CONCURRENT_RECONCILIATIONS;
+
+        if (maxConcurrentReconciliationsEnvVar != null) {
+            maxConcurrentReconciliations = Integer.parseInt(maxConcurrentReconciliationsEnvVar);
+            if (maxConcurrentReconciliations <= 0) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS
+                        + " must be a positive integer");
+            }
+        }
+
+        return maxConcurrentReconciliations;
+    }
+
+    private static boolean parseNamespaceShardingEnabled(String namespaceShardingEnabledEnvVar) {
+        boolean namespaceShardingEnabled = DEFAULT_NAMESPACE_SHARDING_ENABLED;
+
+        if (namespaceShardingEnabledEnvVar != null) {
+            namespaceShardingEnabled = Boolean.parseBoolean(namespaceShardingEnabledEnvVar);
+        }
+
+        return namespaceShardingEnabled;
+    }
+
+    private static boolean parseLeaderElectionEnabled(String leaderElectionEnabledEnvVar) {
+        boolean leaderElectionEnabled = DEFAULT_LEADER_ELECTION_ENABLED;
+
+        if (leaderElectionEnabledEnvVar != null) {
+            leaderElectionEnabled = Boolean.parseBoolean(leaderElectionEnabledEnvVar);
+        }
+
+        return leaderElectionEnabled;
+    }
+
+    private static long parseLeaseDuration(String leaseDurationEnvVar) {
+        long leaseDuration = DEFAULT_LEASE_DURATION_MS;
+
+        if (leaseDurationEnvVar != null) {
+            leaseDuration = Long.parseLong(leaseDurationEnvVar);
+            if (leaseDuration < 1_000) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_LEASE_DURATION_MS
+                        + " must be at least 1000");
+            }
+        }
+
+        return leaseDuration;
+    }
+
+    private static int parseKafkaRollingBatchSize(String kafkaRollingBatchSizeEnvVar) {
+        int kafkaRollingBatchSize = DEFAULT_KAFKA_ROLLING_BATCH_SIZE;
+
+        if (kafkaRollingBatchSizeEnvVar != null) {
+            kafkaRollingBatchSize = Integer.parseInt(kafkaRollingBatchSizeEnvVar);
+            if (kafkaRollingBatchSize <= 0) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_KAFKA_ROLLING_BATCH_SIZE
+                        + " must be greater than 0");
+            }
+        }
+
+        return kafkaRollingBatchSize;
+    }
+
+    private static long parseKafkaLeadershipDrainTimeout(String kafkaLeadershipDrainTimeoutEnvVar) {
+        long kafkaLeadershipDrainTimeout = DEFAULT_KAFKA_LEADERSHIP_DRAIN_TIMEOUT_MS;
+
+        if (kafkaLeadershipDrainTimeoutEnvVar != null) {
+            kafkaLeadershipDrainTimeout = Long.parseLong(kafkaLeadershipDrainTimeoutEnvVar);
+            if (kafkaLeadershipDrainTimeout < 0) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_KAFKA_LEADERSHIP_DRAIN_TIMEOUT_MS
+                        + " must not be negative");
+            }
+        }
+
+        return kafkaLeadershipDrainTimeout;
+    }
+
+    private static int parseKafkaIsrCatchUpPercentage(String kafkaIsrCatchUpPercentageEnvVar) {
+        int kafkaIsrCatchUpPercentage = DEFAULT_KAFKA_ISR_CATCH_UP_PERCENTAGE;
+
+        if (kafkaIsrCatchUpPercentageEnvVar != null) {
+            kafkaIsrCatchUpPercentage = Integer.parseInt(kafkaIsrCatchUpPercentageEnvVar);
+            if (kafkaIsrCatchUpPercentage < 0 || kafkaIsrCatchUpPercentage > 100) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_KAFKA_ISR_CATCH_UP_PERCENTAGE
+                        + " must be between 0 and 100");
+            }
+        }
+
+        return kafkaIsrCatchUpPercentage;
+    }
+
+    private static long parseKafkaIsrCatchUpTimeout(String kafkaIsrCatchUpTimeoutEnvVar) {
+        long kafkaIsrCatchUpTimeout = DEFAULT_KAFKA_ISR_CATCH_UP_TIMEOUT_MS;
+
+        if (kafkaIsrCatchUpTimeoutEnvVar != null) {
+            kafkaIsrCatchUpTimeout = Long.parseLong(kafkaIsrCatchUpTimeoutEnvVar);
+            if (kafkaIsrCatchUpTimeout <= 0) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_KAFKA_ISR_CATCH_UP_TIMEOUT_MS
+                        + " must be greater than 0");
+            }
+        }
+
+        return kafkaIsrCatchUpTimeout;
+    }
+
     private static ImagePullPolicy parseImagePullPolicy(String imagePullPolicyEnvVar) {
         ImagePullPolicy imagePullPolicy = null;
 
@@ -253,6 +430,62 @@ public class ClusterOperatorConfig {
         return imagePullSecrets;
     }
 
+    /**
+     * @return  The options tuning caching, concurrency, the coordination of the operator's replicas and Kafka rolling restarts
+     */
+    public ClusterOperatorOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * @return  Indicates whether reads of the operands' resources should be served from watch-backed caches
+     */
+    public boolean isResourceCacheEnabled() {
+        return options.isResourceCacheEnabled();
+    }
+
+    /**
+     * @return  The maximum number of reconciliations of each kind of resource which may run at once
+     */
+    public int getMaxConcurrentReconciliations() {
+        return options.getMaxConcurrentReconciliations();
+    }
+
+    /**
+     * @return  Indicates whether the watched namespaces should be split between the replicas of the operator
+     */
+    public boolean isNamespaceShardingEnabled() {
+        return options.isNamespaceShardingEnabled();
+    }
+
+    /**
+     * @return  Indicates whether a single replica of the operator should be elected to reconcile, while the others stand by
+     */
+    public boolean isLeaderElectionEnabled() {
+        return options.isLeaderElectionEnabled();
+    }
+
+    /**
+     * @return  The namespace of the leases used by the replicas of the operator, or null for the operator's own namespace
+     */
+    public String getLeaseNamespace() {
+        return options.getLeaseNamespace();
+    }
+
+    /**
+     * @return  How long a lease is held without being renewed, in milliseconds
+     */
+    public long getLeaseDurationMs() {
+        return options.getLeaseDurationMs();
+    }
+
+    /**
+     * @return  The options for the rolling restarts of Kafka brokers
+     */
+    public KafkaRollingOptions getKafkaRollingOptions() {
+        return options.getKafkaRollingOptions();
+    }
+
     @Override
     public String toString() {
         return "ClusterOperatorConfig(" +
@@ -263,6 +496,7 @@ public class ClusterOperatorConfig {
                 ",versions=" + versions +
                 ",imagePullPolicy=" + imagePullPolicy +
                 ",imagePullSecrets=" + imagePullSecrets +
+                ",options=" + options +
                 ")";
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster;
+
+import io.strimzi.operator.cluster.operator.resource.KafkaRollingOptions;
+
+/**
+ * Options of the Cluster Operator which tune how it reconciles, beyond the basic {@link ClusterOperatorConfig}:
+ * caching, concurrency, the coordination of the replicas of the operator and the rolling restarts of Kafka brokers.
+ */
+public class ClusterOperatorOptions {
+
+    /** The defaults of all the options */
+    public static final ClusterOperatorOptions DEFAULT = new Builder().build();
+
+    public static class Builder {
+        private boolean resourceCacheEnabled = ClusterOperatorConfig.DEFAULT_RESOURCE_CACHE_ENABLED;
+        private int maxConcurrentReconciliations = ClusterOperatorConfig.DEFAULT_MAX_CONCURRENT_RECONCILIATIONS;
+        private boolean namespaceShardingEnabled = ClusterOperatorConfig.DEFAULT_NAMESPACE_SHARDING_ENABLED;
+        private boolean leaderElectionEnabled = ClusterOperatorConfig.DEFAULT_LEADER_ELECTION_ENABLED;
+        private String leaseNamespace = null;
+        private long leaseDurationMs = ClusterOperatorConfig.DEFAULT_LEASE_DURATION_MS;
+        private KafkaRollingOptions kafkaRollingOptions = KafkaRollingOptions.DEFAULT;
+
+        public Builder withResourceCacheEnabled(boolean resourceCacheEnabled) {
+            this.resourceCacheEnabled = resourceCacheEnabled;
+            return this;
+        }
+
+        public Builder withMaxConcurrentReconciliations(int maxConcurrentReconciliations) {
+            this.maxConcurrentReconciliations = maxConcurrentReconciliations;
+            return this;
+        }
+
+        public Builder withNamespaceShardingEnabled(boolean namespaceShardingEnabled) {
+            this.namespaceShardingEnabled = namespaceShardingEnabled;
+            return this;
+        }
+
+        public Builder withLeaderElectionEnabled(boolean leaderElectionEnabled) {
+            this.leaderElectionEnabled = leaderElectionEnabled;
+            return this;
+        }
+
+        public Builder withLeaseNamespace(String leaseNamespace) {
+            this.leaseNamespace = leaseNamespace;
+            return this;
+        }
+
+        public Builder withLeaseDurationMs(long leaseDurationMs) {
+            this.leaseDurationMs = leaseDurationMs;
+            return this;
+        }
+
+        public Builder withKafkaRollingOptions(KafkaRollingOptions kafkaRollingOptions) {
+            this.kafkaRollingOptions = kafkaRollingOptions;
+            return this;
+        }
+
+        public ClusterOperatorOptions build() {
+            return new ClusterOperatorOptions(this);
+        }
+    }
+
+    private final boolean resourceCacheEnabled;
+    private final int maxConcurrentReconciliations;
+    private final boolean namespaceShardingEnabled;
+    private final boolean leaderElectionEnabled;
+    private final String leaseNamespace;
+    private final long leaseDurationMs;
+    private final KafkaRollingOptions kafkaRollingOptions;
+
+    private ClusterOperatorOptions(Builder builder) {
+        this.resourceCacheEnabled = builder.resourceCacheEnabled;
+        this.maxConcurrentReconciliations = builder.maxConcurrentReconciliations;
+        this.namespaceShardingEnabled = builder.namespaceShardingEnabled;
+        this.leaderElectionEnabled = builder.leaderElectionEnabled;
+        this.leaseNamespace = builder.leaseNamespace;
+        this.leaseDurationMs = builder.leaseDurationMs;
+        this.kafkaRollingOptions = builder.kafkaRollingOptions;
+    }
+
+    /**
+     * @return  Indicates whether reads of the operands' resources should be served from watch-backed caches
+     */
+    public boolean isResourceCacheEnabled() {
+        return resourceCacheEnabled;
+    }
+
+    /**
+     * @return  The maximum number of reconciliations of each kind of resource which may run at once
+     */
+    public int getMaxConcurrentReconciliations() {
+        return maxConcurrentReconciliations;
+    }
+
+    /**
+     * @return  Indicates whether the watched namespaces should be split between the replicas of the operator
+     */
+    public boolean isNamespaceShardingEnabled() {
+        return namespaceShardingEnabled;
+    }
+
+    /**
+     * @return  Indicates whether a single replica of the operator should be elected to reconcile, while the others stand by
+     */
+    public boolean isLeaderElectionEnabled() {
+        return leaderElectionEnabled;
+    }
+
+    /**
+     * @return  The namespace of the leases used by the replicas of the operator, or null for the operator's own namespace
+     */
+    public String getLeaseNamespace() {
+        return leaseNamespace;
+    }
+
+    /**
+     * @return  How long a lease is held without being renewed, in milliseconds
+     */
+    public long getLeaseDurationMs() {
+        return leaseDurationMs;
+    }
+
+    /**
+     * @return  The options for the rolling restarts of Kafka brokers
+     */
+    public KafkaRollingOptions getKafkaRollingOptions() {
+        return kafkaRollingOptions;
+    }
+
+    @Override
+    public String toString() {
+        return "ClusterOperatorOptions(" +
+                "resourceCacheEnabled=" + resourceCacheEnabled +
+                ",maxConcurrentReconciliations=" + maxConcurrentReconciliations +
+                ",namespaceShardingEnabled=" + namespaceShardingEnabled +
+                ",leaderElectionEnabled=" + leaderElectionEnabled +
+                ",leaseNamespace=" + leaseNamespace +
+                ",leaseDurationMs=" + leaseDurationMs +
+                ",kafkaRollingOptions=" + kafkaRollingOptions +
+                ")";
+    }
+}
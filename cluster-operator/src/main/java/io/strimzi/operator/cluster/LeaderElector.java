@@ -0,0 +1,154 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster;
+
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.operator.resource.LeaseOperator;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * <p>Elects a single leader between the replicas of the Cluster Operator using a lease.</p>
+ *
+ * <p>The leader renews the lease every third of its duration. The other replicas try to acquire it as often,
+ * and one of them becomes the leader once the lease has expired or been released.
+ * A leader which fails to renew the lease within two thirds of its duration stops leading,
+ * so that it has stopped before another replica can acquire the lease. This is checked on every tick,
+ * even while a request to renew the lease is still outstanding, so a request which hangs doesn't keep
+ * a replica leading. The remaining third of the duration, and {@link LeaseOperator#MAX_CLOCK_SKEW_MS},
+ * allow for the skew between the clocks of the replicas.</p>
+ *
+ * <p>All the methods must be called on the Vert.x context which created the instance.</p>
+ */
+public class LeaderElector {
+
+    private static final Logger log = LogManager.getLogger(LeaderElector.class.getName());
+
+    static final String LEADER_LEASE_NAME = "strimzi-cluster-operator-leader";
+    static final Labels LEADER_LABELS = Labels.forKind("cluster-operator-leader");
+
+    private final Vertx vertx;
+    private final LeaseOperator leaseOperator;
+    private final String leaseNamespace;
+    private final String identity;
+    private final long leaseDurationMs;
+    private final Runnable onElected;
+    private final Runnable onDeposed;
+
+    private boolean leader = false;
+    private long lastRenewMs;
+    private boolean renewing = false;
+    private long timerId = -1;
+
+    /**
+     * Constructor
+     *
+     * @param vertx The Vertx instance
+     * @param leaseOperator The operator for the lease
+     * @param leaseNamespace The namespace of the lease
+     * @param identity The identity of this replica, unique between the replicas
+     * @param leaseDurationMs How long the lease is held without being renewed, in milliseconds
+     * @param onElected Called when this replica becomes the leader
+     * @param onDeposed Called when this replica stops being the leader
+     */
+    public LeaderElector(Vertx vertx, LeaseOperator leaseOperator, String leaseNamespace, String identity, long leaseDurationMs,
+                         Runnable onElected, Runnable onDeposed) {
+        this.vertx = vertx;
+        this.leaseOperator = leaseOperator;
+        this.leaseNamespace = leaseNamespace;
+        this.identity = identity;
+        this.leaseDurationMs = leaseDurationMs;
+        this.onElected = onElected;
+        this.onDeposed = onDeposed;
+    }
+
+    /**
+     * Makes a first attempt to become the leader, then keeps trying, or renewing the leadership, until {@link #stop()} is called.
+     * @return A future which completes when the first attempt has finished.
+     */
+    public Future<Void> start() {
+        log.info("Starting leader election as {}", identity);
+        return renew().map(v -> {
+            timerId = vertx.setPeriodic(Math.max(1, leaseDurationMs / 3), id -> renew());
+            return null;
+        });
+    }
+
+    /**
+     * Stops leading, if this replica is the leader, and releases the lease so that
+     * another replica can become the leader straight away.
+     * @return A future which completes when the lease has been released.
+     */
+    public Future<Void> stop() {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+        if (leader) {
+            depose();
+        }
+        return leaseOperator.release(leaseNamespace, LEADER_LEASE_NAME, identity);
+    }
+
+    /**
+     * @return Whether this replica is the leader.
+     */
+    public boolean isLeader() {
+        return leader;
+    }
+
+    /*test*/ Future<Void> renew() {
+        long now = System.currentTimeMillis();
+        if (renewing) {
+            if (leader && now - lastRenewMs >= renewDeadlineMs()) {
+                log.warn("{} has not renewed the leadership in time, the request to renew it is still outstanding", identity);
+                depose();
+            }
+            return Future.succeededFuture();
+        }
+        renewing = true;
+        Future<Void> result = Future.future();
+        leaseOperator.tryAcquireOrRenew(leaseNamespace, LEADER_LEASE_NAME, identity, leaseDurationMs, LEADER_LABELS).setHandler(ar -> {
+            renewing = false;
+            if (ar.succeeded() && ar.result()) {
+                lastRenewMs = now;
+                if (!leader && System.currentTimeMillis() - now >= renewDeadlineMs()) {
+                    // Took so long that the lease is about to expire again
+                    log.warn("{} acquired the leadership too late to lead", identity);
+                } else if (!leader) {
+                    log.info("{} is now the leader", identity);
+                    leader = true;
+                    onElected.run();
+                }
+            } else if (ar.succeeded()) {
+                if (leader) {
+                    log.warn("{} lost the leadership to another replica", identity);
+                    depose();
+                }
+            } else if (leader && System.currentTimeMillis() - lastRenewMs >= renewDeadlineMs()) {
+                log.warn("{} failed to renew the leadership in time", identity, ar.cause());
+                depose();
+            } else {
+                log.warn("Failed to {} the leadership", leader ? "renew" : "acquire", ar.cause());
+            }
+            result.complete();
+        });
+        return result;
+    }
+
+    /**
+     * @return How long the leader keeps leading without renewing the lease.
+     */
+    private long renewDeadlineMs() {
+        return leaseDurationMs * 2 / 3;
+    }
+
+    private void depose() {
+        leader = false;
+        onDeposed.run();
+    }
+}
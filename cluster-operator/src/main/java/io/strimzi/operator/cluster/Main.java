@@ -17,9 +17,16 @@ import io.strimzi.operator.cluster.operator.assembly.KafkaConnectAssemblyOperato
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectS2IAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMakerAssemblyOperator;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.common.AbstractOperator;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.MicrometerMetricsProvider;
+import io.strimzi.operator.common.WorkerPool;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.PasswordGenerator;
 import io.strimzi.operator.common.operator.resource.ClusterRoleOperator;
+import io.strimzi.operator.common.operator.resource.LeaseOperator;
 import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
@@ -33,8 +40,16 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static java.util.Arrays.asList;
+
 @SuppressFBWarnings("DM_EXIT")
 public class Main {
     private static final Logger log = LogManager.getLogger(Main.class.getName());
@@ -50,7 +65,11 @@ public class Main {
     public static void main(String[] args) {
         log.info("ClusterOperator {} is starting", Main.class.getPackage().getImplementationVersion());
         ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(System.getenv());
-        Vertx vertx = Vertx.vertx();
+        Vertx vertx = Vertx.vertx(MicrometerMetricsProvider.vertxOptions());
+        Map<String, String> env = new HashMap<>(System.getenv());
+        // Each reconciliation can be rolling a Kafka cluster, which keeps a thread of its own busy
+        env.putIfAbsent(WorkerPool.KAFKA_ROLLER.sizeEnvVar(), String.valueOf(config.getMaxConcurrentReconciliations()));
+        WorkerPools.configure(vertx, env);
         KubernetesClient client = new DefaultKubernetesClient();
 
         maybeCreateClusterRoles(vertx, config, client).setHandler(crs -> {
@@ -77,10 +96,12 @@ public class Main {
         });
     }
 
-    static CompositeFuture run(Vertx vertx, KubernetesClient client, PlatformFeaturesAvailability pfa, ClusterOperatorConfig config) {
+    static Future<Void> run(Vertx vertx, KubernetesClient client, PlatformFeaturesAvailability pfa, ClusterOperatorConfig config) {
         printEnvInfo();
 
-        ResourceOperatorSupplier resourceOperatorSupplier = new ResourceOperatorSupplier(vertx, client, pfa, config.getOperationTimeoutMs());
+        MetricsProvider metricsProvider = new MicrometerMetricsProvider();
+        ResourceOperatorSupplier resourceOperatorSupplier = new ResourceOperatorSupplier(vertx, client, pfa, config.getOperationTimeoutMs(),
+                config.getKafkaRollingOptions());
 
         OpenSslCertManager certManager = new OpenSslCertManager();
         PasswordGenerator passwordGenerator = new PasswordGenerator(12,
@@ -94,10 +115,11 @@ public class Main {
         KafkaConnectAssemblyOperator kafkaConnectClusterOperations = new KafkaConnectAssemblyOperator(vertx, pfa,
                 certManager, passwordGenerator, resourceOperatorSupplier, config);
 
-        KafkaConnectS2IAssemblyOperator kafkaConnectS2IClusterOperations = null;
+        KafkaConnectS2IAssemblyOperator kafkaConnectS2IClusterOperations;
         if (pfa.hasBuilds() && pfa.hasApps() && pfa.hasImages()) {
             kafkaConnectS2IClusterOperations = new KafkaConnectS2IAssemblyOperator(vertx, pfa, certManager, passwordGenerator, resourceOperatorSupplier, config);
         } else {
+            kafkaConnectS2IClusterOperations = null;
             log.info("The KafkaConnectS2I custom resource definition can only be used in environment which supports OpenShift build, image and apps APIs. These APIs do not seem to be supported in this environment.");
         }
 
@@ -107,30 +129,174 @@ public class Main {
         KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator =
                 new KafkaBridgeAssemblyOperator(vertx, pfa, certManager, passwordGenerator, resourceOperatorSupplier, config);
 
-        List<Future> futures = new ArrayList<>();
-        for (String namespace : config.getNamespaces()) {
-            Future<String> fut = Future.future();
-            futures.add(fut);
+        Function<String, Future<String>> deploy = namespace -> {
             ClusterOperator operator = new ClusterOperator(namespace,
                     config.getReconciliationIntervalMs(),
-                    client,
                     kafkaClusterOperations,
                     kafkaConnectClusterOperations,
                     kafkaConnectS2IClusterOperations,
                     kafkaMirrorMakerAssemblyOperator,
-                    kafkaBridgeAssemblyOperator);
-            vertx.deployVerticle(operator,
-                res -> {
-                    if (res.succeeded()) {
-                        log.info("Cluster Operator verticle started in namespace {}", namespace);
-                    } else {
-                        log.error("Cluster Operator verticle in namespace {} failed to start", namespace, res.cause());
-                        System.exit(1);
+                    kafkaBridgeAssemblyOperator,
+                    metricsProvider);
+            Future<Void> caches = config.isResourceCacheEnabled() ? resourceOperatorSupplier.enableCaches(namespace) : Future.succeededFuture();
+            return caches.compose(ignored -> {
+                Future<String> deployed = Future.future();
+                vertx.deployVerticle(operator, deployed);
+                return deployed;
+            });
+        };
+
+        List<AbstractOperator<?, ?>> operators = new ArrayList<>(asList(kafkaClusterOperations, kafkaConnectClusterOperations,
+                kafkaMirrorMakerAssemblyOperator, kafkaBridgeAssemblyOperator));
+        if (kafkaConnectS2IClusterOperations != null) {
+            operators.add(kafkaConnectS2IClusterOperations);
+        }
+
+        if (config.isNamespaceShardingEnabled()) {
+            // Once the namespace's watches are closed, drop its queued reconciliations and wait for the running ones,
+            // so that they don't overlap with those of the replica which acquires the namespace next
+            Function<String, Future<Void>> undeployed = namespace -> {
+                List<Future> forgotten = new ArrayList<>(operators.size());
+                for (AbstractOperator<?, ?> operator : operators) {
+                    forgotten.add(operator.forgetNamespace(namespace));
+                }
+                return CompositeFuture.join(forgotten).map(v -> {
+                    if (config.isResourceCacheEnabled()) {
+                        resourceOperatorSupplier.disableCaches(namespace);
                     }
-                    fut.handle(res);
+                    return null;
                 });
+            };
+            return runSharded(vertx, client, config, deploy, undeployed, metricsProvider);
+        }
+
+        if (config.isLeaderElectionEnabled()) {
+            // Stand by until elected: the watches and caches are set up as usual, but nothing is reconciled
+            operators.forEach(AbstractOperator::pause);
+        }
+
+        List<Future> futures = new ArrayList<>();
+        for (String namespace : config.getNamespaces()) {
+            Future<String> fut = Future.future();
+            futures.add(fut);
+            deploy.apply(namespace).setHandler(res -> {
+                if (res.succeeded()) {
+                    log.info("Cluster Operator verticle started in namespace {}", namespace);
+                } else {
+                    log.error("Cluster Operator verticle in namespace {} failed to start", namespace, res.cause());
+                    System.exit(1);
+                }
+                fut.handle(res);
+            });
         }
-        return CompositeFuture.join(futures);
+        Future<Void> deployed = CompositeFuture.join(futures).map((Void) null);
+        if (config.isLeaderElectionEnabled()) {
+            return deployed.compose(v -> runLeaderElection(vertx, client, config, operators));
+        }
+        return deployed;
+    }
+
+    /**
+     * Starts the leader election. The operators are resumed when this replica is elected.
+     * If it is deposed, the operators are paused and the process exits, so that no reconciliation started
+     * while leading still runs once another replica has become the leader.
+     */
+    private static Future<Void> runLeaderElection(Vertx vertx, KubernetesClient client, ClusterOperatorConfig config,
+                                                  List<AbstractOperator<?, ?>> operators) {
+        String leaseNamespace = config.getLeaseNamespace() != null ? config.getLeaseNamespace() : client.getNamespace();
+        String identity = System.getenv("HOSTNAME") != null ? System.getenv("HOSTNAME") : UUID.randomUUID().toString();
+
+        AtomicBoolean shuttingDown = new AtomicBoolean(false);
+        LeaderElector elector = new LeaderElector(vertx, new LeaseOperator(vertx, client), leaseNamespace, identity,
+                config.getLeaseDurationMs(),
+            () -> {
+                for (AbstractOperator<?, ?> operator : operators) {
+                    operator.resume();
+                    for (String namespace : config.getNamespaces()) {
+                        operator.reconcileAll("leader election", namespace, ignored -> { });
+                    }
+                }
+            },
+            () -> {
+                operators.forEach(AbstractOperator::pause);
+                if (!shuttingDown.get()) {
+                    log.error("{} is no longer the leader, exiting", identity);
+                    // Not on the event loop, which the shutdown hooks use
+                    vertx.executeBlocking(fut -> System.exit(1), ignored -> { });
+                }
+            });
+
+        // Release the leadership on shutdown, so that a standby takes over without waiting for the lease to expire
+        releaseOnShutdown(vertx, "leader-election-shutdown", () -> {
+            shuttingDown.set(true);
+            return elector.stop();
+        }, config.getLeaseDurationMs());
+
+        return elector.start();
+    }
+
+    /**
+     * Adds a shutdown hook which releases the leases held by this replica, waiting at most {@code timeoutMs} for it.
+     * @param release Releases the leases. Called on the current Vert.x context.
+     */
+    private static void releaseOnShutdown(Vertx vertx, String threadName, Supplier<Future<Void>> release, long timeoutMs) {
+        Context context = vertx.getOrCreateContext();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            CountDownLatch released = new CountDownLatch(1);
+            context.runOnContext(v -> release.get().setHandler(ar -> released.countDown()));
+            try {
+                released.await(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, threadName));
+    }
+
+    /**
+     * Splits the namespaces between the replicas of the operator, deploying a verticle for each namespace
+     * acquired by this replica and undeploying it when the namespace is handed over to another replica.
+     * The namespace's lease is only released once {@code undeployed} has completed for it.
+     */
+    private static Future<Void> runSharded(Vertx vertx, KubernetesClient client, ClusterOperatorConfig config,
+                                           Function<String, Future<String>> deploy, Function<String, Future<Void>> undeployed,
+                                           MetricsProvider metricsProvider) {
+        String leaseNamespace = config.getLeaseNamespace() != null ? config.getLeaseNamespace() : client.getNamespace();
+        String identity = System.getenv("HOSTNAME") != null ? System.getenv("HOSTNAME") : UUID.randomUUID().toString();
+        Map<String, String> deploymentIds = new HashMap<>();
+
+        NamespaceSharding sharding = new NamespaceSharding(vertx, new LeaseOperator(vertx, client), leaseNamespace, identity,
+                config.getLeaseDurationMs(), config.getNamespaces(),
+            namespace -> deploy.apply(namespace).map(deploymentId -> {
+                log.info("Cluster Operator verticle started in namespace {}", namespace);
+                deploymentIds.put(namespace, deploymentId);
+                return null;
+            }),
+            namespace -> {
+                String deploymentId = deploymentIds.remove(namespace);
+                if (deploymentId == null) {
+                    return undeployed.apply(namespace);
+                }
+                Future<Void> undeploy = Future.future();
+                vertx.undeploy(deploymentId, undeploy);
+                Future<Void> result = Future.future();
+                undeploy.setHandler(ar -> {
+                    if (ar.succeeded()) {
+                        log.info("Cluster Operator verticle stopped in namespace {}", namespace);
+                    } else {
+                        log.error("Cluster Operator verticle in namespace {} failed to stop", namespace, ar.cause());
+                    }
+                    // Even if the verticle failed to stop, the reconciliations of the namespace have to be stopped
+                    undeployed.apply(namespace).setHandler(stopped -> result.handle(ar.failed() ? ar : stopped));
+                });
+                return result;
+            });
+
+        // Release the namespaces on shutdown, so that the other replicas acquire them without waiting for the leases to expire
+        releaseOnShutdown(vertx, "namespace-sharding-shutdown", sharding::stop, config.getLeaseDurationMs());
+
+        // The health server must be available even while this replica holds no namespace
+        return ClusterOperator.startHealthServer(vertx, metricsProvider)
+                .compose(server -> sharding.start());
     }
 
     /*test*/ static Future<Void> maybeCreateClusterRoles(Vertx vertx, ClusterOperatorConfig config, KubernetesClient client)  {
@@ -0,0 +1,326 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster;
+
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.Lease;
+import io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator;
+import io.strimzi.operator.common.operator.resource.LeaseOperator;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * <p>Splits the watched namespaces between the replicas of the Cluster Operator, so that each namespace is
+ * operated by exactly one replica.</p>
+ *
+ * <p>Each replica holds a <em>member</em> lease for as long as it is alive, and each namespace is a
+ * <em>shard</em> with a lease of its own. Periodically each replica renews its leases, counts the live members
+ * and then releases or acquires shards so that it holds no more than its fair share of them.
+ * When a replica dies its leases expire and its namespaces are acquired by the surviving replicas.</p>
+ *
+ * <p>A namespace which is released keeps its lease renewed until the replica has stopped operating it,
+ * so that no other replica acquires it while its reconciliations are still running.
+ * A rebalance which takes longer than the lease duration, for example because a request to the Kubernetes API hangs,
+ * is abandoned, and the leases which could not be renewed in the meantime still expire.</p>
+ *
+ * <p>All the methods must be called on the Vert.x context which created the instance.</p>
+ */
+public class NamespaceSharding {
+
+    private static final Logger log = LogManager.getLogger(NamespaceSharding.class.getName());
+
+    static final String MEMBER_LEASE_PREFIX = "strimzi-cluster-operator-member-";
+    static final String SHARD_LEASE_PREFIX = "strimzi-cluster-operator-shard-";
+    static final String ALL_NAMESPACES_SHARD = "all-namespaces";
+    static final Labels MEMBER_LABELS = Labels.forKind("cluster-operator-member");
+    static final Labels SHARD_LABELS = Labels.forKind("cluster-operator-shard");
+
+    private final Vertx vertx;
+    private final LeaseOperator leaseOperator;
+    private final String leaseNamespace;
+    private final String identity;
+    private final long leaseDurationMs;
+    private final List<String> namespaces;
+    private final Function<String, Future<Void>> onAcquired;
+    private final Function<String, Future<Void>> onLost;
+
+    /** The namespaces held by this replica, with the time at which their leases were last renewed */
+    private final Map<String, Long> owned = new HashMap<>();
+    /** The namespaces this replica is stopping operating, with a future which completes once it has */
+    private final Map<String, Future<Void>> losing = new HashMap<>();
+    /** The number of the rebalance in progress, so that an abandoned rebalance doesn't affect later ones */
+    private int rebalance = 0;
+    private boolean rebalancing = false;
+    private long rebalanceStartMs;
+    private long timerId = -1;
+
+    /**
+     * Constructor
+     *
+     * @param vertx The Vertx instance
+     * @param leaseOperator The operator for the leases
+     * @param leaseNamespace The namespace of the leases
+     * @param identity The identity of this replica, unique between the replicas
+     * @param leaseDurationMs How long a lease is held without being renewed, in milliseconds
+     * @param namespaces The namespaces to split between the replicas
+     * @param onAcquired Called to start operating a namespace acquired by this replica
+     * @param onLost Called to stop operating a namespace this replica no longer holds
+     */
+    public NamespaceSharding(Vertx vertx, LeaseOperator leaseOperator, String leaseNamespace, String identity, long leaseDurationMs,
+                             Set<String> namespaces, Function<String, Future<Void>> onAcquired, Function<String, Future<Void>> onLost) {
+        this.vertx = vertx;
+        this.leaseOperator = leaseOperator;
+        this.leaseNamespace = leaseNamespace;
+        this.identity = identity;
+        this.leaseDurationMs = leaseDurationMs;
+        this.onAcquired = onAcquired;
+        this.onLost = onLost;
+
+        // Start from a different namespace on each replica so that they don't all race for the same leases
+        List<String> sorted = new ArrayList<>(namespaces);
+        sorted.sort(String::compareTo);
+        int offset = sorted.isEmpty() ? 0 : Math.floorMod(identity.hashCode(), sorted.size());
+        this.namespaces = new ArrayList<>(sorted.subList(offset, sorted.size()));
+        this.namespaces.addAll(sorted.subList(0, offset));
+    }
+
+    static String shardLeaseName(String namespace) {
+        return SHARD_LEASE_PREFIX + (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace) ? ALL_NAMESPACES_SHARD : namespace);
+    }
+
+    private String memberLeaseName() {
+        return MEMBER_LEASE_PREFIX + identity;
+    }
+
+    /**
+     * Joins the replicas and acquires this replica's first shards, then keeps the shards balanced
+     * until {@link #stop()} is called.
+     * @return A future which completes when the first rebalance has finished.
+     */
+    public Future<Void> start() {
+        log.info("Splitting namespaces {} between the Cluster Operator replicas as {}", namespaces, identity);
+        return rebalance().map(v -> {
+            timerId = vertx.setPeriodic(Math.max(1, leaseDurationMs / 3), id -> rebalance());
+            return null;
+        });
+    }
+
+    /**
+     * Stops operating all the namespaces held by this replica and releases their leases,
+     * so that the other replicas can acquire them straight away.
+     * @return A future which completes when the leases have been released.
+     */
+    public Future<Void> stop() {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+        Future<Void> result = Future.succeededFuture();
+        for (String namespace : new ArrayList<>(owned.keySet())) {
+            result = result.compose(v -> lose(namespace, true));
+        }
+        return result.compose(v -> leaseOperator.release(leaseNamespace, memberLeaseName(), identity));
+    }
+
+    /**
+     * @return The namespaces currently held by this replica.
+     */
+    public Set<String> ownedNamespaces() {
+        return new HashSet<>(owned.keySet());
+    }
+
+    /**
+     * Renews the leases held by this replica, then releases or acquires shards to hold this replica's fair share of them.
+     * @return A future which completes when the rebalance has finished.
+     */
+    /*test*/ Future<Void> rebalance() {
+        if (!rebalancing) {
+            return startRebalance();
+        }
+        // Don't wait for the rebalance in progress to stop operating the namespaces whose leases have expired
+        Future<Void> expired = expireOwned();
+        if (System.currentTimeMillis() - rebalanceStartMs < leaseDurationMs) {
+            return expired;
+        }
+        log.warn("Abandoning a rebalance which has not finished within {}ms", leaseDurationMs);
+        return expired.compose(v -> startRebalance());
+    }
+
+    private Future<Void> startRebalance() {
+        int thisRebalance = ++rebalance;
+        rebalancing = true;
+        rebalanceStartMs = System.currentTimeMillis();
+        Future<Void> result = Future.future();
+        leaseOperator.tryAcquireOrRenew(leaseNamespace, memberLeaseName(), identity, leaseDurationMs, MEMBER_LABELS)
+            .compose(member -> leaseOperator.listAsync(leaseNamespace, MEMBER_LABELS))
+            .compose(members -> {
+                long live = Math.max(1, members.stream().filter(leaseOperator::isHeld).count());
+                int target = (int) ((namespaces.size() + live - 1) / live);
+                return renewOwned().compose(v -> releaseSurplus(target)).compose(v -> acquire(target));
+            })
+            .setHandler(ar -> {
+                if (thisRebalance != rebalance) {
+                    result.complete();
+                    return;
+                }
+                rebalancing = false;
+                if (ar.failed()) {
+                    log.warn("Failed to rebalance the namespaces between the Cluster Operator replicas", ar.cause());
+                    expireOwned().setHandler(result);
+                } else {
+                    result.complete();
+                }
+            });
+        return result;
+    }
+
+    private Future<Void> renewOwned() {
+        Future<Void> result = Future.succeededFuture();
+        for (String namespace : new ArrayList<>(owned.keySet())) {
+            result = result.compose(v -> {
+                if (!owned.containsKey(namespace)) {
+                    return Future.succeededFuture();
+                }
+                Future<Void> renewed = Future.future();
+                long now = System.currentTimeMillis();
+                leaseOperator.tryAcquireOrRenew(leaseNamespace, shardLeaseName(namespace), identity, leaseDurationMs, SHARD_LABELS).setHandler(ar -> {
+                    if (ar.succeeded() && ar.result()) {
+                        owned.computeIfPresent(namespace, (k, renewedMs) -> now);
+                        renewed.complete();
+                    } else if (ar.succeeded()) {
+                        log.warn("The lease of namespace {} was acquired by another replica", namespace);
+                        lose(namespace, false);
+                        renewed.complete();
+                    } else {
+                        log.warn("Failed to renew the lease of namespace {}", namespace, ar.cause());
+                        renewed.complete();
+                    }
+                });
+                return renewed;
+            });
+        }
+        return result.compose(v -> expireOwned());
+    }
+
+    /**
+     * Stops operating the namespaces whose leases could not be renewed within their duration,
+     * since another replica might have acquired them in the meantime.
+     */
+    private Future<Void> expireOwned() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Long> entry : new ArrayList<>(owned.entrySet())) {
+            if (now - entry.getValue() >= leaseDurationMs) {
+                log.warn("The lease of namespace {} has expired", entry.getKey());
+                lose(entry.getKey(), false);
+            }
+        }
+        return Future.succeededFuture();
+    }
+
+    private Future<Void> releaseSurplus(int target) {
+        // The namespaces which are already being released are not part of the surplus
+        List<String> surplus = new ArrayList<>(owned.keySet());
+        surplus.removeAll(losing.keySet());
+        surplus.sort(String::compareTo);
+        for (String namespace : surplus.subList(0, Math.max(0, surplus.size() - target))) {
+            log.info("Releasing namespace {} to another replica", namespace);
+            lose(namespace, true);
+        }
+        return Future.succeededFuture();
+    }
+
+    private Future<Void> acquire(int target) {
+        if (owned.size() >= target) {
+            return Future.succeededFuture();
+        }
+        return leaseOperator.listAsync(leaseNamespace, SHARD_LABELS).compose(shards -> {
+            Set<String> held = new HashSet<>();
+            for (Lease shard : shards) {
+                // This replica's own leases can be held after it stopped operating their namespaces
+                if (leaseOperator.isHeld(shard) && !leaseOperator.isHeldBy(shard, identity)) {
+                    held.add(shard.getMetadata().getName());
+                }
+            }
+            Future<Void> result = Future.succeededFuture();
+            for (String namespace : namespaces) {
+                if (!owned.containsKey(namespace) && !losing.containsKey(namespace) && !held.contains(shardLeaseName(namespace))) {
+                    result = result.compose(v -> owned.size() < target ? tryAcquire(namespace) : Future.succeededFuture());
+                }
+            }
+            return result;
+        });
+    }
+
+    private Future<Void> tryAcquire(String namespace) {
+        long now = System.currentTimeMillis();
+        return leaseOperator.tryAcquireOrRenew(leaseNamespace, shardLeaseName(namespace), identity, leaseDurationMs, SHARD_LABELS)
+            .compose(acquired -> {
+                if (!acquired) {
+                    return Future.succeededFuture();
+                }
+                log.info("Acquired namespace {}", namespace);
+                owned.put(namespace, now);
+                Future<Void> started = Future.future();
+                onAcquired.apply(namespace).setHandler(ar -> {
+                    if (ar.succeeded()) {
+                        started.complete();
+                    } else {
+                        log.error("Failed to start operating namespace {}", namespace, ar.cause());
+                        lose(namespace, true).setHandler(started);
+                    }
+                });
+                return started;
+            });
+    }
+
+    /**
+     * Stops operating the given namespace and, if {@code release}, releases its lease.
+     * A lease which is to be released is kept renewed until the namespace is no longer operated,
+     * so the rebalances don't wait for the returned future.
+     */
+    private Future<Void> lose(String namespace, boolean release) {
+        Future<Void> losingFuture = losing.get(namespace);
+        if (losingFuture != null) {
+            if (!release) {
+                // The lease can no longer be renewed
+                owned.remove(namespace);
+            }
+            return losingFuture;
+        }
+        if (!release) {
+            owned.remove(namespace);
+        }
+        Future<Void> result = Future.future();
+        losing.put(namespace, result);
+        onLost.apply(namespace).setHandler(ar -> {
+            if (ar.failed()) {
+                log.error("Failed to stop operating namespace {}", namespace, ar.cause());
+            }
+            owned.remove(namespace);
+            losing.remove(namespace);
+            if (release) {
+                leaseOperator.release(leaseNamespace, shardLeaseName(namespace), identity).setHandler(released -> {
+                    if (released.failed()) {
+                        log.warn("Failed to release the lease of namespace {}", namespace, released.cause());
+                    }
+                    result.complete();
+                });
+            } else {
+                result.complete();
+            }
+        });
+        return result;
+    }
+}
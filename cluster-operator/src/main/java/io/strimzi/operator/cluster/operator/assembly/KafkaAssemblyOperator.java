@@ -42,6 +42,7 @@ import io.strimzi.api.kafka.model.status.ListenerAddress;
 import io.strimzi.api.kafka.model.status.ListenerAddressBuilder;
 import io.strimzi.api.kafka.model.status.ListenerStatus;
 import io.strimzi.api.kafka.model.status.ListenerStatusBuilder;
+import io.strimzi.api.kafka.model.status.RollingUpdateStatus;
 import io.strimzi.api.kafka.model.storage.Storage;
 import io.strimzi.certs.CertManager;
 import io.strimzi.operator.PlatformFeaturesAvailability;
@@ -71,6 +72,10 @@ import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.common.InvalidConfigurationException;
 import io.strimzi.operator.common.PasswordGenerator;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.StepGraph;
+import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPool;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.operator.resource.AbstractScalableResourceOperator;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
@@ -85,10 +90,12 @@ import io.strimzi.operator.common.operator.resource.StorageClassOperator;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.quartz.CronExpression;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -96,11 +103,13 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.TreeMap;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -131,6 +140,8 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
     public static final String ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE = Annotations.STRIMZI_DOMAIN + "/manual-rolling-update";
     @Deprecated
     public static final String ANNO_OP_STRIMZI_IO_MANUAL_ROLLING_UPDATE = "operator.strimzi.io/manual-rolling-update";
+    /** The reason for a manual rolling update, which restarts all the pods of the same generation of the StatefulSet */
+    private static final String ROLLING_UPDATE_REASON_MANUAL = "manual-rolling-update";
 
     private final long operationTimeoutMs;
 
@@ -144,6 +155,9 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
     private final IngressOperator ingressOperations;
     private final StorageClassOperator storageClassOperator;
     private final CrdOperator<KubernetesClient, Kafka, KafkaList, DoneableKafka> crdOperator;
+    private final StepGraph<ReconciliationState> reconcileSteps;
+    private final WorkerExecutor kubernetesPool;
+    private final WorkerExecutor processPool;
 
     /**
      * @param vertx The Vertx instance
@@ -170,6 +184,18 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         this.ingressOperations = supplier.ingressOperations;
         this.storageClassOperator = supplier.storageClassOperations;
         this.crdOperator = supplier.kafkaOperator;
+        this.kubernetesPool = WorkerPools.executor(vertx, WorkerPool.KUBERNETES);
+        this.processPool = WorkerPools.executor(vertx, WorkerPool.PROCESS);
+        this.reconcileSteps = reconcileSteps();
+    }
+
+    /**
+     * The resources of a deleted cluster are deleted by garbage collection, but the clients to it have to be closed.
+     */
+    @Override
+    protected Future<Boolean> delete(Reconciliation reconciliation) {
+        zkSetOperations.forgetCluster(reconciliation.namespace(), reconciliation.name());
+        return super.delete(reconciliation);
     }
 
     @Override
@@ -207,6 +233,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             }
 
             status.setConditions(Collections.singletonList(readyCondition));
+            status.setRollingUpdates(rollingUpdates(kafkaAssembly));
             reconcileState.updateStatus(status).setHandler(statusResult -> {
                 if (statusResult.succeeded())    {
                     log.debug("Status for {} is up to date", kafkaAssembly.getMetadata().getName());
@@ -229,94 +256,145 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         return createOrUpdateFuture;
     }
 
+    /**
+     * Returns the summaries of the last rolling updates of the Zookeeper and Kafka StatefulSets:
+     * those of the rolling updates which restarted pods during this reconciliation,
+     * and otherwise those already in the status of the Kafka resource.
+     *
+     * @param kafkaAssembly The Kafka resource.
+     * @return The summaries, or null if there are none.
+     */
+    private List<RollingUpdateStatus> rollingUpdates(Kafka kafkaAssembly) {
+        String namespace = kafkaAssembly.getMetadata().getNamespace();
+        String name = kafkaAssembly.getMetadata().getName();
+        Map<String, RollingUpdateStatus> byComponent = new LinkedHashMap<>();
+        if (kafkaAssembly.getStatus() != null && kafkaAssembly.getStatus().getRollingUpdates() != null) {
+            for (RollingUpdateStatus previous : kafkaAssembly.getStatus().getRollingUpdates()) {
+                byComponent.put(previous.getComponent(), previous);
+            }
+        }
+        RollingUpdateStatus zkRollingUpdate = zkSetOperations.takeRollingUpdateStatus(namespace, ZookeeperCluster.zookeeperClusterName(name));
+        if (zkRollingUpdate != null) {
+            byComponent.put(zkRollingUpdate.getComponent(), zkRollingUpdate);
+        }
+        RollingUpdateStatus kafkaRollingUpdate = kafkaSetOperations.takeRollingUpdateStatus(namespace, KafkaCluster.kafkaClusterName(name));
+        if (kafkaRollingUpdate != null) {
+            byComponent.put(kafkaRollingUpdate.getComponent(), kafkaRollingUpdate);
+        }
+        return byComponent.isEmpty() ? null : new ArrayList<>(byComponent.values());
+    }
+
     Future<Void> reconcile(ReconciliationState reconcileState)  {
-        Future<Void> chainFuture = Future.future();
+        return reconcileSteps.execute(reconcileState.reconciliation, reconcileState).map((Void) null);
+    }
 
-        reconcileState.reconcileCas(this::dateSupplier)
-                .compose(state -> state.clusterOperatorSecret())
+    /**
+     * Builds the graph of the steps of a reconciliation.
+     * Steps which don't depend on each other run concurrently, so they must not modify the same parts of the
+     * {@link ReconciliationState}. The Zookeeper cluster is always reconciled before the Kafka cluster, and the
+     * Kafka certificates are generated (from the external addresses) before the Kafka StatefulSet is reconciled.
+     *
+     * @return The graph of the reconciliation steps.
+     */
+    private StepGraph<ReconciliationState> reconcileSteps() {
+        return new StepGraph<ReconciliationState>(metrics)
+                .step("reconcileCas", state -> state.reconcileCas(this::dateSupplier))
+                .step("clusterOperatorSecret", ReconciliationState::clusterOperatorSecret, "reconcileCas")
                 // Roll everything if a new CA is added to the trust store.
-                .compose(state -> state.rollingUpdateForNewCaKey())
-                .compose(state -> state.getZookeeperDescription())
-                .compose(state -> state.zkManualPodCleaning())
-                .compose(state -> state.zkNetPolicy())
-                .compose(state -> state.zkManualRollingUpdate())
-                .compose(state -> state.zookeeperServiceAccount())
-                .compose(state -> state.zkPvcs())
-                .compose(state -> state.zkScaleUpStep())
-                .compose(state -> state.zkScaleDown())
-                .compose(state -> state.zkService())
-                .compose(state -> state.zkHeadlessService())
-                .compose(state -> state.zkAncillaryCm())
-                .compose(state -> state.zkNodesSecret())
-                .compose(state -> state.zkPodDisruptionBudget())
-                .compose(state -> state.zkStatefulSet())
-                .compose(state -> state.zkScaleUp())
-                .compose(state -> state.zkRollingUpdate())
-                .compose(state -> state.zkPodsReady())
-                .compose(state -> state.zkServiceEndpointReadiness())
-                .compose(state -> state.zkHeadlessServiceEndpointReadiness())
-                .compose(state -> state.zkPersistentClaimDeletion())
-
-                .compose(state -> state.getKafkaClusterDescription())
-                .compose(state -> state.kafkaManualPodCleaning())
-                .compose(state -> state.kafkaNetPolicy())
-                .compose(state -> state.kafkaManualRollingUpdate())
-                .compose(state -> state.kafkaUpgrade())
-                .compose(state -> state.kafkaPvcs())
-                .compose(state -> state.kafkaInitServiceAccount())
-                .compose(state -> state.kafkaInitClusterRoleBinding())
-                .compose(state -> state.kafkaScaleDown())
-                .compose(state -> state.kafkaService())
-                .compose(state -> state.kafkaHeadlessService())
-                .compose(state -> state.kafkaExternalBootstrapService())
-                .compose(state -> state.kafkaReplicaServices())
-                .compose(state -> state.kafkaBootstrapRoute())
-                .compose(state -> state.kafkaReplicaRoutes())
-                .compose(state -> state.kafkaBootstrapIngress())
-                .compose(state -> state.kafkaReplicaIngress())
-                .compose(state -> state.kafkaExternalBootstrapServiceReady())
-                .compose(state -> state.kafkaReplicaServicesReady())
-                .compose(state -> state.kafkaBootstrapRouteReady())
-                .compose(state -> state.kafkaReplicaRoutesReady())
-                .compose(state -> state.kafkaGenerateCertificates())
-                .compose(state -> state.kafkaAncillaryCm())
-                .compose(state -> state.kafkaBrokersSecret())
-                .compose(state -> state.kafkaPodDisruptionBudget())
-                .compose(state -> state.kafkaStatefulSet())
-                .compose(state -> state.kafkaRollingUpdate())
-                .compose(state -> state.kafkaScaleUp())
-                .compose(state -> state.kafkaPodsReady())
-                .compose(state -> state.kafkaServiceEndpointReady())
-                .compose(state -> state.kafkaHeadlessServiceEndpointReady())
-                .compose(state -> state.kafkaPersistentClaimDeletion())
-
-                .compose(state -> state.getTopicOperatorDescription())
-                .compose(state -> state.topicOperatorServiceAccount())
-                .compose(state -> state.topicOperatorRoleBinding())
-                .compose(state -> state.topicOperatorAncillaryCm())
-                .compose(state -> state.topicOperatorSecret())
-                .compose(state -> state.topicOperatorDeployment())
-
-                .compose(state -> state.getEntityOperatorDescription())
-                .compose(state -> state.entityOperatorServiceAccount())
-                .compose(state -> state.entityOperatorTopicOpRoleBinding())
-                .compose(state -> state.entityOperatorUserOpRoleBinding())
-                .compose(state -> state.entityOperatorTopicOpAncillaryCm())
-                .compose(state -> state.entityOperatorUserOpAncillaryCm())
-                .compose(state -> state.entityOperatorSecret())
-                .compose(state -> state.entityOperatorDeployment())
-                .compose(state -> state.entityOperatorReady())
-
-                .compose(state -> state.getKafkaExporterDescription())
-                .compose(state -> state.kafkaExporterServiceAccount())
-                .compose(state -> state.kafkaExporterSecret())
-                .compose(state -> state.kafkaExporterDeployment())
-                .compose(state -> state.kafkaExporterService())
-                .compose(state -> state.kafkaExporterReady())
-
-                .compose(state -> chainFuture.complete(), chainFuture);
-
-        return chainFuture;
+                .step("rollingUpdateForNewCaKey", ReconciliationState::rollingUpdateForNewCaKey, "clusterOperatorSecret")
+
+                .step("getZookeeperDescription", ReconciliationState::getZookeeperDescription, "rollingUpdateForNewCaKey")
+                .step("zkManualPodCleaning", ReconciliationState::zkManualPodCleaning, "getZookeeperDescription")
+                .step("zkNetPolicy", ReconciliationState::zkNetPolicy, "getZookeeperDescription")
+                .step("zookeeperServiceAccount", ReconciliationState::zookeeperServiceAccount, "getZookeeperDescription")
+                .step("zkService", ReconciliationState::zkService, "getZookeeperDescription")
+                .step("zkHeadlessService", ReconciliationState::zkHeadlessService, "getZookeeperDescription")
+                .step("zkManualRollingUpdate", ReconciliationState::zkManualRollingUpdate, "zkManualPodCleaning", "zkNetPolicy")
+                .step("zkPvcs", ReconciliationState::zkPvcs, "zkManualRollingUpdate")
+                // Scaling one node at a time changes the replicas of the Zookeeper model, so the steps generating
+                // resources which depend on the number of replicas have to wait for it
+                .step("zkScaleUpStep", ReconciliationState::zkScaleUpStep, "zkPvcs")
+                .step("zkScaleDown", ReconciliationState::zkScaleDown, "zkScaleUpStep")
+                .step("zkAncillaryCm", ReconciliationState::zkAncillaryCm, "zkScaleDown")
+                .step("zkNodesSecret", ReconciliationState::zkNodesSecret, "zkScaleDown")
+                .step("zkPodDisruptionBudget", ReconciliationState::zkPodDisruptionBudget, "zkScaleDown")
+                .step("zkStatefulSet", ReconciliationState::zkStatefulSet,
+                        "zookeeperServiceAccount", "zkService", "zkHeadlessService", "zkAncillaryCm", "zkNodesSecret", "zkPodDisruptionBudget")
+                .step("zkScaleUp", ReconciliationState::zkScaleUp, "zkStatefulSet")
+                .step("zkRollingUpdate", ReconciliationState::zkRollingUpdate, "zkScaleUp")
+                .step("zkPodsReady", ReconciliationState::zkPodsReady, "zkRollingUpdate")
+                .step("zkServiceEndpointReadiness", ReconciliationState::zkServiceEndpointReadiness, "zkPodsReady")
+                .step("zkHeadlessServiceEndpointReadiness", ReconciliationState::zkHeadlessServiceEndpointReadiness, "zkPodsReady")
+                .step("zkPersistentClaimDeletion", ReconciliationState::zkPersistentClaimDeletion,
+                        "zkServiceEndpointReadiness", "zkHeadlessServiceEndpointReadiness")
+
+                .step("getKafkaClusterDescription", ReconciliationState::getKafkaClusterDescription, "zkPersistentClaimDeletion")
+                .step("kafkaManualPodCleaning", ReconciliationState::kafkaManualPodCleaning, "getKafkaClusterDescription")
+                .step("kafkaNetPolicy", ReconciliationState::kafkaNetPolicy, "getKafkaClusterDescription")
+                .step("kafkaInitServiceAccount", ReconciliationState::kafkaInitServiceAccount, "getKafkaClusterDescription")
+                .step("kafkaInitClusterRoleBinding", ReconciliationState::kafkaInitClusterRoleBinding, "getKafkaClusterDescription")
+                .step("kafkaService", ReconciliationState::kafkaService, "getKafkaClusterDescription")
+                .step("kafkaHeadlessService", ReconciliationState::kafkaHeadlessService, "getKafkaClusterDescription")
+                .step("kafkaExternalBootstrapService", ReconciliationState::kafkaExternalBootstrapService, "getKafkaClusterDescription")
+                .step("kafkaReplicaServices", ReconciliationState::kafkaReplicaServices, "getKafkaClusterDescription")
+                .step("kafkaBootstrapRoute", ReconciliationState::kafkaBootstrapRoute, "getKafkaClusterDescription")
+                .step("kafkaReplicaRoutes", ReconciliationState::kafkaReplicaRoutes, "getKafkaClusterDescription")
+                .step("kafkaBootstrapIngress", ReconciliationState::kafkaBootstrapIngress, "getKafkaClusterDescription")
+                .step("kafkaReplicaIngress", ReconciliationState::kafkaReplicaIngress, "getKafkaClusterDescription")
+                .step("kafkaManualRollingUpdate", ReconciliationState::kafkaManualRollingUpdate, "kafkaManualPodCleaning", "kafkaNetPolicy")
+                .step("kafkaUpgrade", ReconciliationState::kafkaUpgrade, "kafkaManualRollingUpdate")
+                .step("kafkaPvcs", ReconciliationState::kafkaPvcs, "kafkaUpgrade")
+                .step("kafkaScaleDown", ReconciliationState::kafkaScaleDown, "kafkaPvcs", "kafkaInitServiceAccount", "kafkaInitClusterRoleBinding")
+                // The bootstrap steps collect the bootstrap addresses and the replica steps collect the per-broker
+                // addresses, so each of these two chains runs sequentially. They wait for all the services, routes
+                // and ingresses so that the status lists the plain and TLS listeners before the external one.
+                .step("kafkaExternalBootstrapServiceReady", ReconciliationState::kafkaExternalBootstrapServiceReady,
+                        "kafkaService", "kafkaHeadlessService", "kafkaExternalBootstrapService", "kafkaReplicaServices",
+                        "kafkaBootstrapRoute", "kafkaReplicaRoutes", "kafkaBootstrapIngress", "kafkaReplicaIngress")
+                .step("kafkaReplicaServicesReady", ReconciliationState::kafkaReplicaServicesReady,
+                        "kafkaService", "kafkaHeadlessService", "kafkaExternalBootstrapService", "kafkaReplicaServices",
+                        "kafkaBootstrapRoute", "kafkaReplicaRoutes", "kafkaBootstrapIngress", "kafkaReplicaIngress")
+                .step("kafkaBootstrapRouteReady", ReconciliationState::kafkaBootstrapRouteReady, "kafkaExternalBootstrapServiceReady")
+                .step("kafkaReplicaRoutesReady", ReconciliationState::kafkaReplicaRoutesReady, "kafkaReplicaServicesReady")
+                .step("kafkaGenerateCertificates", ReconciliationState::kafkaGenerateCertificates, "kafkaBootstrapRouteReady", "kafkaReplicaRoutesReady")
+                .step("kafkaAncillaryCm", ReconciliationState::kafkaAncillaryCm, "kafkaScaleDown")
+                .step("kafkaBrokersSecret", ReconciliationState::kafkaBrokersSecret, "kafkaGenerateCertificates")
+                .step("kafkaPodDisruptionBudget", ReconciliationState::kafkaPodDisruptionBudget, "kafkaScaleDown")
+                .step("kafkaStatefulSet", ReconciliationState::kafkaStatefulSet, "kafkaAncillaryCm", "kafkaBrokersSecret", "kafkaPodDisruptionBudget")
+                .step("kafkaRollingUpdate", ReconciliationState::kafkaRollingUpdate, "kafkaStatefulSet")
+                .step("kafkaScaleUp", ReconciliationState::kafkaScaleUp, "kafkaRollingUpdate")
+                .step("kafkaPodsReady", ReconciliationState::kafkaPodsReady, "kafkaScaleUp")
+                .step("kafkaServiceEndpointReady", ReconciliationState::kafkaServiceEndpointReady, "kafkaPodsReady")
+                .step("kafkaHeadlessServiceEndpointReady", ReconciliationState::kafkaHeadlessServiceEndpointReady, "kafkaPodsReady")
+                .step("kafkaPersistentClaimDeletion", ReconciliationState::kafkaPersistentClaimDeletion,
+                        "kafkaServiceEndpointReady", "kafkaHeadlessServiceEndpointReady")
+
+                .step("getTopicOperatorDescription", ReconciliationState::getTopicOperatorDescription, "kafkaPersistentClaimDeletion")
+                .step("topicOperatorServiceAccount", ReconciliationState::topicOperatorServiceAccount, "getTopicOperatorDescription")
+                .step("topicOperatorRoleBinding", ReconciliationState::topicOperatorRoleBinding, "getTopicOperatorDescription")
+                .step("topicOperatorAncillaryCm", ReconciliationState::topicOperatorAncillaryCm, "getTopicOperatorDescription")
+                .step("topicOperatorSecret", ReconciliationState::topicOperatorSecret, "getTopicOperatorDescription")
+                .step("topicOperatorDeployment", ReconciliationState::topicOperatorDeployment,
+                        "topicOperatorServiceAccount", "topicOperatorRoleBinding", "topicOperatorAncillaryCm", "topicOperatorSecret")
+
+                .step("getEntityOperatorDescription", ReconciliationState::getEntityOperatorDescription, "kafkaPersistentClaimDeletion")
+                .step("entityOperatorServiceAccount", ReconciliationState::entityOperatorServiceAccount, "getEntityOperatorDescription")
+                .step("entityOperatorTopicOpRoleBinding", ReconciliationState::entityOperatorTopicOpRoleBinding, "getEntityOperatorDescription")
+                .step("entityOperatorUserOpRoleBinding", ReconciliationState::entityOperatorUserOpRoleBinding, "getEntityOperatorDescription")
+                .step("entityOperatorTopicOpAncillaryCm", ReconciliationState::entityOperatorTopicOpAncillaryCm, "getEntityOperatorDescription")
+                .step("entityOperatorUserOpAncillaryCm", ReconciliationState::entityOperatorUserOpAncillaryCm, "getEntityOperatorDescription")
+                .step("entityOperatorSecret", ReconciliationState::entityOperatorSecret, "getEntityOperatorDescription")
+                .step("entityOperatorDeployment", ReconciliationState::entityOperatorDeployment,
+                        "entityOperatorServiceAccount", "entityOperatorTopicOpRoleBinding", "entityOperatorUserOpRoleBinding",
+                        "entityOperatorTopicOpAncillaryCm", "entityOperatorUserOpAncillaryCm", "entityOperatorSecret")
+                .step("entityOperatorReady", ReconciliationState::entityOperatorReady, "entityOperatorDeployment")
+
+                .step("getKafkaExporterDescription", ReconciliationState::getKafkaExporterDescription, "kafkaPersistentClaimDeletion")
+                .step("kafkaExporterServiceAccount", ReconciliationState::kafkaExporterServiceAccount, "getKafkaExporterDescription")
+                .step("kafkaExporterSecret", ReconciliationState::kafkaExporterSecret, "getKafkaExporterDescription")
+                .step("kafkaExporterService", ReconciliationState::kafkaExporterService, "getKafkaExporterDescription")
+                .step("kafkaExporterDeployment", ReconciliationState::kafkaExporterDeployment, "kafkaExporterServiceAccount", "kafkaExporterSecret")
+                .step("kafkaExporterReady", ReconciliationState::kafkaExporterReady, "kafkaExporterDeployment", "kafkaExporterService");
     }
 
     ReconciliationState createReconciliationState(Reconciliation reconciliation, Kafka kafkaAssembly) {
@@ -450,7 +528,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     .withKubernetesInstance(reconciliation.name())
                     .withKubernetesManagedBy(AbstractModel.STRIMZI_CLUSTER_OPERATOR_NAME);
             Future<ReconciliationState> result = Future.future();
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            processPool.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         String clusterCaCertName = AbstractModel.clusterCaCertSecretName(name);
@@ -631,7 +709,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                                 log.debug("{}: Rolling Kafka pod {} due to manual rolling update",
                                         reconciliation, pod.getMetadata().getName());
                                 return true;
-                            });
+                            }, ROLLING_UPDATE_REASON_MANUAL);
                         }
                     }
                     return Future.succeededFuture();
@@ -1041,7 +1119,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         Future<ReconciliationState> getZookeeperDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            kubernetesPool.executeBlocking(
                 future -> {
                     try {
                         StatefulSet sts = zkSetOperations.get(namespace, ZookeeperCluster.zookeeperClusterName(name));
@@ -1106,7 +1184,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         Future<ReconciliationState> getReconciliationStateOfConfigMap(AbstractModel cluster, ConfigMap configMap, BiFunction<Boolean, Future<ReconcileResult<ConfigMap>>, Future<ReconciliationState>> function) {
             Future<ReconciliationState> result = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<Boolean>executeBlocking(
+            kubernetesPool.<Boolean>executeBlocking(
                 future -> {
                     ConfigMap current = configMapOperations.get(namespace, cluster.getAncillaryConfigName());
                     boolean onlyMetricsSettingChanged = onlyMetricsSettingChanged(current, configMap);
@@ -1213,7 +1291,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private Future<ReconciliationState> getKafkaClusterDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            kubernetesPool.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         StatefulSet sts = kafkaSetOperations.get(namespace, KafkaCluster.kafkaClusterName(name));
@@ -1416,7 +1494,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
             Future blockingFuture = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            kubernetesPool.executeBlocking(
                 future -> {
                     String serviceName = KafkaCluster.externalBootstrapServiceName(name);
                     Future<Void> address = null;
@@ -1486,7 +1564,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
             Future blockingFuture = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            kubernetesPool.executeBlocking(
                 future -> {
                     int replicas = kafkaCluster.getReplicas();
                     List<Future> serviceFutures = new ArrayList<>(replicas);
@@ -1596,7 +1674,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
             Future blockingFuture = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            kubernetesPool.executeBlocking(
                 future -> {
                     String routeName = KafkaCluster.serviceName(name);
                     //Future future = Future.future();
@@ -1640,7 +1718,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
             Future blockingFuture = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            kubernetesPool.executeBlocking(
                 future -> {
                     int replicas = kafkaCluster.getReplicas();
                     List<Future> routeFutures = new ArrayList<>(replicas);
@@ -1707,7 +1785,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         Future<ReconciliationState> kafkaGenerateCertificates() {
             Future<ReconciliationState> result = Future.future();
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            processPool.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         kafkaCluster.generateCertificates(kafkaAssembly,
@@ -1873,10 +1951,33 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         Future<ReconciliationState> kafkaRollingUpdate() {
             return withVoid(kafkaSetOperations.maybeRollingUpdate(kafkaDiffs.resource(), pod ->
-                isPodToRestart(kafkaDiffs.resource(), pod, kafkaAncillaryCmChange, this.clusterCa, this.clientsCa)
+                isPodToRestart(kafkaDiffs.resource(), pod, kafkaAncillaryCmChange, this.clusterCa, this.clientsCa),
+                kafkaRollingUpdateReason()
             ));
         }
 
+        /**
+         * The reason for the rolling update of the Kafka pods, so that an earlier rolling update is only resumed
+         * if none of what the pods are restarted for has changed since. Besides the generation of the StatefulSet,
+         * which is compared anyway, that's the CA certificates and the ancillary ConfigMap, so the reason is a hash of them.
+         * @return The reason, or null if the rolling update can't be resumed.
+         */
+        /* test */ String kafkaRollingUpdateReason() {
+            if (!fsResizingRestartRequest.isEmpty()) {
+                // A pod restarted by an earlier rolling update might need restarting again for its file system to be resized
+                return null;
+            }
+            Map<String, Map<String, String>> triggers = new TreeMap<>();
+            triggers.put("cluster-ca", data(clusterCa.caCertSecret() != null ? clusterCa.caCertSecret().getData() : null));
+            triggers.put("clients-ca", data(clientsCa.caCertSecret() != null ? clientsCa.caCertSecret().getData() : null));
+            triggers.put("ancillary", data(kafkaMetricsAndLogsConfigMap != null ? kafkaMetricsAndLogsConfigMap.getData() : null));
+            return Util.sha256(triggers.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private Map<String, String> data(Map<String, String> data) {
+            return data != null ? new TreeMap<>(data) : Collections.emptyMap();
+        }
+
         Future<ReconciliationState> kafkaScaleUp() {
             return withVoid(kafkaSetOperations.scaleUp(namespace, kafkaCluster.getName(), kafkaCluster.getReplicas()));
         }
@@ -2218,7 +2319,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private final Future<ReconciliationState> getTopicOperatorDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            kubernetesPool.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         this.topicOperator = io.strimzi.operator.cluster.model.TopicOperator.fromCrd(kafkaAssembly, versions);
@@ -2309,7 +2410,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private final Future<ReconciliationState> getEntityOperatorDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            kubernetesPool.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         EntityOperator entityOperator = EntityOperator.fromCrd(kafkaAssembly, versions);
@@ -2685,7 +2786,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private final Future<ReconciliationState> getKafkaExporterDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            kubernetesPool.<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         this.kafkaExporter = KafkaExporter.fromCrd(kafkaAssembly, versions);
@@ -11,42 +11,57 @@ import org.apache.kafka.clients.admin.ConfigEntry;
 import org.apache.kafka.clients.admin.ListTopicsOptions;
 import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.kafka.common.config.ConfigResource;
 import org.apache.kafka.common.config.TopicConfig;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 import static java.lang.Integer.parseInt;
+import static java.util.Collections.singleton;
 
 /**
  * Determines whether the given broker can be rolled without affecting
  * producers with acks=all publishing to topics with a {@code min.in.sync.replicas}.
+ *
+ * <p>An instance is meant to be used for a whole rolling restart.
+ * It takes a snapshot of the descriptions of all the topics when first used, indexed by broker in a
+ * {@link PartitionIndex}. Afterwards it lists the topics again each time, but only describes the topics
+ * with replicas on the brokers being considered and the topics created since, and forgets the topics deleted since.
+ * The snapshot is taken again once it is older than {@link #SNAPSHOT_MAX_AGE_MS}, so that the replicas moved onto
+ * the brokers by a reassignment are eventually taken into account.
+ * The {@code min.in.sync.replicas} of each topic is only described once.</p>
  */
 class KafkaAvailability {
 
     private static final Logger log = LogManager.getLogger(KafkaAvailability.class.getName());
 
+    /** How long a snapshot of all the topics is used for before a new one is taken */
+    static final long SNAPSHOT_MAX_AGE_MS = 300_000;
+
     private final AdminClient ac;
-    private final Future<Collection<TopicDescription>> descriptions;
+    private volatile Future<PartitionIndex> snapshot;
+    /** When the {@link #snapshot} was taken */
+    private volatile long snapshotTimeMs;
+    /** The latest descriptions of the topics, for building the index again */
+    private final Map<String, TopicDescription> descriptions = new ConcurrentHashMap<>();
+    /** The min.insync.replicas of the topics, or {@link PartitionIndex#NO_MIN_ISR} for topics without one */
+    private final Map<String, Integer> minIsrs = new ConcurrentHashMap<>();
 
     KafkaAvailability(AdminClient ac) {
         this.ac = ac;
-        // 1. Get all topic names
-        Future<Set<String>> topicNames = topicNames();
-        // 2. Get topic descriptions
-        descriptions = topicNames.compose(names -> {
-            log.debug("Got {} topic names", names.size());
-            log.trace("Topic names {}", names);
-            return describeTopics(names);
-        });
     }
 
     /**
@@ -55,90 +70,267 @@ class KafkaAvailability {
      */
     Future<Boolean> canRoll(int podId) {
         log.debug("Determining whether broker {} can be rolled", podId);
-        return canRollBroker(descriptions, podId);
+        return index(singleton(podId))
+            .map(index -> {
+                boolean canRoll = !index.wouldAffectAvailability(podId);
+                if (!canRoll) {
+                    log.debug("Restart pod {} would remove it from ISR, stalling producers with acks=all", podId);
+                }
+                return canRoll;
+            }).recover(error -> {
+                log.warn("Error determining whether it is safe to restart pod {}", podId, error);
+                return Future.failedFuture(error);
+            });
     }
 
-    private Future<Boolean> canRollBroker(Future<Collection<TopicDescription>> descriptions, int podId) {
-        Future<Set<TopicDescription>> topicsOnGivenBroker = descriptions
-                .compose(topicDescriptions -> {
-                    log.debug("Got {} topic descriptions", topicDescriptions.size());
-                    return Future.succeededFuture(groupTopicsByBroker(topicDescriptions, podId));
-                }).recover(error -> {
-                    log.warn(error);
-                    return Future.failedFuture(error);
-                });
+    /**
+     * Select, from the given {@code candidates}, brokers which can be rolled at the same time as the given broker.
+     * A candidate is selected only if it is in the same rack as the given broker, or shares no partition with
+     * the given broker and the brokers already selected, and if rolling all of the selected brokers at the same time
+     * would not affect producers with acks=all publishing to topics with a {@code min.in.sync.replicas}.
+     * Candidates in the same rack as the given broker are considered first.
+     * @param podId The broker which is going to be rolled.
+     * @param candidates The brokers which could be rolled with it, in order of preference.
+     * @param max The maximum number of brokers to select.
+     * @return A future which completes with the selected brokers, which doesn't include {@code podId}.
+     */
+    Future<List<Integer>> canRollWith(int podId, List<Integer> candidates, int max) {
+        log.debug("Determining which of brokers {} can be rolled with broker {}", candidates, podId);
+        Set<Integer> brokers = new HashSet<>(candidates);
+        brokers.add(podId);
+        return index(brokers)
+            .map(index -> {
+                String rack = index.rack(podId);
+                List<Integer> ordered = new ArrayList<>(candidates);
+                ordered.sort(Comparator.comparing(candidate -> rack == null || !rack.equals(index.rack(candidate))));
 
-        // 4. Get topic configs (for those on $broker)
-        Future<Map<String, Config>> topicConfigsOnGivenBroker = topicsOnGivenBroker
-                .compose(td -> topicConfigs(td.stream().map(t -> t.name()).collect(Collectors.toSet())));
-
-        // 5. join
-        return topicConfigsOnGivenBroker.map(topicNameToConfig -> {
-            Collection<TopicDescription> tds = topicsOnGivenBroker.result();
-            boolean canRoll = tds.stream().noneMatch(
-                td -> wouldAffectAvailability(podId, topicNameToConfig, td));
-            if (!canRoll) {
-                log.debug("Restart pod {} would remove it from ISR, stalling producers with acks=all", podId);
-            }
-            return canRoll;
-        }).recover(error -> {
-            log.warn("Error determining whether it is safe to restart pod {}", podId, error);
-            return Future.failedFuture(error);
+                int[] scratch = index.newScratch();
+                Set<Integer> batch = new HashSet<>(singleton(podId));
+                List<Integer> selected = new ArrayList<>();
+                for (Integer candidate : ordered) {
+                    if (selected.size() >= max) {
+                        break;
+                    }
+                    boolean sameRack = rack != null && rack.equals(index.rack(candidate));
+                    if (!sameRack && index.sharesPartition(batch, candidate)) {
+                        log.debug("Broker {} shares partitions with brokers {}", candidate, batch);
+                        continue;
+                    }
+                    Set<Integer> withCandidate = new HashSet<>(batch);
+                    withCandidate.add(candidate);
+                    if (!index.wouldAffectAvailability(withCandidate, scratch)) {
+                        batch = withCandidate;
+                        selected.add(candidate);
+                    }
+                }
+                log.debug("Brokers {} can be rolled with broker {}", selected, podId);
+                return selected;
+            }).recover(error -> {
+                log.warn("Error determining which brokers can be restarted with pod {}", podId, error);
+                return Future.failedFuture(error);
+            });
+    }
+
+    /**
+     * Determine how many of the replicas on the given brokers are in the ISR of their partition.
+     * @param brokers The brokers which have been rolled.
+     * @return A future which completes with the percentage, rounded down, of the replicas on the given brokers
+     * which are in the ISR, or 100 if the brokers have no replicas.
+     */
+    Future<Integer> inSyncPercentage(Set<Integer> brokers) {
+        return index(brokers).map(index -> {
+            int percentage = index.inSyncPercentage(brokers);
+            log.debug("{}% of the replicas on brokers {} are in sync", percentage, brokers);
+            return percentage;
         });
     }
 
-    private boolean wouldAffectAvailability(int broker, Map<String, Config> nameToConfig, TopicDescription td) {
-        Config config = nameToConfig.get(td.name());
-        ConfigEntry minIsrConfig = config.get(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG);
-        int minIsr;
-        if (minIsrConfig != null && minIsrConfig.value() != null) {
-            minIsr = parseInt(minIsrConfig.value());
-            log.debug("{} has {}={}.", td.name(), TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, minIsr);
-        } else {
-            minIsr = -1;
-            log.debug("{} lacks {}.", td.name(), TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG);
-        }
+    /**
+     * Find the partitions led by any of the given brokers whose preferred leader is another broker in their ISR,
+     * so that a preferred leader election would move their leadership off the given brokers.
+     * The leadership of the partitions whose preferred leader is one of the given brokers is left
+     * to be moved by the controlled shutdown of the brokers.
+     * @param brokers The brokers which are going to be rolled.
+     * @return A future which completes with the partitions.
+     */
+    Future<Set<TopicPartition>> leadershipsToMove(Set<Integer> brokers) {
+        return partitions(brokers, (info, preferred) -> brokers.contains(info.leader().id())
+                && !brokers.contains(preferred.id()));
+    }
 
-        for (TopicPartitionInfo pi : td.partitions()) {
-            List<Node> isr = pi.isr();
-            if (minIsr >= 0) {
-                if (isr.size() < minIsr
-                        && contains(pi.replicas(), broker)) {
-                    logIsrReplicas(td, pi, isr);
-                    log.info("{}/{} is already underreplicated (|ISR|={}, {}={}); broker {} has a replica, " +
-                                    "so should not be restarted right now (it might be first to catch up).",
-                            td.name(), pi.partition(), isr.size(), TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, minIsr, broker);
-                    return true;
-                } else if (isr.size() == minIsr
-                        && contains(isr, broker)) {
-                    if (minIsr < pi.replicas().size()) {
-                        logIsrReplicas(td, pi, isr);
-                        log.info("{}/{} will be underreplicated (|ISR|={} and {}={}) if broker {} is restarted.",
-                                td.name(), pi.partition(), isr.size(), TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, minIsr, broker);
-                        return true;
-                    } else {
-                        log.debug("{}/{} will be underreplicated (|ISR|={} and {}={}) if broker {} is restarted, but there are only {} relicas.",
-                                td.name(), pi.partition(), isr.size(), TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, minIsr, broker,
-                                pi.replicas().size());
+    /**
+     * Find the partitions whose preferred leader is one of the given brokers, in their ISR, but not their leader,
+     * so that a preferred leader election would move their leadership back to the given brokers.
+     * @param brokers The brokers which have been rolled.
+     * @return A future which completes with the partitions.
+     */
+    Future<Set<TopicPartition>> leadershipsToRestore(Set<Integer> brokers) {
+        return partitions(brokers, (info, preferred) -> brokers.contains(preferred.id())
+                && info.leader().id() != preferred.id());
+    }
+
+    /**
+     * Find the partitions of the topics with replicas on the given brokers which have a leader and whose
+     * preferred leader is in their ISR, and which match the given predicate.
+     */
+    private Future<Set<TopicPartition>> partitions(Set<Integer> brokers, BiPredicate<TopicPartitionInfo, Node> predicate) {
+        return index(brokers).map(index -> {
+            Set<TopicPartition> result = new HashSet<>();
+            for (String name : index.topicsOn(brokers)) {
+                TopicDescription td = descriptions.get(name);
+                if (td == null) {
+                    continue;
+                }
+                for (TopicPartitionInfo info : td.partitions()) {
+                    if (info.leader() == null || info.leader().isEmpty() || info.replicas().isEmpty()) {
+                        continue;
+                    }
+                    Node preferred = info.replicas().get(0);
+                    if (info.isr().contains(preferred) && predicate.test(info, preferred)) {
+                        result.add(new TopicPartition(name, info.partition()));
                     }
                 }
             }
+            log.debug("{} partitions of brokers {} need a preferred leader election", result.size(), brokers);
+            return result;
+        });
+    }
+
+    /**
+     * Elect the preferred leaders of the given partitions.
+     * @param partitions The partitions.
+     * @return A future which completes when the election has completed.
+     */
+    Future<Void> electPreferredLeaders(Set<TopicPartition> partitions) {
+        log.debug("Electing the preferred leaders of {} partitions", partitions.size());
+        Future<Void> result = Future.future();
+        ac.electPreferredLeaders(partitions).all().whenComplete((ignored, error) -> {
+            if (error != null) {
+                result.fail(error);
+            } else {
+                result.complete();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns the index of the snapshot of all the topics, taking the snapshot if necessary.
+     */
+    private Future<PartitionIndex> snapshot() {
+        Future<PartitionIndex> result = snapshot;
+        if (result == null) {
+            // 1. Get all topic names
+            // 2. Get topic descriptions
+            result = topicNames().compose(names -> {
+                log.debug("Got {} topic names", names.size());
+                log.trace("Topic names {}", names);
+                return describeTopics(names);
+            }).map(tds -> {
+                log.debug("Got {} topic descriptions", tds.size());
+                descriptions.clear();
+                for (TopicDescription td : tds) {
+                    descriptions.put(td.name(), td);
+                }
+                return new PartitionIndex(tds, minIsrs);
+            });
+            snapshot = result;
+            snapshotTimeMs = System.currentTimeMillis();
         }
-        return false;
+        return result;
     }
 
-    private void logIsrReplicas(TopicDescription td, TopicPartitionInfo pi, List<Node> isr) {
-        if (log.isDebugEnabled()) {
-            log.debug("{}/{} has ISR={}, replicas={}", td.name(), pi.partition(), nodeList(isr), nodeList(pi.replicas()));
+    /**
+     * Returns the index with up-to-date descriptions and min.insync.replicas of the topics with replicas
+     * on any of the given brokers.
+     * If the snapshot was taken by an earlier call, it is {@linkplain #refresh(PartitionIndex, Set) refreshed} first,
+     * or taken again if it is too old.
+     * If anything fails the snapshot is discarded, so that the next call takes a new one.
+     */
+    private Future<PartitionIndex> index(Set<Integer> brokers) {
+        Future<PartitionIndex> existing = snapshot;
+        if (existing != null && existing.succeeded() && System.currentTimeMillis() - snapshotTimeMs >= SNAPSHOT_MAX_AGE_MS) {
+            log.debug("Taking a new snapshot of the topics, the current one being older than {}ms", SNAPSHOT_MAX_AGE_MS);
+            snapshot = null;
+            existing = null;
         }
+        boolean refresh = existing != null && existing.succeeded();
+        Future<PartitionIndex> current = snapshot();
+        return current.compose(index -> refresh ? refresh(index, brokers) : Future.succeededFuture(index)).compose(index -> {
+            // 4. Get topic configs (for those on $brokers)
+            Set<String> unknown = index.unknownMinIsrs(brokers);
+            if (unknown.isEmpty()) {
+                return Future.succeededFuture(index);
+            }
+            return topicConfigs(unknown).map(topicNameToConfig -> {
+                for (Map.Entry<String, Config> entry : topicNameToConfig.entrySet()) {
+                    int minIsr = minIsr(entry.getKey(), entry.getValue());
+                    minIsrs.put(entry.getKey(), minIsr);
+                    index.minIsr(entry.getKey(), minIsr);
+                }
+                return index;
+            });
+        }).recover(error -> {
+            if (snapshot == current) {
+                snapshot = null;
+            }
+            log.warn(error);
+            return Future.failedFuture(error);
+        });
+    }
+
+    /**
+     * Describes again the topics with replicas on the given brokers and the topics created since the snapshot
+     * was taken, and forgets the topics deleted since.
+     * @return A future which completes with the index, which is built again if the topics, their partitions
+     * or their replicas have changed.
+     */
+    private Future<PartitionIndex> refresh(PartitionIndex index, Set<Integer> brokers) {
+        return topicNames().compose(allNames -> {
+            Set<String> deleted = new HashSet<>(descriptions.keySet());
+            deleted.removeAll(allNames);
+            Set<String> names = index.topicsOn(brokers);
+            names.removeAll(deleted);
+            for (String name : allNames) {
+                if (!descriptions.containsKey(name)) {
+                    names.add(name);
+                }
+            }
+            descriptions.keySet().removeAll(deleted);
+            minIsrs.keySet().removeAll(deleted);
+            if (names.isEmpty()) {
+                return Future.succeededFuture(deleted.isEmpty() ? index : reindex());
+            }
+            log.debug("Refreshing the descriptions of {} topics", names.size());
+            return describeTopics(names).map(tds -> {
+                for (TopicDescription td : tds) {
+                    descriptions.put(td.name(), td);
+                }
+                return deleted.isEmpty() && index.update(tds) ? index : reindex();
+            });
+        });
     }
 
-    String nodeList(List<Node> nodes) {
-        return nodes.stream().map(n -> String.valueOf(n.id())).collect(Collectors.joining(",", "[", "]"));
+    /**
+     * Builds the index again from the latest descriptions of the topics, replacing the snapshot.
+     */
+    private PartitionIndex reindex() {
+        log.debug("The topics or their partitions or replicas have changed, indexing them again");
+        PartitionIndex rebuilt = new PartitionIndex(descriptions.values(), minIsrs);
+        snapshot = Future.succeededFuture(rebuilt);
+        return rebuilt;
     }
 
-    private boolean contains(List<Node> isr, int broker) {
-        return isr.stream().anyMatch(node -> node.id() == broker);
+    private static int minIsr(String topicName, Config config) {
+        ConfigEntry minIsrConfig = config.get(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG);
+        if (minIsrConfig != null && minIsrConfig.value() != null) {
+            int minIsr = parseInt(minIsrConfig.value());
+            log.debug("{} has {}={}.", topicName, TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, minIsr);
+            return minIsr;
+        } else {
+            log.debug("{} lacks {}.", topicName, TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG);
+            return PartitionIndex.NO_MIN_ISR;
+        }
     }
 
     private Future<Map<String, Config>> topicConfigs(Collection<String> topicNames) {
@@ -161,21 +353,6 @@ class KafkaAvailability {
         return f;
     }
 
-    private Set<TopicDescription> groupTopicsByBroker(Collection<TopicDescription> tds, int podId) {
-        Set<TopicDescription> topicPartitionInfos = new HashSet<>();
-        for (TopicDescription td : tds) {
-            log.trace("{}", td);
-            for (TopicPartitionInfo pd : td.partitions()) {
-                for (Node broker : pd.replicas()) {
-                    if (podId == broker.id()) {
-                        topicPartitionInfos.add(td);
-                    }
-                }
-            }
-        }
-        return topicPartitionInfos;
-    }
-
     protected Future<Collection<TopicDescription>> describeTopics(Set<String> names) {
         Future<Collection<TopicDescription>> descFuture = Future.future();
         ac.describeTopics(names).all()
@@ -4,37 +4,51 @@
  */
 package io.strimzi.operator.cluster.operator.resource;
 
+import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.common.BackOff;
+import io.strimzi.operator.common.WorkerPool;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.operator.resource.ConfigMapOperator;
 import io.strimzi.operator.common.operator.resource.PodOperator;
 import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.DescribeClusterResult;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * <p>Manages the rolling restart of a Kafka cluster.</p>
@@ -63,13 +77,44 @@ import java.util.function.Supplier;
  *         iii. Continue from 1.
  * </pre>
  *
+ * <p>When the maximum batch size is greater than one, step 6 also restarts, at the same time, other pods
+ * which need to be restarted and which are in the same rack as the pod, or share no partitions with it,
+ * provided that restarting all of them together would not "impact availability".
+ * Those pods are then only waited for when they are taken from the list.</p>
+ *
  * <p>Where "impacting availability" is defined by {@link KafkaAvailability}.</p>
  *
+ * <p>When a leadership drain timeout is configured, step 6 first elects the preferred leaders of the partitions
+ * led by the pods being restarted, where that moves their leadership to another broker, and waits, up to the timeout,
+ * for their leadership to move. Once the pods are ready their preferred leaders are elected again, to move the
+ * leadership back. Both elections are best effort: a failure is logged and the restart goes ahead.</p>
+ *
+ * <p>When an ISR catch-up percentage is configured, step 6 also waits, once the pods are ready and up to the
+ * ISR catch-up timeout, for that percentage of the replicas on the pods to be back in the ISR of their partition,
+ * so that the next pod is only considered once the restarted pods have caught up. Otherwise the next pod would
+ * usually not be rollable yet, and would be retried with backoff.</p>
+ *
+ * <p>When a ConfigMap operator is given, the progress of the rolling restart is persisted, after each pod is restarted,
+ * in a {@linkplain RollingProgress ConfigMap} owned by the StatefulSet, which is deleted once the rolling restart
+ * is complete. When a rolling restart fails, or the operator is restarted, the next rolling restart of the same
+ * generation of the StatefulSet for the same reason resumes from where it stopped: the pods which have already been
+ * restarted, and which are ready and have not been recreated since, are not considered again.
+ * The reason identifies what the pods are restarted for, such as a manual rolling update, or a fingerprint
+ * of the CA certificates and configuration the pods are restarted with, since a pod restarted by an earlier rolling
+ * restart for a different reason might still need restarting. A rolling restart without a reason is never resumed,
+ * nor is its progress persisted.</p>
+ *
+ * <p>How long each phase of the rolling restart of each pod takes, and why the rolling restart of a pod is retried,
+ * is recorded in a {@link RollingUpdateSummary}.</p>
+ *
+ * <p>A single AdminClient, bootstrapped from pods other than the first pod to be restarted, and a single
+ * {@link KafkaAvailability} are used for the whole rolling restart. They are only replaced after an error.</p>
+ *
  * <p>Note the following important properties of this algorithm:</p>
  * <ul>
  *     <li>if there is a spontaneous change in controller while the rolling restart is happening, any new
  *     controller is still the last pod to be rolled, thus avoid unnecessary controller elections.</li>
- *     <li>rolling should happen without impacting any topic's min.isr.</li>
+ *     <li>rolling should happen without impacting any topic's min.isr, even when several pods are rolled at once.</li>
  *     <li>even pods which aren't candidates for rolling are checked for readiness which partly avoids
  *     successive reconciliations each restarting a pod which never becomes ready</li>
  * </ul>
@@ -89,6 +134,9 @@ public class KafkaRoller {
     private final Supplier<BackOff> backoffSupplier;
     protected String namespace;
     private final AdminClientProvider adminClientProvider;
+    private final KafkaRollingOptions options;
+    private final StatefulSet ss;
+    private final ConfigMapOperator configMapOperations;
 
     KafkaRoller(Vertx vertx, PodOperator podOperations,
                 long pollingIntervalMs, long operationTimeoutMs, Supplier<BackOff> backOffSupplier,
@@ -101,6 +149,25 @@ public class KafkaRoller {
                 long pollingIntervalMs, long operationTimeoutMs, Supplier<BackOff> backOffSupplier,
                 StatefulSet ss, Secret clusterCaCertSecret, Secret coKeySecret,
                 AdminClientProvider adminClientProvider) {
+        this(vertx, podOperations, pollingIntervalMs, operationTimeoutMs, backOffSupplier,
+                ss, clusterCaCertSecret, coKeySecret, adminClientProvider, KafkaRollingOptions.DEFAULT);
+    }
+
+    KafkaRoller(Vertx vertx, PodOperator podOperations,
+                long pollingIntervalMs, long operationTimeoutMs, Supplier<BackOff> backOffSupplier,
+                StatefulSet ss, Secret clusterCaCertSecret, Secret coKeySecret,
+                AdminClientProvider adminClientProvider, KafkaRollingOptions options) {
+        this(vertx, podOperations, pollingIntervalMs, operationTimeoutMs, backOffSupplier,
+                ss, clusterCaCertSecret, coKeySecret, adminClientProvider, options, null);
+    }
+
+    KafkaRoller(Vertx vertx, PodOperator podOperations,
+                long pollingIntervalMs, long operationTimeoutMs, Supplier<BackOff> backOffSupplier,
+                StatefulSet ss, Secret clusterCaCertSecret, Secret coKeySecret,
+                AdminClientProvider adminClientProvider, KafkaRollingOptions options,
+                ConfigMapOperator configMapOperations) {
+        this.ss = ss;
+        this.configMapOperations = configMapOperations;
         this.namespace = ss.getMetadata().getNamespace();
         this.cluster = Labels.cluster(ss);
         this.numPods = ss.getSpec().getReplicas();
@@ -112,6 +179,8 @@ public class KafkaRoller {
         this.podOperations = podOperations;
         this.pollingIntervalMs = pollingIntervalMs;
         this.adminClientProvider = adminClientProvider;
+        this.options = options;
+        this.rollerPool = WorkerPools.executor(vertx, WorkerPool.KAFKA_ROLLER);
     }
 
     /**
@@ -122,11 +191,31 @@ public class KafkaRoller {
         return podOperations.getAsync(namespace, KafkaCluster.kafkaPodName(cluster, podId));
     }
 
-    private final ScheduledExecutorService singleExecutor = Executors.newSingleThreadScheduledExecutor(
-        runnable -> new Thread(runnable, "kafka-roller"));
+    /**
+     * The blocking work of the rolling restart, such as the Kafka Admin calls, runs on the {@link WorkerPool#KAFKA_ROLLER}
+     * pool, one task at a time, so that the state of the rolling restart is only used by one thread at once.
+     */
+    private final WorkerExecutor rollerPool;
+    /** The tasks waiting to run on the {@link #rollerPool} */
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    /** Whether a task is running on the {@link #rollerPool} */
+    private boolean taskRunning;
+    /** Whether the rolling restart has finished, so that any remaining tasks are not run */
+    private volatile boolean finished;
+    /** The context on which the tasks are submitted */
+    private Context context;
 
     private ConcurrentHashMap<Integer, RestartContext> podToContext = new ConcurrentHashMap<>();
+    /** The AdminClient and availability shared by all the pods; only used from the tasks on the {@link #rollerPool} */
+    private AdminClient adminClient;
+    private KafkaAvailability kafkaAvailability;
+    /** Pods which have been restarted together with another pod */
+    private final Set<Integer> restartedInBatch = ConcurrentHashMap.newKeySet();
     private Predicate<Pod> podNeedsRestart;
+    private final RollingUpdateSummary summary = new RollingUpdateSummary("kafka", System.currentTimeMillis());
+    private RollingProgress progress;
+    /** Whether there is a persisted progress to delete once the rolling restart is complete */
+    private volatile boolean progressPersisted;
 
     /**
      * Asynchronously perform a rolling restart of some subset of the pods,
@@ -137,26 +226,164 @@ public class KafkaRoller {
      * @return A Future completed when rolling is complete.
      */
     Future<Void> rollingRestart(Predicate<Pod> podNeedsRestart) {
+        return rollingRestart(podNeedsRestart, null);
+    }
+
+    /**
+     * Like {@link #rollingRestart(Predicate)}, resuming a previous rolling restart of the same generation
+     * of the StatefulSet for the same {@code reason} which didn't complete.
+     * @param podNeedsRestart Predicate for determining whether a pod should be rolled.
+     * @param reason Why the pods are being restarted, or null if the rolling restart can't be resumed.
+     * @return A Future completed when rolling is complete.
+     */
+    Future<Void> rollingRestart(Predicate<Pod> podNeedsRestart, String reason) {
         this.podNeedsRestart = podNeedsRestart;
+        this.context = vertx.getOrCreateContext();
+        return loadProgress()
+            .recover(error -> {
+                log.warn("Error getting the progress of the previous rolling restart of {}/{}, starting afresh",
+                        namespace, ss.getMetadata().getName(), error);
+                return Future.succeededFuture();
+            })
+            .compose(persisted -> rollingRestart(persisted, reason));
+    }
+
+    private Future<Void> rollingRestart(RollingProgress persisted, String reason) {
+        int generation = StatefulSetOperator.getSsGeneration(ss);
+        progressPersisted = persisted != null;
+        if (persisted != null && reason != null
+                && persisted.generation() == generation && reason.equals(persisted.reason())) {
+            log.debug("Resuming rolling restart {}", persisted);
+            progress = persisted;
+        } else {
+            progress = new RollingProgress(generation, reason, System.currentTimeMillis());
+        }
         List<Future> futures = new ArrayList<>(numPods);
         List<Integer> podIds = new ArrayList<>(numPods);
+        List<Integer> resumed = new ArrayList<>(numPods);
         for (int podId = 0; podId < numPods; podId++) {
+            boolean ready = podOperations.isReady(namespace, podName(podId));
+            if (ready && alreadyRestarted(podId)) {
+                resumed.add(podId);
+                continue;
+            }
             // Order the podIds unready first otherwise repeated reconciliations might each restart a pod
             // only for it not to become ready and thus drive the cluster to a worse state.
-            podIds.add(podOperations.isReady(namespace, podName(podId)) ? podIds.size() : 0, podId);
+            podIds.add(ready ? podIds.size() : 0, podId);
+            progress.pending(podId);
+        }
+        if (!resumed.isEmpty()) {
+            log.debug("Pods {} were already restarted by a previous rolling restart", resumed);
         }
         log.debug("Initial order for rolling restart {}", podIds);
+        // Create all the contexts before scheduling, so that the first pods to be considered know about the others
+        for (Integer podId: resumed) {
+            podToContext.computeIfAbsent(podId, k -> new RestartContext(backoffSupplier)).future.complete();
+        }
+        for (Integer podId: podIds) {
+            podToContext.computeIfAbsent(podId, k -> new RestartContext(backoffSupplier));
+        }
         for (Integer podId: podIds) {
             futures.add(schedule(podId, 0, TimeUnit.MILLISECONDS));
         }
         Future<Void> result = Future.future();
         CompositeFuture.join(futures).setHandler(ar -> {
-            singleExecutor.shutdown();
-            vertx.runOnContext(ignored -> result.handle(ar.map((Void) null)));
+            // The futures are completed by the tasks, so this runs in one of them
+            discardAdminClient();
+            finished = true;
+            vertx.runOnContext(ignored -> {
+                if (ar.succeeded() && progressPersisted) {
+                    // The rolling restart is complete, so there's nothing to resume
+                    saveProgress(null).setHandler(deleted -> {
+                        if (deleted.failed()) {
+                            log.warn("Error deleting the progress of the rolling restart of {}/{}",
+                                    namespace, ss.getMetadata().getName(), deleted.cause());
+                        }
+                        result.complete();
+                    });
+                } else {
+                    result.handle(ar.map((Void) null));
+                }
+            });
         });
         return result;
     }
 
+    /**
+     * Whether the given pod was restarted by the rolling restart being resumed,
+     * and has not been recreated since.
+     */
+    private boolean alreadyRestarted(int podId) {
+        String uid = progress.completedUid(podId);
+        if (uid == null) {
+            return false;
+        }
+        Pod pod = podOperations.get(namespace, podName(podId));
+        return pod != null && uid.equals(pod.getMetadata().getUid());
+    }
+
+    /**
+     * Records that the given pods have been restarted, and persists the progress of the rolling restart if it can be resumed.
+     * Errors are logged and otherwise ignored, since at worst a resumed rolling restart considers the pods again.
+     * @param podIds The ids of the restarted pods.
+     */
+    private void recordRestarted(Collection<Integer> podIds) throws InterruptedException {
+        for (Integer podId : podIds) {
+            Pod pod;
+            try {
+                pod = podOperations.get(namespace, podName(podId));
+            } catch (KubernetesClientException e) {
+                log.debug("Not recording the restart of pod {} due to {}", podId, e.toString());
+                continue;
+            }
+            if (pod != null) {
+                progress.completed(podId, pod.getMetadata().getUid());
+            }
+        }
+        if (progress.reason() == null) {
+            // The rolling restart can't be resumed
+            return;
+        }
+        try {
+            await(saveProgress(progress), 1, TimeUnit.MINUTES,
+                t -> new ForceableProblem("An error while trying to save the progress of the rolling restart", t));
+            progressPersisted = true;
+        } catch (ForceableProblem e) {
+            log.warn("Could not save the progress of the rolling restart of {}/{}", namespace, ss.getMetadata().getName(), e);
+        }
+    }
+
+    /**
+     * Returns a Future which completes with the persisted progress of a previous rolling restart,
+     * or with null if there is none.
+     */
+    protected Future<RollingProgress> loadProgress() {
+        if (configMapOperations == null) {
+            return Future.succeededFuture();
+        }
+        return configMapOperations.getAsync(namespace, RollingProgress.configMapName(ss.getMetadata().getName()))
+                .map(RollingProgress::fromConfigMap);
+    }
+
+    /**
+     * Persists the given progress of the rolling restart, or deletes the persisted progress if it is null.
+     */
+    protected Future<Void> saveProgress(RollingProgress progress) {
+        if (configMapOperations == null) {
+            return Future.succeededFuture();
+        }
+        ConfigMap cm = progress != null ? progress.toConfigMap(ss) : null;
+        return configMapOperations.reconcile(namespace, RollingProgress.configMapName(ss.getMetadata().getName()), cm)
+                .map((Void) null);
+    }
+
+    /**
+     * @return The summary of the phases and retries of this rolling restart.
+     */
+    RollingUpdateSummary summary() {
+        return summary;
+    }
+
     private static class RestartContext {
         final Future<Void> future;
         final BackOff backOff;
@@ -188,7 +415,10 @@ public class KafkaRoller {
     private Future<Void> schedule(int podId, long delay, TimeUnit unit) {
         RestartContext ctx = podToContext.computeIfAbsent(podId,
             k -> new RestartContext(backoffSupplier));
-        singleExecutor.schedule(() -> {
+        Runnable task = () -> {
+            if (finished) {
+                return;
+            }
             log.debug("Considering restart of pod {} after delay of {} {}", podId, delay, unit);
             try {
                 restartIfNecessary(podId, ctx.backOff.done());
@@ -200,7 +430,7 @@ public class KafkaRoller {
                 log.info("Could not restart pod {}, giving up after {} attempts/{}ms",
                         podId, ctx.backOff.maxAttempts(), ctx.backOff.totalDelayMs(), e);
                 ctx.future.fail(e);
-                singleExecutor.shutdownNow();
+                finished = true;
                 podToContext.forEachValue(Integer.MAX_VALUE, f -> {
                     f.future.tryFail(e);
                 });
@@ -213,15 +443,57 @@ public class KafkaRoller {
                             e);
                 } else {
                     long delay1 = ctx.backOff.delayMs();
+                    summary.retry(podName(podId), e.getClass().getSimpleName());
                     log.debug("Could not roll pod {} due to {}, retrying after at least {}ms",
                             podId, e, delay1);
                     schedule(podId, delay1, TimeUnit.MILLISECONDS);
                 }
             }
-        }, delay, unit);
+        };
+        long delayMs = unit.toMillis(delay);
+        // The timers are all set on the same context, so that tasks due at the same time are submitted in order
+        context.runOnContext(ignored -> {
+            if (delayMs > 0) {
+                vertx.setTimer(delayMs, timerId -> submit(task));
+            } else {
+                submit(task);
+            }
+        });
         return ctx.future;
     }
 
+    /**
+     * Run the given task on the {@link #rollerPool} once the tasks submitted before it have run.
+     */
+    private void submit(Runnable task) {
+        synchronized (tasks) {
+            tasks.add(task);
+            if (taskRunning) {
+                return;
+            }
+            taskRunning = true;
+        }
+        runNextTask();
+    }
+
+    private void runNextTask() {
+        Runnable task;
+        synchronized (tasks) {
+            task = tasks.poll();
+            if (task == null) {
+                taskRunning = false;
+                return;
+            }
+        }
+        rollerPool.executeBlocking(future -> {
+            try {
+                task.run();
+            } finally {
+                future.complete();
+            }
+        }, false, ignored -> runNextTask());
+    }
+
     /**
      * Restart the given pod now if necessary according to {@link #podNeedsRestart}.
      * This method blocks.
@@ -240,33 +512,67 @@ public class KafkaRoller {
             throw new UnforceableProblem("Error getting pod " + podName(podId), e);
         }
 
-        if (podNeedsRestart.test(pod)) {
+        if (restartedInBatch.contains(podId)) {
+            log.debug("Pod {} was restarted together with another pod", podId);
+            log.debug("Waiting for restarted pod {} to become ready", podId);
+            long readinessStart = System.nanoTime();
+            await(isReady(pod), 5, TimeUnit.MINUTES, e -> new FatalProblem("Error while waiting for restarted pod " + podName(podId) + " to become ready", e));
+            summary.phase(podName(podId), RollingUpdateSummary.READINESS, readinessStart);
+            log.debug("Pod {} is now ready", podId);
+        } else if (podNeedsRestart.test(pod)) {
             log.debug("Pod {} needs to be restarted", podId);
-            AdminClient adminClient = null;
             try {
+                int controller;
+                KafkaAvailability availability;
+                long controllerStart = System.nanoTime();
                 try {
-                    adminClient = adminClient(podId);
-                    Integer controller = controller(podId, adminClient, 1, TimeUnit.MINUTES);
-                    int stillRunning = podToContext.reduceValuesToInt(100, v -> v.future.isComplete() ? 0 : 1,
-                            0, Integer::sum);
-                    if (controller == podId && stillRunning > 1) {
-                        log.debug("Pod {} is controller and there are other pods to roll", podId);
-                        throw new ForceableProblem("Pod " + podName(podId) + " is currently the controller and there are other pods still to roll");
-                    } else {
-                        if (canRoll(adminClient, podId, 1, TimeUnit.MINUTES)) {
-                            log.debug("Pod {} can be rolled now", podId);
-                            restartAndAwaitReadiness(pod, 5, TimeUnit.MINUTES);
-                        } else {
-                            log.debug("Pod {} cannot be rolled right now", podId);
-                            throw new UnforceableProblem("Pod " + podName(podId) + " is currently not rollable");
-                        }
-                    }
+                    controller = controller(podId, sharedAdminClient(podId), 1, TimeUnit.MINUTES);
+                    availability = kafkaAvailability;
+                } catch (ForceableProblem e) {
+                    discardAdminClient();
+                    throw e;
                 } finally {
-                    closeLoggingAnyError(adminClient);
+                    summary.phase(podName(podId), RollingUpdateSummary.CONTROLLER, controllerStart);
+                }
+                int stillRunning = podToContext.reduceValuesToInt(100, v -> v.future.isComplete() ? 0 : 1,
+                        0, Integer::sum);
+                if (controller == podId && stillRunning > 1) {
+                    log.debug("Pod {} is controller and there are other pods to roll", podId);
+                    throw new ForceableProblem("Pod " + podName(podId) + " is currently the controller and there are other pods still to roll");
+                }
+                boolean canRoll;
+                Map<Integer, Pod> mates;
+                long availabilityStart = System.nanoTime();
+                try {
+                    canRoll = canRoll(availability, podId, 1, TimeUnit.MINUTES);
+                    mates = canRoll ? batchMates(availability, podId, controller, 1, TimeUnit.MINUTES) : Collections.emptyMap();
+                } catch (ForceableProblem e) {
+                    discardAdminClient();
+                    throw e;
+                } finally {
+                    summary.phase(podName(podId), RollingUpdateSummary.AVAILABILITY, availabilityStart);
+                }
+                if (canRoll) {
+                    log.debug("Pod {} can be rolled now", podId);
+                    Set<Integer> brokers = new HashSet<>(mates.keySet());
+                    brokers.add(podId);
+                    long drainStart = System.nanoTime();
+                    drainLeadership(availability, brokers);
+                    summary.phase(podName(podId), RollingUpdateSummary.LEADERSHIP_DRAIN, drainStart);
+                    restartAndAwaitReadiness(podId, pod, mates, 5, TimeUnit.MINUTES);
+                    long isrStart = System.nanoTime();
+                    awaitIsrCatchUp(availability, brokers);
+                    summary.phase(podName(podId), RollingUpdateSummary.ISR_CATCH_UP, isrStart);
+                    long restoreStart = System.nanoTime();
+                    restoreLeadership(availability, brokers);
+                    summary.phase(podName(podId), RollingUpdateSummary.LEADERSHIP_RESTORE, restoreStart);
+                } else {
+                    log.debug("Pod {} cannot be rolled right now", podId);
+                    throw new UnforceableProblem("Pod " + podName(podId) + " is currently not rollable");
                 }
             } catch (ForceableProblem e) {
                 if (finalAttempt) {
-                    restartAndAwaitReadiness(pod, 5, TimeUnit.MINUTES);
+                    restartAndAwaitReadiness(podId, pod, 5, TimeUnit.MINUTES);
                 } else {
                     throw e;
                 }
@@ -277,11 +583,43 @@ public class KafkaRoller {
             // We rely on Kube to try restarting such pods.
             log.debug("Pod {} does not need to be restarted", podId);
             log.debug("Waiting for non-restarted pod {} to become ready", podId);
+            long readinessStart = System.nanoTime();
             await(isReady(pod), 5, TimeUnit.MINUTES, e -> new FatalProblem("Error while waiting for non-restarted pod " + podName(podId) + " to become ready", e));
+            summary.phase(podName(podId), RollingUpdateSummary.READINESS, readinessStart);
             log.debug("Pod {} is now ready", podId);
         }
     }
 
+    /**
+     * Returns the AdminClient shared by all the pods, creating it, bootstrapped from the pods other than
+     * the given pod, if there isn't one.
+     */
+    private AdminClient sharedAdminClient(int podId) throws ForceableProblem {
+        if (adminClient == null) {
+            List<Integer> bootstrapPods = new ArrayList<>(numPods);
+            for (int other = 0; other < numPods; other++) {
+                if (other != podId) {
+                    bootstrapPods.add(other);
+                }
+            }
+            if (bootstrapPods.isEmpty()) {
+                bootstrapPods.add(podId);
+            }
+            adminClient = adminClient(bootstrapPods);
+            kafkaAvailability = availability(adminClient);
+        }
+        return adminClient;
+    }
+
+    /**
+     * Closes the shared AdminClient, if there is one, so that the next pod gets a new one.
+     */
+    private void discardAdminClient() {
+        closeLoggingAnyError(adminClient);
+        adminClient = null;
+        kafkaAvailability = null;
+    }
+
     private void closeLoggingAnyError(AdminClient adminClient) {
         if (adminClient != null) {
             try {
@@ -319,27 +657,214 @@ public class KafkaRoller {
         }
     }
 
-    private boolean canRoll(AdminClient adminClient, int podId, long timeout, TimeUnit unit)
+    private boolean canRoll(KafkaAvailability availability, int podId, long timeout, TimeUnit unit)
             throws ForceableProblem, InterruptedException {
-        return await(availability(adminClient).canRoll(podId), timeout, unit,
+        return await(availability.canRoll(podId), timeout, unit,
             t -> new ForceableProblem("An error while trying to determine rollability", t));
     }
 
+    /**
+     * Find the pods, other than the given pod and the controller, which need to be restarted and
+     * can be restarted at the same time as the given pod, up to the maximum batch size.
+     * @param availability The availability of the cluster.
+     * @param podId The pod which is going to be restarted.
+     * @param controller The controller.
+     * @param timeout The timeout.
+     * @param unit The timeout unit.
+     * @return The pods to restart with the given pod, by id.
+     */
+    private Map<Integer, Pod> batchMates(KafkaAvailability availability, int podId, int controller, long timeout, TimeUnit unit)
+            throws ForceableProblem, InterruptedException {
+        int maxBatchSize = options.getMaxBatchSize();
+        if (maxBatchSize <= 1) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Pod> candidates = new LinkedHashMap<>();
+        for (Map.Entry<Integer, RestartContext> entry : podToContext.entrySet()) {
+            int candidate = entry.getKey();
+            if (candidate != podId
+                    && candidate != controller
+                    && !entry.getValue().future.isComplete()
+                    && !restartedInBatch.contains(candidate)) {
+                Pod pod;
+                try {
+                    pod = podOperations.get(namespace, podName(candidate));
+                } catch (KubernetesClientException e) {
+                    log.debug("Ignoring pod {} for this batch due to {}", candidate, e.toString());
+                    continue;
+                }
+                if (pod != null && podNeedsRestart.test(pod)) {
+                    candidates.put(candidate, pod);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Integer> mates = await(availability.canRollWith(podId, new ArrayList<>(candidates.keySet()), maxBatchSize - 1),
+            timeout, unit, t -> new ForceableProblem("An error while trying to determine the pods to roll with pod " + podName(podId), t));
+        log.debug("Pods {} will be rolled with pod {}", mates, podId);
+        Map<Integer, Pod> result = new LinkedHashMap<>();
+        for (Integer mate : mates) {
+            result.put(mate, candidates.get(mate));
+        }
+        return result;
+    }
+
+    /**
+     * Move the leadership of the partitions led by the given brokers to their preferred leaders, where those are other
+     * brokers, and wait for it to move for up to the leadership drain timeout.
+     * Does nothing when there is no leadership drain timeout.
+     * Errors are logged and otherwise ignored, so that they do not prevent the restart.
+     * @param availability The availability of the cluster.
+     * @param brokers The brokers which are going to be restarted.
+     */
+    private void drainLeadership(KafkaAvailability availability, Set<Integer> brokers) throws InterruptedException {
+        long timeoutMs = options.getLeadershipDrainTimeoutMs();
+        if (timeoutMs <= 0) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        try {
+            Set<TopicPartition> toMove = await(availability.leadershipsToMove(brokers), 1, TimeUnit.MINUTES,
+                t -> new ForceableProblem("An error while trying to find the partitions led by pods " + brokers, t));
+            if (toMove.isEmpty()) {
+                return;
+            }
+            log.debug("Moving the leadership of {} partitions off pods {}", toMove.size(), brokers);
+            await(availability.electPreferredLeaders(toMove), 1, TimeUnit.MINUTES,
+                t -> new ForceableProblem("An error while trying to move the leadership off pods " + brokers, t));
+            while (!toMove.isEmpty()) {
+                if (System.currentTimeMillis() >= deadline) {
+                    log.info("The leadership of {} partitions has not moved off pods {} after {}ms, restarting them anyway",
+                            toMove.size(), brokers, timeoutMs);
+                    return;
+                }
+                Thread.sleep(pollingIntervalMs);
+                toMove = await(availability.leadershipsToMove(brokers), 1, TimeUnit.MINUTES,
+                    t -> new ForceableProblem("An error while trying to find the partitions led by pods " + brokers, t));
+            }
+            log.debug("The leadership has moved off pods {}", brokers);
+        } catch (ForceableProblem e) {
+            log.warn("Restarting pods {} without moving their leadership first", brokers, e);
+        }
+    }
+
+    /**
+     * Wait, for up to the ISR catch-up timeout, for the ISR catch-up percentage of the replicas on the given brokers
+     * to be in the ISR of their partition.
+     * Does nothing when there is no ISR catch-up percentage.
+     * Errors are logged and otherwise ignored, since whether the next pod can be restarted is checked anyway.
+     * @param availability The availability of the cluster.
+     * @param brokers The brokers which have been restarted.
+     */
+    private void awaitIsrCatchUp(KafkaAvailability availability, Set<Integer> brokers) throws InterruptedException {
+        int percentage = options.getIsrCatchUpPercentage();
+        if (percentage <= 0) {
+            return;
+        }
+        long timeoutMs = options.getIsrCatchUpTimeoutMs();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        try {
+            int inSync = await(availability.inSyncPercentage(brokers), 1, TimeUnit.MINUTES,
+                t -> new ForceableProblem("An error while trying to determine the ISR membership of pods " + brokers, t));
+            while (inSync < percentage) {
+                if (System.currentTimeMillis() >= deadline) {
+                    log.info("Only {}% of the replicas on pods {} are in sync after {}ms, continuing anyway",
+                            inSync, brokers, timeoutMs);
+                    return;
+                }
+                log.debug("{}% of the replicas on pods {} are in sync, waiting for {}%", inSync, brokers, percentage);
+                Thread.sleep(pollingIntervalMs);
+                inSync = await(availability.inSyncPercentage(brokers), 1, TimeUnit.MINUTES,
+                    t -> new ForceableProblem("An error while trying to determine the ISR membership of pods " + brokers, t));
+            }
+            log.debug("The replicas on pods {} have caught up", brokers);
+        } catch (ForceableProblem e) {
+            log.warn("Could not determine whether the replicas on pods {} have caught up", brokers, e);
+        }
+    }
+
+    /**
+     * Move the leadership of the partitions whose preferred leader is one of the given brokers back to them.
+     * Does nothing when there is no leadership drain timeout.
+     * Errors are logged and otherwise ignored.
+     * @param availability The availability of the cluster.
+     * @param brokers The brokers which have been restarted.
+     */
+    private void restoreLeadership(KafkaAvailability availability, Set<Integer> brokers) throws InterruptedException {
+        if (options.getLeadershipDrainTimeoutMs() <= 0) {
+            return;
+        }
+        try {
+            Set<TopicPartition> toRestore = await(availability.leadershipsToRestore(brokers), 1, TimeUnit.MINUTES,
+                t -> new ForceableProblem("An error while trying to find the partitions preferring pods " + brokers, t));
+            if (!toRestore.isEmpty()) {
+                log.debug("Moving the leadership of {} partitions back to pods {}", toRestore.size(), brokers);
+                await(availability.electPreferredLeaders(toRestore), 1, TimeUnit.MINUTES,
+                    t -> new ForceableProblem("An error while trying to move the leadership back to pods " + brokers, t));
+            }
+        } catch (ForceableProblem e) {
+            log.warn("Could not move the leadership back to pods {}", brokers, e);
+        }
+    }
+
     /**
      * Synchronously restart the given pod
      * by deleting it and letting it be recreated by K8s, then synchronously wait for it to be ready.
+     * @param podId The id of the pod to restart.
      * @param pod The Pod to restart.
      * @param timeout The timeout.
      * @param unit The timeout unit.
      */
-    private void restartAndAwaitReadiness(Pod pod, long timeout, TimeUnit unit)
+    private void restartAndAwaitReadiness(int podId, Pod pod, long timeout, TimeUnit unit)
             throws InterruptedException, UnforceableProblem, FatalProblem {
-        String podName = pod.getMetadata().getName();
+        restartAndAwaitReadiness(podId, pod, Collections.emptyMap(), timeout, unit);
+    }
+
+    /**
+     * Synchronously restart the given pod and its batch mates at the same time
+     * by deleting them and letting them be recreated by K8s, then synchronously wait for them to be ready.
+     * The batch mates are recorded as restarted, so that they are not restarted again.
+     * Once they are ready, the progress of the rolling restart is persisted.
+     * @param podId The id of the pod to restart.
+     * @param pod The Pod to restart.
+     * @param mates The Pods to restart with it, by id.
+     * @param timeout The timeout.
+     * @param unit The timeout unit.
+     */
+    private void restartAndAwaitReadiness(int podId, Pod pod, Map<Integer, Pod> mates, long timeout, TimeUnit unit)
+            throws InterruptedException, UnforceableProblem, FatalProblem {
+        List<Pod> pods = new ArrayList<>(mates.size() + 1);
+        pods.add(pod);
+        pods.addAll(mates.values());
+        String podName = pods.stream().map(p -> p.getMetadata().getName()).collect(Collectors.joining(", "));
         log.debug("Rolling pod {}", podName);
-        await(restart(pod), timeout, unit, e -> new UnforceableProblem("Error while trying to restart pod " + podName + " to become ready", e));
+        List<Future> restarts = new ArrayList<>(pods.size());
+        long restartStart = System.nanoTime();
+        for (Pod p : pods) {
+            restarts.add(restart(p));
+        }
+        await(CompositeFuture.join(restarts), timeout, unit, e -> new UnforceableProblem("Error while trying to restart pod " + podName + " to become ready", e));
+        for (Pod p : pods) {
+            summary.phase(p.getMetadata().getName(), RollingUpdateSummary.RESTART, restartStart);
+            summary.restarted(p.getMetadata().getName());
+        }
+        restartedInBatch.addAll(mates.keySet());
         log.debug("Waiting for restarted pod {} to become ready", podName);
-        await(isReady(pod), timeout, unit, e -> new FatalProblem("Error while waiting for restarted pod " + podName + " to become ready", e));
+        List<Future> readiness = new ArrayList<>(pods.size());
+        long readinessStart = System.nanoTime();
+        for (Pod p : pods) {
+            readiness.add(isReady(p));
+        }
+        await(CompositeFuture.join(readiness), timeout, unit, e -> new FatalProblem("Error while waiting for restarted pod " + podName + " to become ready", e));
+        for (Pod p : pods) {
+            summary.phase(p.getMetadata().getName(), RollingUpdateSummary.READINESS, readinessStart);
+        }
         log.debug("Pod {} is now ready", podName);
+        List<Integer> podIds = new ArrayList<>(mates.keySet());
+        podIds.add(0, podId);
+        recordRestarted(podIds);
     }
 
     /**
@@ -386,15 +911,17 @@ public class KafkaRoller {
     }
 
     /**
-     * Returns an AdminClient instance bootstrapped from the given pod.
+     * Returns an AdminClient instance bootstrapped from the given pods.
      */
-    protected AdminClient adminClient(Integer podId) throws ForceableProblem {
+    protected AdminClient adminClient(List<Integer> bootstrapPods) throws ForceableProblem {
         try {
-            String hostname = KafkaCluster.podDnsName(this.namespace, this.cluster, podName(podId)) + ":" + KafkaCluster.REPLICATION_PORT;
-            log.debug("Creating AdminClient for {}", hostname);
-            return adminClientProvider.createAdminClient(hostname, this.clusterCaCertSecret, this.coKeySecret);
+            String hostnames = bootstrapPods.stream()
+                    .map(podId -> KafkaCluster.podDnsName(this.namespace, this.cluster, podName(podId)) + ":" + KafkaCluster.REPLICATION_PORT)
+                    .collect(Collectors.joining(","));
+            log.debug("Creating AdminClient for {}", hostnames);
+            return adminClientProvider.createAdminClient(hostnames, this.clusterCaCertSecret, this.coKeySecret);
         } catch (RuntimeException e) {
-            throw new ForceableProblem("An error while try to create an admin client for pod " + podName(podId), e);
+            throw new ForceableProblem("An error while try to create an admin client for pods " + bootstrapPods, e);
         }
     }
 
@@ -420,9 +947,9 @@ public class KafkaRoller {
             KafkaFuture<Node> controller = describeClusterResult.controller();
             controllerNode = controller.get(timeout, unit);
         } catch (ExecutionException e) {
-            throw new ForceableProblem("Error while trying to determine the cluster controller from pod " + podName(podId), e.getCause());
+            throw new ForceableProblem("Error while trying to determine the cluster controller when considering pod " + podName(podId), e.getCause());
         } catch (TimeoutException e) {
-            throw new ForceableProblem("Error while trying to determine the cluster controller from pod " + podName(podId), e);
+            throw new ForceableProblem("Error while trying to determine the cluster controller when considering pod " + podName(podId), e);
         }
         int id = Node.noNode().equals(controllerNode) ? -1 : controllerNode.id();
         log.debug("controller is {}", id);
@@ -0,0 +1,76 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+/**
+ * Options for the rolling restarts of Kafka clusters performed by the {@link KafkaRoller}.
+ */
+public class KafkaRollingOptions {
+
+    /** Restart one broker at a time, without moving leadership first or waiting for replicas to catch up */
+    public static final KafkaRollingOptions DEFAULT = new KafkaRollingOptions(1, 0, 0, 300_000);
+
+    private final int maxBatchSize;
+    private final long leadershipDrainTimeoutMs;
+    private final int isrCatchUpPercentage;
+    private final long isrCatchUpTimeoutMs;
+
+    /**
+     * Constructor
+     *
+     * @param maxBatchSize The maximum number of brokers to restart at the same time
+     * @param leadershipDrainTimeoutMs How long to wait for the leadership of partitions to move off a broker
+     *                                 before restarting it, in milliseconds, or 0 not to move it
+     * @param isrCatchUpPercentage The percentage of the replicas on a restarted broker which must be back in the ISR
+     *                             of their partition before the next broker is considered, or 0 not to wait
+     * @param isrCatchUpTimeoutMs How long to wait for the replicas on a restarted broker to catch up, in milliseconds
+     */
+    public KafkaRollingOptions(int maxBatchSize, long leadershipDrainTimeoutMs, int isrCatchUpPercentage, long isrCatchUpTimeoutMs) {
+        this.maxBatchSize = maxBatchSize;
+        this.leadershipDrainTimeoutMs = leadershipDrainTimeoutMs;
+        this.isrCatchUpPercentage = isrCatchUpPercentage;
+        this.isrCatchUpTimeoutMs = isrCatchUpTimeoutMs;
+    }
+
+    /**
+     * @return The maximum number of brokers to restart at the same time
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return How long to wait for the leadership of partitions to move off a broker before restarting it,
+     * in milliseconds, or 0 not to move it
+     */
+    public long getLeadershipDrainTimeoutMs() {
+        return leadershipDrainTimeoutMs;
+    }
+
+    /**
+     * @return The percentage of the replicas on a restarted broker which must be back in the ISR of their partition
+     * before the next broker is considered, or 0 not to wait
+     */
+    public int getIsrCatchUpPercentage() {
+        return isrCatchUpPercentage;
+    }
+
+    /**
+     * @return How long to wait for the replicas on a restarted broker to catch up, in milliseconds
+     */
+    public long getIsrCatchUpTimeoutMs() {
+        return isrCatchUpTimeoutMs;
+    }
+
+    @Override
+    public String toString() {
+        return "KafkaRollingOptions(" +
+                "maxBatchSize=" + maxBatchSize +
+                ",leadershipDrainTimeoutMs=" + leadershipDrainTimeoutMs +
+                ",isrCatchUpPercentage=" + isrCatchUpPercentage +
+                ",isrCatchUpTimeoutMs=" + isrCatchUpTimeoutMs +
+                ")";
+    }
+}
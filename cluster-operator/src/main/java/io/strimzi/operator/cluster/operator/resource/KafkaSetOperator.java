@@ -9,6 +9,7 @@ import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.strimzi.operator.common.BackOff;
+import io.strimzi.operator.common.operator.resource.ConfigMapOperator;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
@@ -24,6 +25,8 @@ public class KafkaSetOperator extends StatefulSetOperator {
     private static final Logger log = LogManager.getLogger(KafkaSetOperator.class);
 
     private final AdminClientProvider adminClientProvider;
+    private final KafkaRollingOptions rollingOptions;
+    private final ConfigMapOperator configMapOperations;
 
     /**
      * Constructor
@@ -35,8 +38,24 @@ public class KafkaSetOperator extends StatefulSetOperator {
      */
     public KafkaSetOperator(Vertx vertx, KubernetesClient client, long operationTimeoutMs,
                             AdminClientProvider adminClientProvider) {
+        this(vertx, client, operationTimeoutMs, adminClientProvider, KafkaRollingOptions.DEFAULT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param vertx  The Vertx instance
+     * @param client The Kubernetes client
+     * @param operationTimeoutMs The timeout.
+     * @param adminClientProvider A provider for the AdminClient.
+     * @param rollingOptions The options for rolling restarts.
+     */
+    public KafkaSetOperator(Vertx vertx, KubernetesClient client, long operationTimeoutMs,
+                            AdminClientProvider adminClientProvider, KafkaRollingOptions rollingOptions) {
         super(vertx, client, operationTimeoutMs);
         this.adminClientProvider = adminClientProvider;
+        this.rollingOptions = rollingOptions;
+        this.configMapOperations = new ConfigMapOperator(vertx, client);
     }
 
     @Override
@@ -67,9 +86,21 @@ public class KafkaSetOperator extends StatefulSetOperator {
     @Override
     public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podNeedsRestart,
                                            Secret clusterCaCertSecret, Secret coKeySecret) {
-        return new KafkaRoller(vertx, podOperations, 1_000, operationTimeoutMs,
-            () -> new BackOff(250, 2, 10), ss, clusterCaCertSecret, coKeySecret, adminClientProvider)
-                .rollingRestart(podNeedsRestart);
+        return maybeRollingUpdate(ss, podNeedsRestart, null, clusterCaCertSecret, coKeySecret);
+    }
+
+    @Override
+    protected Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podNeedsRestart, String reason,
+                                              Secret clusterCaCertSecret, Secret coKeySecret) {
+        KafkaRoller roller = new KafkaRoller(vertx, podOperations, POLLING_INTERVAL_MS, operationTimeoutMs,
+            () -> new BackOff(250, 2, 10), ss, clusterCaCertSecret, coKeySecret, adminClientProvider,
+            rollingOptions, configMapOperations);
+        Future<Void> result = Future.future();
+        roller.rollingRestart(podNeedsRestart, reason).setHandler(ar -> {
+            rollingUpdateEnded(ss, roller.summary());
+            result.handle(ar);
+        });
+        return result;
     }
 
 }
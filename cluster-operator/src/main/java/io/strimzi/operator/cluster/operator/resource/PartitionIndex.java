@@ -0,0 +1,374 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>An index of the partitions in a snapshot of topic descriptions by broker, used by {@link KafkaAvailability}.</p>
+ *
+ * <p>The partitions and their replicas are numbered when the index is built, and their ISR sizes, replicas and
+ * ISR membership, as well as the {@code min.insync.replicas} of the topics, are kept in packed primitive arrays.
+ * Determining whether a broker can be rolled then takes time proportional to the number of replicas on that broker,
+ * without allocating.</p>
+ *
+ * <p>The ISRs can be updated from new descriptions of the same partitions. When the replicas of the partitions
+ * have changed the index has to be built again.</p>
+ */
+class PartitionIndex {
+
+    private static final Logger log = LogManager.getLogger(PartitionIndex.class.getName());
+
+    /** The min.insync.replicas of a topic which hasn't been described yet */
+    static final int UNKNOWN_MIN_ISR = -2;
+    /** The min.insync.replicas of a topic which hasn't got one */
+    static final int NO_MIN_ISR = -1;
+
+    private static final int[] NO_REPLICAS = new int[0];
+
+    private final String[] topicNames;
+    private final Map<String, Integer> topicIndices;
+    private final int[] topicMinIsr;
+    /** The index of the first partition of each topic, with an extra element for the end of the last topic */
+    private final int[] topicFirstPartition;
+
+    private final int[] partitionTopic;
+    /** The index of the first replica of each partition, with an extra element for the end of the last partition */
+    private final int[] partitionFirstReplica;
+    private final int[] partitionIsrSize;
+
+    private final int[] replicaPartition;
+    private final int[] replicaBroker;
+    private final boolean[] replicaInIsr;
+
+    /** The indices of the replicas on each broker */
+    private final Map<Integer, int[]> brokerReplicas;
+    private final Map<Integer, String> brokerRacks;
+
+    /**
+     * Builds the index of the given topics.
+     * @param tds The descriptions of the topics.
+     * @param minIsrs The known min.insync.replicas of the topics, or {@link #NO_MIN_ISR} for topics without one.
+     */
+    PartitionIndex(Collection<TopicDescription> tds, Map<String, Integer> minIsrs) {
+        int numPartitions = 0;
+        int numReplicas = 0;
+        for (TopicDescription td : tds) {
+            numPartitions += td.partitions().size();
+            for (TopicPartitionInfo pi : td.partitions()) {
+                numReplicas += pi.replicas().size();
+            }
+        }
+        topicNames = new String[tds.size()];
+        topicIndices = new HashMap<>(tds.size() * 2);
+        topicMinIsr = new int[tds.size()];
+        topicFirstPartition = new int[tds.size() + 1];
+        partitionTopic = new int[numPartitions];
+        partitionFirstReplica = new int[numPartitions + 1];
+        partitionIsrSize = new int[numPartitions];
+        replicaPartition = new int[numReplicas];
+        replicaBroker = new int[numReplicas];
+        replicaInIsr = new boolean[numReplicas];
+        brokerRacks = new HashMap<>();
+
+        Map<Integer, Integer> replicasPerBroker = new HashMap<>();
+        int topic = 0;
+        int partition = 0;
+        int replica = 0;
+        for (TopicDescription td : tds) {
+            topicNames[topic] = td.name();
+            topicIndices.put(td.name(), topic);
+            topicMinIsr[topic] = minIsrs.getOrDefault(td.name(), UNKNOWN_MIN_ISR);
+            topicFirstPartition[topic] = partition;
+            List<TopicPartitionInfo> partitions = new ArrayList<>(td.partitions());
+            partitions.sort(Comparator.comparingInt(TopicPartitionInfo::partition));
+            for (TopicPartitionInfo pi : partitions) {
+                partitionTopic[partition] = topic;
+                partitionFirstReplica[partition] = replica;
+                partitionIsrSize[partition] = pi.isr().size();
+                for (Node node : pi.replicas()) {
+                    replicaPartition[replica] = partition;
+                    replicaBroker[replica] = node.id();
+                    replicaInIsr[replica] = contains(pi.isr(), node.id());
+                    replicasPerBroker.merge(node.id(), 1, Integer::sum);
+                    if (node.hasRack()) {
+                        brokerRacks.put(node.id(), node.rack());
+                    }
+                    replica++;
+                }
+                partition++;
+            }
+            topic++;
+        }
+        topicFirstPartition[topic] = partition;
+        partitionFirstReplica[partition] = replica;
+
+        brokerReplicas = new HashMap<>(replicasPerBroker.size() * 2);
+        Map<Integer, Integer> filled = new HashMap<>(replicasPerBroker.size() * 2);
+        for (Map.Entry<Integer, Integer> entry : replicasPerBroker.entrySet()) {
+            brokerReplicas.put(entry.getKey(), new int[entry.getValue()]);
+        }
+        for (int r = 0; r < replicaBroker.length; r++) {
+            int broker = replicaBroker[r];
+            int next = filled.merge(broker, 1, Integer::sum) - 1;
+            brokerReplicas.get(broker)[next] = r;
+        }
+        log.debug("Indexed {} topics, {} partitions and {} replicas on {} brokers",
+                topicNames.length, partitionTopic.length, replicaBroker.length, brokerReplicas.size());
+    }
+
+    private static boolean contains(List<Node> nodes, int broker) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).id() == broker) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] replicasOn(int broker) {
+        return brokerReplicas.getOrDefault(broker, NO_REPLICAS);
+    }
+
+    /**
+     * Updates the ISRs of the partitions from new descriptions of their topics.
+     * @param tds The new descriptions.
+     * @return false if the partitions or their replicas have changed, in which case the index has to be built again.
+     */
+    synchronized boolean update(Collection<TopicDescription> tds) {
+        for (TopicDescription td : tds) {
+            Integer topic = topicIndices.get(td.name());
+            if (topic == null
+                    || topicFirstPartition[topic + 1] - topicFirstPartition[topic] != td.partitions().size()) {
+                return false;
+            }
+            for (TopicPartitionInfo pi : td.partitions()) {
+                if (pi.partition() < 0 || pi.partition() >= td.partitions().size()) {
+                    return false;
+                }
+                int partition = topicFirstPartition[topic] + pi.partition();
+                int first = partitionFirstReplica[partition];
+                if (partitionFirstReplica[partition + 1] - first != pi.replicas().size()) {
+                    return false;
+                }
+                for (int i = 0; i < pi.replicas().size(); i++) {
+                    if (replicaBroker[first + i] != pi.replicas().get(i).id()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        for (TopicDescription td : tds) {
+            int topic = topicIndices.get(td.name());
+            for (TopicPartitionInfo pi : td.partitions()) {
+                int partition = topicFirstPartition[topic] + pi.partition();
+                partitionIsrSize[partition] = pi.isr().size();
+                for (int r = partitionFirstReplica[partition]; r < partitionFirstReplica[partition + 1]; r++) {
+                    replicaInIsr[r] = contains(pi.isr(), replicaBroker[r]);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The names of the topics with replicas on any of the given brokers.
+     */
+    synchronized Set<String> topicsOn(Set<Integer> brokers) {
+        Set<String> result = new HashSet<>();
+        for (Integer broker : brokers) {
+            for (int replica : replicasOn(broker)) {
+                result.add(topicNames[partitionTopic[replicaPartition[replica]]]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The names of the topics with replicas on any of the given brokers whose min.insync.replicas is unknown.
+     */
+    synchronized Set<String> unknownMinIsrs(Set<Integer> brokers) {
+        Set<String> result = new HashSet<>();
+        for (Integer broker : brokers) {
+            for (int replica : replicasOn(broker)) {
+                int topic = partitionTopic[replicaPartition[replica]];
+                if (topicMinIsr[topic] == UNKNOWN_MIN_ISR) {
+                    result.add(topicNames[topic]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The percentage, rounded down, of the replicas on the given brokers which are in the ISR of their partition,
+     * or 100 if the brokers have no replicas.
+     */
+    synchronized int inSyncPercentage(Set<Integer> brokers) {
+        int total = 0;
+        int inSync = 0;
+        for (Integer broker : brokers) {
+            for (int replica : replicasOn(broker)) {
+                total++;
+                if (replicaInIsr[replica]) {
+                    inSync++;
+                }
+            }
+        }
+        return total == 0 ? 100 : (int) (100L * inSync / total);
+    }
+
+    /**
+     * Sets the min.insync.replicas of the given topic.
+     * @param topicName The topic.
+     * @param minIsr Its min.insync.replicas, or {@link #NO_MIN_ISR}.
+     */
+    synchronized void minIsr(String topicName, int minIsr) {
+        Integer topic = topicIndices.get(topicName);
+        if (topic != null) {
+            topicMinIsr[topic] = minIsr;
+        }
+    }
+
+    /**
+     * @return The rack of the given broker, or null if it isn't known.
+     */
+    String rack(int broker) {
+        return brokerRacks.get(broker);
+    }
+
+    /**
+     * @return Whether the given broker has a replica of any of the partitions with a replica on any of the given brokers.
+     */
+    synchronized boolean sharesPartition(Set<Integer> brokers, int broker) {
+        for (int replica : replicasOn(broker)) {
+            int partition = replicaPartition[replica];
+            for (int r = partitionFirstReplica[partition]; r < partitionFirstReplica[partition + 1]; r++) {
+                if (r != replica && brokers.contains(replicaBroker[r])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether restarting the given broker would affect the availability of any of its partitions.
+     */
+    synchronized boolean wouldAffectAvailability(int broker) {
+        for (int replica : replicasOn(broker)) {
+            int partition = replicaPartition[replica];
+            if (wouldAffectAvailability(partition, replicaInIsr[replica] ? 1 : 0, broker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return An array with an element for each partition, for passing to {@link #wouldAffectAvailability(Set, int[])}.
+     */
+    int[] newScratch() {
+        return new int[partitionTopic.length];
+    }
+
+    /**
+     * Determines whether restarting all the given brokers at the same time would affect the availability of any
+     * of their partitions.
+     * @param brokers The brokers.
+     * @param scratch An array from {@link #newScratch()}, all elements of which are zero, as they are on return.
+     * @return Whether restarting the brokers would affect availability.
+     */
+    synchronized boolean wouldAffectAvailability(Set<Integer> brokers, int[] scratch) {
+        for (Integer broker : brokers) {
+            for (int replica : replicasOn(broker)) {
+                if (replicaInIsr[replica]) {
+                    scratch[replicaPartition[replica]]++;
+                }
+            }
+        }
+        boolean result = false;
+        for (Integer broker : brokers) {
+            for (int replica : replicasOn(broker)) {
+                int partition = replicaPartition[replica];
+                if (!result && wouldAffectAvailability(partition, scratch[partition], brokers)) {
+                    result = true;
+                }
+                scratch[partition] = 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether restarting brokers with a replica of the given partition, {@code restartedIsr} of which are in its ISR,
+     * would affect its availability.
+     */
+    private boolean wouldAffectAvailability(int partition, int restartedIsr, Object brokers) {
+        int minIsr = topicMinIsr[partitionTopic[partition]];
+        if (minIsr < 0) {
+            return false;
+        }
+        int isrSize = partitionIsrSize[partition];
+        int replicas = partitionFirstReplica[partition + 1] - partitionFirstReplica[partition];
+        if (isrSize < minIsr) {
+            logIsrReplicas(partition);
+            log.info("{}/{} is already underreplicated (|ISR|={}, {}={}); brokers {} have a replica, " +
+                            "so should not be restarted right now (it might be first to catch up).",
+                    topicName(partition), partitionId(partition), isrSize, TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, minIsr, brokers);
+            return true;
+        } else if (restartedIsr > 0
+                && isrSize - restartedIsr < minIsr) {
+            if (minIsr < replicas) {
+                logIsrReplicas(partition);
+                log.info("{}/{} will be underreplicated (|ISR|={} and {}={}) if brokers {} are restarted.",
+                        topicName(partition), partitionId(partition), isrSize, TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, minIsr, brokers);
+                return true;
+            } else {
+                log.debug("{}/{} will be underreplicated (|ISR|={} and {}={}) if brokers {} are restarted, but there are only {} relicas.",
+                        topicName(partition), partitionId(partition), isrSize, TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, minIsr, brokers,
+                        replicas);
+            }
+        }
+        return false;
+    }
+
+    private String topicName(int partition) {
+        return topicNames[partitionTopic[partition]];
+    }
+
+    private int partitionId(int partition) {
+        return partition - topicFirstPartition[partitionTopic[partition]];
+    }
+
+    private void logIsrReplicas(int partition) {
+        if (log.isDebugEnabled()) {
+            StringBuilder isr = new StringBuilder("[");
+            StringBuilder replicas = new StringBuilder("[");
+            for (int r = partitionFirstReplica[partition]; r < partitionFirstReplica[partition + 1]; r++) {
+                if (replicaInIsr[r]) {
+                    isr.append(isr.length() > 1 ? "," : "").append(replicaBroker[r]);
+                }
+                replicas.append(replicas.length() > 1 ? "," : "").append(replicaBroker[r]);
+            }
+            log.debug("{}/{} has ISR={}, replicas={}", topicName(partition), partitionId(partition),
+                    isr.append("]"), replicas.append("]"));
+        }
+    }
+}
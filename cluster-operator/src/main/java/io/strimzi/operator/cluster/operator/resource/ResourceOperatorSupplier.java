@@ -42,6 +42,8 @@ import io.strimzi.operator.common.operator.resource.ServiceOperator;
 
 import io.fabric8.openshift.client.OpenShiftClient;
 import io.strimzi.operator.common.operator.resource.StorageClassOperator;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
 @SuppressWarnings("checkstyle:ClassDataAbstractionCoupling")
@@ -72,21 +74,33 @@ public class ResourceOperatorSupplier {
     public final StorageClassOperator storageClassOperations;
 
     public ResourceOperatorSupplier(Vertx vertx, KubernetesClient client, PlatformFeaturesAvailability pfa, long operationTimeoutMs) {
+        this(vertx, client, pfa, operationTimeoutMs, KafkaRollingOptions.DEFAULT);
+    }
+
+    public ResourceOperatorSupplier(Vertx vertx, KubernetesClient client, PlatformFeaturesAvailability pfa, long operationTimeoutMs,
+                                    KafkaRollingOptions kafkaRollingOptions) {
         this(vertx, client,
             new ZookeeperLeaderFinder(vertx, new SecretOperator(vertx, client),
             // Retry up to 3 times (4 attempts), with overall max delay of 35000ms
                 () -> new BackOff(5_000, 2, 4)),
                     new DefaultAdminClientProvider(),
-                    pfa, operationTimeoutMs);
+                    pfa, operationTimeoutMs, kafkaRollingOptions);
     }
 
     public ResourceOperatorSupplier(Vertx vertx, KubernetesClient client, ZookeeperLeaderFinder zlf,
                                     AdminClientProvider adminClientProvider,
                                     PlatformFeaturesAvailability pfa, long operationTimeoutMs) {
+        this(vertx, client, zlf, adminClientProvider, pfa, operationTimeoutMs, KafkaRollingOptions.DEFAULT);
+    }
+
+    public ResourceOperatorSupplier(Vertx vertx, KubernetesClient client, ZookeeperLeaderFinder zlf,
+                                    AdminClientProvider adminClientProvider,
+                                    PlatformFeaturesAvailability pfa, long operationTimeoutMs,
+                                    KafkaRollingOptions kafkaRollingOptions) {
         this(new ServiceOperator(vertx, client),
                 pfa.hasRoutes() ? new RouteOperator(vertx, client.adapt(OpenShiftClient.class)) : null,
                 new ZookeeperSetOperator(vertx, client, zlf, operationTimeoutMs),
-                new KafkaSetOperator(vertx, client, operationTimeoutMs, adminClientProvider),
+                new KafkaSetOperator(vertx, client, operationTimeoutMs, adminClientProvider, kafkaRollingOptions),
                 new ConfigMapOperator(vertx, client),
                 new SecretOperator(vertx, client),
                 new PvcOperator(vertx, client),
@@ -158,4 +172,33 @@ public class ResourceOperatorSupplier {
         this.kafkaBridgeOperator = kafkaBridgeOperator;
         this.storageClassOperations = storageClassOperator;
     }
+
+    /**
+     * Enables the caches of the resources which are read most often during reconciliation
+     * of the operands in the given {@code namespace}.
+     * @param namespace The namespace, or {@code *} for any namespace.
+     * @return A future which completes when all the caches have been populated.
+     */
+    public Future<Void> enableCaches(String namespace) {
+        return CompositeFuture.join(
+                serviceOperations.enableCache(namespace),
+                secretOperations.enableCache(namespace),
+                configMapOperations.enableCache(namespace),
+                pvcOperations.enableCache(namespace),
+                podOperations.enableCache(namespace))
+            .map((Void) null);
+    }
+
+    /**
+     * Disables the caches enabled by {@link #enableCaches(String)} for the given {@code namespace},
+     * e.g. once this replica of the operator no longer operates it.
+     * @param namespace The namespace, or {@code *} for any namespace.
+     */
+    public void disableCaches(String namespace) {
+        serviceOperations.disableCache(namespace);
+        secretOperations.disableCache(namespace);
+        configMapOperations.disableCache(namespace);
+        pvcOperations.disableCache(namespace);
+        podOperations.disableCache(namespace);
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * <p>The progress of a rolling restart of the pods of a StatefulSet, persisted in a ConfigMap owned by the StatefulSet,
+ * so that a rolling restart which was interrupted, by an error or by the operator being restarted, can be resumed.</p>
+ *
+ * <p>The progress records the {@code strimzi.io/generation} of the StatefulSet being rolled out, why its pods are being
+ * restarted, when the rolling restart started, the uid of each pod which has been rolled, as of when it was rolled,
+ * and the pods which are still pending.</p>
+ */
+class RollingProgress {
+
+    private static final String GENERATION = "generation";
+    private static final String REASON = "reason";
+    private static final String START_TIME = "start-time";
+    private static final String COMPLETED = "completed";
+    private static final String PENDING = "pending";
+
+    private final int generation;
+    private final String reason;
+    private final long startTimeMs;
+    private final Map<Integer, String> completed;
+    private final Set<Integer> pending;
+
+    RollingProgress(int generation, String reason, long startTimeMs) {
+        this(generation, reason, startTimeMs, new TreeMap<>(), new TreeSet<>());
+    }
+
+    private RollingProgress(int generation, String reason, long startTimeMs, Map<Integer, String> completed, Set<Integer> pending) {
+        this.generation = generation;
+        this.reason = reason;
+        this.startTimeMs = startTimeMs;
+        this.completed = completed;
+        this.pending = pending;
+    }
+
+    /**
+     * @return The name of the ConfigMap holding the progress of the rolling restart of the StatefulSet with the given name.
+     */
+    static String configMapName(String statefulSetName) {
+        return statefulSetName + "-rolling-progress";
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    /**
+     * @return Why the pods are being restarted, or null if the rolling restart can't be resumed.
+     */
+    String reason() {
+        return reason;
+    }
+
+    long startTimeMs() {
+        return startTimeMs;
+    }
+
+    /**
+     * @return The uid the given pod had when it was rolled, or null if it hasn't been rolled.
+     */
+    synchronized String completedUid(int podId) {
+        return completed.get(podId);
+    }
+
+    synchronized void pending(int podId) {
+        pending.add(podId);
+    }
+
+    /**
+     * Records that the given pod has been rolled.
+     * @param podId The pod.
+     * @param uid The uid of the pod once rolled.
+     */
+    synchronized void completed(int podId, String uid) {
+        pending.remove(podId);
+        completed.put(podId, uid);
+    }
+
+    /**
+     * @return The ConfigMap for persisting this progress of the rolling restart of the given StatefulSet.
+     */
+    synchronized ConfigMap toConfigMap(StatefulSet ss) {
+        Map<String, String> data = new HashMap<>(5);
+        data.put(GENERATION, String.valueOf(generation));
+        if (reason != null) {
+            data.put(REASON, reason);
+        }
+        data.put(START_TIME, String.valueOf(startTimeMs));
+        data.put(COMPLETED, completed.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(",")));
+        data.put(PENDING, pending.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        ConfigMap cm = new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName(configMapName(ss.getMetadata().getName()))
+                    .withNamespace(ss.getMetadata().getNamespace())
+                    .withLabels(ss.getMetadata().getLabels())
+                .endMetadata()
+                .withData(data)
+                .build();
+        if (ss.getMetadata().getUid() != null) {
+            // So that the progress is deleted with the StatefulSet
+            cm.getMetadata().setOwnerReferences(Collections.singletonList(new OwnerReferenceBuilder()
+                    .withApiVersion(ss.getApiVersion())
+                    .withKind(ss.getKind())
+                    .withName(ss.getMetadata().getName())
+                    .withUid(ss.getMetadata().getUid())
+                    .withBlockOwnerDeletion(false)
+                    .withController(false)
+                    .build()));
+        }
+        return cm;
+    }
+
+    /**
+     * @return The progress persisted in the given ConfigMap, or null if the ConfigMap is null or can't be parsed.
+     */
+    static RollingProgress fromConfigMap(ConfigMap cm) {
+        if (cm == null || cm.getData() == null) {
+            return null;
+        }
+        try {
+            Map<String, String> data = cm.getData();
+            Map<Integer, String> completed = new TreeMap<>();
+            String completedValue = data.getOrDefault(COMPLETED, "");
+            if (!completedValue.isEmpty()) {
+                for (String entry : completedValue.split(",")) {
+                    int index = entry.indexOf('=');
+                    completed.put(Integer.parseInt(entry.substring(0, index)), entry.substring(index + 1));
+                }
+            }
+            Set<Integer> pending = new TreeSet<>();
+            String pendingValue = data.getOrDefault(PENDING, "");
+            if (!pendingValue.isEmpty()) {
+                for (String podId : pendingValue.split(",")) {
+                    pending.add(Integer.parseInt(podId));
+                }
+            }
+            return new RollingProgress(Integer.parseInt(data.get(GENERATION)), data.get(REASON),
+                    Long.parseLong(data.get(START_TIME)), completed, pending);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RollingProgress(" +
+                "generation=" + generation +
+                ",reason=" + reason +
+                ",startTimeMs=" + startTimeMs +
+                ",completed=" + completed +
+                ",pending=" + pending +
+                ")";
+    }
+}
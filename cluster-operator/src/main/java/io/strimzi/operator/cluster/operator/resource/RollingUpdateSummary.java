@@ -0,0 +1,186 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.micrometer.core.instrument.Tags;
+import io.strimzi.api.kafka.model.status.PodRollingUpdateStatus;
+import io.strimzi.api.kafka.model.status.PodRollingUpdateStatusBuilder;
+import io.strimzi.api.kafka.model.status.RollingUpdateStatus;
+import io.strimzi.api.kafka.model.status.RollingUpdateStatusBuilder;
+import io.strimzi.operator.common.MetricsProvider;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Records how long each phase of a rolling update took, for each pod, and how many times the rolling update
+ * of each pod was retried, and why.</p>
+ *
+ * <p>Once the rolling update is complete the recorded durations and retries are exported as metrics, and, if any
+ * pod was restarted, summarised as a {@link RollingUpdateStatus} for the status of the Kafka resource.</p>
+ */
+public class RollingUpdateSummary {
+
+    /** Finding the controller of the Kafka cluster */
+    static final String CONTROLLER = "controller";
+    /** Finding whether the pod, and which other pods, can be restarted without impacting availability */
+    static final String AVAILABILITY = "availability";
+    /** Moving the leadership of partitions off the pod */
+    static final String LEADERSHIP_DRAIN = "leadershipDrain";
+    /** Deleting the pod and waiting for it to be recreated */
+    static final String RESTART = "restart";
+    /** Waiting for the pod to be ready */
+    static final String READINESS = "readiness";
+    /** Waiting for the replicas on the pod to be back in sync */
+    static final String ISR_CATCH_UP = "isrCatchUp";
+    /** Moving the leadership of partitions back to the pod */
+    static final String LEADERSHIP_RESTORE = "leadershipRestore";
+    /** Finding the leader of the ZooKeeper ensemble */
+    static final String LEADER = "leader";
+    /** Waiting for the restarted followers to be back in sync with the ZooKeeper leader */
+    static final String FOLLOWER_SYNC = "followerSync";
+
+    private final String component;
+    private final long startTimeMs;
+    private final Map<String, Long> phases = new TreeMap<>();
+    private final Map<String, PodSummary> pods = new TreeMap<>();
+
+    private static class PodSummary {
+        private boolean restarted;
+        private final Map<String, Long> phases = new TreeMap<>();
+        private final Map<String, Integer> retries = new TreeMap<>();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param component The component being rolled ({@code kafka} or {@code zookeeper}).
+     * @param startTimeMs When the rolling update started.
+     */
+    public RollingUpdateSummary(String component, long startTimeMs) {
+        this.component = component;
+        this.startTimeMs = startTimeMs;
+    }
+
+    /**
+     * @return The component being rolled.
+     */
+    public String getComponent() {
+        return component;
+    }
+
+    private PodSummary pod(String podName) {
+        return pods.computeIfAbsent(podName, k -> new PodSummary());
+    }
+
+    /**
+     * Records a phase of the rolling update which is not specific to a pod.
+     * @param phase The phase.
+     * @param startNanos The {@link System#nanoTime()} when the phase started.
+     */
+    public synchronized void phase(String phase, long startNanos) {
+        phases.merge(phase, elapsedMs(startNanos), Long::sum);
+    }
+
+    /**
+     * Records a phase of the rolling update of the given pod.
+     * Repeated phases, for example due to retries, are summed.
+     * @param podName The pod.
+     * @param phase The phase.
+     * @param startNanos The {@link System#nanoTime()} when the phase started.
+     */
+    public synchronized void phase(String podName, String phase, long startNanos) {
+        pod(podName).phases.merge(phase, elapsedMs(startNanos), Long::sum);
+    }
+
+    /**
+     * Records that the rolling update of the given pod will be retried.
+     * @param podName The pod.
+     * @param reason Why, usually the simple name of the class of the problem.
+     */
+    public synchronized void retry(String podName, String reason) {
+        pod(podName).retries.merge(reason, 1, Integer::sum);
+    }
+
+    /**
+     * Records that the given pod has been restarted.
+     * @param podName The pod.
+     */
+    public synchronized void restarted(String podName) {
+        pod(podName).restarted = true;
+    }
+
+    /**
+     * @return Whether any pod has been restarted.
+     */
+    public synchronized boolean anyRestarted() {
+        return pods.values().stream().anyMatch(pod -> pod.restarted);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Exports the recorded phases and retries as metrics.
+     * @param metrics The metrics provider.
+     * @param endTimeMs When the rolling update ended.
+     */
+    public synchronized void record(MetricsProvider metrics, long endTimeMs) {
+        Tags tags = Tags.of("component", component);
+        metrics.timer("strimzi.rolling.update", "The duration of rolling updates", tags)
+                .record(endTimeMs - startTimeMs, TimeUnit.MILLISECONDS);
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            recordPhase(metrics, tags, phase.getKey(), phase.getValue());
+        }
+        for (PodSummary pod : pods.values()) {
+            for (Map.Entry<String, Long> phase : pod.phases.entrySet()) {
+                recordPhase(metrics, tags, phase.getKey(), phase.getValue());
+            }
+            for (Map.Entry<String, Integer> retry : pod.retries.entrySet()) {
+                metrics.counter("strimzi.rolling.update.retries", "The number of retries of rolling updates of pods, by reason",
+                        tags.and("reason", retry.getKey()))
+                        .increment(retry.getValue());
+            }
+        }
+    }
+
+    private static void recordPhase(MetricsProvider metrics, Tags tags, String phase, long durationMs) {
+        metrics.timer("strimzi.rolling.update.phase", "The duration of the phases of rolling updates",
+                tags.and("phase", phase))
+                .record(durationMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param endTimeMs When the rolling update ended.
+     * @return The summary of the rolling update for the status of the Kafka resource.
+     */
+    public synchronized RollingUpdateStatus toStatus(long endTimeMs) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        List<PodRollingUpdateStatus> podStatuses = new ArrayList<>(pods.size());
+        for (Map.Entry<String, PodSummary> pod : pods.entrySet()) {
+            podStatuses.add(new PodRollingUpdateStatusBuilder()
+                    .withPod(pod.getKey())
+                    .withRestarted(pod.getValue().restarted)
+                    .withPhases(pod.getValue().phases.isEmpty() ? null : new TreeMap<>(pod.getValue().phases))
+                    .withRetries(pod.getValue().retries.isEmpty() ? null : new TreeMap<>(pod.getValue().retries))
+                    .build());
+        }
+        return new RollingUpdateStatusBuilder()
+                .withComponent(component)
+                .withStartTime(format.format(new Date(startTimeMs)))
+                .withDurationMs(endTimeMs - startTimeMs)
+                .withPhases(phases.isEmpty() ? null : new TreeMap<>(phases))
+                .withPods(podStatuses)
+                .build();
+    }
+}
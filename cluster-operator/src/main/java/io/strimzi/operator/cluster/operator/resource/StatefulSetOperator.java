@@ -15,6 +15,7 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
 import io.strimzi.api.kafka.model.KafkaResources;
+import io.strimzi.api.kafka.model.status.RollingUpdateStatus;
 import io.strimzi.operator.cluster.ClusterOperator;
 import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.common.Annotations;
@@ -33,6 +34,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 /**
@@ -44,11 +46,16 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
     private static final int NO_GENERATION = -1;
     private static final int INIT_GENERATION = 0;
 
+    /** How often the state of the StatefulSet and its pods is polled while waiting for it to change */
+    protected static final long POLLING_INTERVAL_MS = 1_000;
+
     private static final Logger log = LogManager.getLogger(StatefulSetOperator.class.getName());
     protected final PodOperator podOperations;
     private final PvcOperator pvcOperations;
     protected final long operationTimeoutMs;
     private final SecretOperator secretOperations;
+    /** The summaries of the last rolling updates which restarted pods, by namespace/name of the StatefulSet */
+    private final Map<String, RollingUpdateStatus> rollingUpdates = new ConcurrentHashMap<>();
 
     /**
      * Constructor
@@ -92,6 +99,19 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      * @return A future that completes when any necessary rolling has been completed.
      */
     public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podNeedsRestart) {
+        return maybeRollingUpdate(ss, podNeedsRestart, null);
+    }
+
+    /**
+     * Like {@link #maybeRollingUpdate(StatefulSet, Predicate)}, giving the reason for the rolling update,
+     * so that a rolling update of the same generation of the StatefulSet for the same reason which didn't complete
+     * can be resumed, where that's supported.
+     * @param ss The StatefulSet
+     * @param podNeedsRestart Predicate for deciding whether the pod needs to be restarted.
+     * @param reason Why the pods are being restarted, or null if the rolling update can't be resumed.
+     * @return A future that completes when any necessary rolling has been completed.
+     */
+    public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podNeedsRestart, String reason) {
         String cluster = ss.getMetadata().getLabels().get(Labels.STRIMZI_CLUSTER_LABEL);
         String namespace = ss.getMetadata().getNamespace();
         Future<Secret> clusterCaKeySecretFuture = secretOperations.getAsync(
@@ -107,7 +127,7 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
             if (coKeySecret == null) {
                 return Future.failedFuture(missingSecretFuture(namespace, ClusterOperator.secretName(cluster)));
             }
-            return maybeRollingUpdate(ss, podNeedsRestart, clusterCaKeySecret, coKeySecret);
+            return maybeRollingUpdate(ss, podNeedsRestart, reason, clusterCaKeySecret, coKeySecret);
         });
     }
 
@@ -117,6 +137,21 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
 
     public abstract Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podNeedsRestart, Secret clusterCaSecret, Secret coKeySecret);
 
+    /**
+     * Like {@link #maybeRollingUpdate(StatefulSet, Predicate, Secret, Secret)}, for a rolling update with the given reason.
+     * Rolling updates aren't resumed unless a subclass supports it, so by default the reason is ignored.
+     * @param ss The StatefulSet
+     * @param podNeedsRestart Predicate for deciding whether the pod needs to be restarted.
+     * @param reason Why the pods are being restarted, or null if the rolling update can't be resumed.
+     * @param clusterCaSecret The cluster CA certificate secret.
+     * @param coKeySecret The cluster operator's key secret.
+     * @return A future that completes when any necessary rolling has been completed.
+     */
+    protected Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podNeedsRestart, String reason,
+                                              Secret clusterCaSecret, Secret coKeySecret) {
+        return maybeRollingUpdate(ss, podNeedsRestart, clusterCaSecret, coKeySecret);
+    }
+
     public Future<Void> deletePvc(StatefulSet ss, String pvcName) {
         String namespace = ss.getMetadata().getNamespace();
         Future<Void> f = Future.future();
@@ -141,25 +176,72 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      * @return a Future which completes when the given (possibly recreated) pod is ready.
      */
     Future<Void> maybeRestartPod(StatefulSet ss, String podName, Predicate<Pod> podNeedsRestart) {
-        long pollingIntervalMs = 1_000;
+        return maybeRestartPod(ss, podName, podNeedsRestart, new RollingUpdateSummary(null, System.currentTimeMillis()));
+    }
+
+    /**
+     * Like {@link #maybeRestartPod(StatefulSet, String, Predicate)}, recording how long the restart and
+     * the wait for readiness took in the given {@code summary}.
+     * @param ss The StatefulSet.
+     * @param podName The name of the Pod to possibly restart.
+     * @param podNeedsRestart The predicate for deciding whether to restart the pod.
+     * @param summary The summary of the rolling update.
+     * @return a Future which completes when the given (possibly recreated) pod is ready.
+     */
+    Future<Void> maybeRestartPod(StatefulSet ss, String podName, Predicate<Pod> podNeedsRestart, RollingUpdateSummary summary) {
         long timeoutMs = operationTimeoutMs;
         String namespace = ss.getMetadata().getNamespace();
         String name = ss.getMetadata().getName();
         return podOperations.getAsync(ss.getMetadata().getNamespace(), podName).compose(pod -> {
             Future<Void> fut;
             if (podNeedsRestart.test(pod)) {
-                fut = restartPod(ss, pod);
+                long restartStart = System.nanoTime();
+                fut = restartPod(ss, pod).map(ignored -> {
+                    summary.phase(podName, RollingUpdateSummary.RESTART, restartStart);
+                    summary.restarted(podName);
+                    return null;
+                });
             } else {
                 log.debug("Rolling update of {}/{}: pod {} no need to roll", namespace, name, podName);
                 fut = Future.succeededFuture();
             }
             return fut.compose(ignored -> {
                 log.debug("Rolling update of {}/{}: wait for pod {} readiness", namespace, name, podName);
-                return podOperations.readiness(namespace, podName, pollingIntervalMs, timeoutMs);
+                long readinessStart = System.nanoTime();
+                return podOperations.readiness(namespace, podName, POLLING_INTERVAL_MS, timeoutMs).map(ready -> {
+                    summary.phase(podName, RollingUpdateSummary.READINESS, readinessStart);
+                    return ready;
+                });
             });
         });
     }
 
+    /**
+     * Records the end of a rolling update of the given StatefulSet: the phases and retries in the given
+     * {@code summary} are exported as metrics and, if any pod was restarted, the summary is kept
+     * for {@link #takeRollingUpdateStatus(String, String)}.
+     * @param ss The StatefulSet.
+     * @param summary The summary of the rolling update.
+     */
+    protected void rollingUpdateEnded(StatefulSet ss, RollingUpdateSummary summary) {
+        long endTimeMs = System.currentTimeMillis();
+        summary.record(metrics, endTimeMs);
+        if (summary.anyRestarted()) {
+            rollingUpdates.put(ss.getMetadata().getNamespace() + "/" + ss.getMetadata().getName(), summary.toStatus(endTimeMs));
+        }
+    }
+
+    /**
+     * Returns the summary of the last rolling update of the StatefulSet with the given {@code namespace} and
+     * {@code name} which restarted any pod, and forgets it, so that it is only returned once.
+     * @param namespace The namespace.
+     * @param name The name of the StatefulSet.
+     * @return The summary, or null if no pod has been restarted since the last call.
+     */
+    public RollingUpdateStatus takeRollingUpdateStatus(String namespace, String name) {
+        return rollingUpdates.remove(namespace + "/" + name);
+    }
+
     /**
      * Asynchronously delete the given pod, return a Future which completes when the Pod has been recreated.
      * Note: The pod might not be ready when the returned Future completes.
@@ -249,9 +331,9 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         Future<ReconcileResult<StatefulSet>> crt = super.internalCreate(namespace, name, desired);
 
         // ... then wait for the SS to be ready...
-        crt.compose(res -> readiness(namespace, desired.getMetadata().getName(), 1_000, operationTimeoutMs).map(res))
+        crt.compose(res -> readiness(namespace, desired.getMetadata().getName(), POLLING_INTERVAL_MS, operationTimeoutMs).map(res))
         // ... then wait for all the pods to be ready
-            .compose(res -> podReadiness(namespace, desired, 1_000, operationTimeoutMs).map(res))
+            .compose(res -> podReadiness(namespace, desired, POLLING_INTERVAL_MS, operationTimeoutMs).map(res))
             .compose(res -> result.complete(res), result);
         return result;
     }
@@ -318,12 +400,11 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         try {
             Future<ReconcileResult<StatefulSet>> fut = Future.future();
 
-            long pollingIntervalMs = 1_000;
             long timeoutMs = operationTimeoutMs;
 
             operation().inNamespace(namespace).withName(name).cascading(cascading).withGracePeriod(-1L).delete();
 
-            Future<Void> deletedFut = waitFor(namespace, name, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
+            Future<Void> deletedFut = waitFor(namespace, name, POLLING_INTERVAL_MS, timeoutMs, (ignore1, ignore2) -> {
                 StatefulSet sts = get(namespace, name);
                 log.trace("Checking if {} {} in namespace {} has been deleted", resourceKind, name, namespace);
                 return sts == null;
@@ -357,7 +438,7 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      */
     public Future<Void> deleteAsync(String namespace, String name, boolean cascading) {
         Future<Void> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     Boolean deleted = operation().inNamespace(namespace).withName(name).cascading(cascading).withGracePeriod(-1L).delete();
@@ -17,6 +17,7 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.PemKeyCertOptions;
@@ -27,9 +28,13 @@ import org.apache.logging.log4j.Logger;
 import java.io.ByteArrayInputStream;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,19 +42,60 @@ import java.util.regex.Pattern;
 import static java.lang.Integer.parseInt;
 
 /**
- * Helper class for finding the leader of a ZK cluster
+ * <p>Helper class for finding the leader of a ZK cluster.</p>
+ *
+ * <p>The leader is found by sending the {@code stat} command to all the pods at the same time.
+ * The TLS client for each cluster is kept for as long as the Secrets it was built from have the same resource version,
+ * and the leader of each cluster is remembered for {@link #LEADER_CACHE_TTL_MS}, for as long as its pods are the same.
+ * Both are dropped, and the client closed, when the cluster is {@linkplain #forgetCluster(String, String) forgotten}.</p>
  */
 public class ZookeeperLeaderFinder {
 
     private static final Logger log = LogManager.getLogger(ZookeeperLeaderFinder.class);
 
     private static final Pattern LEADER_MODE_PATTERN = Pattern.compile("^Mode: leader$", Pattern.MULTILINE);
+    private static final Pattern SYNCED_FOLLOWERS_PATTERN = Pattern.compile("^zk_synced_followers\\s+(\\d+)$", Pattern.MULTILINE);
 
     public static final int UNKNOWN_LEADER = -1;
 
+    /** How long to wait for all the pods to answer, on each attempt to find the leader */
+    static final long LEADER_QUERY_TIMEOUT_MS = 10_000;
+    /** How long the leader of a cluster is remembered */
+    static final long LEADER_CACHE_TTL_MS = 10_000;
+
     private final Vertx vertx;
     final SecretOperator secretOperator;
     private final Supplier<BackOff> backOffSupplier;
+    /** The TLS client of each cluster, by namespace/cluster */
+    private final Map<String, CachedClient> clients = new ConcurrentHashMap<>();
+    /** The leader of each cluster, by namespace/cluster */
+    private final Map<String, CachedLeader> leaders = new ConcurrentHashMap<>();
+
+    /** A client built from the given resource versions of the Secrets */
+    private static class CachedClient {
+        final String coKeySecretVersion;
+        final String clusterCaCertificateSecretVersion;
+        final NetClient client;
+
+        CachedClient(String coKeySecretVersion, String clusterCaCertificateSecretVersion, NetClient client) {
+            this.coKeySecretVersion = coKeySecretVersion;
+            this.clusterCaCertificateSecretVersion = clusterCaCertificateSecretVersion;
+            this.client = client;
+        }
+    }
+
+    /** The leader of the given pods, identified by their uids */
+    private static class CachedLeader {
+        final List<String> podUids;
+        final int leader;
+        final long expiresMs;
+
+        CachedLeader(List<String> podUids, int leader, long expiresMs) {
+            this.podUids = podUids;
+            this.leader = leader;
+            this.expiresMs = expiresMs;
+        }
+    }
 
     public ZookeeperLeaderFinder(Vertx vertx, SecretOperator secretOperator, Supplier<BackOff> backOffSupplier) {
         this.vertx = vertx;
@@ -129,6 +175,21 @@ public class ZookeeperLeaderFinder {
                 .setKeyValue(Buffer.buffer(coCertKey.key()));
     }
 
+    /**
+     * Closes the TLS client of the given cluster and forgets its leader, for example once the cluster has been deleted.
+     * @param cluster The name of the cluster.
+     * @param namespace The namespace of the cluster.
+     */
+    public void forgetCluster(String cluster, String namespace) {
+        String key = namespace + "/" + cluster;
+        leaders.remove(key);
+        CachedClient cached = clients.remove(key);
+        if (cached != null) {
+            log.debug("Closing the client for {}", key);
+            cached.client.close();
+        }
+    }
+
     /**
      * Returns a Future which completes with the the id of the Zookeeper leader.
      * An exponential backoff is used if no ZK node is leader on the attempt to find it.
@@ -138,29 +199,119 @@ public class ZookeeperLeaderFinder {
         if (pods.size() <= 1) {
             return Future.succeededFuture(pods.size() - 1);
         }
+        String key = namespace + "/" + cluster;
+        List<String> podUids = podUids(pods);
+        CachedLeader cached = leaders.get(key);
+        if (cached != null) {
+            if (cached.expiresMs > System.currentTimeMillis() && cached.podUids.equals(podUids)) {
+                log.debug("Using the cached leader {} of {}", cached.leader, key);
+                return Future.succeededFuture(cached.leader);
+            }
+            leaders.remove(key, cached);
+        }
+        return withClient(cluster, namespace, coKeySecret, client -> zookeeperLeader(cluster, namespace, pods, client)).map(leader -> {
+            if (leader != UNKNOWN_LEADER && podUids != null) {
+                leaders.put(key, new CachedLeader(podUids, leader, System.currentTimeMillis() + LEADER_CACHE_TTL_MS));
+            }
+            return leader;
+        });
+    }
+
+    /**
+     * Returns a Future which completes with the number of followers in sync with the given Zookeeper leader,
+     * according to the {@code zk_synced_followers} reported by its {@code mntr} command.
+     * The returned Future fails if the pod can't be reached or isn't the leader.
+     */
+    protected Future<Integer> syncedFollowers(String cluster, String namespace, Pod leader, Secret coKeySecret) {
+        return withClient(cluster, namespace, coKeySecret, client -> fourLetterWord(leader, client, "mntr")).compose(response -> {
+            Matcher matcher = SYNCED_FOLLOWERS_PATTERN.matcher(response);
+            if (matcher.find()) {
+                return Future.succeededFuture(parseInt(matcher.group(1)));
+            } else {
+                return Future.failedFuture(new RuntimeException("Pod " + leader.getMetadata().getName() + " did not report its synced followers"));
+            }
+        });
+    }
+
+    /**
+     * Calls the given function with the TLS client for the given cluster.
+     * A client which isn't shared is closed once the Future returned by the function completes.
+     */
+    private <T> Future<T> withClient(String cluster, String namespace, Secret coKeySecret, Function<NetClient, Future<T>> fn) {
+        String key = namespace + "/" + cluster;
         String clusterCaSecretName = KafkaResources.clusterCaCertificateSecretName(cluster);
         Future<Secret> clusterCaKeySecretFuture = secretOperator.getAsync(namespace, clusterCaSecretName);
         return clusterCaKeySecretFuture.compose(clusterCaCertificateSecret -> {
             if (clusterCaCertificateSecret  == null) {
                 return Future.failedFuture(StatefulSetOperator.missingSecretFuture(namespace, clusterCaSecretName));
             }
+            NetClient client;
+            boolean shared;
             try {
-                NetClientOptions netClientOptions = clientOptions(coKeySecret, clusterCaCertificateSecret);
-                return zookeeperLeader(cluster, namespace, pods, netClientOptions);
+                CachedClient cachedClient = sharedClient(key, coKeySecret, clusterCaCertificateSecret);
+                shared = cachedClient != null;
+                client = shared ? cachedClient.client : vertx.createNetClient(clientOptions(coKeySecret, clusterCaCertificateSecret));
             } catch (Throwable e) {
                 return Future.failedFuture(e);
             }
+            Future<T> result = fn.apply(client);
+            if (!shared) {
+                result.setHandler(ignored -> client.close());
+            }
+            return result;
         });
+    }
+
+    /**
+     * Returns the uids of the given pods, or null if any of them hasn't got one.
+     */
+    private static List<String> podUids(List<Pod> pods) {
+        List<String> uids = new ArrayList<>(pods.size());
+        for (Pod pod : pods) {
+            String uid = pod.getMetadata().getUid();
+            if (uid == null) {
+                return null;
+            }
+            uids.add(uid);
+        }
+        return uids;
+    }
 
+    /**
+     * Returns the client for the cluster with the given key, creating it if there isn't one for the
+     * current resource versions of the given Secrets. Returns null if the Secrets haven't got resource versions,
+     * in which case a client which isn't shared has to be used.
+     */
+    private CachedClient sharedClient(String key, Secret coKeySecret, Secret clusterCaCertificateSecret) {
+        String coKeySecretVersion = coKeySecret.getMetadata() != null ? coKeySecret.getMetadata().getResourceVersion() : null;
+        String clusterCaCertificateSecretVersion = clusterCaCertificateSecret.getMetadata().getResourceVersion();
+        if (coKeySecretVersion == null || clusterCaCertificateSecretVersion == null) {
+            return null;
+        }
+        CachedClient cached = clients.get(key);
+        if (cached != null
+                && coKeySecretVersion.equals(cached.coKeySecretVersion)
+                && clusterCaCertificateSecretVersion.equals(cached.clusterCaCertificateSecretVersion)) {
+            return cached;
+        }
+        log.debug("Creating the client for {} from Secrets at versions {} and {}", key, coKeySecretVersion, clusterCaCertificateSecretVersion);
+        CachedClient created = new CachedClient(coKeySecretVersion, clusterCaCertificateSecretVersion,
+                vertx.createNetClient(clientOptions(coKeySecret, clusterCaCertificateSecret)));
+        CachedClient previous = clients.put(key, created);
+        if (previous != null) {
+            // Any query still using it fails, and is retried with the new client
+            previous.client.close();
+        }
+        return created;
     }
     private Future<Integer> zookeeperLeader(String cluster, String namespace, List<Pod> pods,
-                                            NetClientOptions netClientOptions) {
+                                            NetClient client) {
         Future<Integer> result = Future.future();
         BackOff backOff = backOffSupplier.get();
         Handler<Long> handler = new Handler<Long>() {
             @Override
             public void handle(Long tid) {
-                zookeeperLeader(pods, netClientOptions).setHandler(leader -> {
+                zookeeperLeader(pods, client).setHandler(leader -> {
                     if (leader.succeeded()) {
                         if (leader.result() != UNKNOWN_LEADER) {
                             result.complete(leader.result());
@@ -202,34 +353,41 @@ public class ZookeeperLeaderFinder {
     }
 
     /**
-     * Synchronously find the leader by testing each pod in the given list
-     * using {@link #isLeader(Pod, NetClientOptions)}.
+     * Find the leader by testing all the pods in the given list at the same time
+     * using {@link #isLeader(Pod, NetClient)}.
+     * The returned future completes with {@link #UNKNOWN_LEADER} if no pod is found to be the leader
+     * within {@link #LEADER_QUERY_TIMEOUT_MS}.
      */
-    private Future<Integer> zookeeperLeader(List<Pod> pods, NetClientOptions netClientOptions) {
+    private Future<Integer> zookeeperLeader(List<Pod> pods, NetClient client) {
         try {
-            Future<Integer> f = Future.succeededFuture(UNKNOWN_LEADER);
+            Future<Integer> result = Future.future();
+            long timerId = vertx.setTimer(LEADER_QUERY_TIMEOUT_MS, tid -> {
+                if (result.tryComplete(UNKNOWN_LEADER)) {
+                    log.debug("Timeout waiting for the zookeeper pods to answer");
+                }
+            });
+            AtomicInteger remaining = new AtomicInteger(pods.size());
             for (int i = 0; i < pods.size(); i++) {
                 final int podNum = i;
                 Pod pod = pods.get(i);
                 String podName = pod.getMetadata().getName();
-                f = f.compose(leader -> {
-                    if (leader == UNKNOWN_LEADER) {
-                        log.debug("Checker whether {} is leader", podName);
-                        return isLeader(pod, netClientOptions).map(isLeader -> {
-                            if (isLeader != null && isLeader) {
-                                log.info("Pod {} is leader", podName);
-                                return podNum;
-                            } else {
-                                log.info("Pod {} is not a leader", podName);
-                                return UNKNOWN_LEADER;
-                            }
-                        });
+                log.debug("Checker whether {} is leader", podName);
+                isLeader(pod, client).setHandler(ar -> {
+                    if (ar.succeeded() && ar.result() != null && ar.result()) {
+                        log.info("Pod {} is leader", podName);
+                        result.tryComplete(podNum);
                     } else {
-                        return Future.succeededFuture(leader);
+                        log.info("Pod {} is not a leader", podName);
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        result.tryComplete(UNKNOWN_LEADER);
+                    }
+                    if (result.isComplete()) {
+                        vertx.cancelTimer(timerId);
                     }
                 });
             }
-            return f;
+            return result;
         } catch (Throwable t) {
             return Future.failedFuture(t);
         }
@@ -238,58 +396,65 @@ public class ZookeeperLeaderFinder {
     /**
      * Returns whether the given pod is the zookeeper leader.
      */
-    protected Future<Boolean> isLeader(Pod pod, NetClientOptions netClientOptions) {
+    protected Future<Boolean> isLeader(Pod pod, NetClient client) {
+        return fourLetterWord(pod, client, "stat").map(response -> {
+            boolean isLeader = LEADER_MODE_PATTERN.matcher(response).find();
+            log.debug("ZK {}: {} leader", pod.getMetadata().getName(), isLeader ? "is" : "is not");
+            return isLeader;
+        }).recover(error -> {
+            log.debug("ZK {}: Error trying to determine whether leader ({}) => not leader", pod.getMetadata().getName(), error);
+            return Future.succeededFuture(Boolean.FALSE);
+        });
+    }
+
+    /**
+     * Returns the response of the zookeeper in the given pod to the given four letter word command.
+     */
+    protected Future<String> fourLetterWord(Pod pod, NetClient client, String command) {
 
-        Future<Boolean> future = Future.future();
+        Future<String> future = Future.future();
         String host = host(pod);
         int port = port(pod);
         log.debug("Connecting to zookeeper on {}:{}", host, port);
-        vertx.createNetClient(netClientOptions)
-            .connect(port, host, ar -> {
-                if (ar.failed()) {
-                    log.warn("ZK {}:{}: failed to connect to zookeeper:", host, port, ar.cause().getMessage());
-                    future.fail(ar.cause());
-                } else {
-                    log.debug("ZK {}:{}: connected", host, port);
-                    NetSocket socket = ar.result();
-                    socket.exceptionHandler(ex -> {
-                        if (!future.tryFail(ex)) {
-                            log.debug("ZK {}:{}: Ignoring error, since leader status of pod {} is already known: {}",
-                                    host, port, pod.getMetadata().getName(), ex);
-                        }
-                    });
-                    StringBuilder sb = new StringBuilder();
-                    // We could use socket idle timeout, but this times out even if the server just responds
-                    // very slowly
-                    long timerId = vertx.setTimer(10_000, tid -> {
-                        log.debug("ZK {}:{}: Timeout waiting for Zookeeper {} to close socket",
-                                host, port, socket.remoteAddress());
-                        socket.close();
-                    });
-                    socket.closeHandler(v -> {
-                        vertx.cancelTimer(timerId);
-                        Matcher matcher = LEADER_MODE_PATTERN.matcher(sb);
-                        boolean isLeader = matcher.find();
-                        log.debug("ZK {}:{}: {} leader", host, port, isLeader ? "is" : "is not");
-                        if (!future.tryComplete(isLeader)) {
-                            log.debug("ZK {}:{}: Ignoring leader result: Future is already complete",
-                                    host, port);
-                        }
-                    });
-                    log.debug("ZK {}:{}: upgrading to TLS", host, port);
-                    socket.handler(buffer -> {
-                        log.trace("buffer: {}", buffer);
-                        sb.append(buffer.toString());
-                    });
-                    log.debug("ZK {}:{}: sending stat", host, port);
-                    socket.write("stat");
-                }
+        client.connect(port, host, ar -> {
+            if (ar.failed()) {
+                log.warn("ZK {}:{}: failed to connect to zookeeper:", host, port, ar.cause().getMessage());
+                future.fail(ar.cause());
+            } else {
+                log.debug("ZK {}:{}: connected", host, port);
+                NetSocket socket = ar.result();
+                socket.exceptionHandler(ex -> {
+                    if (!future.tryFail(ex)) {
+                        log.debug("ZK {}:{}: Ignoring error, since the {} response of pod {} is already known: {}",
+                                host, port, command, pod.getMetadata().getName(), ex);
+                    }
+                });
+                StringBuilder sb = new StringBuilder();
+                // We could use socket idle timeout, but this times out even if the server just responds
+                // very slowly
+                long timerId = vertx.setTimer(10_000, tid -> {
+                    log.debug("ZK {}:{}: Timeout waiting for Zookeeper {} to close socket",
+                            host, port, socket.remoteAddress());
+                    socket.close();
+                });
+                socket.closeHandler(v -> {
+                    vertx.cancelTimer(timerId);
+                    if (!future.tryComplete(sb.toString())) {
+                        log.debug("ZK {}:{}: Ignoring {} response: Future is already complete",
+                                host, port, command);
+                    }
+                });
+                log.debug("ZK {}:{}: upgrading to TLS", host, port);
+                socket.handler(buffer -> {
+                    log.trace("buffer: {}", buffer);
+                    sb.append(buffer.toString());
+                });
+                log.debug("ZK {}:{}: sending {}", host, port, command);
+                socket.write(command);
+            }
 
-            });
-        return future.recover(error -> {
-            log.debug("ZK {}:{}: Error trying to determine whether leader ({}) => not leader", host, port, error);
-            return Future.succeededFuture(Boolean.FALSE);
         });
+        return future;
     }
 
     /** The hostname for connecting to zookeeper in the given pod. */
@@ -10,17 +10,28 @@ import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.strimzi.api.kafka.model.KafkaResources;
 import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.operator.resource.PodOperator;
+import io.strimzi.operator.common.operator.resource.PvcOperator;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Predicate;
 
 
 /**
- * Specialization of {@link StatefulSetOperator} for StatefulSets of Zookeeper nodes
+ * <p>Specialization of {@link StatefulSetOperator} for StatefulSets of Zookeeper nodes.</p>
+ *
+ * <p>Rolling updates restart the followers first: those which are not ready together, since they are already down,
+ * and then the others as many at once as the ensemble can lose without losing its quorum,
+ * waiting after each batch for the restarted followers to be back in sync with the leader. The leader is restarted last.
+ * If the followers which are still not ready leave no room to restart another pod, the rolling update fails instead.</p>
  */
 public class ZookeeperSetOperator extends StatefulSetOperator {
 
@@ -40,6 +51,31 @@ public class ZookeeperSetOperator extends StatefulSetOperator {
         this.leaderFinder = leaderFinder;
     }
 
+    /**
+     * Constructor
+     *
+     * @param vertx  The Vertx instance
+     * @param client The Kubernetes client
+     * @param leaderFinder The Zookeeper leader finder.
+     * @param operationTimeoutMs The timeout.
+     * @param podOperator The pod operator.
+     * @param pvcOperator The PVC operator.
+     */
+    ZookeeperSetOperator(Vertx vertx, KubernetesClient client, ZookeeperLeaderFinder leaderFinder, long operationTimeoutMs,
+                         PodOperator podOperator, PvcOperator pvcOperator) {
+        super(vertx, client, operationTimeoutMs, podOperator, pvcOperator);
+        this.leaderFinder = leaderFinder;
+    }
+
+    /**
+     * Releases what is kept about the Zookeeper cluster of the given Kafka cluster, such as the client used to find its leader.
+     * @param namespace The namespace of the Kafka cluster.
+     * @param cluster The name of the Kafka cluster.
+     */
+    public void forgetCluster(String namespace, String cluster) {
+        leaderFinder.forgetCluster(cluster, namespace);
+    }
+
     @Override
     protected boolean shouldIncrementGeneration(StatefulSetDiff diff) {
         return !diff.isEmpty() && needsRollingUpdate(diff);
@@ -88,24 +124,15 @@ public class ZookeeperSetOperator extends StatefulSetOperator {
 
         final Future<Void> rollFuture;
         if (zkRoll) {
+            RollingUpdateSummary summary = new RollingUpdateSummary("zookeeper", System.currentTimeMillis());
             // Find the leader
             rollFuture = Future.future();
+            long leaderStart = System.nanoTime();
             Future<Integer> leaderFuture = leaderFinder.findZookeeperLeader(cluster, namespace, pods, coKeySecret);
             leaderFuture.compose(leader -> {
+                summary.phase(RollingUpdateSummary.LEADER, leaderStart);
                 log.debug("Zookeeper leader is " + (leader == ZookeeperLeaderFinder.UNKNOWN_LEADER ? "unknown" : "pod " + leader));
-                Future<Void> fut = Future.succeededFuture();
-                // Then roll each non-leader pod
-                for (int i = 0; i < replicas; i++) {
-                    String podName = KafkaResources.zookeeperPodName(cluster, i);
-                    if (i != leader) {
-                        log.debug("Possibly restarting non-leader pod {}", podName);
-                        // roll the pod and wait until it is ready
-                        // this prevents rolling into faulty state (note: this applies just for ZK pods)
-                        fut = fut.compose(ignore -> maybeRestartPod(ss, podName, podRestart));
-                    } else {
-                        log.debug("Deferring restart of leader {}", podName);
-                    }
-                }
+                Future<Void> fut = rollFollowers(ss, cluster, pods, leader, podRestart, coKeySecret, summary);
                 if (leader == ZookeeperLeaderFinder.UNKNOWN_LEADER) {
                     return fut;
                 } else {
@@ -113,14 +140,181 @@ public class ZookeeperSetOperator extends StatefulSetOperator {
                     return fut.compose(ar -> {
                         // the leader is rolled as the last
                         log.debug("Possibly restarting leader pod (previously deferred) {}", leader);
-                        return maybeRestartPod(ss, KafkaResources.zookeeperPodName(cluster, leader), podRestart);
+                        return maybeRestartPod(ss, KafkaResources.zookeeperPodName(cluster, leader), podRestart, summary);
                     });
                 }
-            }).setHandler(rollFuture);
+            }).setHandler(ar -> {
+                rollingUpdateEnded(ss, summary);
+                rollFuture.handle(ar);
+            });
         } else {
             rollFuture = Future.succeededFuture();
         }
         return rollFuture;
     }
 
+    /**
+     * Returns how many followers of an ensemble of the given size can be restarted at the same time
+     * without losing the quorum, given how many followers are already unhealthy.
+     * This is zero when the unhealthy followers have used up what the ensemble can lose. Only an ensemble which
+     * can't lose any node at all, with fewer than three nodes, has its followers restarted one at a time regardless.
+     * @param replicas The number of nodes in the ensemble.
+     * @param unhealthyFollowers The number of followers which are not ready.
+     * @return The number of followers to restart at the same time.
+     */
+    static int maxFollowersDown(int replicas, int unhealthyFollowers) {
+        int maxDown = (replicas - 1) / 2;
+        if (maxDown == 0 && unhealthyFollowers == 0) {
+            return 1;
+        }
+        return Math.max(0, maxDown - unhealthyFollowers);
+    }
+
+    /**
+     * Roll the followers of the given leader (or all the pods, if the leader is unknown):
+     * first those which are not ready, since they are already down, and then the others.
+     */
+    private Future<Void> rollFollowers(StatefulSet ss, String cluster, List<Pod> pods, int leader, Predicate<Pod> podRestart,
+                                       Secret coKeySecret, RollingUpdateSummary summary) {
+        String namespace = ss.getMetadata().getNamespace();
+        String name = ss.getMetadata().getName();
+        int replicas = pods.size();
+        // The followers which are already down are restarted first, together, since that costs no more of the quorum
+        List<Integer> unreadyFollowers = new ArrayList<>(replicas);
+        List<Integer> readyFollowers = new ArrayList<>(replicas);
+        for (int i = 0; i < replicas; i++) {
+            if (i == leader) {
+                log.debug("Deferring restart of leader {}", KafkaResources.zookeeperPodName(cluster, i));
+            } else if (isReady(namespace, cluster, i)) {
+                readyFollowers.add(i);
+            } else {
+                unreadyFollowers.add(i);
+            }
+        }
+        List<Integer> restartUnready = new ArrayList<>(unreadyFollowers.size());
+        for (Integer podId : unreadyFollowers) {
+            if (podRestart.test(pods.get(podId))) {
+                restartUnready.add(podId);
+            }
+        }
+        Future<Void> fut = Future.succeededFuture();
+        if (!restartUnready.isEmpty()) {
+            log.debug("Rolling unready followers {} of {}/{} first", restartUnready, namespace, name);
+            int syncedFollowers = replicas - 1 - (unreadyFollowers.size() - restartUnready.size());
+            fut = rollBatch(ss, cluster, pods, leader, restartUnready, podRestart, coKeySecret, syncedFollowers, summary);
+        }
+        // Then the others, in batches which keep a quorum given how many followers are still unready
+        return fut.compose(ignore -> rollReadyFollowers(ss, cluster, pods, leader, unreadyFollowers, readyFollowers,
+                podRestart, coKeySecret, summary));
+    }
+
+    /**
+     * Roll the given ready followers, in batches which keep a quorum given how many of the given unready followers
+     * are still not ready. Fails without restarting any pod if there's no room to restart another pod
+     * without losing the quorum.
+     */
+    private Future<Void> rollReadyFollowers(StatefulSet ss, String cluster, List<Pod> pods, int leader,
+                                            List<Integer> unreadyFollowers, List<Integer> readyFollowers,
+                                            Predicate<Pod> podRestart, Secret coKeySecret, RollingUpdateSummary summary) {
+        String namespace = ss.getMetadata().getNamespace();
+        String name = ss.getMetadata().getName();
+        int replicas = pods.size();
+        int unhealthyFollowers = 0;
+        for (Integer podId : unreadyFollowers) {
+            if (!isReady(namespace, cluster, podId)) {
+                unhealthyFollowers++;
+            }
+        }
+        int maxDown = maxFollowersDown(replicas, unhealthyFollowers);
+        if (maxDown == 0 && (readyFollowers.stream().anyMatch(podId -> podRestart.test(pods.get(podId)))
+                || leader != ZookeeperLeaderFinder.UNKNOWN_LEADER && podRestart.test(pods.get(leader)))) {
+            return Future.failedFuture(new RuntimeException("Cannot roll " + namespace + "/" + name + ": "
+                    + unhealthyFollowers + " followers are not ready, so restarting another pod would lose the quorum"));
+        }
+        // Without knowing the leader, we can't tell whether the followers have rejoined it
+        // (and with no room at all, none of the batches restarts a pod)
+        int batchSize = leader == ZookeeperLeaderFinder.UNKNOWN_LEADER || maxDown == 0 ? 1 : maxDown;
+        int syncedFollowers = replicas - 1 - unhealthyFollowers;
+        log.debug("Rolling up to {} followers of {}/{} at once", batchSize, namespace, name);
+        Future<Void> batches = Future.succeededFuture();
+        for (int i = 0; i < readyFollowers.size(); i += batchSize) {
+            List<Integer> batch = readyFollowers.subList(i, Math.min(i + batchSize, readyFollowers.size()));
+            batches = batches.compose(ignore -> rollBatch(ss, cluster, pods, leader, batch, podRestart, coKeySecret, syncedFollowers, summary));
+        }
+        return batches;
+    }
+
+    /**
+     * Restart the given followers at the same time, if necessary, wait for them to be ready and then,
+     * if any was restarted and the leader is known, for the leader to have the given number of followers in sync.
+     */
+    private Future<Void> rollBatch(StatefulSet ss, String cluster, List<Pod> pods, int leader, List<Integer> podIds,
+                                   Predicate<Pod> podRestart, Secret coKeySecret, int syncedFollowers, RollingUpdateSummary summary) {
+        boolean restarts = podIds.stream().anyMatch(podId -> podRestart.test(pods.get(podId)));
+        // roll the pods and wait until they are ready
+        // this prevents rolling into faulty state (note: this applies just for ZK pods)
+        Future<Void> fut = maybeRestartPods(ss, cluster, podIds, podRestart, summary);
+        if (restarts && leader != ZookeeperLeaderFinder.UNKNOWN_LEADER) {
+            fut = fut.compose(ignore -> {
+                long syncStart = System.nanoTime();
+                return awaitSyncedFollowers(cluster, ss.getMetadata().getNamespace(), pods.get(leader), coKeySecret, syncedFollowers)
+                        .map(synced -> {
+                            summary.phase(RollingUpdateSummary.FOLLOWER_SYNC, syncStart);
+                            return synced;
+                        });
+            });
+        }
+        return fut;
+    }
+
+    private boolean isReady(String namespace, String cluster, int podId) {
+        return podOperations.isReady(namespace, KafkaResources.zookeeperPodName(cluster, podId));
+    }
+
+    /**
+     * Restart the given pods at the same time, if necessary, and wait for them to be ready.
+     */
+    private Future<Void> maybeRestartPods(StatefulSet ss, String cluster, List<Integer> podIds, Predicate<Pod> podRestart,
+                                          RollingUpdateSummary summary) {
+        List<Future> futures = new ArrayList<>(podIds.size());
+        for (Integer podId : podIds) {
+            String podName = KafkaResources.zookeeperPodName(cluster, podId);
+            log.debug("Possibly restarting non-leader pod {}", podName);
+            futures.add(maybeRestartPod(ss, podName, podRestart, summary));
+        }
+        return CompositeFuture.join(futures).map((Void) null);
+    }
+
+    /**
+     * Wait, for up to the operation timeout, for the given leader to have at least the given number of followers
+     * in sync with it, so that the next followers are only restarted once the restarted ones have rejoined the ensemble.
+     * A pod's readiness doesn't tell whether it has rejoined, so the returned future fails if they have not rejoined
+     * in time, leaving the rest of the roll to the next reconciliation.
+     */
+    private Future<Void> awaitSyncedFollowers(String cluster, String namespace, Pod leader, Secret coKeySecret, int expected) {
+        Future<Void> result = Future.future();
+        long deadline = System.currentTimeMillis() + operationTimeoutMs;
+        Handler<Long> handler = new Handler<Long>() {
+            @Override
+            public void handle(Long tid) {
+                leaderFinder.syncedFollowers(cluster, namespace, leader, coKeySecret).setHandler(ar -> {
+                    if (ar.succeeded() && ar.result() >= expected) {
+                        log.debug("{} followers of {}/{} are in sync", ar.result(), namespace, cluster);
+                        result.complete();
+                    } else if (System.currentTimeMillis() >= deadline) {
+                        result.fail(new TimeoutException("Only " + (ar.succeeded() ? ar.result() : "an unknown number") + " of "
+                                + expected + " followers of " + namespace + "/" + cluster + " have rejoined pod "
+                                + leader.getMetadata().getName() + " after " + operationTimeoutMs + "ms"));
+                    } else {
+                        log.debug("Waiting for {} followers of {}/{} to be in sync, currently {}", expected, namespace, cluster,
+                                ar.succeeded() ? ar.result() : ar.cause());
+                        vertx.setTimer(POLLING_INTERVAL_MS, this);
+                    }
+                });
+            }
+        };
+        handler.handle(null);
+        return result;
+    }
+
 }
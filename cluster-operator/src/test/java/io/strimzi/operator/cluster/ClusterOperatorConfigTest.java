@@ -7,6 +7,7 @@ package io.strimzi.operator.cluster;
 import io.fabric8.kubernetes.api.model.LocalObjectReferenceBuilder;
 import io.strimzi.operator.cluster.model.ImagePullPolicy;
 import io.strimzi.operator.cluster.model.KafkaVersion;
+import io.strimzi.operator.cluster.operator.resource.KafkaRollingOptions;
 import io.strimzi.operator.common.InvalidConfigurationException;
 import org.junit.jupiter.api.Test;
 
@@ -221,4 +222,86 @@ public class ClusterOperatorConfigTest {
             ClusterOperatorConfig.fromMap(envVars).getImagePullSecrets().size();
         });
     }
+
+    @Test
+    public void testNamespaceSharding() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertThat(ClusterOperatorConfig.fromMap(envVars).isNamespaceShardingEnabled(), is(false));
+        assertThat(ClusterOperatorConfig.fromMap(envVars).getLeaseNamespace(), is(nullValue()));
+        assertThat(ClusterOperatorConfig.fromMap(envVars).getLeaseDurationMs(), is(ClusterOperatorConfig.DEFAULT_LEASE_DURATION_MS));
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_NAMESPACE_SHARDING_ENABLED, "true");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEASE_NAMESPACE, "operator");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEASE_DURATION_MS, "30000");
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars);
+        assertThat(config.isNamespaceShardingEnabled(), is(true));
+        assertThat(config.getLeaseNamespace(), is("operator"));
+        assertThat(config.getLeaseDurationMs(), is(30_000L));
+    }
+
+    @Test
+    public void testInvalidLeaseDuration() {
+        assertThrows(InvalidConfigurationException.class, () -> {
+            Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+            envVars.put(ClusterOperatorConfig.STRIMZI_LEASE_DURATION_MS, "500");
+            ClusterOperatorConfig.fromMap(envVars);
+        });
+    }
+
+    @Test
+    public void testShardingAndLeaderElectionAreExclusive() {
+        assertThrows(InvalidConfigurationException.class, () -> {
+            Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+            envVars.put(ClusterOperatorConfig.STRIMZI_NAMESPACE_SHARDING_ENABLED, "true");
+            envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_ENABLED, "true");
+            ClusterOperatorConfig.fromMap(envVars);
+        });
+    }
+
+    @Test
+    public void testKafkaRollingOptions() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        KafkaRollingOptions options = ClusterOperatorConfig.fromMap(envVars).getKafkaRollingOptions();
+        assertThat(options.getMaxBatchSize(), is(ClusterOperatorConfig.DEFAULT_KAFKA_ROLLING_BATCH_SIZE));
+        assertThat(options.getLeadershipDrainTimeoutMs(), is(ClusterOperatorConfig.DEFAULT_KAFKA_LEADERSHIP_DRAIN_TIMEOUT_MS));
+        assertThat(options.getIsrCatchUpPercentage(), is(ClusterOperatorConfig.DEFAULT_KAFKA_ISR_CATCH_UP_PERCENTAGE));
+        assertThat(options.getIsrCatchUpTimeoutMs(), is(ClusterOperatorConfig.DEFAULT_KAFKA_ISR_CATCH_UP_TIMEOUT_MS));
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_KAFKA_ROLLING_BATCH_SIZE, "3");
+        envVars.put(ClusterOperatorConfig.STRIMZI_KAFKA_LEADERSHIP_DRAIN_TIMEOUT_MS, "60000");
+        envVars.put(ClusterOperatorConfig.STRIMZI_KAFKA_ISR_CATCH_UP_PERCENTAGE, "90");
+        envVars.put(ClusterOperatorConfig.STRIMZI_KAFKA_ISR_CATCH_UP_TIMEOUT_MS, "120000");
+        options = ClusterOperatorConfig.fromMap(envVars).getKafkaRollingOptions();
+        assertThat(options.getMaxBatchSize(), is(3));
+        assertThat(options.getLeadershipDrainTimeoutMs(), is(60_000L));
+        assertThat(options.getIsrCatchUpPercentage(), is(90));
+        assertThat(options.getIsrCatchUpTimeoutMs(), is(120_000L));
+    }
+
+    @Test
+    public void testInvalidKafkaRollingBatchSize() {
+        assertThrows(InvalidConfigurationException.class, () -> {
+            Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+            envVars.put(ClusterOperatorConfig.STRIMZI_KAFKA_ROLLING_BATCH_SIZE, "0");
+            ClusterOperatorConfig.fromMap(envVars);
+        });
+    }
+
+    @Test
+    public void testInvalidKafkaLeadershipDrainTimeout() {
+        assertThrows(InvalidConfigurationException.class, () -> {
+            Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+            envVars.put(ClusterOperatorConfig.STRIMZI_KAFKA_LEADERSHIP_DRAIN_TIMEOUT_MS, "-1");
+            ClusterOperatorConfig.fromMap(envVars);
+        });
+    }
+
+    @Test
+    public void testInvalidKafkaIsrCatchUpPercentage() {
+        assertThrows(InvalidConfigurationException.class, () -> {
+            Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+            envVars.put(ClusterOperatorConfig.STRIMZI_KAFKA_ISR_CATCH_UP_PERCENTAGE, "101");
+            ClusterOperatorConfig.fromMap(envVars);
+        });
+    }
 }
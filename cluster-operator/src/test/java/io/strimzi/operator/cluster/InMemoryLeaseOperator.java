@@ -0,0 +1,89 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.Lease;
+import io.strimzi.operator.common.model.LeaseSpec;
+import io.strimzi.operator.common.operator.resource.LeaseOperator;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Keeps the leases in memory, with a clock controlled by the test.
+ */
+class InMemoryLeaseOperator extends LeaseOperator {
+    final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    Instant now = Instant.parse("2019-11-01T10:00:00Z");
+    /** When true the calls to the API server fail */
+    boolean unavailable = false;
+    /** When true the calls to the API server never complete */
+    boolean hanging = false;
+
+    InMemoryLeaseOperator(Vertx vertx) {
+        super(vertx, mock(KubernetesClient.class));
+    }
+
+    @Override
+    protected Instant now() {
+        return now;
+    }
+
+    @Override
+    public Future<Boolean> tryAcquireOrRenew(String namespace, String name, String identity, long durationMs, Labels labels) {
+        if (hanging) {
+            return Future.future();
+        }
+        if (unavailable) {
+            return Future.failedFuture(new RuntimeException("API server unavailable"));
+        }
+        Lease current = leases.get(name);
+        if (current != null && isHeld(current) && !isHeldBy(current, identity)) {
+            return Future.succeededFuture(false);
+        }
+        LeaseSpec spec = new LeaseSpec();
+        spec.setHolderIdentity(identity);
+        spec.setLeaseDurationSeconds((int) (durationMs / 1000));
+        spec.setRenewTime(DateTimeFormatter.ISO_INSTANT.format(now));
+        Lease lease = new Lease();
+        lease.setMetadata(new ObjectMetaBuilder().withNamespace(namespace).withName(name).withLabels(labels.toMap()).build());
+        lease.setSpec(spec);
+        leases.put(name, lease);
+        return Future.succeededFuture(true);
+    }
+
+    @Override
+    public Future<Void> release(String namespace, String name, String identity) {
+        if (unavailable) {
+            return Future.failedFuture(new RuntimeException("API server unavailable"));
+        }
+        Lease current = leases.get(name);
+        if (current != null && identity.equals(current.getSpec().getHolderIdentity())) {
+            current.getSpec().setHolderIdentity(null);
+        }
+        return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<List<Lease>> listAsync(String namespace, Labels selector) {
+        if (unavailable) {
+            return Future.failedFuture(new RuntimeException("API server unavailable"));
+        }
+        return Future.succeededFuture(leases.values().stream()
+                .filter(lease -> lease.getMetadata().getLabels().entrySet().containsAll(selector.toMap().entrySet()))
+                .collect(Collectors.toList()));
+    }
+}
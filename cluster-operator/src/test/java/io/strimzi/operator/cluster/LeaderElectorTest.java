@@ -0,0 +1,134 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster;
+
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class LeaderElectorTest {
+
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
+    /**
+     * A replica, which records whether it is leading.
+     */
+    static class Replica {
+        final AtomicInteger elections = new AtomicInteger();
+        boolean leading = false;
+        final LeaderElector elector;
+
+        Replica(InMemoryLeaseOperator leaseOperator, String identity) {
+            this(leaseOperator, identity, 15_000);
+        }
+
+        Replica(InMemoryLeaseOperator leaseOperator, String identity, long leaseDurationMs) {
+            elector = new LeaderElector(vertx, leaseOperator, "operator", identity, leaseDurationMs,
+                () -> {
+                    assertThat(leading, is(false));
+                    leading = true;
+                    elections.incrementAndGet();
+                },
+                () -> {
+                    assertThat(leading, is(true));
+                    leading = false;
+                });
+        }
+
+        void renew() {
+            assertThat(elector.renew().succeeded(), is(true));
+            assertThat(elector.isLeader(), is(leading));
+        }
+    }
+
+    @Test
+    public void testSingleLeaderAndFailover() {
+        InMemoryLeaseOperator leaseOperator = new InMemoryLeaseOperator(vertx);
+        Replica a = new Replica(leaseOperator, "a");
+        Replica b = new Replica(leaseOperator, "b");
+
+        a.renew();
+        b.renew();
+        assertThat(a.leading, is(true));
+        assertThat(b.leading, is(false));
+
+        // Renewals keep the leadership where it is
+        a.renew();
+        b.renew();
+        assertThat(a.leading, is(true));
+        assertThat(b.leading, is(false));
+        assertThat(a.elections.get(), is(1));
+
+        // Replica a stops renewing the lease, which then expires
+        leaseOperator.now = leaseOperator.now.plusSeconds(20);
+        b.renew();
+        assertThat(b.leading, is(true));
+
+        // Replica a comes back and finds out it is no longer the leader
+        a.renew();
+        assertThat(a.leading, is(false));
+        assertThat(b.leading, is(true));
+    }
+
+    @Test
+    public void testStoppedLeaderReleasesTheLease() {
+        InMemoryLeaseOperator leaseOperator = new InMemoryLeaseOperator(vertx);
+        Replica a = new Replica(leaseOperator, "a");
+        Replica b = new Replica(leaseOperator, "b");
+        a.renew();
+        b.renew();
+
+        // Without waiting for the lease to expire
+        assertThat(a.elector.stop().succeeded(), is(true));
+        assertThat(a.leading, is(false));
+        b.renew();
+        assertThat(b.leading, is(true));
+    }
+
+    @Test
+    public void testLeaderKeepsLeadingThroughTransientFailures() {
+        InMemoryLeaseOperator leaseOperator = new InMemoryLeaseOperator(vertx);
+        Replica a = new Replica(leaseOperator, "a");
+        a.renew();
+
+        leaseOperator.unavailable = true;
+        a.renew();
+        assertThat(a.leading, is(true));
+    }
+
+    @Test
+    public void testLeaderIsDeposedWhileRenewalHangs() throws InterruptedException {
+        InMemoryLeaseOperator leaseOperator = new InMemoryLeaseOperator(vertx);
+        Replica a = new Replica(leaseOperator, "a", 300);
+        a.renew();
+        assertThat(a.leading, is(true));
+
+        // The request to renew the lease never completes
+        leaseOperator.hanging = true;
+        a.elector.renew();
+        assertThat(a.leading, is(true));
+
+        // Past two thirds of the lease duration the next tick deposes the leader
+        Thread.sleep(250);
+        a.renew();
+        assertThat(a.leading, is(false));
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class NamespaceShardingTest {
+
+    private static final Set<String> NAMESPACES = new HashSet<>(asList("ns0", "ns1", "ns2", "ns3"));
+
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
+    /**
+     * A replica, which records the namespaces it operates.
+     */
+    static class Replica {
+        final Set<String> operated = new HashSet<>();
+        final NamespaceSharding sharding;
+        /** When true, stopping operating a namespace doesn't complete until {@link #stopped()} is called */
+        boolean stopLater = false;
+        final List<Future<Void>> stopping = new ArrayList<>();
+
+        Replica(InMemoryLeaseOperator leaseOperator, String identity) {
+            this(leaseOperator, identity, 15_000);
+        }
+
+        Replica(InMemoryLeaseOperator leaseOperator, String identity, long leaseDurationMs) {
+            sharding = new NamespaceSharding(vertx, leaseOperator, "operator", identity, leaseDurationMs, NAMESPACES,
+                namespace -> {
+                    assertThat(operated.add(namespace), is(true));
+                    return Future.succeededFuture();
+                },
+                namespace -> {
+                    operated.remove(namespace);
+                    if (!stopLater) {
+                        return Future.succeededFuture();
+                    }
+                    Future<Void> stopped = Future.future();
+                    stopping.add(stopped);
+                    return stopped;
+                });
+        }
+
+        void stopped() {
+            stopping.forEach(Future::complete);
+            stopping.clear();
+        }
+
+        void rebalance() {
+            assertThat(sharding.rebalance().succeeded(), is(true));
+            assertThat(operated, is(sharding.ownedNamespaces()));
+        }
+    }
+
+    @Test
+    public void testNamespacesAreSplitBetweenReplicas() {
+        InMemoryLeaseOperator leaseOperator = new InMemoryLeaseOperator(vertx);
+        Replica a = new Replica(leaseOperator, "a");
+        Replica b = new Replica(leaseOperator, "b");
+
+        // A single replica operates all the namespaces
+        a.rebalance();
+        assertThat(a.operated, is(NAMESPACES));
+
+        // A new replica joins, which causes the first one to hand over half of its namespaces
+        b.rebalance();
+        assertThat(b.operated.isEmpty(), is(true));
+        a.rebalance();
+        assertThat(a.operated.size(), is(2));
+        b.rebalance();
+        assertThat(b.operated.size(), is(2));
+
+        Set<String> all = new HashSet<>(a.operated);
+        all.addAll(b.operated);
+        assertThat(all, is(NAMESPACES));
+
+        // Further rebalances are stable
+        a.rebalance();
+        b.rebalance();
+        assertThat(a.operated.size(), is(2));
+        assertThat(b.operated.size(), is(2));
+    }
+
+    @Test
+    public void testNamespacesOfDeadReplicaAreTakenOver() {
+        InMemoryLeaseOperator leaseOperator = new InMemoryLeaseOperator(vertx);
+        Replica a = new Replica(leaseOperator, "a");
+        Replica b = new Replica(leaseOperator, "b");
+        a.rebalance();
+        b.rebalance();
+        a.rebalance();
+        b.rebalance();
+        Set<String> ofA = new HashSet<>(a.operated);
+        assertThat(ofA.size(), is(2));
+
+        // Replica a stops renewing its leases, which then expire
+        leaseOperator.now = leaseOperator.now.plusSeconds(20);
+        b.rebalance();
+        assertThat(b.operated, is(NAMESPACES));
+    }
+
+    @Test
+    public void testStoppedReplicaReleasesItsNamespaces() {
+        InMemoryLeaseOperator leaseOperator = new InMemoryLeaseOperator(vertx);
+        Replica a = new Replica(leaseOperator, "a");
+        Replica b = new Replica(leaseOperator, "b");
+        a.rebalance();
+        b.rebalance();
+        a.rebalance();
+        b.rebalance();
+
+        // Without waiting for the leases to expire
+        assertThat(a.sharding.stop().succeeded(), is(true));
+        assertThat(a.operated.isEmpty(), is(true));
+        b.rebalance();
+        assertThat(b.operated, is(NAMESPACES));
+    }
+
+    @Test
+    public void testReleasedNamespaceIsNotAcquiredUntilStopped() {
+        InMemoryLeaseOperator leaseOperator = new InMemoryLeaseOperator(vertx);
+        Replica a = new Replica(leaseOperator, "a");
+        Replica b = new Replica(leaseOperator, "b");
+        a.rebalance();
+        b.rebalance();
+        assertThat(b.operated.isEmpty(), is(true));
+
+        // Replica a releases half its namespaces, but its reconciliations of them are still running
+        a.stopLater = true;
+        a.sharding.rebalance();
+        assertThat(a.operated.size(), is(2));
+        b.rebalance();
+        assertThat(b.operated.isEmpty(), is(true));
+        // The leases are still renewed meanwhile
+        leaseOperator.now = leaseOperator.now.plusSeconds(10);
+        a.sharding.rebalance();
+        leaseOperator.now = leaseOperator.now.plusSeconds(10);
+        b.rebalance();
+        assertThat(b.operated.isEmpty(), is(true));
+
+        a.stopped();
+        assertThat(a.sharding.ownedNamespaces(), is(a.operated));
+        b.rebalance();
+        assertThat(b.operated.size(), is(2));
+    }
+
+    @Test
+    public void testHungRebalanceIsAbandoned() throws InterruptedException {
+        InMemoryLeaseOperator leaseOperator = new InMemoryLeaseOperator(vertx);
+        Replica a = new Replica(leaseOperator, "a", 200);
+        a.rebalance();
+        assertThat(a.operated, is(NAMESPACES));
+
+        // A request to the API server never completes, so the leases can't be renewed
+        leaseOperator.hanging = true;
+        assertThat(a.sharding.rebalance().isComplete(), is(false));
+        Thread.sleep(250);
+        // The expired leases are lost even though the rebalance hasn't finished, and the rebalance is retried
+        a.sharding.rebalance();
+        assertThat(a.operated.isEmpty(), is(true));
+
+        leaseOperator.hanging = false;
+        Thread.sleep(250);
+        a.rebalance();
+        assertThat(a.operated, is(NAMESPACES));
+    }
+}
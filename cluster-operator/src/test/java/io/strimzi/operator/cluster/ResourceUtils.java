@@ -80,7 +80,7 @@ import io.strimzi.operator.common.operator.resource.StorageClassOperator;
 import io.strimzi.test.TestUtils;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
-import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetClient;
 import io.vertx.core.net.PemKeyCertOptions;
 import io.vertx.core.net.PemTrustOptions;
 import org.apache.kafka.clients.admin.AdminClient;
@@ -542,10 +542,15 @@ public class ResourceUtils {
         return new ZookeeperLeaderFinder(vertx, new SecretOperator(vertx, client),
             () -> new BackOff(5_000, 2, 4)) {
                 @Override
-                protected Future<Boolean> isLeader(Pod pod, NetClientOptions options) {
+                protected Future<Boolean> isLeader(Pod pod, NetClient client) {
                     return Future.succeededFuture(true);
                 }
 
+                @Override
+                protected Future<Integer> syncedFollowers(String cluster, String namespace, Pod leader, Secret coKeySecret) {
+                    return Future.succeededFuture(Integer.MAX_VALUE);
+                }
+
                 @Override
                 protected PemTrustOptions trustOptions(Secret s) {
                     return new PemTrustOptions();
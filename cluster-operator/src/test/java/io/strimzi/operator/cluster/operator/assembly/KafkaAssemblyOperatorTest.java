@@ -81,6 +81,7 @@ import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -108,6 +109,9 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -394,6 +398,7 @@ public class KafkaAssemblyOperatorTest {
         when(mockKsOps.reconcile(anyString(), anyString(), ssCaptor.capture())).thenReturn(Future.succeededFuture(ReconcileResult.created(null)));
         when(mockKsOps.scaleDown(anyString(), anyString(), anyInt())).thenReturn(Future.succeededFuture(null));
         when(mockKsOps.maybeRollingUpdate(any(), any(Predicate.class))).thenReturn(Future.succeededFuture());
+        when(mockKsOps.maybeRollingUpdate(any(), any(Predicate.class), any())).thenReturn(Future.succeededFuture());
         when(mockKsOps.scaleUp(anyString(), anyString(), anyInt())).thenReturn(Future.succeededFuture(42));
         when(mockPolicyOps.reconcile(anyString(), anyString(), policyCaptor.capture())).thenReturn(Future.succeededFuture(ReconcileResult.created(null)));
         when(mockZsOps.getAsync(anyString(), anyString())).thenReturn(Future.succeededFuture());
@@ -1005,6 +1010,7 @@ public class KafkaAssemblyOperatorTest {
         });
         when(mockZsOps.maybeRollingUpdate(any(), any(Predicate.class))).thenReturn(Future.succeededFuture());
         when(mockKsOps.maybeRollingUpdate(any(), any(Predicate.class))).thenReturn(Future.succeededFuture());
+        when(mockKsOps.maybeRollingUpdate(any(), any(Predicate.class), any())).thenReturn(Future.succeededFuture());
 
         when(mockZsOps.getAsync(anyString(), anyString())).thenReturn(Future.succeededFuture());
         when(mockKsOps.getAsync(anyString(), anyString())).thenReturn(Future.succeededFuture());
@@ -1286,6 +1292,36 @@ public class KafkaAssemblyOperatorTest {
         context.completeNow();
     }
 
+    @Test
+    public void testKafkaRollingUpdateReasonIsAFingerprintOfTheTriggers() {
+        Kafka kafka = ResourceUtils.createKafkaCluster("ns", "foo", 3, "image", 120, 30);
+        KafkaAssemblyOperator op = new KafkaAssemblyOperator(vertx, new PlatformFeaturesAvailability(false, kubernetesVersion),
+                certManager,
+                passwordGenerator,
+                ResourceUtils.supplierWithMocks(false),
+                ResourceUtils.dummyClusterOperatorConfig(VERSIONS));
+        KafkaAssemblyOperator.ReconciliationState state = op.new ReconciliationState(
+                new Reconciliation("test", Kafka.RESOURCE_KIND, "ns", "foo"), kafka);
+        state.clusterCa = ResourceUtils.createInitialClusterCa("ns", "foo");
+        state.clientsCa = ResourceUtils.createInitialClientsCa("ns", "foo");
+        String reason = state.kafkaRollingUpdateReason();
+        assertThat(reason, is(notNullValue()));
+
+        // The same CA certificates give the same reason, so that an interrupted rolling update is resumed
+        state.clusterCa = ResourceUtils.createInitialClusterCa("ns", "foo");
+        assertThat(state.kafkaRollingUpdateReason(), is(reason));
+
+        // Renewed CA certificates don't
+        Secret renewedCert = ResourceUtils.createInitialCaCertSecret("ns", "foo", AbstractModel.clusterCaCertSecretName("foo"),
+                MockCertManager.clientsCaCert(), MockCertManager.clientsCaCertStore(), "123456");
+        state.clusterCa = ResourceUtils.createInitialClusterCa("foo", renewedCert, state.clusterCa.caKeySecret());
+        assertThat(state.kafkaRollingUpdateReason(), is(not(reason)));
+
+        // A pod whose file system is to be resized might need restarting again
+        state.fsResizingRestartRequest.add("foo-kafka-0");
+        assertThat(state.kafkaRollingUpdateReason(), is(nullValue()));
+    }
+
     @AfterAll
     public static void cleanUp() {
         ResourceUtils.cleanUpTemporaryTLSFiles();
@@ -16,6 +16,7 @@ import org.apache.kafka.clients.admin.ListTopicsResult;
 import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.kafka.common.config.ConfigResource;
 import org.apache.kafka.common.config.TopicConfig;
@@ -35,11 +36,18 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(VertxExtension.class)
@@ -146,6 +154,14 @@ public class KafkaAvailabilityTest {
             return this;
         }
 
+        KSB rack(String rack, int... ids) {
+            for (int id : ids) {
+                addBroker(id);
+                nodes.put(id, new Node(id, "localhost", 1234 + id, rack));
+            }
+            return this;
+        }
+
         static <T> KafkaFuture<T> failedFuture(Throwable t) {
             KafkaFutureImpl kafkaFuture = new KafkaFutureImpl();
             kafkaFuture.completeExceptionally(t);
@@ -616,4 +632,297 @@ public class KafkaAvailabilityTest {
             });
         }
     }
+
+    @Test
+    public void canRollWithBrokersSharingNoPartitions(VertxTestContext context) {
+        KSB ksb = new KSB().topic("A", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(0, 1, 2)
+                    .leader(0)
+                    .isr(0, 1, 2)
+                .endPartition()
+                .endTopic()
+                .topic("B", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(3, 4, 5)
+                    .leader(3)
+                    .isr(3, 4, 5)
+                .endPartition()
+                .endTopic();
+
+        KafkaAvailability kafkaAvailability = new KafkaAvailability(ksb.ac());
+
+        Checkpoint checkpoint = context.checkpoint();
+        kafkaAvailability.canRollWith(0, asList(1, 2, 3, 4, 5), 5).setHandler(ar -> {
+            if (ar.failed()) {
+                fail(ar.cause());
+            } else {
+                assertEquals(singletonList(3), ar.result(),
+                        "only one of brokers 3, 4 and 5 should be rollable with broker 0, the others sharing partitions with it or with each other");
+            }
+            checkpoint.flag();
+        });
+    }
+
+    @Test
+    public void canRollWithBrokersInSameRackFirst(VertxTestContext context) {
+        KSB ksb = new KSB().topic("A", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(0, 1, 2)
+                    .leader(0)
+                    .isr(0, 1, 2)
+                .endPartition()
+                .endTopic()
+                .topic("B", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(3, 4, 5)
+                    .leader(3)
+                    .isr(3, 4, 5)
+                .endPartition()
+                .endTopic()
+                .rack("a", 0, 3)
+                .rack("b", 1, 4)
+                .rack("c", 2, 5);
+
+        KafkaAvailability kafkaAvailability = new KafkaAvailability(ksb.ac());
+
+        Checkpoint checkpoint = context.checkpoint();
+        kafkaAvailability.canRollWith(0, asList(4, 3), 1).setHandler(ar -> {
+            if (ar.failed()) {
+                fail(ar.cause());
+            } else {
+                assertEquals(singletonList(3), ar.result(),
+                        "broker 3 should be preferred to broker 4, being in the same rack as broker 0");
+            }
+            checkpoint.flag();
+        });
+    }
+
+    @Test
+    public void cannotRollWithBrokersInSameRackBelowMinIsr(VertxTestContext context) {
+        KSB ksb = new KSB().topic("A", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(0, 1, 2)
+                    .leader(0)
+                    .isr(0, 1, 2)
+                .endPartition()
+                .endTopic()
+                .rack("a", 0, 1)
+                .rack("b", 2);
+
+        KafkaAvailability kafkaAvailability = new KafkaAvailability(ksb.ac());
+
+        Checkpoint checkpoint = context.checkpoint();
+        kafkaAvailability.canRollWith(0, asList(1, 2), 2).setHandler(ar -> {
+            if (ar.failed()) {
+                fail(ar.cause());
+            } else {
+                assertEquals(emptyList(), ar.result(),
+                        "no broker should be rollable with broker 0, since the ISR would be below minisr = 2");
+            }
+            checkpoint.flag();
+        });
+    }
+
+    @Test
+    public void snapshotIsRefreshedForBrokerOnly(VertxTestContext context) {
+        KSB ksb = new KSB().topic("A", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(0, 1, 2)
+                    .leader(0)
+                    .isr(0, 1, 2)
+                .endPartition()
+                .endTopic()
+                .topic("B", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(3, 4, 5)
+                    .leader(3)
+                    .isr(3, 4, 5)
+                .endPartition()
+                .endTopic();
+
+        AdminClient ac = ksb.ac();
+        KafkaAvailability kafkaAvailability = new KafkaAvailability(ac);
+
+        Checkpoint checkpoint = context.checkpoint();
+        kafkaAvailability.canRoll(0)
+            .compose(canRoll -> kafkaAvailability.canRoll(3))
+            .compose(canRoll -> kafkaAvailability.canRoll(0))
+            .setHandler(context.succeeding(canRoll -> context.verify(() -> {
+                assertTrue(canRoll);
+                // The topics are listed each time, but afterwards only the topics on the broker are described again
+                verify(ac, times(3)).listTopics(any());
+                verify(ac, times(1)).describeTopics(new HashSet<>(asList("A", "B")));
+                verify(ac, times(1)).describeTopics(singleton("B"));
+                verify(ac, times(1)).describeTopics(singleton("A"));
+                // The configs of each topic are described once
+                verify(ac, times(2)).describeConfigs(any());
+                checkpoint.flag();
+            })));
+    }
+
+    @Test
+    public void snapshotIsRefreshedWithCreatedTopics(VertxTestContext context) {
+        KSB ksb = new KSB().topic("A", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(0, 1, 2)
+                    .leader(0)
+                    .isr(0, 1, 2)
+                .endPartition()
+                .endTopic()
+                .addBroker(3, 4, 5);
+
+        AdminClient ac = ksb.ac();
+        KafkaAvailability kafkaAvailability = new KafkaAvailability(ac);
+
+        Checkpoint checkpoint = context.checkpoint();
+        kafkaAvailability.canRoll(3).compose(canRoll -> {
+            context.verify(() -> assertTrue(canRoll, "broker 3 should be rollable, having no replicas"));
+            // A topic is created with broker 3 in the ISR at minisr = 2
+            ksb.topic("B", false)
+                    .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                    .partition(0)
+                        .replicaOn(3, 4, 5)
+                        .leader(3)
+                        .isr(3, 4);
+            return kafkaAvailability.canRoll(3);
+        }).setHandler(context.succeeding(canRoll -> context.verify(() -> {
+            assertFalse(canRoll, "broker 3 should not be rollable, the ISR of the created topic being at minisr = 2");
+            verify(ac, times(1)).describeTopics(singleton("B"));
+            checkpoint.flag();
+        })));
+    }
+
+    @Test
+    public void snapshotIsRefreshedWithoutDeletedTopics(VertxTestContext context) {
+        KSB ksb = new KSB().topic("A", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(0, 1, 2)
+                    .leader(0)
+                    .isr(0, 1)
+                .endPartition()
+                .endTopic();
+
+        KafkaAvailability kafkaAvailability = new KafkaAvailability(ksb.ac());
+
+        Checkpoint checkpoint = context.checkpoint();
+        kafkaAvailability.canRoll(0).compose(canRoll -> {
+            context.verify(() -> assertFalse(canRoll, "broker 0 should not be rollable, the ISR being at minisr = 2"));
+            ksb.topics.remove("A");
+            return kafkaAvailability.canRoll(0);
+        }).setHandler(context.succeeding(canRoll -> context.verify(() -> {
+            assertTrue(canRoll, "broker 0 should be rollable, its only topic having been deleted");
+            checkpoint.flag();
+        })));
+    }
+
+    @Test
+    public void snapshotIsIndexedAgainWhenReplicasChange(VertxTestContext context) {
+        KSB ksb = new KSB().topic("A", false)
+                .addToConfig(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2")
+                .partition(0)
+                    .replicaOn(0, 1, 2)
+                    .leader(1)
+                    .isr(1, 2)
+                .endPartition()
+                .endTopic();
+
+        KafkaAvailability kafkaAvailability = new KafkaAvailability(ksb.ac());
+
+        Checkpoint checkpoint = context.checkpoint();
+        kafkaAvailability.canRoll(0).compose(canRoll -> {
+            context.verify(() -> assertTrue(canRoll, "broker 0 should be rollable, not being in the ISR"));
+            // Reassign the partition, with broker 0 now in the ISR
+            ksb.topic("A", false).partition(0)
+                    .replicaOn(0, 1, 3)
+                    .isr(0, 1);
+            return kafkaAvailability.canRoll(0);
+        }).setHandler(context.succeeding(canRoll -> context.verify(() -> {
+            assertFalse(canRoll, "broker 0 should not be rollable, the ISR being at minisr = 2");
+            checkpoint.flag();
+        })));
+    }
+
+    @Test
+    public void inSyncPercentage(VertxTestContext context) {
+        KSB ksb = new KSB().topic("A", false)
+                .partition(0)
+                    .replicaOn(0, 1)
+                    .leader(1)
+                    .isr(1)
+                .endPartition()
+                .partition(1)
+                    .replicaOn(0, 1)
+                    .leader(1)
+                    .isr(0, 1)
+                .endPartition()
+                .partition(2)
+                    .replicaOn(0, 1)
+                    .leader(0)
+                    .isr(0, 1)
+                .endPartition()
+                .endTopic()
+                .addBroker(2);
+
+        KafkaAvailability kafkaAvailability = new KafkaAvailability(ksb.ac());
+
+        Checkpoint checkpoint = context.checkpoint();
+        kafkaAvailability.inSyncPercentage(singleton(0)).setHandler(context.succeeding(percentage -> {
+            context.verify(() -> assertEquals(66, (int) percentage,
+                    "two of the three replicas on broker 0 should be in sync"));
+            kafkaAvailability.inSyncPercentage(singleton(2)).setHandler(context.succeeding(none -> {
+                context.verify(() -> assertEquals(100, (int) none,
+                        "a broker without replicas should be in sync"));
+                checkpoint.flag();
+            }));
+        }));
+    }
+
+    @Test
+    public void leadershipsToMoveAndRestore(VertxTestContext context) {
+        KSB ksb = new KSB().topic("A", false)
+                .partition(0)
+                    .replicaOn(1, 0)
+                    .leader(0)
+                    .isr(0, 1)
+                .endPartition()
+                .partition(1)
+                    .replicaOn(0, 1)
+                    .leader(0)
+                    .isr(0, 1)
+                .endPartition()
+                .partition(2)
+                    .replicaOn(2, 0)
+                    .leader(0)
+                    .isr(0)
+                .endPartition()
+                .partition(3)
+                    .replicaOn(0, 1)
+                    .leader(1)
+                    .isr(0, 1)
+                .endPartition()
+                .endTopic();
+
+        KafkaAvailability kafkaAvailability = new KafkaAvailability(ksb.ac());
+
+        Checkpoint checkpoint = context.checkpoint();
+        kafkaAvailability.leadershipsToMove(singleton(0)).setHandler(context.succeeding(toMove -> {
+            context.verify(() -> assertEquals(singleton(new TopicPartition("A", 0)), toMove,
+                    "only the partition whose preferred leader is another broker in its ISR should be moved"));
+            kafkaAvailability.leadershipsToRestore(singleton(0)).setHandler(context.succeeding(toRestore -> {
+                context.verify(() -> assertEquals(singleton(new TopicPartition("A", 3)), toRestore,
+                        "only the partition preferring broker 0 but led by another broker should be restored"));
+                checkpoint.flag();
+            }));
+        }));
+    }
 }
@@ -9,6 +9,8 @@ import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.strimzi.api.kafka.model.status.PodRollingUpdateStatus;
+import io.strimzi.api.kafka.model.status.RollingUpdateStatus;
 import io.strimzi.operator.common.BackOff;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.operator.resource.PodOperator;
@@ -21,6 +23,7 @@ import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterAll;
@@ -32,13 +35,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -46,8 +53,12 @@ import static io.vertx.core.Future.failedFuture;
 import static io.vertx.core.Future.succeededFuture;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -109,6 +120,20 @@ public class KafkaRollerTest {
                 asList(0, 1, 3, 4, 2));
     }
 
+    @Test
+    public void adminClientIsSharedByAllPods(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet ss = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(ss, podOps, 2);
+        kafkaRoller.rollingRestart(pod -> true).setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+            assertEquals(asList(0, 1, 3, 4, 2), restarted());
+            // Rescheduling the controller is not an error, so the AdminClient is kept
+            assertEquals(1, kafkaRoller.adminClientsCreated);
+            assertNoUnclosedAdminClient(testContext, kafkaRoller);
+            testContext.completeNow();
+        })));
+    }
+
     @Test
     public void controllerChangesDuringRoll(VertxTestContext testContext) {
         PodOperator podOps = mockPodOps(podId -> succeededFuture());
@@ -261,6 +286,39 @@ public class KafkaRollerTest {
                 asList(0, 3, 4, 1, 2));
     }
 
+    @Test
+    public void summaryRecordsPhasesAndRetries(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        AtomicInteger count = new AtomicInteger(3);
+        TestingKafkaRoller kafkaRoller = new TestingKafkaRoller(sts, null, null, podOps,
+            null, null, null,
+            brokerId ->
+                    brokerId == 1 ? succeededFuture(count.getAndDecrement() == 0)
+                            : succeededFuture(true),
+            -1);
+        kafkaRoller.rollingRestart(pod -> !"c-kafka-4".equals(pod.getMetadata().getName()))
+            .setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+                assertTrue(kafkaRoller.summary().anyRestarted());
+                RollingUpdateStatus status = kafkaRoller.summary().toStatus(System.currentTimeMillis());
+                assertEquals("kafka", status.getComponent());
+                Map<String, PodRollingUpdateStatus> pods = status.getPods().stream()
+                        .collect(Collectors.toMap(PodRollingUpdateStatus::getPod, pod -> pod));
+                assertEquals(5, pods.size());
+                assertEquals(singletonMap("UnforceableProblem", 3), pods.get("c-kafka-1").getRetries());
+                assertNull(pods.get("c-kafka-0").getRetries());
+                assertTrue(pods.get("c-kafka-0").isRestarted());
+                assertEquals(new HashSet<>(asList(RollingUpdateSummary.CONTROLLER, RollingUpdateSummary.AVAILABILITY,
+                        RollingUpdateSummary.LEADERSHIP_DRAIN, RollingUpdateSummary.RESTART, RollingUpdateSummary.READINESS,
+                        RollingUpdateSummary.ISR_CATCH_UP, RollingUpdateSummary.LEADERSHIP_RESTORE)),
+                        pods.get("c-kafka-0").getPhases().keySet());
+                // The pod which didn't need a restart was only waited for
+                assertFalse(pods.get("c-kafka-4").isRestarted());
+                assertEquals(singleton(RollingUpdateSummary.READINESS), pods.get("c-kafka-4").getPhases().keySet());
+                testContext.completeNow();
+            })));
+    }
+
     private static final Logger log = LogManager.getLogger(KafkaRollerTest.class);
 
     @Test
@@ -342,6 +400,163 @@ public class KafkaRollerTest {
                 emptyList());
     }
 
+    @Test
+    public void batchesOfPodsSharingNoPartitions(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        // Pod 0 can be rolled with pod 3 and pod 1 with pod 4, but pod 4 is the controller
+        Map<Integer, Integer> mates = new HashMap<>();
+        mates.put(0, 3);
+        mates.put(1, 4);
+        TestingKafkaRoller kafkaRoller = new TestingKafkaRoller(sts, null, null, podOps,
+            null, null, null,
+            brokerId -> succeededFuture(true),
+            new KafkaRollingOptions(2, 0, 0, 1),
+            (brokerId, candidates) -> succeededFuture(candidates.contains(mates.get(brokerId)) ?
+                    singletonList(mates.get(brokerId)) : emptyList()),
+            4);
+        doSuccessfulRollingRestart(testContext, kafkaRoller,
+                asList(0, 1, 2, 3, 4),
+                asList(0, 3, 1, 2, 4));
+    }
+
+    @Test
+    public void leadershipIsMovedOffAndBackToRestartedPods(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = new TestingKafkaRoller(sts, null, null, podOps,
+            null, null, null,
+            brokerId -> succeededFuture(true),
+            new KafkaRollingOptions(1, 60_000, 0, 1),
+            null,
+            2);
+        kafkaRoller.rollingRestart(pod -> podName2Number(pod.getMetadata().getName()) != 1)
+            .setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+                assertEquals(asList(
+                        "elect 0", "restart 0", "elect 0",
+                        "elect 3", "restart 3", "elect 3",
+                        "elect 4", "restart 4", "elect 4",
+                        "elect 2", "restart 2", "elect 2"),
+                    kafkaRoller.leadershipEvents);
+                assertNoUnclosedAdminClient(testContext, kafkaRoller);
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    public void nextPodIsConsideredOnceReplicasHaveCaughtUp(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = new TestingKafkaRoller(sts, null, null, podOps,
+            null, null, null,
+            brokerId -> succeededFuture(true),
+            new KafkaRollingOptions(1, 0, 100, 60_000),
+            null,
+            2);
+        kafkaRoller.rollingRestart(pod -> asList(0, 3).contains(podName2Number(pod.getMetadata().getName())))
+            .setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+                assertEquals(asList(0, 3), restarted());
+                Map<Set<Integer>, Integer> expected = new HashMap<>();
+                expected.put(singleton(0), 2);
+                expected.put(singleton(3), 2);
+                assertEquals(expected, kafkaRoller.inSyncChecks);
+                assertNoUnclosedAdminClient(testContext, kafkaRoller);
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    public void rollingRestartResumesFromPersistedProgress(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(sts, podOps, 2);
+        kafkaRoller.persistedProgress = new RollingProgress(1, "update", 0);
+        kafkaRoller.persistedProgress.completed(0, "c-kafka-0");
+        kafkaRoller.persistedProgress.completed(1, "c-kafka-1");
+        kafkaRoller.rollingRestart(pod -> true, "update").setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+            assertEquals(asList(3, 4, 2), restarted());
+            assertEquals(asList("0=c-kafka-0,1=c-kafka-1,3=c-kafka-3",
+                    "0=c-kafka-0,1=c-kafka-1,3=c-kafka-3,4=c-kafka-4",
+                    "0=c-kafka-0,1=c-kafka-1,2=c-kafka-2,3=c-kafka-3,4=c-kafka-4",
+                    null), kafkaRoller.savedProgress);
+            assertNoUnclosedAdminClient(testContext, kafkaRoller);
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    public void podsRecreatedSinceTheyWereRestartedAreConsideredAgain(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(sts, podOps, -1);
+        kafkaRoller.persistedProgress = new RollingProgress(1, "update", 0);
+        kafkaRoller.persistedProgress.completed(0, "c-kafka-0");
+        kafkaRoller.persistedProgress.completed(1, "another-uid");
+        kafkaRoller.rollingRestart(pod -> true, "update").setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+            assertEquals(asList(1, 2, 3, 4), restarted());
+            assertNull(kafkaRoller.savedProgress.get(kafkaRoller.savedProgress.size() - 1));
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    public void persistedProgressOfAnotherGenerationIsIgnored(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(sts, podOps, -1);
+        kafkaRoller.persistedProgress = new RollingProgress(0, "update", 0);
+        kafkaRoller.persistedProgress.completed(0, "c-kafka-0");
+        kafkaRoller.rollingRestart(pod -> true, "update").setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+            assertEquals(asList(0, 1, 2, 3, 4), restarted());
+            assertEquals(6, kafkaRoller.savedProgress.size());
+            assertNull(kafkaRoller.savedProgress.get(5));
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    public void persistedProgressForAnotherReasonIsIgnored(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(sts, podOps, -1);
+        kafkaRoller.persistedProgress = new RollingProgress(1, "update", 0);
+        kafkaRoller.persistedProgress.completed(0, "c-kafka-0");
+        kafkaRoller.rollingRestart(pod -> true, "another-reason").setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+            assertEquals(asList(0, 1, 2, 3, 4), restarted());
+            assertEquals(6, kafkaRoller.savedProgress.size());
+            assertNull(kafkaRoller.savedProgress.get(5));
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    public void rollingRestartWithoutReasonIsNotResumedNorPersisted(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(sts, podOps, -1);
+        // As if an earlier rolling restart of the same generation restarted pod 0, and then e.g. a manual rolling update
+        kafkaRoller.persistedProgress = new RollingProgress(1, "update", 0);
+        kafkaRoller.persistedProgress.completed(0, "c-kafka-0");
+        kafkaRoller.rollingRestart(pod -> true).setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+            assertEquals(asList(0, 1, 2, 3, 4), restarted());
+            // Only the earlier progress is deleted
+            assertEquals(singletonList(null), kafkaRoller.savedProgress);
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    public void progressIsNotPersistedWhenNoPodIsRestarted(VertxTestContext testContext) {
+        PodOperator podOps = mockPodOps(podId -> succeededFuture());
+        StatefulSet sts = buildStatefulSet();
+        TestingKafkaRoller kafkaRoller = rollerWithControllers(sts, podOps, -1);
+        kafkaRoller.rollingRestart(pod -> false).setHandler(testContext.succeeding(v -> testContext.verify(() -> {
+            assertEquals(emptyList(), restarted());
+            assertEquals(emptyList(), kafkaRoller.savedProgress);
+            testContext.completeNow();
+        })));
+    }
+
     private TestingKafkaRoller rollerWithControllers(StatefulSet ss, PodOperator podOps, int... controllers) {
         return new TestingKafkaRoller(ss, null, null, podOps,
             null, null, null,
@@ -414,6 +629,7 @@ public class KafkaRollerTest {
                     .withNewMetadata()
                         .withNamespace(invocation.getArgument(0))
                         .withName(invocation.getArgument(1))
+                        .withUid(invocation.getArgument(1))
                     .endMetadata()
                 .build()
         );
@@ -446,6 +662,11 @@ public class KafkaRollerTest {
                 .endMetadata()
                 .withNewSpec()
                 .withReplicas(5)
+                .withNewTemplate()
+                    .withNewMetadata()
+                        .addToAnnotations(StatefulSetOperator.ANNO_STRIMZI_IO_GENERATION, "1")
+                    .endMetadata()
+                .endTemplate()
                 .endSpec()
                 .build();
     }
@@ -453,22 +674,47 @@ public class KafkaRollerTest {
     private class TestingKafkaRoller extends KafkaRoller {
 
         int controllerCall;
+        int adminClientsCreated;
         private final IdentityHashMap<AdminClient, Throwable> unclosedAdminClients;
         private final RuntimeException acOpenException;
         private final Throwable acCloseException;
         private final Function<Integer, Future<Boolean>> canRollFn;
+        private final BiFunction<Integer, List<Integer>, Future<List<Integer>>> canRollWithFn;
         private final Throwable controllerException;
         private final int[] controllers;
+        /** The preferred leader elections and restarts, in order */
+        final List<String> leadershipEvents = new ArrayList<>();
+        /** The brokers whose leadership has been moved off them */
+        private final Set<Integer> drained = new HashSet<>();
+        /** The number of times the ISR membership of each set of brokers has been checked */
+        final Map<Set<Integer>, Integer> inSyncChecks = new HashMap<>();
+        /** The progress of a previous rolling restart */
+        RollingProgress persistedProgress;
+        /** The pods completed in each saved progress, or null when the progress was deleted */
+        final List<String> savedProgress = new ArrayList<>();
+
+        private TestingKafkaRoller(StatefulSet ss, Secret clusterCaCertSecret, Secret coKeySecret,
+                                  PodOperator podOps,
+                                  RuntimeException acOpenException, Throwable acCloseException,
+                                  Throwable controllerException,
+                                  Function<Integer, Future<Boolean>> canRollFn,
+                                  int... controllers) {
+            this(ss, clusterCaCertSecret, coKeySecret, podOps, acOpenException, acCloseException, controllerException,
+                canRollFn, KafkaRollingOptions.DEFAULT, null, controllers);
+        }
 
         private TestingKafkaRoller(StatefulSet ss, Secret clusterCaCertSecret, Secret coKeySecret,
                                   PodOperator podOps,
                                   RuntimeException acOpenException, Throwable acCloseException,
                                   Throwable controllerException,
                                   Function<Integer, Future<Boolean>> canRollFn,
+                                  KafkaRollingOptions options,
+                                  BiFunction<Integer, List<Integer>, Future<List<Integer>>> canRollWithFn,
                                   int... controllers) {
             super(KafkaRollerTest.vertx, podOps, 500, 1000,
                 () -> new BackOff(10L, 2, 4),
-                ss, clusterCaCertSecret, coKeySecret);
+                ss, clusterCaCertSecret, coKeySecret, new DefaultAdminClientProvider(), options);
+            this.canRollWithFn = canRollWithFn;
             this.controllers = controllers;
             this.controllerCall = 0;
             this.acOpenException = acOpenException;
@@ -479,7 +725,7 @@ public class KafkaRollerTest {
         }
 
         @Override
-        protected AdminClient adminClient(Integer podId) throws ForceableProblem {
+        protected AdminClient adminClient(List<Integer> bootstrapPods) throws ForceableProblem {
             if (acOpenException != null) {
                 throw new ForceableProblem("An error while try to create the admin client", acOpenException);
             }
@@ -494,7 +740,8 @@ public class KafkaRollerTest {
                 }
                 throw new RuntimeException("Not mocked " + invocation.getMethod());
             });
-            unclosedAdminClients.put(ac, new Throwable("Pod " + podId));
+            unclosedAdminClients.put(ac, new Throwable("Pods " + bootstrapPods));
+            adminClientsCreated++;
             return ac;
         }
 
@@ -515,13 +762,48 @@ public class KafkaRollerTest {
                 Future<Boolean> canRoll(int podId) {
                     return canRollFn.apply(podId);
                 }
+
+                @Override
+                Future<List<Integer>> canRollWith(int podId, List<Integer> candidates, int max) {
+                    return canRollWithFn.apply(podId, candidates);
+                }
+
+                @Override
+                Future<Integer> inSyncPercentage(Set<Integer> brokers) {
+                    // The replicas are half caught up when first checked, and fully caught up afterwards
+                    int checks = inSyncChecks.merge(new HashSet<>(brokers), 1, Integer::sum);
+                    return succeededFuture(checks == 1 ? 50 : 100);
+                }
+
+                @Override
+                Future<Set<TopicPartition>> leadershipsToMove(Set<Integer> brokers) {
+                    return succeededFuture(brokers.stream().filter(broker -> !drained.contains(broker))
+                            .map(broker -> new TopicPartition("t", broker)).collect(Collectors.toSet()));
+                }
+
+                @Override
+                Future<Set<TopicPartition>> leadershipsToRestore(Set<Integer> brokers) {
+                    return succeededFuture(brokers.stream().filter(drained::contains)
+                            .map(broker -> new TopicPartition("t", broker)).collect(Collectors.toSet()));
+                }
+
+                @Override
+                Future<Void> electPreferredLeaders(Set<TopicPartition> partitions) {
+                    for (TopicPartition partition : partitions) {
+                        leadershipEvents.add("elect " + partition.partition());
+                        if (!drained.remove(partition.partition())) {
+                            drained.add(partition.partition());
+                        }
+                    }
+                    return succeededFuture();
+                }
             };
         }
 
         @Override
         int controller(int podId, AdminClient ac, long timeout, TimeUnit unit) throws ForceableProblem {
             if (controllerException != null) {
-                throw new ForceableProblem("An error while trying to determine the cluster controller from pod " + podName(podId), controllerException);
+                throw new ForceableProblem("An error while trying to determine the cluster controller when considering pod " + podName(podId), controllerException);
             } else {
                 int index;
                 if (controllerCall < controllers.length) {
@@ -534,9 +816,21 @@ public class KafkaRollerTest {
             }
         }
 
+        @Override
+        protected Future<RollingProgress> loadProgress() {
+            return succeededFuture(persistedProgress);
+        }
+
+        @Override
+        protected Future<Void> saveProgress(RollingProgress progress) {
+            savedProgress.add(progress != null ? progress.toConfigMap(buildStatefulSet()).getData().get("completed") : null);
+            return succeededFuture();
+        }
+
         @Override
         protected Future<Void> restart(Pod pod) {
             restarted.add(pod.getMetadata().getName());
+            leadershipEvents.add("restart " + podName2Number(pod.getMetadata().getName()));
             return succeededFuture();
         }
 
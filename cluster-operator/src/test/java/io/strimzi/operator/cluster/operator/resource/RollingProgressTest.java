@@ -0,0 +1,61 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RollingProgressTest {
+
+    private StatefulSet statefulSet() {
+        return new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withName("my-cluster-kafka")
+                    .withNamespace("ns")
+                    .withUid("ss-uid")
+                .endMetadata()
+                .build();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        RollingProgress progress = new RollingProgress(3, "update", 1234L);
+        progress.pending(0);
+        progress.pending(1);
+        progress.pending(2);
+        progress.completed(1, "uid-1");
+
+        ConfigMap cm = progress.toConfigMap(statefulSet());
+        assertEquals("my-cluster-kafka-rolling-progress", cm.getMetadata().getName());
+        assertEquals("ns", cm.getMetadata().getNamespace());
+        assertEquals("ss-uid", cm.getMetadata().getOwnerReferences().get(0).getUid());
+        assertEquals("1=uid-1", cm.getData().get("completed"));
+        assertEquals("0,2", cm.getData().get("pending"));
+        assertEquals("update", cm.getData().get("reason"));
+
+        RollingProgress parsed = RollingProgress.fromConfigMap(cm);
+        assertEquals(3, parsed.generation());
+        assertEquals("update", parsed.reason());
+        assertEquals(1234L, parsed.startTimeMs());
+        assertEquals("uid-1", parsed.completedUid(1));
+        assertNull(parsed.completedUid(0));
+        assertEquals(progress.toString(), parsed.toString());
+    }
+
+    @Test
+    public void testInvalidConfigMap() {
+        assertNull(RollingProgress.fromConfigMap(null));
+        assertNull(RollingProgress.fromConfigMap(new ConfigMapBuilder()
+                .withData(singletonMap("generation", "not-a-number"))
+                .build()));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.strimzi.api.kafka.model.status.PodRollingUpdateStatus;
+import io.strimzi.api.kafka.model.status.RollingUpdateStatus;
+import io.strimzi.operator.common.MicrometerMetricsProvider;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RollingUpdateSummaryTest {
+
+    @Test
+    public void testToStatus() {
+        RollingUpdateSummary summary = new RollingUpdateSummary("zookeeper", 0L);
+        long start = System.nanoTime();
+        summary.phase(RollingUpdateSummary.LEADER, start);
+        summary.phase("zk-1", RollingUpdateSummary.RESTART, start);
+        summary.phase("zk-1", RollingUpdateSummary.READINESS, start);
+        summary.phase("zk-0", RollingUpdateSummary.READINESS, start);
+        summary.retry("zk-1", "UnforceableProblem");
+        summary.retry("zk-1", "UnforceableProblem");
+        assertThat(summary.anyRestarted(), is(false));
+        summary.restarted("zk-1");
+        assertThat(summary.anyRestarted(), is(true));
+
+        RollingUpdateStatus status = summary.toStatus(61_000L);
+        assertThat(status.getComponent(), is("zookeeper"));
+        assertThat(status.getStartTime(), is("1970-01-01T00:00:00+0000"));
+        assertThat(status.getDurationMs(), is(61_000L));
+        assertThat(status.getPhases().containsKey(RollingUpdateSummary.LEADER), is(true));
+        assertThat(status.getPods().size(), is(2));
+
+        PodRollingUpdateStatus zk0 = status.getPods().get(0);
+        assertThat(zk0.getPod(), is("zk-0"));
+        assertThat(zk0.isRestarted(), is(false));
+        assertThat(zk0.getRetries(), is(nullValue()));
+
+        PodRollingUpdateStatus zk1 = status.getPods().get(1);
+        assertThat(zk1.getPod(), is("zk-1"));
+        assertThat(zk1.isRestarted(), is(true));
+        assertThat(zk1.getPhases().size(), is(2));
+        assertThat(zk1.getRetries(), is(singletonMap("UnforceableProblem", 2)));
+    }
+
+    @Test
+    public void testRecord() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        RollingUpdateSummary summary = new RollingUpdateSummary("kafka", 0L);
+        long start = System.nanoTime();
+        summary.phase("kafka-0", RollingUpdateSummary.RESTART, start);
+        summary.phase("kafka-1", RollingUpdateSummary.RESTART, start);
+        summary.retry("kafka-1", "ForceableProblem");
+        summary.record(new MicrometerMetricsProvider(registry), 10_000L);
+
+        assertThat(registry.get("strimzi.rolling.update").tag("component", "kafka").timer().count(), is(1L));
+        assertThat(registry.get("strimzi.rolling.update.phase").tag("phase", RollingUpdateSummary.RESTART).timer().count(), is(2L));
+        assertThat(registry.get("strimzi.rolling.update.retries").tag("reason", "ForceableProblem").counter().count(), is(1.0));
+    }
+}
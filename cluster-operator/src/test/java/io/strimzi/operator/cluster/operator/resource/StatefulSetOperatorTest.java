@@ -79,6 +79,7 @@ public class StatefulSetOperatorTest
                     .withReplicas(3)
                     .withNewTemplate()
                         .withNewMetadata()
+                            .addToAnnotations("foo", "bar")
                         .endMetadata()
                     .endTemplate()
                 .endSpec()
@@ -102,7 +103,8 @@ public class StatefulSetOperatorTest
 
             @Override
             protected boolean shouldIncrementGeneration(StatefulSetDiff diff) {
-                return true;
+                // Like the real operators, so that an unchanged StatefulSet keeps its generation, and so its desired hash
+                return !diff.isEmpty() && diff.changesSpecTemplate();
             }
         };
     }
@@ -70,6 +70,7 @@ public class ZookeeperLeaderFinderTest {
 
     class TestingZookeeperLeaderFinder extends ZookeeperLeaderFinder {
         private final int[] ports;
+        int clientOptionsCalls;
 
         public TestingZookeeperLeaderFinder(Supplier<BackOff> backOffSupplier, int[] ports) {
             super(vertx, mock, backOffSupplier);
@@ -78,6 +79,7 @@ public class ZookeeperLeaderFinderTest {
 
         @Override
         NetClientOptions clientOptions(Secret coCertKeySecret, Secret clusterCaCertificateSecret) {
+            clientOptionsCalls++;
             return new NetClientOptions()
                     .setKeyCertOptions(coCertificate.keyCertOptions())
                     .setTrustOptions(zkCertificate.trustOptions())
@@ -142,6 +144,11 @@ public class ZookeeperLeaderFinderTest {
                             socket.write("vesvsebserb\n");
                             log.debug("ZK {}: Sent response, closing", id);
                             socket.close();
+                        } else if (sb.toString().startsWith("mntr")) {
+                            socket.write("zk_version\t3.4.14\n");
+                            socket.write("zk_synced_followers\t2\n");
+                            socket.write("zk_pending_syncs\t0\n");
+                            socket.close();
                         }
                     });
                 })
@@ -440,6 +447,91 @@ public class ZookeeperLeaderFinderTest {
                 });
     }
 
+    @Test
+    public void testLeaderAndClientAreCached(VertxTestContext context) throws InterruptedException, ExecutionException, TimeoutException {
+        int leader = 1;
+        when(mock.getAsync(eq(NAMESPACE), eq(KafkaResources.clusterCaCertificateSecretName(CLUSTER))))
+                .thenAnswer(i -> Future.succeededFuture(
+                        new SecretBuilder()
+                                .withNewMetadata()
+                                .withName(KafkaResources.clusterCaCertificateSecretName(CLUSTER))
+                                .withNamespace(NAMESPACE)
+                                .withResourceVersion("1")
+                                .endMetadata()
+                                .withData(map(Ca.CA_CRT, "notacert"))
+                                .build()));
+        Secret coKeySecret = new SecretBuilder()
+                .withNewMetadata()
+                    .withName(ClusterOperator.secretName(CLUSTER))
+                    .withNamespace(NAMESPACE)
+                    .withResourceVersion("1")
+                .endMetadata()
+                .build();
+
+        int[] ports = startMockZks(context, 2, (id, attempt) -> id == leader);
+
+        TestingZookeeperLeaderFinder finder = new TestingZookeeperLeaderFinder(this::backoff, ports);
+
+        Checkpoint a = context.checkpoint();
+        finder.findZookeeperLeader(CLUSTER, NAMESPACE, asList(getPod(0, "a"), getPod(1, "b")), coKeySecret)
+            .compose(first -> {
+                context.verify(() -> assertThat(first, is(leader)));
+                // The same pods: the leader is remembered
+                return finder.findZookeeperLeader(CLUSTER, NAMESPACE, asList(getPod(0, "a"), getPod(1, "b")), coKeySecret);
+            }).compose(second -> {
+                context.verify(() -> assertThat(second, is(leader)));
+                for (FakeZk zk : zks) {
+                    context.verify(() -> assertThat("Unexpected number of attempts for node " + zk.id, zk.attempts.get(), is(1)));
+                }
+                // A restarted pod: the leader is found again, using the same client
+                return finder.findZookeeperLeader(CLUSTER, NAMESPACE, asList(getPod(0, "c"), getPod(1, "b")), coKeySecret);
+            }).compose(third -> {
+                context.verify(() -> assertThat(third, is(leader)));
+                for (FakeZk zk : zks) {
+                    context.verify(() -> assertThat("Unexpected number of attempts for node " + zk.id, zk.attempts.get(), is(2)));
+                }
+                context.verify(() -> assertThat(finder.clientOptionsCalls, is(1)));
+                // A forgotten cluster: both the leader and the client are dropped
+                finder.forgetCluster(CLUSTER, NAMESPACE);
+                return finder.findZookeeperLeader(CLUSTER, NAMESPACE, asList(getPod(0, "c"), getPod(1, "b")), coKeySecret);
+            }).setHandler(context.succeeding(fourth -> {
+                context.verify(() -> assertThat(fourth, is(leader)));
+                for (FakeZk zk : zks) {
+                    context.verify(() -> assertThat("Unexpected number of attempts for node " + zk.id, zk.attempts.get(), is(3)));
+                }
+                context.verify(() -> assertThat(finder.clientOptionsCalls, is(2)));
+                a.flag();
+            }));
+    }
+
+    @Test
+    public void testSyncedFollowers(VertxTestContext context) throws InterruptedException, ExecutionException, TimeoutException {
+        when(mock.getAsync(eq(NAMESPACE), eq(KafkaResources.clusterCaCertificateSecretName(CLUSTER))))
+                .thenAnswer(i -> Future.succeededFuture(
+                        new SecretBuilder()
+                                .withNewMetadata()
+                                .withName(KafkaResources.clusterCaCertificateSecretName(CLUSTER))
+                                .withNamespace(NAMESPACE)
+                                .endMetadata()
+                                .withData(map(Ca.CA_CRT, "notacert"))
+                                .build()));
+
+        int[] ports = startMockZks(context, 1, (id, attempt) -> true);
+
+        ZookeeperLeaderFinder finder = new TestingZookeeperLeaderFinder(this::backoff, ports);
+
+        Checkpoint a = context.checkpoint();
+        finder.syncedFollowers(CLUSTER, NAMESPACE, getPod(0), coKeySecret())
+            .setHandler(context.succeeding(synced -> {
+                context.verify(() -> assertThat(synced, is(2)));
+                a.flag();
+            }));
+    }
+
+    Pod getPod(int id, String uid) {
+        return new PodBuilder().withNewMetadata().withName("my-cluster-kafka-" + id).withUid(uid).endMetadata().build();
+    }
+
     Pod getPod(int id) {
         return new PodBuilder().withNewMetadata().withName("my-cluster-kafka-" + id).endMetadata().build();
     }
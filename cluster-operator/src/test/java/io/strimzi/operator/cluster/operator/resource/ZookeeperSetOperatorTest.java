@@ -5,31 +5,69 @@
 package io.strimzi.operator.cluster.operator.resource;
 
 import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaResources;
 import io.strimzi.operator.cluster.ResourceUtils;
 import io.strimzi.operator.cluster.model.ClusterCa;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.ZookeeperCluster;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.operator.resource.PodOperator;
+import io.strimzi.operator.common.operator.resource.PvcOperator;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import static io.strimzi.operator.cluster.model.AbstractModel.containerEnvVars;
 import static io.strimzi.operator.cluster.model.ZookeeperCluster.ENV_VAR_ZOOKEEPER_METRICS_ENABLED;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class ZookeeperSetOperatorTest {
 
+    private static Vertx vertx;
+
     private StatefulSet a;
     private StatefulSet b;
 
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
     @BeforeEach
-    public void before() {
+    public void createStatefulSets() {
         KafkaVersion.Lookup versions = new KafkaVersion.Lookup(emptyMap(), emptyMap(), emptyMap(), emptyMap());
         a = ZookeeperCluster.fromCrd(getResource(), versions).generateStatefulSet(true, null, null);
         b = ZookeeperCluster.fromCrd(getResource(), versions).generateStatefulSet(true, null, null);
@@ -118,4 +156,105 @@ public class ZookeeperSetOperatorTest {
                 "foo", null));
         assertThat(ZookeeperSetOperator.needsRollingUpdate(diff()), is(true));
     }
+
+    @Test
+    public void testMaxFollowersDown() {
+        assertThat(ZookeeperSetOperator.maxFollowersDown(3, 0), is(1));
+        assertThat(ZookeeperSetOperator.maxFollowersDown(5, 0), is(2));
+        assertThat(ZookeeperSetOperator.maxFollowersDown(7, 0), is(3));
+        assertThat(ZookeeperSetOperator.maxFollowersDown(7, 1), is(2));
+        // No room left once the unhealthy followers have used up what the ensemble can lose
+        assertThat(ZookeeperSetOperator.maxFollowersDown(3, 1), is(0));
+        assertThat(ZookeeperSetOperator.maxFollowersDown(5, 2), is(0));
+        assertThat(ZookeeperSetOperator.maxFollowersDown(7, 4), is(0));
+        // An ensemble which can't lose any node still has to be rolled one node at a time
+        assertThat(ZookeeperSetOperator.maxFollowersDown(1, 0), is(1));
+        assertThat(ZookeeperSetOperator.maxFollowersDown(2, 0), is(1));
+    }
+
+    /**
+     * Rolls a 3 node ensemble whose leader is pod 2 and whose follower pod 1 isn't ready,
+     * returning the names of the pods in the order they were restarted.
+     */
+    private Future<Void> rollWithUnreadyFollower(Predicate<Pod> podRestart, List<String> restarted) {
+        return rollWithUnreadyFollower(podRestart, restarted, 2);
+    }
+
+    /**
+     * Like {@link #rollWithUnreadyFollower(Predicate, List)}, with the leader reporting the given number of synced followers.
+     */
+    private Future<Void> rollWithUnreadyFollower(Predicate<Pod> podRestart, List<String> restarted, int syncedFollowers) {
+        String namespace = "test";
+        String cluster = "foo";
+        Map<String, Boolean> ready = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            ready.put(KafkaResources.zookeeperPodName(cluster, i), i != 1);
+        }
+        PodOperator podOperator = mock(PodOperator.class);
+        when(podOperator.get(anyString(), anyString())).thenAnswer(invocation -> pod(invocation.getArgument(1)));
+        when(podOperator.getAsync(anyString(), anyString())).thenAnswer(invocation -> Future.succeededFuture(pod(invocation.getArgument(1))));
+        when(podOperator.restart(anyString(), any(), anyLong())).thenAnswer(invocation -> {
+            String podName = invocation.<Pod>getArgument(1).getMetadata().getName();
+            restarted.add(podName);
+            ready.put(podName, true);
+            return Future.succeededFuture();
+        });
+        when(podOperator.isReady(anyString(), anyString())).thenAnswer(invocation -> ready.get(invocation.<String>getArgument(1)));
+        when(podOperator.readiness(anyString(), anyString(), anyLong(), anyLong())).thenAnswer(invocation ->
+                ready.get(invocation.<String>getArgument(1)) ? Future.succeededFuture() : Future.failedFuture(new TimeoutException()));
+
+        ZookeeperLeaderFinder leaderFinder = mock(ZookeeperLeaderFinder.class);
+        when(leaderFinder.findZookeeperLeader(anyString(), anyString(), any(), any())).thenReturn(Future.succeededFuture(2));
+        when(leaderFinder.syncedFollowers(anyString(), anyString(), any(), any())).thenReturn(Future.succeededFuture(syncedFollowers));
+
+        StatefulSet ss = new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withNamespace(namespace)
+                    .withName(KafkaResources.zookeeperStatefulSetName(cluster))
+                    .withLabels(singletonMap(Labels.STRIMZI_CLUSTER_LABEL, cluster))
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(3)
+                .endSpec()
+                .build();
+        ZookeeperSetOperator op = new ZookeeperSetOperator(vertx, mock(KubernetesClient.class), leaderFinder, 1_000L,
+                podOperator, mock(PvcOperator.class));
+        return op.maybeRollingUpdate(ss, podRestart, null, null);
+    }
+
+    private static Pod pod(String name) {
+        return new PodBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                .endMetadata()
+                .build();
+    }
+
+    @Test
+    public void testRollRestartsUnreadyFollowerFirst() {
+        List<String> restarted = new ArrayList<>();
+        Future<Void> roll = rollWithUnreadyFollower(pod -> true, restarted);
+        assertThat(roll.succeeded(), is(true));
+        assertThat(restarted, is(asList("foo-zookeeper-1", "foo-zookeeper-0", "foo-zookeeper-2")));
+    }
+
+    @Test
+    public void testRollDoesNotLoseQuorumWhenFollowerStaysUnready() {
+        // Pod 1 doesn't need restarting, so it stays unready and restarting any other pod would leave 2 of 3 down
+        List<String> restarted = new ArrayList<>();
+        Future<Void> roll = rollWithUnreadyFollower(pod -> !pod.getMetadata().getName().endsWith("-1"), restarted);
+        assertThat(roll.failed(), is(true));
+        assertThat(restarted, is(emptyList()));
+    }
+
+    @Test
+    public void testRollFailsWhenRestartedFollowerDoesNotRejoin() throws Exception {
+        // The leader never has both followers in sync again, even though the restarted follower is ready
+        List<String> restarted = new ArrayList<>();
+        CompletableFuture<Boolean> failed = new CompletableFuture<>();
+        rollWithUnreadyFollower(pod -> true, restarted, 1).setHandler(ar -> failed.complete(ar.failed()));
+        assertThat(failed.get(30, TimeUnit.SECONDS), is(true));
+        // So no other pod is restarted
+        assertThat(restarted, is(asList("foo-zookeeper-1")));
+    }
 }
@@ -8,6 +8,9 @@ import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.LabelSelector;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import io.strimzi.operator.cluster.model.InvalidResourceException;
 import io.strimzi.operator.common.model.NamespaceAndName;
 import io.strimzi.operator.common.model.ResourceVisitor;
@@ -15,6 +18,7 @@ import io.strimzi.operator.common.model.ValidationVisitor;
 import io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.shareddata.Lock;
 import org.apache.logging.log4j.LogManager;
@@ -22,6 +26,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -37,6 +42,9 @@ import java.util.stream.Collectors;
  * <li>add support for operator-side {@linkplain #validate(HasMetadata) validation}.
  *     This can be used to automatically log warnings about source resources which used deprecated part of the CR API.
  *
+ * <li>records metrics about the reconciliations (their number, outcome and duration, the time spent waiting
+ *     for the lock and the number of reconciliations which are in flight or queued) tagged with the {@link #kind()}.
+ *
  * </ul>
  * @param <T> The Java representation of the Kubernetes resource, e.g. {@code Kafka} or {@code KafkaConnect}
  * @param <S> The "Resource Operator" for the source resource type. Typically this will be some instantiation of
@@ -52,11 +60,58 @@ public abstract class AbstractOperator<
     protected final Vertx vertx;
     protected final S resourceOperator;
     private final String kind;
+    private final WorkQueue workQueue;
+    protected final MetricsProvider metrics;
+
+    private final Counter reconciliationsCounter;
+    private final Counter successfulReconciliationsCounter;
+    private final Counter failedReconciliationsCounter;
+    private final Timer reconciliationsTimer;
+    private final Timer lockWaitTimer;
 
     public AbstractOperator(Vertx vertx, String kind, S resourceOperator) {
+        this(vertx, kind, resourceOperator, WorkQueue.DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * @param vertx The Vertx instance.
+     * @param kind The kind of the resource consumed by this operator.
+     * @param resourceOperator The operator for the resource consumed by this operator.
+     * @param maxConcurrentReconciliations The maximum number of reconciliations which may run at once.
+     */
+    public AbstractOperator(Vertx vertx, String kind, S resourceOperator, int maxConcurrentReconciliations) {
+        this(vertx, kind, resourceOperator, maxConcurrentReconciliations, new MicrometerMetricsProvider());
+    }
+
+    /**
+     * @param vertx The Vertx instance.
+     * @param kind The kind of the resource consumed by this operator.
+     * @param resourceOperator The operator for the resource consumed by this operator.
+     * @param maxConcurrentReconciliations The maximum number of reconciliations which may run at once.
+     * @param metrics The provider of the metrics recorded by this operator.
+     */
+    public AbstractOperator(Vertx vertx, String kind, S resourceOperator, int maxConcurrentReconciliations, MetricsProvider metrics) {
         this.vertx = vertx;
         this.kind = kind;
         this.resourceOperator = resourceOperator;
+        this.workQueue = new WorkQueue(vertx, kind, this::reconcileWithLock, maxConcurrentReconciliations);
+        this.metrics = metrics;
+
+        Tags tags = Tags.of("kind", kind);
+        this.reconciliationsCounter = metrics.counter("strimzi.reconciliations",
+                "Number of reconciliations done by the operator for individual resources", tags);
+        this.successfulReconciliationsCounter = metrics.counter("strimzi.reconciliations.successful",
+                "Number of reconciliations done by the operator for individual resources which were successful", tags);
+        this.failedReconciliationsCounter = metrics.counter("strimzi.reconciliations.failed",
+                "Number of reconciliations done by the operator for individual resources which failed", tags);
+        this.reconciliationsTimer = metrics.timer("strimzi.reconciliations.duration",
+                "The time the reconciliation takes to complete", tags);
+        this.lockWaitTimer = metrics.timer("strimzi.reconciliations.lock.wait",
+                "The time spent waiting for the lock of the resource being reconciled", tags);
+        metrics.gauge("strimzi.reconciliations.in.flight",
+                "Number of reconciliations which are currently running", tags, workQueue::running);
+        metrics.gauge("strimzi.reconciliations.queued",
+                "Number of resources which are waiting to be reconciled", tags, workQueue::size);
     }
 
     @Override
@@ -102,16 +157,98 @@ public abstract class AbstractOperator<
      * Reconciliation works by getting the assembly resource (e.g. {@code KafkaUser})
      * in the given namespace with the given name and
      * comparing with the corresponding resource.
+     * The reconciliation is enqueued on this operator's {@link WorkQueue}, so reconciliations of a resource
+     * which is already being reconciled are coalesced into a single follow-up reconciliation rather than dropped.
      * @param reconciliation The reconciliation.
      * @return A Future which is completed with the result of the reconciliation.
      */
     @Override
     public final Future<Void> reconcile(Reconciliation reconciliation) {
+        Future<Void> result = Future.future();
+        workQueue.enqueue(reconciliation).setHandler(reconcileResult -> {
+            handleResult(reconciliation, reconcileResult);
+            result.handle(reconcileResult);
+        });
+        return result;
+    }
+
+    /**
+     * Triggers the asynchronous reconciliation of all resources which this operator consumes,
+     * unless the operator is {@linkplain #pause() paused}, in which case nothing is reconciled.
+     * @param trigger The cause of this reconciliation (for logging).
+     * @param namespace The namespace to reconcile, or {@code *} to reconcile across all namespaces.
+     * @param handler Handler called on completion.
+     */
+    @Override
+    public void reconcileAll(String trigger, String namespace, Handler<AsyncResult<Void>> handler) {
+        if (workQueue.isPaused()) {
+            log.debug("Skipping {} reconciliation of all {} resources in namespace {} while paused", trigger, kind, namespace);
+            handler.handle(Future.succeededFuture());
+        } else {
+            Operator.super.reconcileAll(trigger, namespace, handler);
+        }
+    }
+
+    /**
+     * Stop reconciling resources, e.g. while this replica of the operator is not the leader.
+     * Watch events are still received, and the reconciliations they trigger are queued until the operator
+     * is {@linkplain #resume() resumed}. Reconciliations which are already running are not affected.
+     */
+    public void pause() {
+        workQueue.pause();
+    }
+
+    /**
+     * Start running the reconciliations which were queued while the operator was {@linkplain #pause() paused}.
+     */
+    public void resume() {
+        workQueue.resume();
+    }
+
+    /**
+     * Stop reconciling the resources of the given namespace, e.g. once it's operated by another replica of the operator.
+     * The queued reconciliations of the namespace are dropped. The watches of the namespace must have been closed first.
+     * @param namespace The namespace.
+     * @return A future which completes once the running reconciliations of the namespace have finished.
+     */
+    public Future<Void> forgetNamespace(String namespace) {
+        return workQueue.forgetNamespace(namespace);
+    }
+
+    /**
+     * Run the given reconciliation while holding the lock for the resource.
+     * The {@link WorkQueue} guarantees that only one reconciliation of a resource runs at a time,
+     * so the lock is normally uncontended. If it cannot be acquired the attempt is retried with a back-off,
+     * and the reconciliation fails if the lock is still unavailable once the back-off is exhausted.
+     * @param reconciliation The reconciliation.
+     * @return A Future which is completed with the result of the reconciliation.
+     */
+    private Future<Void> reconcileWithLock(Reconciliation reconciliation) {
+        reconciliationsCounter.increment();
+        Timer.Sample reconciliationSample = Timer.start(metrics.meterRegistry());
         Future<Void> handler = Future.future();
+        Future<Void> result = Future.future();
+        handler.setHandler(reconcileResult -> {
+            reconciliationSample.stop(reconciliationsTimer);
+            if (reconcileResult.succeeded()) {
+                successfulReconciliationsCounter.increment();
+            } else {
+                failedReconciliationsCounter.increment();
+            }
+            result.handle(reconcileResult);
+        });
+        reconcileWithLock(reconciliation, new BackOff(), System.nanoTime(), handler);
+        return result;
+    }
+
+    private void reconcileWithLock(Reconciliation reconciliation, BackOff lockBackOff, long lockRequestedNs, Future<Void> handler) {
         String namespace = reconciliation.namespace();
         String name = reconciliation.name();
         final String lockName = getLockName(namespace, name);
         vertx.sharedData().getLockWithTimeout(lockName, LOCK_TIMEOUT_MS, res -> {
+            if (res.succeeded() || lockBackOff.done()) {
+                lockWaitTimer.record(System.nanoTime() - lockRequestedNs, TimeUnit.NANOSECONDS);
+            }
             if (res.succeeded()) {
                 log.debug("{}: Lock {} acquired", reconciliation, lockName);
                 Lock lock = res.result();
@@ -127,9 +264,8 @@ public abstract class AbstractOperator<
                             log.debug("{}: Lock {} released", reconciliation, lockName);
                             if (createResult.failed()) {
                                 log.error("{}: createOrUpdate failed", reconciliation, createResult.cause());
-                            } else {
-                                handler.handle(createResult);
                             }
+                            handler.handle(createResult);
                         });
                     } else {
                         log.info("{}: {} {} should be deleted", reconciliation, kind, name);
@@ -157,16 +293,15 @@ public abstract class AbstractOperator<
                     log.debug("{}: Lock {} released", reconciliation, lockName);
                     handler.handle(Future.failedFuture(ex));
                 }
-            } else {
+            } else if (lockBackOff.done()) {
                 log.warn("{}: Failed to acquire lock {}.", reconciliation, lockName);
+                handler.fail("Failed to acquire lock " + lockName);
+            } else {
+                long delay = lockBackOff.delayMs();
+                log.debug("{}: Failed to acquire lock {}, retrying in {}ms", reconciliation, lockName, delay);
+                vertx.setTimer(Math.max(1, delay), timerId -> reconcileWithLock(reconciliation, lockBackOff, lockRequestedNs, handler));
             }
         });
-        Future<Void> result = Future.future();
-        handler.setHandler(reconcileResult -> {
-            handleResult(reconciliation, reconcileResult);
-            result.handle(reconcileResult);
-        });
-        return result;
     }
 
     protected <T> Future<T> async(Supplier<T> supplier) {
@@ -20,6 +20,11 @@ public class Annotations {
 
     public static final String ANNO_DEP_KUBE_IO_REVISION = "deployment.kubernetes.io/revision";
 
+    /**
+     * Hash of the desired state of a resource, as it was last written by the operator.
+     */
+    public static final String ANNO_STRIMZI_IO_DESIRED_HASH = STRIMZI_DOMAIN + "/desired-hash";
+
     private static Map<String, String> annotations(ObjectMeta metadata) {
         Map<String, String> annotations = metadata.getAnnotations();
         if (annotations == null) {
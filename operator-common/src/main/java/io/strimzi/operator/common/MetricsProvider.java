@@ -0,0 +1,58 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * Creates the metrics which operators use to record what they're doing.
+ * Metric names use dots as separators (e.g. {@code strimzi.reconciliations}) and are converted to
+ * the naming convention of the backing registry (e.g. {@code strimzi_reconciliations_total} for Prometheus).
+ */
+public interface MetricsProvider {
+
+    /**
+     * @return The registry in which the metrics are registered.
+     */
+    MeterRegistry meterRegistry();
+
+    /**
+     * Get or create a counter.
+     * @param name The name of the counter.
+     * @param description The description of the counter.
+     * @param tags The tags of the counter.
+     * @return The counter.
+     */
+    Counter counter(String name, String description, Tags tags);
+
+    /**
+     * Get or create a timer which publishes a histogram of the recorded durations.
+     * @param name The name of the timer.
+     * @param description The description of the timer.
+     * @param tags The tags of the timer.
+     * @return The timer.
+     */
+    Timer timer(String name, String description, Tags tags);
+
+    /**
+     * Register a gauge whose value is obtained from the given {@code supplier} each time it is sampled.
+     * @param name The name of the gauge.
+     * @param description The description of the gauge.
+     * @param tags The tags of the gauge.
+     * @param supplier Supplies the value of the gauge.
+     */
+    void gauge(String name, String description, Tags tags, Supplier<Number> supplier);
+
+    /**
+     * @return The current value of all the metrics in the Prometheus text exposition format,
+     * or null if the registry is not a Prometheus registry.
+     */
+    String scrape();
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.pause.NoPauseDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.vertx.core.VertxOptions;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import io.vertx.micrometer.VertxPrometheusOptions;
+import io.vertx.micrometer.backends.BackendRegistries;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * A {@link MetricsProvider} backed by a Micrometer {@link MeterRegistry}.
+ *
+ * <p>When Vert.x is created with the {@linkplain #vertxOptions() options} returned by this class,
+ * Vert.x registers its own metrics (including the utilisation of its event loop and worker pools)
+ * and the JVM's metrics in a Prometheus registry, which the no-args constructor uses by default.
+ * The operator metrics then share that registry, so all of them are served by a single {@code /metrics}
+ * endpoint.</p>
+ */
+public class MicrometerMetricsProvider implements MetricsProvider {
+
+    private static final Duration MIN_EXPECTED_DURATION = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED_DURATION = Duration.ofMinutes(10);
+
+    /**
+     * The registry used when Vert.x was created without metrics (e.g. in tests).
+     * It is shared because each registry starts its own pause detector thread.
+     */
+    private static final MeterRegistry FALLBACK_REGISTRY = new SimpleMeterRegistry();
+
+    static {
+        FALLBACK_REGISTRY.config().pauseDetector(new NoPauseDetector());
+    }
+
+    private final MeterRegistry registry;
+
+    /**
+     * Constructor using the registry of the Vert.x Micrometer metrics, or a shared {@link SimpleMeterRegistry}
+     * if Vert.x was created without metrics.
+     */
+    public MicrometerMetricsProvider() {
+        this(BackendRegistries.getDefaultNow() != null ? BackendRegistries.getDefaultNow() : FALLBACK_REGISTRY);
+    }
+
+    /**
+     * Constructor.
+     * @param registry The registry in which the metrics are registered.
+     */
+    public MicrometerMetricsProvider(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @return The options with which the operators create Vert.x, enabling the Prometheus backend and JVM metrics.
+     */
+    public static VertxOptions vertxOptions() {
+        return new VertxOptions().setMetricsOptions(
+                new MicrometerMetricsOptions()
+                        .setPrometheusOptions(new VertxPrometheusOptions().setEnabled(true))
+                        .setJvmMetricsEnabled(true)
+                        .setEnabled(true));
+    }
+
+    @Override
+    public MeterRegistry meterRegistry() {
+        return registry;
+    }
+
+    @Override
+    public Counter counter(String name, String description, Tags tags) {
+        return Counter.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    @Override
+    public Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_DURATION)
+                .maximumExpectedValue(MAX_EXPECTED_DURATION)
+                .register(registry);
+    }
+
+    @Override
+    public void gauge(String name, String description, Tags tags, Supplier<Number> supplier) {
+        Gauge.builder(name, supplier)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    @Override
+    public String scrape() {
+        if (registry instanceof PrometheusMeterRegistry) {
+            return ((PrometheusMeterRegistry) registry).scrape();
+        } else {
+            return null;
+        }
+    }
+}
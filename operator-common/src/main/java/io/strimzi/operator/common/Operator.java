@@ -57,6 +57,14 @@ public interface Operator {
         });
     }
 
+    /**
+     * Triggers the asynchronous reconciliation of the given resources.
+     * Implementations of {@link #reconcile(Reconciliation)} are expected to bound the number of reconciliations
+     * which run at once (see {@link WorkQueue}), so all the reconciliations are requested together.
+     * @param trigger The cause of this reconciliation (for logging).
+     * @param desiredNames The resources to reconcile.
+     * @param handler Handler called on completion.
+     */
     default void reconcileThese(String trigger, Set<NamespaceAndName> desiredNames, Handler<AsyncResult<Void>> handler) {
         if (desiredNames.size() > 0) {
             List<Future> futures = new ArrayList<>();
@@ -12,6 +12,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  * <p>Each instance has a unique id and a trigger (description of the event which initiated the reconciliation),
  * which are used to provide consistent context for logging.</p>
+ *
+ * <p>A reconciliation is urgent when it was triggered by a change to the resource (e.g. a watch event),
+ * rather than periodically. Urgent reconciliations are started ahead of periodic ones (see {@link WorkQueue}).</p>
  */
 public class Reconciliation {
 
@@ -22,15 +25,25 @@ public class Reconciliation {
     private final String namespace;
     private final String name;
     private final int id;
+    private final boolean urgent;
 
     public Reconciliation(String trigger, String kind, String namespace, String assemblyName) {
+        this(trigger, kind, namespace, assemblyName, false);
+    }
+
+    public Reconciliation(String trigger, String kind, String namespace, String assemblyName, boolean urgent) {
         this.trigger = trigger;
         this.kind = kind;
         this.namespace = namespace;
         this.name = assemblyName;
+        this.urgent = urgent;
         this.id = IDS.getAndIncrement();
     }
 
+    public String trigger() {
+        return trigger;
+    }
+
     public String kind() {
         return kind;
     }
@@ -43,6 +56,10 @@ public class Reconciliation {
         return name;
     }
 
+    public boolean isUrgent() {
+        return urgent;
+    }
+
     public String toString() {
         return "Reconciliation #" + id + "(" + trigger + ") " + kind() + "(" + namespace() + "/" + name() + ")";
     }
@@ -0,0 +1,231 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * <p>A graph of asynchronous reconciliation steps with explicit dependencies between them.</p>
+ *
+ * <p>Each step is a function of some state {@code S} (typically the state of a single reconciliation)
+ * which returns a future. When the graph is {@linkplain #execute(Reconciliation, Object) executed} a step is
+ * started as soon as all of the steps it depends on have completed successfully, so steps which do not depend
+ * on each other run concurrently. Steps are started in the order in which they were added to the graph.</p>
+ *
+ * <p>A step can only depend on steps which were added before it, so the graph cannot contain cycles.
+ * Steps which run concurrently share the state, so they must not modify the same parts of it.</p>
+ *
+ * <p>If a step fails no further steps are started. The execution fails with the cause of the first failure
+ * once the steps which were already running have completed.</p>
+ *
+ * <p>The duration of each step is recorded in the {@code strimzi.reconciliations.step.duration} timer,
+ * tagged with the kind of the reconciled resource and the name of the step.</p>
+ *
+ * @param <S> The type of the state the steps operate on.
+ */
+public class StepGraph<S> {
+
+    private static final Logger log = LogManager.getLogger(StepGraph.class);
+
+    private final MetricsProvider metrics;
+    private final Map<String, Step<S>> steps = new LinkedHashMap<>();
+
+    private static class Step<S> {
+        private final String name;
+        private final Function<S, Future<S>> action;
+        private final List<String> dependencies;
+        private final List<String> dependents = new ArrayList<>();
+
+        private Step(String name, Function<S, Future<S>> action, List<String> dependencies) {
+            this.name = name;
+            this.action = action;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param metrics The provider of the metrics recording the duration of each step.
+     */
+    public StepGraph(MetricsProvider metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Add a step to the graph.
+     * @param name The name of the step, which must be unique within the graph.
+     * @param action The action of the step.
+     * @param dependencies The names of the steps which must complete before this step can start.
+     * @return This graph.
+     * @throws IllegalArgumentException If a step with the given {@code name} already exists,
+     * or if any of the {@code dependencies} does not exist.
+     */
+    public StepGraph<S> step(String name, Function<S, Future<S>> action, String... dependencies) {
+        if (steps.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate step " + name);
+        }
+        List<String> deps = new ArrayList<>(dependencies.length);
+        for (String dependency : dependencies) {
+            Step<S> dep = steps.get(dependency);
+            if (dep == null) {
+                throw new IllegalArgumentException("Step " + name + " depends on unknown step " + dependency);
+            }
+            dep.dependents.add(name);
+            deps.add(dependency);
+        }
+        steps.put(name, new Step<>(name, action, Collections.unmodifiableList(deps)));
+        return this;
+    }
+
+    /**
+     * @return The names of the steps in the graph, in the order they were added.
+     */
+    public List<String> steps() {
+        return new ArrayList<>(steps.keySet());
+    }
+
+    /**
+     * @param name The name of a step.
+     * @return The names of the steps which the step with the given {@code name} directly depends on.
+     */
+    public List<String> dependencies(String name) {
+        return steps.get(name).dependencies;
+    }
+
+    /**
+     * Execute the steps of the graph.
+     * @param reconciliation The reconciliation (used for logging and metrics).
+     * @param state The state passed to each step.
+     * @return A future which completes with the given {@code state} when all the steps have completed
+     * successfully, or fails when a step has failed.
+     */
+    public Future<S> execute(Reconciliation reconciliation, S state) {
+        return new Execution(reconciliation, state).start();
+    }
+
+    /**
+     * The state of a single execution of the graph.
+     */
+    private class Execution {
+        private final Reconciliation reconciliation;
+        private final S state;
+        private final Future<S> result = Future.future();
+        private final Map<String, Integer> pendingDependencies = new LinkedHashMap<>();
+        private final Map<String, Long> durationsMs = new LinkedHashMap<>();
+        private int running = 0;
+        private int completed = 0;
+        private Throwable failure;
+
+        private Execution(Reconciliation reconciliation, S state) {
+            this.reconciliation = reconciliation;
+            this.state = state;
+            for (Step<S> step : steps.values()) {
+                pendingDependencies.put(step.name, step.dependencies.size());
+            }
+        }
+
+        private Future<S> start() {
+            if (steps.isEmpty()) {
+                result.complete(state);
+            } else {
+                startReady();
+            }
+            return result;
+        }
+
+        /**
+         * Start all the steps whose dependencies have completed.
+         */
+        private void startReady() {
+            List<Step<S>> toStart = new ArrayList<>();
+            synchronized (this) {
+                if (failure == null) {
+                    for (Map.Entry<String, Integer> entry : pendingDependencies.entrySet()) {
+                        if (entry.getValue() == 0) {
+                            toStart.add(steps.get(entry.getKey()));
+                        }
+                    }
+                    for (Step<S> step : toStart) {
+                        pendingDependencies.remove(step.name);
+                    }
+                    running += toStart.size();
+                }
+            }
+            for (Step<S> step : toStart) {
+                run(step);
+            }
+        }
+
+        private void run(Step<S> step) {
+            log.debug("{}: Starting step {}", reconciliation, step.name);
+            long startNs = System.nanoTime();
+            Future<S> stepResult;
+            try {
+                stepResult = step.action.apply(state);
+            } catch (Throwable t) {
+                stepResult = Future.failedFuture(t);
+            }
+            stepResult.setHandler(ar -> finished(step, startNs, ar));
+        }
+
+        private void finished(Step<S> step, long startNs, AsyncResult<S> ar) {
+            long durationNs = System.nanoTime() - startNs;
+            Timer.builder("strimzi.reconciliations.step.duration")
+                    .description("The time each step of the reconciliation takes to complete")
+                    .tags(Tags.of("kind", reconciliation.kind(), "step", step.name))
+                    .register(metrics.meterRegistry())
+                    .record(durationNs, TimeUnit.NANOSECONDS);
+            boolean done;
+            synchronized (this) {
+                running--;
+                durationsMs.put(step.name, TimeUnit.NANOSECONDS.toMillis(durationNs));
+                if (ar.succeeded()) {
+                    completed++;
+                    for (String dependent : step.dependents) {
+                        pendingDependencies.computeIfPresent(dependent, (name, count) -> count - 1);
+                    }
+                } else if (failure == null) {
+                    failure = ar.cause();
+                    log.debug("{}: Step {} failed, not starting any further steps", reconciliation, step.name);
+                }
+                done = running == 0 && (failure != null || completed == steps.size());
+            }
+            log.debug("{}: Step {} completed in {}ms", reconciliation, step.name, TimeUnit.NANOSECONDS.toMillis(durationNs));
+            if (done) {
+                complete();
+            } else {
+                startReady();
+            }
+        }
+
+        private void complete() {
+            if (log.isDebugEnabled()) {
+                log.debug("{}: Step durations (ms): {}", reconciliation, durationsMs.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                        .map(e -> e.getKey() + "=" + e.getValue())
+                        .collect(Collectors.joining(", ")));
+            }
+            if (failure != null) {
+                result.fail(failure);
+            } else {
+                result.complete(state);
+            }
+        }
+    }
+}
@@ -11,6 +11,8 @@ import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,6 +23,8 @@ public class Util {
 
     private static final Logger LOGGER = LogManager.getLogger(Util.class);
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
     /**
      * @param vertx The vertx instance.
      * @param logContext A string used for context in logging.
@@ -36,7 +40,7 @@ public class Util {
         Handler<Long> handler = new Handler<Long>() {
             @Override
             public void handle(Long timerId) {
-                vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+                WorkerPools.executor(vertx, WorkerPool.KUBERNETES).executeBlocking(
                     future -> {
                         try {
                             if (ready.getAsBoolean())   {
@@ -107,4 +111,22 @@ public class Util {
             return Collections.emptyMap();
         }
     }
+
+    /**
+     * @param data The data to hash.
+     * @return The hex-encoded SHA-256 hash of the given data.
+     */
+    public static String sha256(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[2 * i] = HEX[(hash[i] >> 4) & 0xf];
+                hex[2 * i + 1] = HEX[hash[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
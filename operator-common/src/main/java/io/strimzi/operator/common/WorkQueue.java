@@ -0,0 +1,489 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p>A queue of reconciliations, keyed by the namespace and name of the resource being reconciled.</p>
+ *
+ * <ul>
+ * <li>At most one reconciliation of a given key runs at a time.
+ *     Reconciliations which are enqueued while the key is already running or queued are coalesced
+ *     into a single follow-up run, and all their futures complete with the outcome of that run.</li>
+ * <li>When the reconciliation of a key fails, the next run of that key is delayed by an exponential
+ *     back-off ({@code backOffScaleMs * 2^(failures-1)}, capped at {@code maxBackOffMs}).
+ *     The back-off is reset when a reconciliation of the key succeeds. A key which is not enqueued again
+ *     is forgotten once its back-off has expired, so keys of resources which no longer exist are not kept.</li>
+ * <li>The rate at which reconciliations are started, across all keys, is limited by a token bucket
+ *     which refills at {@code ratePerSecond} and holds at most {@code burst} tokens.</li>
+ * <li>At most {@code maxInFlight} reconciliations run at once. Keys which are ready to run wait in one of two
+ *     FIFO lanes: {@linkplain Reconciliation#isUrgent() urgent} reconciliations (e.g. triggered by a watch event)
+ *     go in the urgent lane, which is served ahead of the lane used by periodic (timer) reconciliations. So that periodic reconciliations cannot be starved,
+ *     one ready periodic reconciliation is started after every {@value #URGENT_WEIGHT} urgent ones.</li>
+ * <li>While the queue is {@linkplain #pause() paused} no reconciliation is started, but reconciliations can still
+ *     be enqueued, and are coalesced as usual. They start once the queue is {@linkplain #resume() resumed}.</li>
+ * <li>The reconciliations of a namespace which is no longer operated can be {@linkplain #forgetNamespace(String) forgotten}.</li>
+ * </ul>
+ *
+ * <p>This class is thread safe: reconciliations can be enqueued from any thread (e.g. Kubernetes watch threads).</p>
+ */
+public class WorkQueue {
+
+    private static final Logger log = LogManager.getLogger(WorkQueue.class);
+
+    public static final double DEFAULT_RATE_PER_SECOND = 20;
+    public static final int DEFAULT_BURST = 100;
+    public static final long DEFAULT_BACK_OFF_SCALE_MS = 200;
+    public static final long DEFAULT_MAX_BACK_OFF_MS = 60_000;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10;
+    static final int URGENT_WEIGHT = 3;
+
+    private final Vertx vertx;
+    private final String name;
+    private final Function<Reconciliation, Future<Void>> work;
+    private final double ratePerSecond;
+    private final int burst;
+    private final long backOffScaleMs;
+    private final long maxBackOffMs;
+    private final int maxInFlight;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Deque<String> urgent = new ArrayDeque<>();
+    private final Deque<String> ready = new ArrayDeque<>();
+    private int urgentStreak = 0;
+    private int inFlight = 0;
+    private double tokens;
+    private long lastRefillNs;
+    private boolean refillTimerSet = false;
+    private boolean paused = false;
+
+    private static class Entry {
+        private final String namespace;
+        private boolean running = false;
+        private boolean queued = false;
+        private boolean isReady = false;
+        private boolean isUrgent = false;
+        private Reconciliation pending;
+        private List<Future<Void>> waiters = new ArrayList<>();
+        private int failures = 0;
+        private long notBeforeMs = 0;
+        /** Completed when the running reconciliation finishes */
+        private List<Future<Void>> finishedWaiters = new ArrayList<>();
+
+        private Entry(String namespace) {
+            this.namespace = namespace;
+        }
+    }
+
+    /**
+     * Constructor using the default rate limit, back-off and maximum number of in-flight reconciliations.
+     * @param vertx The Vertx instance.
+     * @param name The name of the queue (used for logging).
+     * @param work The function which performs a reconciliation.
+     */
+    public WorkQueue(Vertx vertx, String name, Function<Reconciliation, Future<Void>> work) {
+        this(vertx, name, work, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Constructor using the default rate limit and back-off.
+     * @param vertx The Vertx instance.
+     * @param name The name of the queue (used for logging).
+     * @param work The function which performs a reconciliation.
+     * @param maxInFlight The maximum number of reconciliations which may run at once.
+     */
+    public WorkQueue(Vertx vertx, String name, Function<Reconciliation, Future<Void>> work, int maxInFlight) {
+        this(vertx, name, work, DEFAULT_RATE_PER_SECOND, DEFAULT_BURST, DEFAULT_BACK_OFF_SCALE_MS, DEFAULT_MAX_BACK_OFF_MS, maxInFlight);
+    }
+
+    /**
+     * Constructor.
+     * @param vertx The Vertx instance.
+     * @param name The name of the queue (used for logging).
+     * @param work The function which performs a reconciliation.
+     * @param ratePerSecond The rate at which the token bucket refills, or 0 for no rate limit.
+     * @param burst The capacity of the token bucket.
+     * @param backOffScaleMs The delay after the first failure of a key.
+     * @param maxBackOffMs The maximum delay after repeated failures of a key.
+     * @param maxInFlight The maximum number of reconciliations which may run at once.
+     */
+    public WorkQueue(Vertx vertx, String name, Function<Reconciliation, Future<Void>> work,
+                     double ratePerSecond, int burst, long backOffScaleMs, long maxBackOffMs, int maxInFlight) {
+        if (ratePerSecond < 0 || burst <= 0 || backOffScaleMs <= 0 || maxBackOffMs < backOffScaleMs || maxInFlight <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.vertx = vertx;
+        this.name = name;
+        this.work = work;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.backOffScaleMs = backOffScaleMs;
+        this.maxBackOffMs = maxBackOffMs;
+        this.maxInFlight = maxInFlight;
+        this.tokens = burst;
+        this.lastRefillNs = System.nanoTime();
+    }
+
+    private static String key(Reconciliation reconciliation) {
+        return reconciliation.namespace() + "/" + reconciliation.name();
+    }
+
+    /**
+     * Enqueue the given {@code reconciliation}.
+     * @param reconciliation The reconciliation.
+     * @return A future which completes with the outcome of the run of the reconciliation's key
+     * which starts after this call.
+     */
+    public Future<Void> enqueue(Reconciliation reconciliation) {
+        Future<Void> result = Future.future();
+        String key = key(reconciliation);
+        boolean schedule;
+        boolean promoted = false;
+        synchronized (this) {
+            Entry entry = entries.computeIfAbsent(key, k -> new Entry(reconciliation.namespace()));
+            if (entry.pending != null) {
+                log.debug("{}: Coalesced with pending {}", reconciliation, entry.pending);
+            }
+            entry.pending = reconciliation;
+            entry.waiters.add(result);
+            if (reconciliation.isUrgent()) {
+                if (entry.isReady && !entry.isUrgent) {
+                    // Already waiting in the periodic lane: let it jump ahead
+                    // (the stale entry in the periodic lane is skipped when polled)
+                    urgent.add(key);
+                    promoted = true;
+                }
+                entry.isUrgent = true;
+            }
+            schedule = !entry.running && !entry.queued;
+            if (schedule) {
+                entry.queued = true;
+            }
+        }
+        if (schedule) {
+            schedule(key);
+        } else if (promoted) {
+            drain();
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of keys which are waiting to be run.
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.pending != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return The number of keys which are known to the queue: running, waiting, or backing off after a failure.
+     */
+    synchronized int keys() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of keys which are currently running.
+     */
+    public synchronized int running() {
+        return inFlight;
+    }
+
+    /**
+     * Stop starting reconciliations. Reconciliations which are already running are not affected.
+     */
+    public synchronized void pause() {
+        if (!paused) {
+            log.info("{}: Paused", name);
+            paused = true;
+        }
+    }
+
+    /**
+     * Start the reconciliations which were enqueued while the queue was paused, and any later ones.
+     */
+    public void resume() {
+        synchronized (this) {
+            if (!paused) {
+                return;
+            }
+            log.info("{}: Resumed", name);
+            paused = false;
+        }
+        drain();
+    }
+
+    /**
+     * @return Whether the queue is {@linkplain #pause() paused}.
+     */
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Drop the reconciliations of the given namespace which are waiting to be run, failing their futures,
+     * and wait for the ones which are running to finish. Reconciliations of the namespace which are enqueued
+     * afterwards run as usual, so the caller must stop enqueuing them first.
+     * @param namespace The namespace, or {@code *} for all the namespaces.
+     * @return A future which completes once no reconciliation of the namespace is running.
+     */
+    public Future<Void> forgetNamespace(String namespace) {
+        List<Future<Void>> dropped = new ArrayList<>();
+        List<Future> running = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (!"*".equals(namespace) && !namespace.equals(entry.namespace)) {
+                    continue;
+                }
+                dropped.addAll(entry.waiters);
+                entry.waiters = new ArrayList<>();
+                entry.pending = null;
+                if (entry.running) {
+                    Future<Void> finished = Future.future();
+                    entry.finishedWaiters.add(finished);
+                    running.add(finished);
+                } else {
+                    // Any stale place in a lane, or pending back-off timer, is ignored once the entry is gone
+                    iterator.remove();
+                }
+            }
+        }
+        log.debug("{}: Dropped {} waiting reconciliations of namespace {}, waiting for {} running ones", name, dropped.size(), namespace, running.size());
+        for (Future<Void> waiter : dropped) {
+            waiter.fail(new IllegalStateException("The reconciliations of namespace " + namespace + " were dropped"));
+        }
+        return CompositeFuture.join(running).map((Void) null);
+    }
+
+    /**
+     * Make the given key ready once any back-off for it has elapsed.
+     */
+    private void schedule(String key) {
+        long delayMs;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return;
+            }
+            delayMs = entry.notBeforeMs - System.currentTimeMillis();
+        }
+        if (delayMs > 0) {
+            log.debug("{}: Delaying reconciliation of {} by {}ms due to previous failures", name, key, delayMs);
+            vertx.setTimer(delayMs, timerId -> makeReady(key));
+        } else {
+            makeReady(key);
+        }
+    }
+
+    private void makeReady(String key) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null || !entry.queued || entry.isReady) {
+                // Forgotten, or already made ready by a later enqueue
+                return;
+            }
+            entry.isReady = true;
+            if (entry.isUrgent) {
+                urgent.add(key);
+            } else {
+                ready.add(key);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Remove stale keys from the head of the given lane.
+     * @return Whether the lane has a key which can be started.
+     */
+    private boolean hasReady(Deque<String> lane) {
+        while (!lane.isEmpty()) {
+            Entry entry = entries.get(lane.peek());
+            if (entry != null && entry.isReady) {
+                return true;
+            }
+            lane.poll();
+        }
+        return false;
+    }
+
+    /**
+     * Pick the next ready key, favouring the urgent lane.
+     */
+    private String pollReady() {
+        boolean hasUrgent = hasReady(urgent);
+        boolean hasPeriodic = hasReady(ready);
+        if (hasUrgent && (!hasPeriodic || urgentStreak < URGENT_WEIGHT)) {
+            urgentStreak++;
+            return urgent.poll();
+        } else if (hasPeriodic) {
+            urgentStreak = 0;
+            return ready.poll();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Start as many ready keys as the maximum number of in-flight reconciliations and the token bucket allow.
+     */
+    private void drain() {
+        List<String> toStart = new ArrayList<>();
+        synchronized (this) {
+            while (!paused && inFlight < maxInFlight && (hasReady(urgent) || hasReady(ready))) {
+                long waitMs = acquireToken();
+                if (waitMs > 0) {
+                    if (!refillTimerSet) {
+                        refillTimerSet = true;
+                        vertx.setTimer(waitMs, timerId -> {
+                            synchronized (this) {
+                                refillTimerSet = false;
+                            }
+                            drain();
+                        });
+                    }
+                    break;
+                }
+                String key = pollReady();
+                Entry entry = entries.get(key);
+                entry.isReady = false;
+                entry.isUrgent = false;
+                entry.queued = false;
+                entry.running = true;
+                inFlight++;
+                toStart.add(key);
+            }
+        }
+        for (String key : toStart) {
+            start(key);
+        }
+    }
+
+    /**
+     * Try to take a token from the bucket.
+     * @return 0 if a token was taken, otherwise the number of milliseconds until a token will be available.
+     */
+    private long acquireToken() {
+        if (ratePerSecond == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNs) * ratePerSecond / 1_000_000_000L);
+        lastRefillNs = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        } else {
+            return Math.max(1, (long) Math.ceil((1 - tokens) * 1_000 / ratePerSecond));
+        }
+    }
+
+    private void start(String key) {
+        Reconciliation reconciliation;
+        List<Future<Void>> waiters;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            reconciliation = entry.pending;
+            waiters = entry.waiters;
+            entry.pending = null;
+            entry.waiters = new ArrayList<>();
+        }
+        Future<Void> result;
+        try {
+            result = work.apply(reconciliation);
+        } catch (Throwable t) {
+            result = Future.failedFuture(t);
+        }
+        result.setHandler(ar -> finished(key, ar, waiters));
+    }
+
+    private void finished(String key, AsyncResult<Void> ar, List<Future<Void>> waiters) {
+        boolean schedule = false;
+        long evictAfterMs = 0;
+        List<Future<Void>> finishedWaiters;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            entry.running = false;
+            finishedWaiters = entry.finishedWaiters;
+            entry.finishedWaiters = new ArrayList<>();
+            inFlight--;
+            if (ar.succeeded()) {
+                entry.failures = 0;
+                entry.notBeforeMs = 0;
+            } else {
+                entry.failures++;
+                entry.notBeforeMs = System.currentTimeMillis() + backOffMs(entry.failures);
+            }
+            if (entry.pending != null) {
+                entry.queued = true;
+                schedule = true;
+            } else if (entry.failures == 0) {
+                entries.remove(key);
+            } else {
+                evictAfterMs = backOffMs(entry.failures);
+            }
+        }
+        if (evictAfterMs > 0) {
+            vertx.setTimer(evictAfterMs, timerId -> evict(key));
+        }
+        if (schedule) {
+            schedule(key);
+        } else {
+            drain();
+        }
+        for (Future<Void> waiter : waiters) {
+            waiter.handle(ar);
+        }
+        for (Future<Void> waiter : finishedWaiters) {
+            waiter.complete();
+        }
+    }
+
+    /**
+     * Forget the given key if it is idle and its back-off has expired.
+     */
+    private synchronized void evict(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null
+                && !entry.running
+                && !entry.queued
+                && entry.pending == null
+                && entry.notBeforeMs <= System.currentTimeMillis()) {
+            log.debug("{}: Forgetting {} after its back-off expired", name, key);
+            entries.remove(key);
+        }
+    }
+
+    private long backOffMs(int failures) {
+        long delay = backOffScaleMs;
+        for (int i = 1; i < failures && delay < maxBackOffMs; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, maxBackOffMs);
+    }
+}
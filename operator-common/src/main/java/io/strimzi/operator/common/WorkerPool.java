@@ -0,0 +1,62 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+/**
+ * The classes of blocking work the operators do, each of which runs on its own worker pool
+ * (see {@link WorkerPools}), so that slow work of one class cannot starve the others.
+ */
+public enum WorkerPool {
+    /**
+     * Blocking calls to the Kubernetes API server.
+     */
+    KUBERNETES("kubernetes-ops-pool", 20),
+    /**
+     * Blocking calls to ZooKeeper.
+     */
+    ZOOKEEPER("zookeeper-ops-pool", 4),
+    /**
+     * Blocking calls to the Kafka Admin API.
+     */
+    KAFKA_ADMIN("kafka-admin-pool", 4),
+    /**
+     * The rolling restarts of Kafka clusters, which block while waiting for the pods and brokers.
+     * Each rolling restart uses one thread at a time, so this bounds how many Kafka clusters are rolled at once.
+     */
+    KAFKA_ROLLER("kafka-roller-pool", WorkQueue.DEFAULT_MAX_IN_FLIGHT),
+    /**
+     * Spawning and waiting for processes, such as the {@code openssl} invocations used to generate certificates.
+     */
+    PROCESS("process-pool", 2);
+
+    private final String poolName;
+    private final int defaultSize;
+
+    WorkerPool(String poolName, int defaultSize) {
+        this.poolName = poolName;
+        this.defaultSize = defaultSize;
+    }
+
+    /**
+     * @return The name of the Vert.x worker pool, which is also the {@code pool_name} tag of its Vert.x metrics.
+     */
+    public String poolName() {
+        return poolName;
+    }
+
+    /**
+     * @return The number of threads in the pool when its size is not configured.
+     */
+    public int defaultSize() {
+        return defaultSize;
+    }
+
+    /**
+     * @return The environment variable configuring the size of the pool.
+     */
+    public String sizeEnvVar() {
+        return "STRIMZI_" + name() + "_WORKER_POOL_SIZE";
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>The registry of the worker pools of a Vert.x instance, one for each {@link WorkerPool}.</p>
+ *
+ * <p>The size of each pool is configured by its {@linkplain WorkerPool#sizeEnvVar() environment variable}
+ * when the operator {@linkplain #configure(Vertx, Map) configures} the pools at startup. If they are used before
+ * being configured (e.g. in tests) the pools get their default sizes.
+ * The executors are created once per Vert.x instance and shared by all the callers.</p>
+ *
+ * <p>When Vert.x is created with {@link MicrometerMetricsProvider#vertxOptions()} the queue length
+ * ({@code vertx_pool_queue_pending}), queueing delay ({@code vertx_pool_queue_delay_seconds}) and usage
+ * of each pool are exposed as metrics tagged with the {@linkplain WorkerPool#poolName() name of the pool}.</p>
+ */
+public class WorkerPools implements Shareable {
+
+    private static final Logger log = LogManager.getLogger(WorkerPools.class);
+
+    private static final String MAP_NAME = WorkerPools.class.getName();
+    private static final String KEY = "pools";
+
+    /**
+     * The time after which Vert.x warns about a blocked worker thread.
+     */
+    private static final long MAX_EXECUTE_TIME_NS = TimeUnit.SECONDS.toNanos(120);
+
+    private final Map<WorkerPool, WorkerExecutor> executors;
+
+    private WorkerPools(Vertx vertx, Map<String, String> env) {
+        Map<WorkerPool, WorkerExecutor> executors = new EnumMap<>(WorkerPool.class);
+        for (WorkerPool pool : WorkerPool.values()) {
+            int size = parseSize(pool, env.get(pool.sizeEnvVar()));
+            log.debug("Creating worker pool {} with {} threads", pool.poolName(), size);
+            executors.put(pool, vertx.createSharedWorkerExecutor(pool.poolName(), size, MAX_EXECUTE_TIME_NS));
+        }
+        this.executors = Collections.unmodifiableMap(executors);
+    }
+
+    /**
+     * Closes the executors of pools which lost the race to be registered, so that their threads don't leak.
+     */
+    private void close() {
+        executors.values().forEach(WorkerExecutor::close);
+    }
+
+    private static int parseSize(WorkerPool pool, String sizeEnvVar) {
+        int size = pool.defaultSize();
+
+        if (sizeEnvVar != null) {
+            size = Integer.parseInt(sizeEnvVar);
+            if (size <= 0) {
+                throw new InvalidConfigurationException(pool.sizeEnvVar() + " must be a positive integer");
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Create the worker pools of the given Vert.x instance, sized according to the given environment.
+     * This must be called before any of the pools is used, otherwise it has no effect.
+     * @param vertx The Vert.x instance.
+     * @param env The environment (typically {@link System#getenv()}).
+     * @return The pools.
+     */
+    public static WorkerPools configure(Vertx vertx, Map<String, String> env) {
+        LocalMap<String, WorkerPools> map = vertx.sharedData().getLocalMap(MAP_NAME);
+        WorkerPools existing = map.get(KEY);
+        if (existing == null) {
+            WorkerPools pools = new WorkerPools(vertx, env);
+            existing = map.putIfAbsent(KEY, pools);
+            if (existing == null) {
+                return pools;
+            }
+            pools.close();
+        }
+        log.warn("Worker pools have already been created, ignoring their configuration");
+        return existing;
+    }
+
+    /**
+     * @param vertx The Vert.x instance.
+     * @param pool The pool.
+     * @return The executor of the given pool of the given Vert.x instance.
+     */
+    public static WorkerExecutor executor(Vertx vertx, WorkerPool pool) {
+        LocalMap<String, WorkerPools> map = vertx.sharedData().getLocalMap(MAP_NAME);
+        WorkerPools pools = map.get(KEY);
+        if (pools == null) {
+            pools = new WorkerPools(vertx, Collections.emptyMap());
+            WorkerPools existing = map.putIfAbsent(KEY, pools);
+            if (existing != null) {
+                // Created concurrently by another caller
+                pools.close();
+                pools = existing;
+            }
+        }
+        return pools.executors.get(pool);
+    }
+}
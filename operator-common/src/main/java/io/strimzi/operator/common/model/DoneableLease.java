@@ -0,0 +1,18 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.model;
+
+import io.fabric8.kubernetes.api.builder.Function;
+import io.fabric8.kubernetes.client.CustomResourceDoneable;
+
+public class DoneableLease extends CustomResourceDoneable<Lease> {
+    public DoneableLease(Lease resource, Function<Lease, Lease> function) {
+        super(resource, function);
+    }
+
+    public DoneableLease(Lease resource) {
+        super(resource, x -> x);
+    }
+}
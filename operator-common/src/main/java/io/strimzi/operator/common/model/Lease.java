@@ -0,0 +1,41 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.fabric8.kubernetes.client.CustomResource;
+
+/**
+ * A {@code coordination.k8s.io/v1} {@code Lease}.
+ * The Kubernetes client used by the operators has no model of leases,
+ * so they are handled like a custom resource.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Lease extends CustomResource {
+    private static final long serialVersionUID = 1L;
+
+    public static final String RESOURCE_GROUP = "coordination.k8s.io";
+    public static final String VERSION = "v1";
+    public static final String API_VERSION = RESOURCE_GROUP + "/" + VERSION;
+    public static final String RESOURCE_KIND = "Lease";
+    public static final String RESOURCE_LIST_KIND = RESOURCE_KIND + "List";
+    public static final String RESOURCE_PLURAL = "leases";
+    public static final String RESOURCE_SINGULAR = "lease";
+
+    private LeaseSpec spec;
+
+    public Lease() {
+        super(RESOURCE_KIND);
+        setApiVersion(API_VERSION);
+    }
+
+    public LeaseSpec getSpec() {
+        return spec;
+    }
+
+    public void setSpec(LeaseSpec spec) {
+        this.spec = spec;
+    }
+}
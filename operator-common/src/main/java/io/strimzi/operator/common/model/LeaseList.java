@@ -0,0 +1,11 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.model;
+
+import io.fabric8.kubernetes.client.CustomResourceList;
+
+public class LeaseList extends CustomResourceList<Lease> {
+    private static final long serialVersionUID = 1L;
+}
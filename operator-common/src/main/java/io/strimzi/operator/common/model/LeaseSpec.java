@@ -0,0 +1,66 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+/**
+ * The spec of a {@link Lease}.
+ * The times are in the RFC 3339 format with microseconds used by the Kubernetes API server.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LeaseSpec implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String holderIdentity;
+    private Integer leaseDurationSeconds;
+    private String acquireTime;
+    private String renewTime;
+    private Integer leaseTransitions;
+
+    public String getHolderIdentity() {
+        return holderIdentity;
+    }
+
+    public void setHolderIdentity(String holderIdentity) {
+        this.holderIdentity = holderIdentity;
+    }
+
+    public Integer getLeaseDurationSeconds() {
+        return leaseDurationSeconds;
+    }
+
+    public void setLeaseDurationSeconds(Integer leaseDurationSeconds) {
+        this.leaseDurationSeconds = leaseDurationSeconds;
+    }
+
+    public String getAcquireTime() {
+        return acquireTime;
+    }
+
+    public void setAcquireTime(String acquireTime) {
+        this.acquireTime = acquireTime;
+    }
+
+    public String getRenewTime() {
+        return renewTime;
+    }
+
+    public void setRenewTime(String renewTime) {
+        this.renewTime = renewTime;
+    }
+
+    public Integer getLeaseTransitions() {
+        return leaseTransitions;
+    }
+
+    public void setLeaseTransitions(Integer leaseTransitions) {
+        this.leaseTransitions = leaseTransitions;
+    }
+}
@@ -13,10 +13,13 @@ import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPool;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -42,6 +45,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
     protected final Vertx vertx;
     protected final C client;
     protected final String resourceKind;
+    protected final WorkerExecutor workerPool;
     private final long operationTimeoutMs;
 
     /**
@@ -55,6 +59,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
         this.vertx = vertx;
         this.client = client;
         this.resourceKind = resourceKind;
+        this.workerPool = WorkerPools.executor(vertx, WorkerPool.KUBERNETES);
         this.operationTimeoutMs = operationTimeoutMs;
     }
 
@@ -89,7 +94,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
         }
 
         Future<ReconcileResult<T>> fut = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 T current = operation().withName(name).get();
                 if (desired != null) {
@@ -225,7 +230,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
      */
     public Future<T> getAsync(String name) {
         Future<T> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 T resource = get(name);
                 future.complete(resource);
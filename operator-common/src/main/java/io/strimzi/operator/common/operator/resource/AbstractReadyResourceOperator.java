@@ -40,8 +40,30 @@ public abstract class AbstractReadyResourceOperator<C extends KubernetesClient,
         super(vertx, client, resourceKind);
     }
 
+    /**
+     * Returns a future that completes when the resource identified by the given {@code namespace} and {@code name}
+     * is ready. The readiness of the resource is checked when waiting starts, and then against the resource
+     * carried by each watch event, without getting it again.
+     *
+     * @param namespace The namespace.
+     * @param name The resource name.
+     * @param pollIntervalMs The poll interval in milliseconds.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @return A future that completes when the resource is ready.
+     */
     public Future<Void> readiness(String namespace, String name, long pollIntervalMs, long timeoutMs) {
-        return waitFor(namespace, name, pollIntervalMs, timeoutMs, this::isReady);
+        return waitFor(namespace, name, pollIntervalMs, timeoutMs, this::isReady, this::isResourceReady);
+    }
+
+    /**
+     * Check if the given resource is in the Ready state.
+     *
+     * @param resource The resource.
+     * @return Whether the resource in in the Ready state.
+     */
+    protected boolean isResourceReady(T resource) {
+        return resource != null
+                && (!Readiness.isReadinessApplicable(resource.getClass()) || Readiness.isReady(resource));
     }
 
     /**
@@ -15,18 +15,29 @@ import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
-import io.strimzi.operator.common.Util;
+import io.micrometer.core.instrument.Tags;
+import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.MicrometerMetricsProvider;
+import io.strimzi.operator.common.WorkerPool;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Abstract resource creation, for a generic resource type {@code R}.
@@ -41,10 +52,21 @@ import java.util.function.BiPredicate;
 public abstract class AbstractResourceOperator<C extends KubernetesClient, T extends HasMetadata,
         L extends KubernetesResourceList/*<T>*/, D, R extends Resource<T, D>> {
 
+    /**
+     * The maximum number of resources whose last written resource version is remembered.
+     * Beyond that the least recently written are forgotten, and so patched again when they are next reconciled.
+     */
+    static final int MAX_WRITTEN_RESOURCE_VERSIONS = 10_000;
+
     protected final Logger log = LogManager.getLogger(getClass());
     protected final Vertx vertx;
     protected final C client;
     protected final String resourceKind;
+    protected final MetricsProvider metrics;
+    protected final WorkerExecutor workerPool;
+    private final Map<String, ResourceCache<T, L>> caches = new ConcurrentHashMap<>();
+    private final Map<String, String> writtenResourceVersions = boundedMap(MAX_WRITTEN_RESOURCE_VERSIONS);
+    private final ResourceWaiters<T> waiters;
 
     /**
      * Constructor.
@@ -53,13 +75,120 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @param resourceKind The mind of Kubernetes resource (used for logging).
      */
     public AbstractResourceOperator(Vertx vertx, C client, String resourceKind) {
+        this(vertx, client, resourceKind, new MicrometerMetricsProvider());
+    }
+
+    /**
+     * Constructor.
+     * @param vertx The vertx instance.
+     * @param client The kubernetes client.
+     * @param resourceKind The mind of Kubernetes resource (used for logging and metrics).
+     * @param metrics The provider of the metrics recording the latency of the calls to the API server.
+     */
+    public AbstractResourceOperator(Vertx vertx, C client, String resourceKind, MetricsProvider metrics) {
         this.vertx = vertx;
         this.client = client;
         this.resourceKind = resourceKind;
+        this.metrics = metrics;
+        this.workerPool = WorkerPools.executor(vertx, WorkerPool.KUBERNETES);
+        this.waiters = new ResourceWaiters<>(vertx, workerPool, resourceKind, (namespace, watcher) -> operation().inNamespace(namespace).watch(watcher));
     }
 
     protected abstract MixedOperation<T, L, D, R> operation();
 
+    /**
+     * Asynchronously enables a {@link ResourceCache} of the resources in the given {@code namespace}.
+     * Once the returned future has completed {@link #get(String, String)}, {@link #getAsync(String, String)},
+     * {@link #list(String, Labels)} and the {@code listAsync()} methods are served from the cache
+     * rather than by the API server. Writes still go to the API server and update the cache with their result.
+     * @param namespace The namespace, or {@code *} for any namespace.
+     * @return A future which completes when the cache has been populated.
+     */
+    public Future<Void> enableCache(String namespace) {
+        Future<Void> result = Future.future();
+        workerPool.executeBlocking(
+            future -> {
+                ResourceCache<T, L> cache = caches.computeIfAbsent(namespace, ns -> new ResourceCache<>(resourceKind, ns, () -> cacheOperation(ns), vertx, workerPool));
+                cache.start();
+                log.info("Cache of {} resources in namespace {} enabled", resourceKind, namespace);
+                future.complete();
+            }, true, result
+        );
+        return result;
+    }
+
+    /**
+     * Disables and discards the cache of the resources in the given {@code namespace}
+     * enabled by {@link #enableCache(String)}, if there is one.
+     * @param namespace The namespace, or {@code *} for any namespace.
+     */
+    public void disableCache(String namespace) {
+        ResourceCache<T, L> cache = caches.remove(namespace);
+        if (cache != null) {
+            cache.close();
+            log.info("Cache of {} resources in namespace {} disabled", resourceKind, namespace);
+        }
+    }
+
+    /**
+     * Disables and discards all the caches enabled by {@link #enableCache(String)}.
+     */
+    public void disableCaches() {
+        for (ResourceCache<T, L> cache : caches.values()) {
+            cache.close();
+        }
+        caches.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>> cacheOperation(String namespace) {
+        return AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace) ? operation().inAnyNamespace() : operation().inNamespace(namespace);
+    }
+
+    /**
+     * @param namespace The namespace.
+     * @return The synchronized cache which covers the given {@code namespace}, or null if there is no such cache.
+     */
+    protected ResourceCache<T, L> cache(String namespace) {
+        if (caches.isEmpty()) {
+            return null;
+        }
+        ResourceCache<T, L> cache = caches.get(namespace);
+        if (cache == null || !cache.isSynced()) {
+            cache = caches.get(AbstractWatchableResourceOperator.ANY_NAMESPACE);
+        }
+        return cache != null && cache.isSynced() ? cache : null;
+    }
+
+    /**
+     * Updates the cache (if there is one) with the outcome of a write to the API server.
+     */
+    private ReconcileResult<T> updateCache(String namespace, String name, ReconcileResult<T> result) {
+        ResourceCache<T, L> cache = cache(namespace);
+        if (cache != null) {
+            if (result instanceof ReconcileResult.Created || result instanceof ReconcileResult.Patched) {
+                cache.put(result.resource());
+            } else if (result == ReconcileResult.<T>deleted()) {
+                cache.remove(namespace, name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Makes the given {@code call} to the API server, recording its latency.
+     * @param verb The verb of the call (e.g. {@code get}, {@code list} or {@code patch}).
+     * @param call The call.
+     * @param <X> The type of the result of the call.
+     * @return The result of the call.
+     */
+    protected <X> X timed(String verb, Supplier<X> call) {
+        return metrics.timer("strimzi.kubernetes.api.requests",
+                "Latency of the requests made to the Kubernetes API server",
+                Tags.of("kind", resourceKind, "verb", verb))
+            .record(call);
+    }
+
     /**
      * Asynchronously create or update the given {@code resource} depending on whether it already exists,
      * returning a future for the outcome.
@@ -90,24 +219,25 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         }
 
         Future<ReconcileResult<T>> fut = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        workerPool.executeBlocking(
             future -> {
-                T current = operation().inNamespace(namespace).withName(name).get();
+                T current = get(namespace, name);
                 if (desired != null) {
                     if (current == null) {
                         log.debug("{} {}/{} does not exist, creating it", resourceKind, namespace, name);
-                        internalCreate(namespace, name, desired).setHandler(future);
+                        internalCreate(namespace, name, desired).map(r -> updateCache(namespace, name, r)).setHandler(future);
                     } else {
                         log.debug("{} {}/{} already exists, patching it", resourceKind, namespace, name);
-                        internalPatch(namespace, name, current, desired).setHandler(future);
+                        internalPatch(namespace, name, current, desired).map(r -> updateCache(namespace, name, r)).setHandler(future);
                     }
                 } else {
                     if (current != null) {
                         // Deletion is desired
                         log.debug("{} {}/{} exist, deleting it", resourceKind, namespace, name);
-                        internalDelete(namespace, name).setHandler(future);
+                        internalDelete(namespace, name).map(r -> updateCache(namespace, name, r)).setHandler(future);
                     } else {
                         log.debug("{} {}/{} does not exist, noop", resourceKind, namespace, name);
+                        writtenResourceVersions.remove(namespace + "/" + name);
                         future.complete(ReconcileResult.noop(null));
                     }
                 }
@@ -144,7 +274,8 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     protected Future<ReconcileResult<T>> internalDelete(String namespace, String name, boolean cascading) {
         try {
-            operation().inNamespace(namespace).withName(name).cascading(cascading).withGracePeriod(-1L).delete();
+            timed("delete", () -> operation().inNamespace(namespace).withName(name).cascading(cascading).withGracePeriod(-1L).delete());
+            writtenResourceVersions.remove(namespace + "/" + name);
             log.debug("{} {} in namespace {} has been deleted", resourceKind, name, namespace);
             return Future.succeededFuture(ReconcileResult.deleted());
         } catch (Exception e) {
@@ -161,9 +292,21 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         return internalPatch(namespace, name, current, desired, true);
     }
 
+    /**
+     * Patches the resource with the given namespace and name to match the given desired resource
+     * and completes the given future accordingly.
+     * The patch is skipped when the resource {@linkplain #isUnchanged(String, String, HasMetadata, String) is unchanged}.
+     */
     protected Future<ReconcileResult<T>> internalPatch(String namespace, String name, T current, T desired, boolean cascading) {
         try {
-            T result = operation().inNamespace(namespace).withName(name).cascading(cascading).patch(desired);
+            String hash = desiredHash(desired);
+            if (isUnchanged(namespace, name, current, hash)) {
+                log.debug("{} {} in namespace {} has not been patched because it is unchanged", resourceKind, name, namespace);
+                return Future.succeededFuture(ReconcileResult.noop(current));
+            }
+            Annotations.annotations(desired).put(Annotations.ANNO_STRIMZI_IO_DESIRED_HASH, hash);
+            T result = timed("patch", () -> operation().inNamespace(namespace).withName(name).cascading(cascading).patch(desired));
+            recordWrite(namespace, name, result);
             log.debug("{} {} in namespace {} has been patched", resourceKind, name, namespace);
             return Future.succeededFuture(wasChanged(current, result) ? ReconcileResult.patched(result) : ReconcileResult.noop(result));
         } catch (Exception e) {
@@ -172,6 +315,63 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         }
     }
 
+    /**
+     * @param desired The desired resource.
+     * @return The hash of the desired state of the given resource.
+     */
+    protected String desiredHash(T desired) {
+        return DesiredStateHash.of(desired);
+    }
+
+    /**
+     * Determines whether the {@code current} resource already matches the desired state with the given {@code hash},
+     * so that writing the desired state can be skipped. This is the case when the hash was stored on the resource
+     * when this operator last wrote it and the resource has not been modified since then, i.e. its resource version
+     * is the one the write returned. Until this operator has written the resource (e.g. after it restarts) the
+     * resource is never considered unchanged.
+     * @param namespace The namespace of the resource.
+     * @param name The name of the resource.
+     * @param current The current resource.
+     * @param hash The hash of the desired resource.
+     * @return true if the current resource is unchanged.
+     */
+    protected boolean isUnchanged(String namespace, String name, T current, String hash) {
+        return current != null
+                && current.getMetadata() != null
+                && current.getMetadata().getResourceVersion() != null
+                && hash.equals(Annotations.stringAnnotation(current, Annotations.ANNO_STRIMZI_IO_DESIRED_HASH, null))
+                && current.getMetadata().getResourceVersion().equals(writtenResourceVersions.get(namespace + "/" + name));
+    }
+
+    /**
+     * @return A synchronized map which discards the least recently accessed entry once it holds more than {@code maxSize}.
+     */
+    private static <K, V> Map<K, V> boundedMap(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * @return The number of resources whose last written resource version is remembered.
+     */
+    int writtenResourceVersionsSize() {
+        return writtenResourceVersions.size();
+    }
+
+    private void recordWrite(String namespace, String name, T result) {
+        if (result != null && result.getMetadata() != null && result.getMetadata().getResourceVersion() != null) {
+            writtenResourceVersions.put(namespace + "/" + name, result.getMetadata().getResourceVersion());
+        } else {
+            writtenResourceVersions.remove(namespace + "/" + name);
+        }
+    }
+
     protected boolean wasChanged(T oldVersion, T newVersion) {
         if (oldVersion != null
                 && oldVersion.getMetadata() != null
@@ -190,7 +390,9 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
     @SuppressWarnings("unchecked")
     protected Future<ReconcileResult<T>> internalCreate(String namespace, String name, T desired) {
         try {
-            ReconcileResult<T> result = ReconcileResult.created(operation().inNamespace(namespace).withName(name).create(desired));
+            Annotations.annotations(desired).put(Annotations.ANNO_STRIMZI_IO_DESIRED_HASH, desiredHash(desired));
+            ReconcileResult<T> result = ReconcileResult.created(timed("create", () -> operation().inNamespace(namespace).withName(name).create(desired)));
+            recordWrite(namespace, name, result.resource());
             log.debug("{} {} in namespace {} has been created", resourceKind, name, namespace);
             return Future.succeededFuture(result);
         } catch (Exception e) {
@@ -206,7 +408,11 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @return The resource, or null if it doesn't exist.
      */
     public T get(String namespace, String name) {
-        return operation().inNamespace(namespace).withName(name).get();
+        ResourceCache<T, L> cache = cache(namespace);
+        if (cache != null) {
+            return cache.get(namespace, name);
+        }
+        return timed("get", () -> operation().inNamespace(namespace).withName(name).get());
     }
 
     /**
@@ -216,8 +422,12 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @return A Future for the result.
      */
     public Future<T> getAsync(String namespace, String name) {
+        ResourceCache<T, L> cache = cache(namespace);
+        if (cache != null) {
+            return Future.succeededFuture(cache.get(namespace, name));
+        }
         Future<T> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 T resource = get(namespace, name);
                 future.complete(resource);
@@ -234,6 +444,10 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      */
     @SuppressWarnings("unchecked")
     public List<T> list(String namespace, Labels selector) {
+        ResourceCache<T, L> cache = cache(namespace);
+        if (cache != null) {
+            return cache.list(namespace, selector != null ? selector.toMap() : null);
+        }
         if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace))  {
             return listInAnyNamespace(selector);
         } else {
@@ -247,13 +461,9 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
         if (selector != null) {
             Map<String, String> labels = selector.toMap();
-            return operation.withLabels(labels)
-                    .list()
-                    .getItems();
+            return timed("list", () -> operation.withLabels(labels).list()).getItems();
         } else {
-            return operation
-                    .list()
-                    .getItems();
+            return timed("list", operation::list).getItems();
         }
     }
 
@@ -264,13 +474,9 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         if (selector != null) {
             Map<String, String> labels = selector.toMap();
             FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>> tlBooleanWatchWatcherFilterWatchListDeletable = tldrNonNamespaceOperation.withLabels(labels);
-            return tlBooleanWatchWatcherFilterWatchListDeletable
-                    .list()
-                    .getItems();
+            return timed("list", tlBooleanWatchWatcherFilterWatchListDeletable::list).getItems();
         } else {
-            return tldrNonNamespaceOperation
-                    .list()
-                    .getItems();
+            return timed("list", tldrNonNamespaceOperation::list).getItems();
         }
     }
 
@@ -282,8 +488,12 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @return A Future with a list of matching resources.
      */
     public Future<List<T>> listAsync(String namespace, Labels selector) {
+        ResourceCache<T, L> cache = cache(namespace);
+        if (cache != null) {
+            return Future.succeededFuture(cache.list(namespace, selector != null ? selector.toMap() : null));
+        }
         Future<List<T>> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 List<T> resources;
 
@@ -301,8 +511,12 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     @SuppressWarnings("unchecked")
     public Future<List<T>> listAsync(String namespace, Optional<LabelSelector> selector) {
+        ResourceCache<T, L> cache = cache(namespace);
+        if (cache != null && (!selector.isPresent() || ResourceCache.canEvaluate(selector.get()))) {
+            return Future.succeededFuture(cache.list(namespace, selector.map(LabelSelector::getMatchLabels).orElse(null)));
+        }
         Future<List<T>> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>> operation;
                 if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace))  {
@@ -313,7 +527,7 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
                 if (selector.isPresent()) {
                     operation = operation.withLabelSelector(selector.get());
                 }
-                future.complete(operation.list().getItems());
+                future.complete(timed("list", operation::list).getItems());
             }, true, result
         );
         return result;
@@ -322,6 +536,9 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
     /**
      * Returns a future that completes when the resource identified by the given {@code namespace} and {@code name}
      * is ready.
+     * The predicate is evaluated whenever the resource changes, using a single watch per namespace shared by all
+     * the waiters of this operator, and falls back to polling every {@code pollIntervalMs} if the watch
+     * cannot be opened.
      *
      * @param namespace The namespace.
      * @param name The resource name.
@@ -332,10 +549,25 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * is ready.
      */
     public Future<Void> waitFor(String namespace, String name, long pollIntervalMs, final long timeoutMs, BiPredicate<String, String> predicate) {
-        return Util.waitFor(vertx,
-            String.format("%s resource %s in namespace %s", resourceKind, name, namespace),
-            pollIntervalMs,
-            timeoutMs,
-            () -> predicate.test(namespace, name));
+        return waiters.waitFor(namespace, name, pollIntervalMs, timeoutMs, predicate);
+    }
+
+    /**
+     * Like {@link #waitFor(String, String, long, long, BiPredicate)}, except that the watch events are handled by
+     * testing the given {@code eventPredicate} against the resource they carry, rather than by evaluating
+     * {@code predicate}, which usually gets the resource again.
+     *
+     * @param namespace The namespace.
+     * @param name The resource name.
+     * @param pollIntervalMs The poll interval in milliseconds.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @param predicate The predicate, evaluated when waiting starts, as a safety net for missed events,
+     *                  and when polling.
+     * @param eventPredicate The predicate tested against the resource carried by the watch events.
+     * @return A future that completes when either predicate is true.
+     */
+    public Future<Void> waitFor(String namespace, String name, long pollIntervalMs, final long timeoutMs, BiPredicate<String, String> predicate,
+                                Predicate<T> eventPredicate) {
+        return waiters.waitFor(namespace, name, pollIntervalMs, timeoutMs, predicate, eventPredicate);
     }
 }
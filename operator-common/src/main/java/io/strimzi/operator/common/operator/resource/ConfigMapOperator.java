@@ -10,9 +10,11 @@ import io.fabric8.kubernetes.api.model.DoneableConfigMap;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.Annotations;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -40,7 +42,7 @@ public class ConfigMapOperator extends AbstractResourceOperator<KubernetesClient
             if (compareObjects(current.getData(), desired.getData())
                     && compareObjects(current.getMetadata().getName(), desired.getMetadata().getName())
                     && compareObjects(current.getMetadata().getNamespace(), desired.getMetadata().getNamespace())
-                    && compareObjects(current.getMetadata().getAnnotations(), desired.getMetadata().getAnnotations())
+                    && compareObjects(withoutDesiredHash(current.getMetadata().getAnnotations()), withoutDesiredHash(desired.getMetadata().getAnnotations()))
                     && compareObjects(current.getMetadata().getLabels(), desired.getMetadata().getLabels())) {
                 // Checking some metadata. We cannot check entire metadata object because it contains
                 // timestamps which would cause restarting loop
@@ -55,6 +57,19 @@ public class ConfigMapOperator extends AbstractResourceOperator<KubernetesClient
         }
     }
 
+    /**
+     * The desired hash is not part of the desired state, so it is ignored when comparing the annotations.
+     * Otherwise adding it would count as a change, which restarts the pods using the ConfigMap.
+     */
+    private Map<String, String> withoutDesiredHash(Map<String, String> annotations) {
+        if (annotations != null && annotations.containsKey(Annotations.ANNO_STRIMZI_IO_DESIRED_HASH)) {
+            Map<String, String> result = new HashMap<>(annotations);
+            result.remove(Annotations.ANNO_STRIMZI_IO_DESIRED_HASH);
+            return result.isEmpty() ? null : result;
+        }
+        return annotations;
+    }
+
     private boolean compareObjects(Object a, Object b) {
         if (a == null && b instanceof Map && ((Map) b).size() == 0)
             return true;
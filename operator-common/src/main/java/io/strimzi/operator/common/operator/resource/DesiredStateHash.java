@@ -0,0 +1,56 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.Util;
+
+/**
+ * Computes a stable hash of the desired state of a resource.
+ * The hash covers everything the operator sets on the resource except the
+ * {@link Annotations#ANNO_STRIMZI_IO_DESIRED_HASH} annotation itself, the resource version and the status.
+ * Map entries and properties are serialized in a fixed order, so equal resources always have equal hashes.
+ */
+class DesiredStateHash {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private DesiredStateHash() { }
+
+    /**
+     * @param resource The desired resource.
+     * @return The hex-encoded SHA-256 hash of the given resource.
+     */
+    static String of(HasMetadata resource) {
+        ObjectNode json = MAPPER.valueToTree(resource);
+        json.remove("status");
+        JsonNode metadata = json.get("metadata");
+        if (metadata instanceof ObjectNode) {
+            ((ObjectNode) metadata).remove("resourceVersion");
+            JsonNode annotations = metadata.get("annotations");
+            if (annotations instanceof ObjectNode) {
+                ((ObjectNode) annotations).remove(Annotations.ANNO_STRIMZI_IO_DESIRED_HASH);
+                if (annotations.size() == 0) {
+                    ((ObjectNode) metadata).remove("annotations");
+                }
+            }
+        }
+
+        try {
+            return Util.sha256(MAPPER.writeValueAsBytes(json));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to hash " + resource.getKind() + " " + resource.getMetadata().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.apiextensions.CustomResourceDefinition;
+import io.fabric8.kubernetes.api.model.apiextensions.CustomResourceDefinitionBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.model.DoneableLease;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.Lease;
+import io.strimzi.operator.common.model.LeaseList;
+import io.strimzi.operator.common.model.LeaseSpec;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Operations for {@code coordination.k8s.io/v1} {@code Lease}s, which are held by at most one holder at a time.
+ * A lease is held while its holder keeps renewing it; once its holder stops renewing it for longer than its duration
+ * it has expired and can be taken over. Every change of a lease is made with optimistic locking on its resource
+ * version, so when several holders race for the same lease exactly one of them gets it.
+ */
+public class LeaseOperator extends AbstractResourceOperator<KubernetesClient, Lease, LeaseList, DoneableLease, Resource<Lease, DoneableLease>> {
+
+    private static final int HTTP_CONFLICT = 409;
+
+    /**
+     * The renew time of a lease is written with the clock of its holder but compared with the clock of
+     * the replica checking it, so a lease is considered held for this much longer than its duration,
+     * allowing for that much skew between the clocks of the replicas.
+     */
+    public static final long MAX_CLOCK_SKEW_MS = 2_000;
+
+    /**
+     * The format of the times in a {@link LeaseSpec}.
+     */
+    private static final DateTimeFormatter MICRO_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSXXX").withZone(ZoneOffset.UTC);
+
+    private static final CustomResourceDefinition LEASE = new CustomResourceDefinitionBuilder()
+            .withNewMetadata()
+                .withName(Lease.RESOURCE_PLURAL + "." + Lease.RESOURCE_GROUP)
+            .endMetadata()
+            .withNewSpec()
+                .withScope("Namespaced")
+                .withGroup(Lease.RESOURCE_GROUP)
+                .withVersion(Lease.VERSION)
+                .withNewNames()
+                    .withSingular(Lease.RESOURCE_SINGULAR)
+                    .withPlural(Lease.RESOURCE_PLURAL)
+                    .withKind(Lease.RESOURCE_KIND)
+                    .withListKind(Lease.RESOURCE_LIST_KIND)
+                .endNames()
+            .endSpec()
+            .build();
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance
+     * @param client The Kubernetes client
+     */
+    public LeaseOperator(Vertx vertx, KubernetesClient client) {
+        super(vertx, client, Lease.RESOURCE_KIND);
+    }
+
+    @Override
+    protected MixedOperation<Lease, LeaseList, DoneableLease, Resource<Lease, DoneableLease>> operation() {
+        return client.customResources(LEASE, Lease.class, LeaseList.class, DoneableLease.class);
+    }
+
+    /**
+     * @return The current time. Tests can override this to control the expiry of leases.
+     */
+    protected Instant now() {
+        return Instant.now();
+    }
+
+    /**
+     * Asynchronously acquires the lease with the given name for the given {@code identity}, or renews it if
+     * the {@code identity} already holds it. The lease is created if it does not exist.
+     * @param namespace The namespace of the lease.
+     * @param name The name of the lease.
+     * @param identity The identity of the holder.
+     * @param durationMs How long the lease is held without being renewed, in milliseconds.
+     * @param labels The labels of the lease, used when creating it.
+     * @return A future which completes with true if the {@code identity} holds the lease,
+     * or false if it is held by someone else.
+     */
+    public Future<Boolean> tryAcquireOrRenew(String namespace, String name, String identity, long durationMs, Labels labels) {
+        Future<Boolean> result = Future.future();
+        workerPool.executeBlocking(
+            future -> {
+                try {
+                    future.complete(acquireOrRenew(namespace, name, identity, durationMs, labels));
+                } catch (Throwable t) {
+                    future.fail(t);
+                }
+            }, true, result
+        );
+        return result;
+    }
+
+    private boolean acquireOrRenew(String namespace, String name, String identity, long durationMs, Labels labels) {
+        Instant now = now();
+        int durationSeconds = (int) Math.max(1, (durationMs + 999) / 1000);
+        Lease current = timed("get", () -> operation().inNamespace(namespace).withName(name).get());
+
+        if (current == null) {
+            LeaseSpec spec = new LeaseSpec();
+            spec.setHolderIdentity(identity);
+            spec.setLeaseDurationSeconds(durationSeconds);
+            spec.setAcquireTime(format(now));
+            spec.setRenewTime(format(now));
+            spec.setLeaseTransitions(0);
+            Lease lease = new Lease();
+            lease.setMetadata(new ObjectMetaBuilder()
+                    .withNamespace(namespace)
+                    .withName(name)
+                    .withLabels(labels.toMap())
+                    .build());
+            lease.setSpec(spec);
+            try {
+                timed("create", () -> operation().inNamespace(namespace).withName(name).create(lease));
+                log.debug("{} {} in namespace {} acquired by {}", resourceKind, name, namespace, identity);
+                return true;
+            } catch (KubernetesClientException e) {
+                if (e.getCode() == HTTP_CONFLICT) {
+                    log.debug("{} {} in namespace {} was created by someone else", resourceKind, name, namespace);
+                    return false;
+                }
+                throw e;
+            }
+        }
+
+        LeaseSpec spec = current.getSpec() != null ? current.getSpec() : new LeaseSpec();
+        boolean acquiring = !identity.equals(spec.getHolderIdentity());
+        if (acquiring) {
+            if (isHeld(current)) {
+                return false;
+            }
+            spec.setHolderIdentity(identity);
+            spec.setAcquireTime(format(now));
+            spec.setLeaseTransitions(spec.getLeaseTransitions() != null ? spec.getLeaseTransitions() + 1 : 1);
+        }
+        spec.setLeaseDurationSeconds(durationSeconds);
+        spec.setRenewTime(format(now));
+        current.setSpec(spec);
+        if (!replace(namespace, name, current)) {
+            return false;
+        }
+        if (acquiring) {
+            log.debug("{} {} in namespace {} acquired by {}", resourceKind, name, namespace, identity);
+        }
+        return true;
+    }
+
+    /**
+     * Asynchronously releases the lease with the given name if it is held by the given {@code identity},
+     * so that it can be acquired by someone else without waiting for it to expire.
+     * @param namespace The namespace of the lease.
+     * @param name The name of the lease.
+     * @param identity The identity of the holder.
+     * @return A future which completes when the lease has been released, or was not held by the {@code identity}.
+     */
+    public Future<Void> release(String namespace, String name, String identity) {
+        Future<Void> result = Future.future();
+        workerPool.executeBlocking(
+            future -> {
+                try {
+                    Lease current = timed("get", () -> operation().inNamespace(namespace).withName(name).get());
+                    if (current != null && current.getSpec() != null && identity.equals(current.getSpec().getHolderIdentity())) {
+                        current.getSpec().setHolderIdentity(null);
+                        if (replace(namespace, name, current)) {
+                            log.debug("{} {} in namespace {} released by {}", resourceKind, name, namespace, identity);
+                        }
+                    }
+                    future.complete();
+                } catch (Throwable t) {
+                    future.fail(t);
+                }
+            }, true, result
+        );
+        return result;
+    }
+
+    /**
+     * Replaces the lease, provided it was not changed since it was read.
+     * @return true if the lease was replaced, false if it was changed by someone else.
+     */
+    private boolean replace(String namespace, String name, Lease lease) {
+        try {
+            timed("replace", () -> operation().inNamespace(namespace).withName(name)
+                    .lockResourceVersion(lease.getMetadata().getResourceVersion()).replace(lease));
+            return true;
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == HTTP_CONFLICT) {
+                log.debug("{} {} in namespace {} was changed by someone else", resourceKind, name, namespace);
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param lease The lease.
+     * @return Whether the lease has a holder which has renewed it within its duration
+     * (plus {@link #MAX_CLOCK_SKEW_MS}).
+     */
+    public boolean isHeld(Lease lease) {
+        LeaseSpec spec = lease.getSpec();
+        if (spec == null
+                || spec.getHolderIdentity() == null
+                || spec.getHolderIdentity().isEmpty()
+                || spec.getRenewTime() == null
+                || spec.getLeaseDurationSeconds() == null) {
+            return false;
+        }
+        try {
+            Instant expiry = OffsetDateTime.parse(spec.getRenewTime(), DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant()
+                    .plusSeconds(spec.getLeaseDurationSeconds())
+                    .plusMillis(MAX_CLOCK_SKEW_MS);
+            return expiry.isAfter(now());
+        } catch (DateTimeParseException e) {
+            log.warn("{} {} in namespace {} has an invalid renewTime {}", resourceKind, lease.getMetadata().getName(),
+                    lease.getMetadata().getNamespace(), spec.getRenewTime());
+            return false;
+        }
+    }
+
+    /**
+     * @param lease The lease.
+     * @param identity The identity of the holder.
+     * @return Whether the lease is {@linkplain #isHeld(Lease) held} by the given {@code identity}.
+     */
+    public boolean isHeldBy(Lease lease, String identity) {
+        return isHeld(lease) && identity.equals(lease.getSpec().getHolderIdentity());
+    }
+
+    private static String format(Instant time) {
+        return MICRO_TIME.format(time);
+    }
+}
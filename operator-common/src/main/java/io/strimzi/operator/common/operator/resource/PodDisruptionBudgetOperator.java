@@ -26,6 +26,10 @@ public class PodDisruptionBudgetOperator extends AbstractResourceOperator<Kubern
 
     @Override
     protected Future<ReconcileResult<PodDisruptionBudget>> internalPatch(String namespace, String name, PodDisruptionBudget current, PodDisruptionBudget desired, boolean cascading) {
+        if (isUnchanged(namespace, name, current, desiredHash(desired))) {
+            log.debug("{} {} in namespace {} has not been recreated because it is unchanged", resourceKind, name, namespace);
+            return Future.succeededFuture(ReconcileResult.noop(current));
+        }
         Future<ReconcileResult<PodDisruptionBudget>> fut = Future.future();
         internalDelete(namespace, name).setHandler(delRes -> {
             if (delRes.succeeded())    {
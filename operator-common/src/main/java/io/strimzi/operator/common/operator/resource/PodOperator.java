@@ -70,16 +70,15 @@ public class PodOperator extends AbstractReadyResourceOperator<KubernetesClient,
         log.debug("{}}: Waiting for pod {} to be deleted", logContext, podName);
         Future<Void> podReconcileFuture =
                 reconcile(namespace, podName, null).compose(ignore -> {
-                    Future<Void> del = waitFor(namespace, podName, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
-                        // predicate - changed generation means pod has been updated
-                        String newUid = getPodUid(get(namespace, podName));
-                        boolean done = !deleted.equals(newUid);
-                        if (done) {
-                            log.debug("Rolling pod {} finished", podName);
-                        }
-                        return done;
+                    // A changed uid means the pod has been recreated. Watch events carry the pod,
+                    // so it is only got when waiting starts and as a safety net for missed events.
+                    Future<Void> del = waitFor(namespace, podName, pollingIntervalMs, timeoutMs,
+                        (ignore1, ignore2) -> !deleted.equals(getPodUid(get(namespace, podName))),
+                        recreated -> !deleted.equals(getPodUid(recreated)));
+                    return del.map(ignored -> {
+                        log.debug("Rolling pod {} finished", podName);
+                        return null;
                     });
-                    return del;
                 });
 
         podReconcileFuture.setHandler(deleteResult -> {
@@ -0,0 +1,353 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.LabelSelector;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory cache of all the resources of a single kind in a single namespace (or in
+ * {@linkplain AbstractWatchableResourceOperator#ANY_NAMESPACE any namespace}).
+ *
+ * <p>The cache is populated by listing the resources and is then kept up to date by a watch
+ * started from the {@code resourceVersion} of that list. If the watch is closed with an error
+ * (e.g. because the {@code resourceVersion} is too old) the cache is re-synchronized with a new list
+ * and a new watch on a worker thread, retrying with exponential backoff until that succeeds or the cache is closed.</p>
+ *
+ * <p>Resources are indexed by namespace and name and by each of their labels, so that both
+ * {@link #get(String, String)} and label-selector based {@link #list(String, Map)} are served from memory.
+ * Callers are free to modify the resources they read, so reads return copies of the cached resources,
+ * and the resources {@linkplain #put(HasMetadata) put} into the cache are copied too.</p>
+ *
+ * @param <T> The Kubernetes resource type.
+ * @param <L> The list variant of the Kubernetes resource type.
+ */
+public class ResourceCache<T extends HasMetadata, L extends KubernetesResourceList/*<T>*/> implements Watcher<T> {
+
+    private static final Logger log = LogManager.getLogger(ResourceCache.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** The default delay before retrying a failed re-synchronization, doubled after each failure */
+    static final long DEFAULT_INITIAL_RESYNC_BACKOFF_MS = 1_000;
+    /** The default maximum delay between attempts to re-synchronize */
+    static final long DEFAULT_MAX_RESYNC_BACKOFF_MS = 60_000;
+
+    private final String resourceKind;
+    private final String namespace;
+    private final Supplier<FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>>> operation;
+    private final Vertx vertx;
+    private final WorkerExecutor workerPool;
+    private final long initialResyncBackoffMs;
+    private final long maxResyncBackoffMs;
+
+    private final Map<String, T> byKey = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byLabel = new ConcurrentHashMap<>();
+
+    private volatile boolean synced = false;
+    private volatile boolean closed = false;
+    private Watch watch;
+
+    /**
+     * Constructor.
+     * @param resourceKind The kind of Kubernetes resource (used for logging).
+     * @param namespace The namespace which is cached, or {@code *} for any namespace.
+     * @param operation Supplies the operation used to list and watch the cached resources.
+     * @param vertx The vertx instance, used to schedule retries of the re-synchronization.
+     * @param workerPool The worker pool on which the cache is re-synchronized.
+     */
+    public ResourceCache(String resourceKind, String namespace,
+                         Supplier<FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>>> operation,
+                         Vertx vertx, WorkerExecutor workerPool) {
+        this(resourceKind, namespace, operation, vertx, workerPool, DEFAULT_INITIAL_RESYNC_BACKOFF_MS, DEFAULT_MAX_RESYNC_BACKOFF_MS);
+    }
+
+    ResourceCache(String resourceKind, String namespace,
+                  Supplier<FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>>> operation,
+                  Vertx vertx, WorkerExecutor workerPool, long initialResyncBackoffMs, long maxResyncBackoffMs) {
+        this.resourceKind = resourceKind;
+        this.namespace = namespace;
+        this.operation = operation;
+        this.vertx = vertx;
+        this.workerPool = workerPool;
+        this.initialResyncBackoffMs = initialResyncBackoffMs;
+        this.maxResyncBackoffMs = maxResyncBackoffMs;
+    }
+
+    /**
+     * Synchronously lists the resources and starts the watch which keeps the cache up to date.
+     * This method blocks, so must not be called on the event loop.
+     */
+    @SuppressWarnings("unchecked") // due to L extends KubernetesResourceList/*<T>*/
+    public synchronized void start() {
+        if (closed) {
+            return;
+        }
+        FilterWatchListDeletable<T, L, Boolean, Watch, Watcher<T>> op = operation.get();
+        L list = op.list();
+        String resourceVersion = list.getMetadata() != null ? list.getMetadata().getResourceVersion() : null;
+
+        byKey.clear();
+        byLabel.clear();
+        for (T resource : (List<T>) list.getItems()) {
+            store(resource);
+        }
+
+        if (watch != null) {
+            watch.close();
+        }
+        watch = resourceVersion != null ? op.withResourceVersion(resourceVersion).watch(this) : op.watch(this);
+        synced = true;
+        log.debug("Cache of {} resources in namespace {} synchronized at resourceVersion {} with {} items",
+                resourceKind, namespace, resourceVersion, byKey.size());
+    }
+
+    /**
+     * Stops the watch and discards the cached resources.
+     */
+    public synchronized void close() {
+        closed = true;
+        synced = false;
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+        byKey.clear();
+        byLabel.clear();
+    }
+
+    /**
+     * @return Whether the cache is synchronized, and can therefore be used to serve reads.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * @return The namespace which is cached, or {@code *} for any namespace.
+     */
+    public String namespace() {
+        return namespace;
+    }
+
+    /**
+     * Gets the cached resource with the given {@code name} in the given {@code namespace}.
+     * @param namespace The namespace.
+     * @param name The name.
+     * @return A copy of the resource, or null if it doesn't exist.
+     */
+    public T get(String namespace, String name) {
+        return copy(byKey.get(key(namespace, name)));
+    }
+
+    /**
+     * Lists the cached resources in the given {@code namespace} which have all of the given {@code labels}.
+     * @param namespace The namespace, or {@code *} for any namespace.
+     * @param labels The labels to match, or null to match all the resources.
+     * @return A list of copies of the matching resources.
+     */
+    public List<T> list(String namespace, Map<String, String> labels) {
+        Set<String> keys;
+        if (labels == null || labels.isEmpty()) {
+            keys = byKey.keySet();
+        } else {
+            keys = null;
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                Set<String> matching = byLabel.getOrDefault(labelKey(label.getKey(), label.getValue()), Collections.emptySet());
+                if (keys == null) {
+                    keys = new HashSet<>(matching);
+                } else {
+                    keys.retainAll(matching);
+                }
+            }
+        }
+
+        List<T> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            T resource = byKey.get(key);
+            if (resource != null
+                    && (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace)
+                        || namespace.equals(resource.getMetadata().getNamespace()))) {
+                result.add(copy(resource));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param selector The label selector.
+     * @return Whether the given {@code selector} can be evaluated by {@link #list(String, Map)}.
+     */
+    public static boolean canEvaluate(LabelSelector selector) {
+        return selector.getMatchExpressions() == null || selector.getMatchExpressions().isEmpty();
+    }
+
+    /**
+     * Optimistically updates the cache with a resource returned by the API server following a write,
+     * without waiting for the corresponding watch event.
+     * The given resource is ignored if the cache already holds a newer version of it.
+     * The cache holds a copy of the resource, so the caller may go on to modify it.
+     * @param resource The resource.
+     */
+    public void put(T resource) {
+        store(copy(resource));
+    }
+
+    private synchronized void store(T resource) {
+        if (resource == null || resource.getMetadata() == null) {
+            return;
+        }
+        String key = key(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+        T existing = byKey.get(key);
+        if (existing != null && isOlder(resource, existing)) {
+            log.trace("Ignoring stale {} {} at resourceVersion {}", resourceKind, key, resource.getMetadata().getResourceVersion());
+            return;
+        }
+        if (existing != null) {
+            unindex(key, existing);
+        }
+        byKey.put(key, resource);
+        index(key, resource);
+    }
+
+    /**
+     * Removes the resource with the given {@code name} in the given {@code namespace} from the cache.
+     * @param namespace The namespace.
+     * @param name The name.
+     */
+    public synchronized void remove(String namespace, String name) {
+        String key = key(namespace, name);
+        T existing = byKey.remove(key);
+        if (existing != null) {
+            unindex(key, existing);
+        }
+    }
+
+    @Override
+    public void eventReceived(Action action, T resource) {
+        switch (action) {
+            case ADDED:
+            case MODIFIED:
+                // The resource of a watch event isn't shared with anyone else, so it needn't be copied
+                store(resource);
+                break;
+            case DELETED:
+                remove(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+                break;
+            case ERROR:
+            default:
+                log.warn("Unexpected {} event for {} resources in namespace {}", action, resourceKind, namespace);
+        }
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+        if (cause != null && !closed) {
+            log.warn("Watch of {} resources in namespace {} closed, re-synchronizing cache", resourceKind, namespace, cause);
+            synced = false;
+            resync(initialResyncBackoffMs);
+        }
+    }
+
+    /**
+     * Re-synchronizes the cache on a worker thread, retrying after {@code backoffMs} (and then after twice as long,
+     * up to the maximum backoff) until that succeeds or the cache is closed.
+     */
+    private void resync(long backoffMs) {
+        workerPool.executeBlocking(
+            future -> {
+                if (!closed) {
+                    start();
+                }
+                future.complete();
+            },
+            false,
+            result -> {
+                if (result.failed() && !closed) {
+                    log.error("Failed to re-synchronize cache of {} resources in namespace {}, retrying in {}ms",
+                            resourceKind, namespace, backoffMs, result.cause());
+                    vertx.setTimer(backoffMs, timerId -> resync(Math.min(2 * backoffMs, maxResyncBackoffMs)));
+                }
+            });
+    }
+
+    private void index(String key, T resource) {
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        if (labels != null) {
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                byLabel.computeIfAbsent(labelKey(label.getKey(), label.getValue()), k -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+    }
+
+    private void unindex(String key, T resource) {
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        if (labels != null) {
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                Set<String> keys = byLabel.get(labelKey(label.getKey(), label.getValue()));
+                if (keys != null) {
+                    keys.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Kubernetes resourceVersions are opaque, but in practice they're integers.
+     * When both versions can be parsed we use them to avoid replacing a newer version with an older one.
+     */
+    private static boolean isOlder(HasMetadata candidate, HasMetadata existing) {
+        try {
+            return Long.parseLong(candidate.getMetadata().getResourceVersion())
+                    < Long.parseLong(existing.getMetadata().getResourceVersion());
+        } catch (NumberFormatException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return A deep copy of the given resource.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends HasMetadata> T copy(T resource) {
+        if (resource == null) {
+            return null;
+        }
+        try {
+            return (T) MAPPER.readValue(MAPPER.writeValueAsBytes(resource), resource.getClass());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String key(String namespace, String name) {
+        return namespace + "/" + name;
+    }
+
+    private static String labelKey(String key, String value) {
+        return key + "=" + value;
+    }
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.strimzi.operator.common.Util;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * <p>Waits for resources of a single kind to satisfy a predicate, reacting to watch events rather than
+ * polling each resource independently.</p>
+ *
+ * <p>Waiters are grouped by namespace. While a namespace has at least one waiter a single watch of the resources
+ * in that namespace is open, and each event re-evaluates the predicates of the waiters for the resource it is
+ * about. The predicate is also evaluated when the waiter is registered and then, as a safety net for missed
+ * events, every {@value #FALLBACK_POLL_FACTOR} poll intervals. If the watch cannot be opened the waiter falls back
+ * to {@link Util#waitFor(Vertx, String, long, long, java.util.function.BooleanSupplier) polling}.</p>
+ *
+ * <p>A waiter can also have a predicate on the resource itself, which is then tested against the resource carried
+ * by each event instead of evaluating the waiter's predicate, so that events don't cause any further requests.</p>
+ *
+ * @param <T> The Kubernetes resource type.
+ */
+class ResourceWaiters<T extends HasMetadata> {
+
+    private static final Logger log = LogManager.getLogger(ResourceWaiters.class);
+
+    /**
+     * How many poll intervals pass between evaluations of a waiter which don't result from an event.
+     */
+    static final int FALLBACK_POLL_FACTOR = 10;
+
+    private final Vertx vertx;
+    private final WorkerExecutor workerPool;
+    private final String resourceKind;
+    private final BiFunction<String, Watcher<T>, Watch> watchFunction;
+    private final Map<String, Group> groups = new HashMap<>();
+
+    /**
+     * Constructor.
+     * @param vertx The Vertx instance.
+     * @param workerPool The worker pool on which the watch is opened and the predicates are evaluated.
+     * @param resourceKind The kind of the resources (used for logging).
+     * @param watchFunction Opens a watch of all the resources in the given namespace.
+     */
+    ResourceWaiters(Vertx vertx, WorkerExecutor workerPool, String resourceKind, BiFunction<String, Watcher<T>, Watch> watchFunction) {
+        this.vertx = vertx;
+        this.workerPool = workerPool;
+        this.resourceKind = resourceKind;
+        this.watchFunction = watchFunction;
+    }
+
+    /**
+     * Returns a future that completes when the given {@code predicate} is true for the resource with the given
+     * {@code namespace} and {@code name}.
+     * @param namespace The namespace.
+     * @param name The resource name.
+     * @param pollIntervalMs The poll interval in milliseconds.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @param predicate The predicate.
+     * @return A future that completes when the predicate is true, or fails with a {@link TimeoutException}.
+     */
+    Future<Void> waitFor(String namespace, String name, long pollIntervalMs, long timeoutMs, BiPredicate<String, String> predicate) {
+        return waitFor(namespace, name, pollIntervalMs, timeoutMs, predicate, null);
+    }
+
+    /**
+     * Returns a future that completes when the given {@code predicate} is true for the resource with the given
+     * {@code namespace} and {@code name}, or when the given {@code eventPredicate} is true for the resource
+     * carried by an event about it.
+     * @param namespace The namespace.
+     * @param name The resource name.
+     * @param pollIntervalMs The poll interval in milliseconds.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @param predicate The predicate, evaluated initially, periodically and when polling.
+     * @param eventPredicate The predicate tested against the resource carried by events, or null to evaluate
+     *                       {@code predicate} on events instead.
+     * @return A future that completes when a predicate is true, or fails with a {@link TimeoutException}.
+     */
+    Future<Void> waitFor(String namespace, String name, long pollIntervalMs, long timeoutMs, BiPredicate<String, String> predicate,
+                         Predicate<T> eventPredicate) {
+        Waiter waiter = new Waiter(namespace, name, pollIntervalMs, timeoutMs, predicate, eventPredicate);
+        log.debug("Waiting for {} to get ready", waiter.logContext);
+        waiter.timeoutTimer = vertx.setTimer(timeoutMs, id -> waiter.timedOut());
+        register(waiter);
+        return waiter.result;
+    }
+
+    /**
+     * @return The number of namespaces with an open (or opening) watch.
+     */
+    synchronized int watchedNamespaces() {
+        return groups.size();
+    }
+
+    private void register(Waiter waiter) {
+        Group group;
+        boolean created = false;
+        synchronized (this) {
+            group = groups.get(waiter.namespace);
+            if (group == null) {
+                group = new Group(waiter.namespace);
+                groups.put(waiter.namespace, group);
+                created = true;
+            }
+            group.add(waiter);
+        }
+        if (created) {
+            group.open();
+        } else if (group.watch != null) {
+            waiter.start();
+        }
+    }
+
+    private synchronized void deregister(Waiter waiter) {
+        Group group = groups.get(waiter.namespace);
+        if (group != null && group.remove(waiter) && group.isEmpty()) {
+            groups.remove(waiter.namespace);
+            group.close();
+        }
+    }
+
+    /**
+     * The waiters in a single namespace, and the watch which notifies them.
+     */
+    private class Group implements Watcher<T> {
+        private final String namespace;
+        private final Map<String, Set<Waiter>> waitersByName = new ConcurrentHashMap<>();
+        private volatile Watch watch;
+        private volatile boolean closed = false;
+
+        Group(String namespace) {
+            this.namespace = namespace;
+        }
+
+        void add(Waiter waiter) {
+            waitersByName.computeIfAbsent(waiter.name, n -> ConcurrentHashMap.newKeySet()).add(waiter);
+        }
+
+        boolean remove(Waiter waiter) {
+            Set<Waiter> waiters = waitersByName.get(waiter.name);
+            boolean removed = waiters != null && waiters.remove(waiter);
+            if (waiters != null && waiters.isEmpty()) {
+                waitersByName.remove(waiter.name);
+            }
+            return removed;
+        }
+
+        boolean isEmpty() {
+            return waitersByName.isEmpty();
+        }
+
+        List<Waiter> waiters() {
+            List<Waiter> result = new ArrayList<>();
+            for (Set<Waiter> waiters : waitersByName.values()) {
+                result.addAll(waiters);
+            }
+            return result;
+        }
+
+        /**
+         * Asynchronously opens the watch and then starts the waiters.
+         */
+        void open() {
+            workerPool.<Watch>executeBlocking(
+                future -> {
+                    Watch w = watchFunction.apply(namespace, this);
+                    if (w != null) {
+                        future.complete(w);
+                    } else {
+                        future.fail("No watch");
+                    }
+                },
+                true,
+                res -> {
+                    if (res.succeeded()) {
+                        log.debug("Watching {} resources in namespace {} for {} waiters", resourceKind, namespace, waitersByName.size());
+                        watch = res.result();
+                        if (closed) {
+                            watch.close();
+                        } else {
+                            for (Waiter waiter : waiters()) {
+                                waiter.start();
+                            }
+                        }
+                    } else {
+                        log.debug("Failed to watch {} resources in namespace {}, polling instead", resourceKind, namespace, res.cause());
+                        failed();
+                    }
+                });
+        }
+
+        void close() {
+            closed = true;
+            if (watch != null) {
+                watch.close();
+            }
+        }
+
+        /**
+         * The watch could not be opened or was closed with an error, so this group is discarded.
+         * Its waiters fall back to polling if it was never opened, or are registered again (opening a new watch).
+         */
+        private void failed() {
+            boolean opened = watch != null;
+            synchronized (ResourceWaiters.this) {
+                if (groups.get(namespace) == this) {
+                    groups.remove(namespace);
+                }
+            }
+            closed = true;
+            for (Waiter waiter : waiters()) {
+                if (opened) {
+                    register(waiter);
+                } else {
+                    waiter.poll();
+                }
+            }
+        }
+
+        @Override
+        public void eventReceived(Action action, T resource) {
+            if (resource == null || resource.getMetadata() == null) {
+                return;
+            }
+            Set<Waiter> waiters = waitersByName.get(resource.getMetadata().getName());
+            if (waiters != null) {
+                log.trace("{} event for {} {} in namespace {}", action, resourceKind, resource.getMetadata().getName(), namespace);
+                for (Waiter waiter : waiters) {
+                    waiter.eventReceived(action, resource);
+                }
+            }
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            if (cause != null && !closed) {
+                log.debug("Watch of {} resources in namespace {} closed", resourceKind, namespace, cause);
+                failed();
+            }
+        }
+    }
+
+    /**
+     * A single call to {@link #waitFor(String, String, long, long, BiPredicate)}.
+     */
+    private class Waiter {
+        private final String namespace;
+        private final String name;
+        private final long pollIntervalMs;
+        private final long timeoutMs;
+        private final long deadlineMs;
+        private final BiPredicate<String, String> predicate;
+        private final Predicate<T> eventPredicate;
+        private final String logContext;
+        private final Context context;
+        private final Future<Void> result = Future.future();
+        private long timeoutTimer;
+        private long fallbackTimer = -1;
+        private boolean evaluating = false;
+        private boolean evaluateAgain = false;
+        private boolean done = false;
+
+        Waiter(String namespace, String name, long pollIntervalMs, long timeoutMs, BiPredicate<String, String> predicate,
+               Predicate<T> eventPredicate) {
+            this.namespace = namespace;
+            this.name = name;
+            this.pollIntervalMs = pollIntervalMs;
+            this.timeoutMs = timeoutMs;
+            this.deadlineMs = System.currentTimeMillis() + timeoutMs;
+            this.predicate = predicate;
+            this.eventPredicate = eventPredicate;
+            this.logContext = String.format("%s resource %s in namespace %s", resourceKind, name, namespace);
+            this.context = vertx.getOrCreateContext();
+        }
+
+        /**
+         * Starts waiting for events, with an initial and periodic fallback evaluation.
+         */
+        void start() {
+            synchronized (this) {
+                if (done || fallbackTimer != -1) {
+                    return;
+                }
+                fallbackTimer = vertx.setPeriodic(Math.max(1, pollIntervalMs * FALLBACK_POLL_FACTOR), id -> evaluate());
+            }
+            evaluate();
+        }
+
+        /**
+         * Tests the event predicate, if there is one, against the resource carried by the event,
+         * or otherwise evaluates the predicate.
+         * The resource carried by a deletion event is the last state of a resource which no longer exists,
+         * so it is not tested.
+         */
+        void eventReceived(Watcher.Action action, T resource) {
+            if (eventPredicate == null) {
+                evaluate();
+                return;
+            }
+            boolean ready;
+            try {
+                ready = action != Watcher.Action.DELETED && eventPredicate.test(resource);
+            } catch (RuntimeException e) {
+                log.warn("Caught exception while waiting for {} to get ready", logContext, e);
+                ready = false;
+            }
+            if (ready && finish()) {
+                log.debug("{} is ready", logContext);
+                context.runOnContext(v -> result.tryComplete());
+            }
+        }
+
+        /**
+         * Evaluates the predicate on a worker thread.
+         * If an evaluation is already in progress it is repeated once it completes.
+         */
+        void evaluate() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (evaluating) {
+                    evaluateAgain = true;
+                    return;
+                }
+                evaluating = true;
+            }
+            context.runOnContext(v -> workerPool.<Boolean>executeBlocking(
+                future -> {
+                    try {
+                        future.complete(predicate.test(namespace, name));
+                    } catch (Throwable e) {
+                        log.warn("Caught exception while waiting for {} to get ready", logContext, e);
+                        future.complete(false);
+                    }
+                },
+                false,
+                res -> {
+                    boolean again;
+                    synchronized (this) {
+                        evaluating = false;
+                        again = evaluateAgain;
+                        evaluateAgain = false;
+                    }
+                    if (res.succeeded() && res.result()) {
+                        log.debug("{} is ready", logContext);
+                        finish();
+                        result.tryComplete();
+                    } else {
+                        log.trace("{} is not ready", logContext);
+                        if (again) {
+                            evaluate();
+                        }
+                    }
+                }));
+        }
+
+        /**
+         * Polls instead of waiting for events, for what remains of the timeout.
+         */
+        void poll() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            vertx.cancelTimer(timeoutTimer);
+            long remainingMs = Math.max(1, deadlineMs - System.currentTimeMillis());
+            Util.waitFor(vertx, logContext, pollIntervalMs, remainingMs, () -> predicate.test(namespace, name)).setHandler(result);
+        }
+
+        void timedOut() {
+            if (finish()) {
+                String exceptionMessage = String.format("Exceeded timeout of %dms while waiting for %s to be ready", timeoutMs, logContext);
+                log.error(exceptionMessage);
+                result.tryFail(new TimeoutException(exceptionMessage));
+            }
+        }
+
+        /**
+         * @return true if this call finished the waiter, false if it had already finished.
+         */
+        private boolean finish() {
+            synchronized (this) {
+                if (done) {
+                    return false;
+                }
+                done = true;
+            }
+            vertx.cancelTimer(timeoutTimer);
+            if (fallbackTimer != -1) {
+                vertx.cancelTimer(fallbackTimer);
+            }
+            deregister(this);
+            return true;
+        }
+    }
+}
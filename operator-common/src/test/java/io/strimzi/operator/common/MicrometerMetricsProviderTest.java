@@ -0,0 +1,52 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MicrometerMetricsProviderTest {
+
+    @Test
+    public void testScrapeInPrometheusFormat() {
+        MetricsProvider metrics = new MicrometerMetricsProvider(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        Tags tags = Tags.of("kind", "Kafka");
+        AtomicInteger inFlight = new AtomicInteger(3);
+
+        metrics.counter("strimzi.reconciliations", "Number of reconciliations", tags).increment();
+        metrics.timer("strimzi.reconciliations.duration", "Duration of reconciliations", tags).record(2, TimeUnit.SECONDS);
+        metrics.gauge("strimzi.reconciliations.in.flight", "Reconciliations in flight", tags, inFlight::get);
+
+        String scrape = metrics.scrape();
+        assertThat(scrape, containsString("strimzi_reconciliations_total{kind=\"Kafka\",} 1.0"));
+        assertThat(scrape, containsString("strimzi_reconciliations_duration_seconds_count{kind=\"Kafka\",} 1.0"));
+        assertThat(scrape, containsString("strimzi_reconciliations_duration_seconds_bucket{kind=\"Kafka\",le=\"+Inf\",} 1.0"));
+        assertThat(scrape, containsString("strimzi_reconciliations_in_flight{kind=\"Kafka\",} 3.0"));
+    }
+
+    @Test
+    public void testMetersAreSharedByNameAndTags() {
+        MetricsProvider metrics = new MicrometerMetricsProvider(new SimpleMeterRegistry());
+        metrics.counter("strimzi.reconciliations", "Number of reconciliations", Tags.of("kind", "Kafka")).increment();
+        metrics.counter("strimzi.reconciliations", "Number of reconciliations", Tags.of("kind", "Kafka")).increment();
+        metrics.counter("strimzi.reconciliations", "Number of reconciliations", Tags.of("kind", "KafkaConnect")).increment();
+
+        assertThat(metrics.meterRegistry().get("strimzi.reconciliations").tags("kind", "Kafka").counter().count(), is(2.0));
+        assertThat(metrics.meterRegistry().get("strimzi.reconciliations").tags("kind", "KafkaConnect").counter().count(), is(1.0));
+        // Only a Prometheus registry can be scraped
+        assertThat(metrics.scrape(), is(nullValue()));
+    }
+}
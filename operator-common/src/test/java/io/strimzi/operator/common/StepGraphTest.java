@@ -0,0 +1,114 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(VertxExtension.class)
+public class StepGraphTest {
+
+    private final Reconciliation reconciliation = new Reconciliation("test", "Test", "ns", "foo");
+
+    /**
+     * Records which steps have started and lets the test complete them.
+     */
+    private static class Steps {
+        private final List<String> started = new CopyOnWriteArrayList<>();
+        private final Map<String, Future<List<String>>> running = new ConcurrentHashMap<>();
+
+        Function<List<String>, Future<List<String>>> step(String name) {
+            return state -> {
+                started.add(name);
+                Future<List<String>> f = Future.future();
+                running.put(name, f);
+                return f.map(v -> {
+                    state.add(name);
+                    return state;
+                });
+            };
+        }
+
+        void complete(String name) {
+            running.get(name).complete();
+        }
+    }
+
+    @Test
+    public void testIndependentStepsRunConcurrently(VertxTestContext context) {
+        MetricsProvider metrics = new MicrometerMetricsProvider(new SimpleMeterRegistry());
+        Steps steps = new Steps();
+        StepGraph<List<String>> graph = new StepGraph<List<String>>(metrics)
+                .step("a", steps.step("a"))
+                .step("b", steps.step("b"), "a")
+                .step("c", steps.step("c"), "a")
+                .step("d", steps.step("d"), "b", "c");
+
+        List<String> state = new CopyOnWriteArrayList<>();
+        Future<List<String>> result = graph.execute(reconciliation, state);
+
+        context.verify(() -> assertThat(steps.started, is(asList("a"))));
+        steps.complete("a");
+        context.verify(() -> assertThat(steps.started, is(asList("a", "b", "c"))));
+        steps.complete("c");
+        // d still waits for b
+        context.verify(() -> assertThat(steps.started, is(asList("a", "b", "c"))));
+        steps.complete("b");
+        context.verify(() -> assertThat(steps.started, is(asList("a", "b", "c", "d"))));
+        steps.complete("d");
+
+        result.setHandler(context.succeeding(s -> context.verify(() -> {
+            assertThat(s, is(asList("a", "c", "b", "d")));
+            assertThat(metrics.meterRegistry().get("strimzi.reconciliations.step.duration")
+                    .tags("kind", "Test", "step", "d").timer().count(), is(1L));
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    public void testFailureStopsFurtherSteps(VertxTestContext context) {
+        Steps steps = new Steps();
+        StepGraph<List<String>> graph = new StepGraph<List<String>>(new MicrometerMetricsProvider(new SimpleMeterRegistry()))
+                .step("a", steps.step("a"))
+                .step("b", s -> Future.failedFuture("boom"))
+                .step("c", steps.step("c"), "a", "b");
+
+        Future<List<String>> result = graph.execute(reconciliation, new CopyOnWriteArrayList<>());
+        // The execution waits for the running step before failing
+        context.verify(() -> assertThat(result.isComplete(), is(false)));
+        steps.complete("a");
+
+        result.setHandler(context.failing(e -> context.verify(() -> {
+            assertThat(e.getMessage(), is("boom"));
+            assertThat(steps.started, is(asList("a")));
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    public void testDependenciesMustExist() {
+        StepGraph<Void> graph = new StepGraph<Void>(new MicrometerMetricsProvider(new SimpleMeterRegistry()))
+                .step("a", s -> Future.succeededFuture());
+
+        assertThrows(IllegalArgumentException.class, () -> graph.step("b", s -> Future.succeededFuture(), "c"));
+        assertThrows(IllegalArgumentException.class, () -> graph.step("a", s -> Future.succeededFuture()));
+        assertThat(graph.steps(), is(asList("a")));
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+@ExtendWith(VertxExtension.class)
+public class WorkQueueTest {
+
+    private Vertx vertx;
+
+    @BeforeEach
+    public void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    public void after() {
+        vertx.close();
+    }
+
+    private static Reconciliation reconciliation(String trigger, String name) {
+        return new Reconciliation(trigger, "Test", "ns", name);
+    }
+
+    private static Reconciliation urgentReconciliation(String trigger, String name) {
+        return new Reconciliation(trigger, "Test", "ns", name, true);
+    }
+
+    @Test
+    public void testEventsForRunningKeyAreCoalesced(VertxTestContext context) {
+        List<String> runs = new CopyOnWriteArrayList<>();
+        List<Future<Void>> running = new CopyOnWriteArrayList<>();
+        WorkQueue queue = new WorkQueue(vertx, "test", r -> {
+            runs.add(r.trigger());
+            Future<Void> f = Future.future();
+            running.add(f);
+            return f;
+        });
+
+        Future<Void> first = queue.enqueue(reconciliation("a", "foo"));
+        List<Future> followUps = new ArrayList<>();
+        followUps.add(queue.enqueue(reconciliation("b", "foo")));
+        followUps.add(queue.enqueue(reconciliation("c", "foo")));
+        followUps.add(queue.enqueue(reconciliation("d", "foo")));
+
+        context.verify(() -> {
+            assertThat(runs, is(singletonList("a")));
+            assertThat(queue.running(), is(1));
+            assertThat(queue.size(), is(1));
+        });
+
+        Checkpoint async = context.checkpoint();
+        running.get(0).complete();
+        first.setHandler(context.succeeding(v -> {
+            vertx.setTimer(50, t -> {
+                context.verify(() -> {
+                    // Only the most recent of the coalesced reconciliations runs
+                    assertThat(runs.size(), is(2));
+                    assertThat(runs.get(1), is("d"));
+                });
+                running.get(1).complete();
+                CompositeFuture.all(followUps).setHandler(context.succeeding(cf -> {
+                    context.verify(() -> {
+                        assertThat(runs.size(), is(2));
+                        assertThat(queue.running(), is(0));
+                        assertThat(queue.size(), is(0));
+                    });
+                    async.flag();
+                }));
+            });
+        }));
+    }
+
+    @Test
+    public void testDifferentKeysRunConcurrently(VertxTestContext context) {
+        List<String> runs = new CopyOnWriteArrayList<>();
+        WorkQueue queue = new WorkQueue(vertx, "test", r -> {
+            runs.add(r.name());
+            return Future.future();
+        });
+
+        queue.enqueue(reconciliation("a", "foo"));
+        queue.enqueue(reconciliation("a", "bar"));
+
+        context.verify(() -> {
+            assertThat(runs.size(), is(2));
+            assertThat(queue.running(), is(2));
+        });
+        context.completeNow();
+    }
+
+    @Test
+    public void testFailureBacksOffNextRun(VertxTestContext context) {
+        List<Long> startTimes = new CopyOnWriteArrayList<>();
+        WorkQueue queue = new WorkQueue(vertx, "test", r -> {
+            startTimes.add(System.currentTimeMillis());
+            return Future.failedFuture("boom");
+        }, 0, 1, 200, 1_000, 10);
+
+        Checkpoint async = context.checkpoint();
+        queue.enqueue(reconciliation("a", "foo")).setHandler(context.failing(e1 -> {
+            queue.enqueue(reconciliation("b", "foo")).setHandler(context.failing(e2 -> {
+                context.verify(() -> assertThat(startTimes.get(1) - startTimes.get(0), greaterThanOrEqualTo(190L)));
+                async.flag();
+            }));
+        }));
+    }
+
+    @Test
+    public void testFailedKeyIsForgottenOnceItsBackOffExpires(VertxTestContext context) {
+        WorkQueue queue = new WorkQueue(vertx, "test", r -> Future.failedFuture("boom"), 0, 1, 50, 1_000, 10);
+
+        Checkpoint async = context.checkpoint();
+        queue.enqueue(reconciliation("a", "foo")).setHandler(context.failing(e -> {
+            // The key is kept while it's backing off, so that a further failure backs off for longer
+            context.verify(() -> assertThat(queue.keys(), is(1)));
+            vertx.setTimer(200, timerId -> {
+                context.verify(() -> assertThat(queue.keys(), is(0)));
+                async.flag();
+            });
+        }));
+    }
+
+    @Test
+    public void testRateLimit(VertxTestContext context) {
+        List<Long> startTimes = new CopyOnWriteArrayList<>();
+        WorkQueue queue = new WorkQueue(vertx, "test", r -> {
+            startTimes.add(System.currentTimeMillis());
+            return Future.succeededFuture();
+        }, 10, 1, 200, 1_000, 10);
+
+        List<Future> futures = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 4; i++) {
+            futures.add(queue.enqueue(reconciliation("a", "foo" + i)));
+        }
+
+        Checkpoint async = context.checkpoint();
+        CompositeFuture.all(futures).setHandler(context.succeeding(v -> {
+            context.verify(() -> {
+                assertThat(startTimes.size(), is(4));
+                // One token in the bucket, then 10 per second
+                assertThat(startTimes.get(3) - start, greaterThanOrEqualTo(250L));
+            });
+            async.flag();
+        }));
+    }
+
+    @Test
+    public void testMaxInFlightAndWatchPriority(VertxTestContext context) {
+        List<String> runs = new CopyOnWriteArrayList<>();
+        List<Future<Void>> running = new CopyOnWriteArrayList<>();
+        WorkQueue queue = new WorkQueue(vertx, "test", r -> {
+            runs.add(r.name());
+            Future<Void> f = Future.future();
+            running.add(f);
+            return f;
+        }, 2);
+
+        queue.enqueue(reconciliation("timer", "a"));
+        queue.enqueue(reconciliation("timer", "b"));
+        queue.enqueue(reconciliation("timer", "c"));
+        queue.enqueue(reconciliation("timer", "d"));
+        queue.enqueue(urgentReconciliation("watch", "e"));
+        // An urgent reconciliation of a key waiting in the periodic lane promotes it
+        queue.enqueue(urgentReconciliation("watch", "d"));
+
+        context.verify(() -> {
+            assertThat(runs, is(asList("a", "b")));
+            assertThat(queue.running(), is(2));
+            assertThat(queue.size(), is(3));
+        });
+
+        running.get(0).complete();
+        running.get(1).complete();
+        context.verify(() -> {
+            assertThat(runs, is(asList("a", "b", "e", "d")));
+            assertThat(queue.running(), is(2));
+        });
+
+        running.get(2).complete();
+        context.verify(() -> assertThat(runs, is(asList("a", "b", "e", "d", "c"))));
+        context.completeNow();
+    }
+
+    @Test
+    public void testPausedQueueRunsNothingUntilResumed(VertxTestContext context) {
+        List<String> runs = new CopyOnWriteArrayList<>();
+        WorkQueue queue = new WorkQueue(vertx, "test", r -> {
+            runs.add(r.name() + ":" + r.trigger());
+            return Future.succeededFuture();
+        });
+
+        queue.pause();
+        Future<Void> foo = queue.enqueue(reconciliation("a", "foo"));
+        queue.enqueue(reconciliation("b", "foo"));
+        Future<Void> bar = queue.enqueue(reconciliation("c", "bar"));
+
+        Checkpoint async = context.checkpoint();
+        vertx.setTimer(50, t -> {
+            context.verify(() -> {
+                assertThat(runs.isEmpty(), is(true));
+                assertThat(queue.size(), is(2));
+            });
+            queue.resume();
+            CompositeFuture.all(foo, bar).setHandler(context.succeeding(v -> context.verify(() -> {
+                // The reconciliations enqueued while paused were coalesced as usual
+                assertThat(runs, is(asList("foo:b", "bar:c")));
+                async.flag();
+            })));
+        });
+    }
+
+    @Test
+    public void testForgottenNamespaceDropsQueuedAndWaitsForRunning(VertxTestContext context) {
+        List<String> runs = new CopyOnWriteArrayList<>();
+        Future<Void> running = Future.future();
+        WorkQueue queue = new WorkQueue(vertx, "test", r -> {
+            runs.add(r.namespace() + "/" + r.name() + ":" + r.trigger());
+            return "a".equals(r.trigger()) ? running : Future.succeededFuture();
+        });
+
+        queue.enqueue(new Reconciliation("a", "Test", "ns", "foo"));
+        // Queued behind the running reconciliation of the same key
+        Future<Void> follower = queue.enqueue(new Reconciliation("b", "Test", "ns", "foo"));
+        queue.pause();
+        Future<Void> waiting = queue.enqueue(new Reconciliation("c", "Test", "ns", "bar"));
+        Future<Void> other = queue.enqueue(new Reconciliation("d", "Test", "other", "bar"));
+
+        Future<Void> forgotten = queue.forgetNamespace("ns");
+        context.verify(() -> {
+            assertThat(follower.failed(), is(true));
+            assertThat(waiting.failed(), is(true));
+            // Until the running reconciliation finishes
+            assertThat(forgotten.isComplete(), is(false));
+            assertThat(queue.size(), is(1));
+        });
+        running.complete();
+        Checkpoint async = context.checkpoint();
+        forgotten.compose(v -> {
+            queue.resume();
+            return other;
+        }).setHandler(context.succeeding(v -> context.verify(() -> {
+            // Only the reconciliation of the other namespace ran after the running one
+            assertThat(runs, is(asList("ns/foo:a", "other/bar:d")));
+            assertThat(queue.keys(), is(0));
+            async.flag();
+        })));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WorkerPoolsTest {
+
+    private Vertx vertx;
+
+    @BeforeEach
+    public void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    public void after() {
+        vertx.close();
+    }
+
+    @Test
+    public void testExecutorsAreSharedPerPool() {
+        WorkerExecutor kubernetes = WorkerPools.executor(vertx, WorkerPool.KUBERNETES);
+        assertThat(WorkerPools.executor(vertx, WorkerPool.KUBERNETES), is(sameInstance(kubernetes)));
+        assertThat(WorkerPools.executor(vertx, WorkerPool.ZOOKEEPER), is(not(sameInstance(kubernetes))));
+    }
+
+    @Test
+    public void testConfiguredPoolSize() throws InterruptedException {
+        WorkerPools.configure(vertx, singletonMap("STRIMZI_PROCESS_WORKER_POOL_SIZE", "1"));
+
+        // With a single thread the second task only starts when the first has finished
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            WorkerPools.executor(vertx, WorkerPool.PROCESS).executeBlocking(future -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                future.complete();
+            }, false, ar -> done.countDown());
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(maxRunning.get(), is(1));
+    }
+
+    @Test
+    public void testConfigureAfterUseKeepsTheExistingPools() {
+        WorkerExecutor kubernetes = WorkerPools.executor(vertx, WorkerPool.KUBERNETES);
+        WorkerPools.configure(vertx, singletonMap("STRIMZI_KUBERNETES_WORKER_POOL_SIZE", "1"));
+        assertThat(WorkerPools.executor(vertx, WorkerPool.KUBERNETES), is(sameInstance(kubernetes)));
+    }
+
+    @Test
+    public void testInvalidPoolSize() {
+        assertThrows(InvalidConfigurationException.class,
+            () -> WorkerPools.configure(vertx, singletonMap("STRIMZI_ZOOKEEPER_WORKER_POOL_SIZE", "0")));
+    }
+}
@@ -4,6 +4,7 @@
  */
 package io.strimzi.operator.common.operator.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -12,6 +13,7 @@ import io.fabric8.kubernetes.client.dsl.EditReplacePatchDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.Annotations;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.junit5.Checkpoint;
@@ -22,14 +24,23 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -321,4 +332,76 @@ public abstract class AbstractResourceOperatorTest<C extends KubernetesClient, T
             async.flag();
         });
     }
+
+    @Test
+    public void unchangedResourceIsNotPatched(VertxTestContext context) {
+        T desired = resource();
+        AtomicReference<T> live = new AtomicReference<>(copy(desired));
+        live.get().getMetadata().setResourceVersion("1");
+        live.get().getMetadata().setLabels(singletonMap("modified", "1"));
+
+        Resource mockResource = mock(resourceType());
+        when(mockResource.get()).thenAnswer(invocation -> live.get());
+        when(mockResource.cascading(anyBoolean())).thenReturn(mockResource);
+        when(mockResource.patch(any())).thenAnswer(invocation -> {
+            T patched = copy(invocation.getArgument(0));
+            patched.getMetadata().setResourceVersion(String.valueOf(Integer.parseInt(live.get().getMetadata().getResourceVersion()) + 1));
+            live.set(patched);
+            return patched;
+        });
+
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(RESOURCE_NAME)).thenReturn(mockResource);
+        MixedOperation mockCms = mock(MixedOperation.class);
+        when(mockCms.inNamespace(NAMESPACE)).thenReturn(mockNameable);
+        C mockClient = mock(clientType());
+        mocker(mockClient, mockCms);
+
+        AbstractResourceOperator<C, T, L, D, R> op = createResourceOperations(vertx, mockClient);
+
+        Checkpoint async = context.checkpoint();
+        // The first reconciliation has to patch, because the resource wasn't written by this operator yet
+        op.reconcile(NAMESPACE, RESOURCE_NAME, copy(desired)).compose(rr1 -> {
+            context.verify(() -> {
+                assertThat(Annotations.stringAnnotation(live.get(), Annotations.ANNO_STRIMZI_IO_DESIRED_HASH, null), is(notNullValue()));
+                verify(mockResource, times(1)).patch(any());
+                assertThat(op.writtenResourceVersionsSize(), is(1));
+            });
+            return op.reconcile(NAMESPACE, RESOURCE_NAME, copy(desired));
+        }).compose(rr2 -> {
+            // Nothing changed, so there's no patch
+            context.verify(() -> {
+                assertThat(rr2, instanceOf(ReconcileResult.Noop.class));
+                verify(mockResource, times(1)).patch(any());
+            });
+            // Someone else modifies the resource
+            live.get().getMetadata().setResourceVersion("10");
+            live.get().getMetadata().setLabels(singletonMap("modified", "10"));
+            return op.reconcile(NAMESPACE, RESOURCE_NAME, copy(desired));
+        }).compose(rr3 -> {
+            context.verify(() -> verify(mockResource, times(2)).patch(any()));
+            // The desired state changes
+            T changed = copy(desired);
+            changed.getMetadata().setLabels(singletonMap("changed", "true"));
+            return op.reconcile(NAMESPACE, RESOURCE_NAME, changed);
+        }).compose(rr4 -> {
+            context.verify(() -> verify(mockResource, times(3)).patch(any()));
+            // Someone else deletes the resource, after which its resource version is forgotten
+            live.set(null);
+            return op.reconcile(NAMESPACE, RESOURCE_NAME, null);
+        }).setHandler(context.succeeding(rr5 -> {
+            context.verify(() -> assertThat(op.writtenResourceVersionsSize(), is(0)));
+            async.flag();
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T copy(T resource) {
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            return (T) mapper.readValue(mapper.writeValueAsBytes(resource), resource.getClass());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
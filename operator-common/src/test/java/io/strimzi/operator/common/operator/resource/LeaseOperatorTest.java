@@ -0,0 +1,198 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.model.DoneableLease;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.Lease;
+import io.strimzi.operator.common.model.LeaseList;
+import io.strimzi.operator.common.model.LeaseSpec;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LeaseOperatorTest extends AbstractResourceOperatorTest<KubernetesClient, Lease, LeaseList, DoneableLease, Resource<Lease, DoneableLease>> {
+
+    private static final Instant NOW = Instant.parse("2019-11-01T10:00:00Z");
+
+    @Override
+    protected Class<KubernetesClient> clientType() {
+        return KubernetesClient.class;
+    }
+
+    @Override
+    protected Class<? extends Resource> resourceType() {
+        return Resource.class;
+    }
+
+    @Override
+    protected Lease resource() {
+        return lease("other", "2019-11-01T09:59:55.000000Z", "1");
+    }
+
+    private static Lease lease(String holder, String renewTime, String resourceVersion) {
+        LeaseSpec spec = new LeaseSpec();
+        spec.setHolderIdentity(holder);
+        spec.setLeaseDurationSeconds(15);
+        spec.setAcquireTime(renewTime);
+        spec.setRenewTime(renewTime);
+        spec.setLeaseTransitions(0);
+        Lease lease = new Lease();
+        lease.setMetadata(new ObjectMetaBuilder()
+                .withName(RESOURCE_NAME)
+                .withNamespace(NAMESPACE)
+                .withResourceVersion(resourceVersion)
+                .build());
+        lease.setSpec(spec);
+        return lease;
+    }
+
+    @Override
+    protected void mocker(KubernetesClient mockClient, MixedOperation op) {
+        when(mockClient.customResources(any(), any(), any(), any())).thenReturn(op);
+    }
+
+    @Override
+    protected LeaseOperator createResourceOperations(Vertx vertx, KubernetesClient mockClient) {
+        return new LeaseOperator(vertx, mockClient) {
+            @Override
+            protected Instant now() {
+                return NOW;
+            }
+        };
+    }
+
+    /**
+     * Mocks the client so that the lease named {@link #RESOURCE_NAME} is read from and written to {@code live}.
+     */
+    private Resource mockLease(KubernetesClient mockClient, AtomicReference<Lease> live) {
+        Resource mockResource = mock(resourceType());
+        when(mockResource.get()).thenAnswer(invocation -> live.get());
+        when(mockResource.lockResourceVersion(anyString())).thenReturn(mockResource);
+        when(mockResource.replace(any())).thenAnswer(invocation -> {
+            live.set(invocation.getArgument(0));
+            return live.get();
+        });
+        when(mockResource.create(any())).thenAnswer(invocation -> {
+            live.set(invocation.getArgument(0));
+            return live.get();
+        });
+
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(RESOURCE_NAME)).thenReturn(mockResource);
+        MixedOperation mockCms = mock(MixedOperation.class);
+        when(mockCms.inNamespace(NAMESPACE)).thenReturn(mockNameable);
+        mocker(mockClient, mockCms);
+        return mockResource;
+    }
+
+    @Test
+    public void testAbsentLeaseIsCreated(VertxTestContext context) {
+        AtomicReference<Lease> live = new AtomicReference<>();
+        KubernetesClient mockClient = mock(clientType());
+        mockLease(mockClient, live);
+        LeaseOperator op = createResourceOperations(vertx, mockClient);
+
+        op.tryAcquireOrRenew(NAMESPACE, RESOURCE_NAME, "me", 15_000, Labels.forKind("test")).setHandler(context.succeeding(acquired -> context.verify(() -> {
+            assertThat(acquired, is(true));
+            assertThat(live.get().getSpec().getHolderIdentity(), is("me"));
+            assertThat(live.get().getSpec().getLeaseDurationSeconds(), is(15));
+            assertThat(live.get().getSpec().getRenewTime(), is("2019-11-01T10:00:00.000000Z"));
+            assertThat(live.get().getMetadata().getLabels().get(Labels.STRIMZI_KIND_LABEL), is("test"));
+            assertThat(op.isHeldBy(live.get(), "me"), is(true));
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    public void testLeaseHeldBySomeoneElseIsNotAcquired(VertxTestContext context) {
+        AtomicReference<Lease> live = new AtomicReference<>(lease("other", "2019-11-01T09:59:55.000000Z", "1"));
+        KubernetesClient mockClient = mock(clientType());
+        Resource mockResource = mockLease(mockClient, live);
+        LeaseOperator op = createResourceOperations(vertx, mockClient);
+
+        op.tryAcquireOrRenew(NAMESPACE, RESOURCE_NAME, "me", 15_000, Labels.EMPTY).setHandler(context.succeeding(acquired -> context.verify(() -> {
+            assertThat(acquired, is(false));
+            assertThat(live.get().getSpec().getHolderIdentity(), is("other"));
+            verify(mockResource, never()).replace(any());
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    public void testExpiredLeaseIsTakenOver(VertxTestContext context) {
+        AtomicReference<Lease> live = new AtomicReference<>(lease("other", "2019-11-01T09:59:00.000000Z", "1"));
+        KubernetesClient mockClient = mock(clientType());
+        Resource mockResource = mockLease(mockClient, live);
+        LeaseOperator op = createResourceOperations(vertx, mockClient);
+
+        op.tryAcquireOrRenew(NAMESPACE, RESOURCE_NAME, "me", 15_000, Labels.EMPTY).setHandler(context.succeeding(acquired -> context.verify(() -> {
+            assertThat(acquired, is(true));
+            assertThat(live.get().getSpec().getHolderIdentity(), is("me"));
+            assertThat(live.get().getSpec().getLeaseTransitions(), is(1));
+            assertThat(live.get().getSpec().getAcquireTime(), is("2019-11-01T10:00:00.000000Z"));
+            verify(mockResource).lockResourceVersion("1");
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    public void testConcurrentTakeOverIsNotAcquired(VertxTestContext context) {
+        AtomicReference<Lease> live = new AtomicReference<>(lease("other", "2019-11-01T09:59:00.000000Z", "1"));
+        KubernetesClient mockClient = mock(clientType());
+        Resource mockResource = mockLease(mockClient, live);
+        doThrow(new KubernetesClientException("Conflict", 409, null)).when(mockResource).replace(any());
+        LeaseOperator op = createResourceOperations(vertx, mockClient);
+
+        op.tryAcquireOrRenew(NAMESPACE, RESOURCE_NAME, "me", 15_000, Labels.EMPTY).setHandler(context.succeeding(acquired -> context.verify(() -> {
+            assertThat(acquired, is(false));
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    public void testLeaseIsHeldForTheClockSkewAfterItsDuration() {
+        LeaseOperator op = createResourceOperations(vertx, mock(clientType()));
+
+        // Renewed 16s ago, with a 15s duration
+        assertThat(op.isHeld(lease("other", "2019-11-01T09:59:44.000000Z", "1")), is(true));
+        // Renewed more than the duration and the skew ago
+        assertThat(op.isHeld(lease("other", "2019-11-01T09:59:42.000000Z", "1")), is(false));
+    }
+
+    @Test
+    public void testReleasedLeaseIsNotHeld(VertxTestContext context) {
+        AtomicReference<Lease> live = new AtomicReference<>(lease("me", "2019-11-01T09:59:55.000000Z", "1"));
+        KubernetesClient mockClient = mock(clientType());
+        mockLease(mockClient, live);
+        LeaseOperator op = createResourceOperations(vertx, mockClient);
+
+        op.release(NAMESPACE, RESOURCE_NAME, "me").setHandler(context.succeeding(v -> context.verify(() -> {
+            assertThat(live.get().getSpec().getHolderIdentity(), is(nullValue()));
+            assertThat(op.isHeld(live.get()), is(false));
+            context.completeNow();
+        })));
+    }
+}
@@ -19,6 +19,7 @@ import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.junit5.Checkpoint;
 import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
 
 import static java.util.Collections.singletonMap;
 import static org.hamcrest.CoreMatchers.is;
@@ -107,4 +108,11 @@ public class PodDisruptionBudgetOperatorTest extends AbstractResourceOperatorTes
             async.flag();
         });
     }
+
+    @Override
+    @Test
+    public void unchangedResourceIsNotPatched(VertxTestContext context) {
+        // PodDisruptionBudgets are recreated rather than patched, so there is nothing to skip
+        context.completeNow();
+    }
 }
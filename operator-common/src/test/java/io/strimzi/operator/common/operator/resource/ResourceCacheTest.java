@@ -0,0 +1,202 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.ConfigMapList;
+import io.fabric8.kubernetes.api.model.ConfigMapListBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.Watchable;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResourceCacheTest {
+
+    private Vertx vertx;
+    private WorkerExecutor workerPool;
+
+    @BeforeEach
+    public void before() {
+        vertx = Vertx.vertx();
+        workerPool = vertx.createSharedWorkerExecutor("resource-cache-test");
+    }
+
+    @AfterEach
+    public void after() {
+        vertx.close();
+    }
+
+    private static ConfigMap configMap(String namespace, String name, String resourceVersion, Map<String, String> labels) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withNamespace(namespace)
+                    .withName(name)
+                    .withResourceVersion(resourceVersion)
+                    .withLabels(labels)
+                .endMetadata()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FilterWatchListDeletable<ConfigMap, ConfigMapList, Boolean, Watch, Watcher<ConfigMap>> mockOperation(ConfigMap... items) {
+        FilterWatchListDeletable<ConfigMap, ConfigMapList, Boolean, Watch, Watcher<ConfigMap>> op = mock(FilterWatchListDeletable.class);
+        when(op.list()).thenReturn(new ConfigMapListBuilder()
+                .withNewMetadata().withResourceVersion("10").endMetadata()
+                .withItems(items)
+                .build());
+        Watchable<Watch, Watcher<ConfigMap>> watchable = mock(Watchable.class);
+        when(watchable.watch(any(Watcher.class))).thenReturn(mock(Watch.class));
+        when(op.withResourceVersion(any(String.class))).thenReturn(watchable);
+        return op;
+    }
+
+    @Test
+    public void testStartListsAndWatchesFromListResourceVersion() {
+        FilterWatchListDeletable<ConfigMap, ConfigMapList, Boolean, Watch, Watcher<ConfigMap>> op = mockOperation(
+                configMap("ns", "a", "5", singletonMap("app", "x")),
+                configMap("ns", "b", "6", singletonMap("app", "y")));
+        ResourceCache<ConfigMap, ConfigMapList> cache = new ResourceCache<>("ConfigMap", "ns", () -> op, vertx, workerPool);
+
+        assertThat(cache.isSynced(), is(false));
+        cache.start();
+        assertThat(cache.isSynced(), is(true));
+        verify(op).withResourceVersion(eq("10"));
+
+        assertThat(cache.get("ns", "a").getMetadata().getResourceVersion(), is("5"));
+        assertThat(cache.get("ns", "c"), is(nullValue()));
+        assertThat(cache.list("ns", null).size(), is(2));
+        assertThat(cache.list("ns", singletonMap("app", "y")).get(0).getMetadata().getName(), is("b"));
+        assertThat(cache.list("other", null).size(), is(0));
+    }
+
+    @Test
+    public void testWatchEventsUpdateIndices() {
+        ResourceCache<ConfigMap, ConfigMapList> cache = new ResourceCache<>("ConfigMap", "*", () -> mockOperation(), vertx, workerPool);
+        cache.start();
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put("app", "x");
+        labels.put("tier", "1");
+        cache.eventReceived(Watcher.Action.ADDED, configMap("ns1", "a", "11", labels));
+        cache.eventReceived(Watcher.Action.ADDED, configMap("ns2", "a", "12", singletonMap("app", "x")));
+
+        assertThat(cache.list("*", singletonMap("app", "x")).size(), is(2));
+        assertThat(cache.list("ns1", singletonMap("app", "x")).size(), is(1));
+        assertThat(cache.list("*", labels).size(), is(1));
+
+        // A label change must be reflected in the label index
+        cache.eventReceived(Watcher.Action.MODIFIED, configMap("ns1", "a", "13", singletonMap("app", "z")));
+        assertThat(cache.list("*", singletonMap("app", "x")).size(), is(1));
+        assertThat(cache.list("*", singletonMap("app", "z")).size(), is(1));
+
+        cache.eventReceived(Watcher.Action.DELETED, configMap("ns1", "a", "14", singletonMap("app", "z")));
+        assertThat(cache.get("ns1", "a"), is(nullValue()));
+        assertThat(cache.list("*", singletonMap("app", "z")).size(), is(0));
+    }
+
+    @Test
+    public void testOptimisticUpdateIgnoresStaleVersions() {
+        ResourceCache<ConfigMap, ConfigMapList> cache = new ResourceCache<>("ConfigMap", "ns", () -> mockOperation(), vertx, workerPool);
+        cache.start();
+
+        cache.put(configMap("ns", "a", "20", null));
+        cache.eventReceived(Watcher.Action.MODIFIED, configMap("ns", "a", "19", null));
+        assertThat(cache.get("ns", "a").getMetadata().getResourceVersion(), is("20"));
+
+        cache.eventReceived(Watcher.Action.MODIFIED, configMap("ns", "a", "21", null));
+        assertThat(cache.get("ns", "a").getMetadata().getResourceVersion(), is("21"));
+    }
+
+    @Test
+    public void testReadsAndPutsAreCopies() {
+        ResourceCache<ConfigMap, ConfigMapList> cache = new ResourceCache<>("ConfigMap", "ns", () -> mockOperation(
+                configMap("ns", "a", "5", singletonMap("app", "x"))), vertx, workerPool);
+        cache.start();
+
+        // Mutating a read resource doesn't change the cached one
+        cache.get("ns", "a").getMetadata().getLabels().put("app", "y");
+        cache.list("ns", null).get(0).getMetadata().setResourceVersion("6");
+        assertThat(cache.get("ns", "a").getMetadata().getLabels(), is(singletonMap("app", "x")));
+        assertThat(cache.get("ns", "a").getMetadata().getResourceVersion(), is("5"));
+        assertThat(cache.list("ns", singletonMap("app", "y")).size(), is(0));
+
+        // Nor does mutating a resource after putting it
+        Map<String, String> labels = new HashMap<>(singletonMap("app", "x"));
+        ConfigMap written = configMap("ns", "b", "7", labels);
+        cache.put(written);
+        written.getMetadata().getLabels().put("app", "y");
+        assertThat(cache.get("ns", "b").getMetadata().getLabels(), is(singletonMap("app", "x")));
+    }
+
+    @Test
+    public void testResyncOnWatchError() throws InterruptedException {
+        FilterWatchListDeletable<ConfigMap, ConfigMapList, Boolean, Watch, Watcher<ConfigMap>> op = mockOperation(
+                configMap("ns", "a", "5", null));
+        ResourceCache<ConfigMap, ConfigMapList> cache = new ResourceCache<>("ConfigMap", "ns", () -> op, vertx, workerPool);
+        cache.start();
+
+        cache.onClose(new KubernetesClientException("too old resource version"));
+        verify(op, timeout(5_000).times(2)).list();
+        waitUntilSynced(cache);
+
+        cache.close();
+        assertThat(cache.isSynced(), is(false));
+        cache.onClose(new KubernetesClientException("closed"));
+        Thread.sleep(100);
+        verify(op, times(2)).list();
+    }
+
+    @Test
+    public void testResyncIsRetriedUntilItSucceeds() throws InterruptedException {
+        FilterWatchListDeletable<ConfigMap, ConfigMapList, Boolean, Watch, Watcher<ConfigMap>> op = mockOperation(
+                configMap("ns", "a", "5", null));
+        ConfigMapList list = op.list();
+        ResourceCache<ConfigMap, ConfigMapList> cache = new ResourceCache<>("ConfigMap", "ns", () -> op, vertx, workerPool, 10, 40);
+        cache.start();
+
+        when(op.list())
+                .thenThrow(new KubernetesClientException("unavailable"))
+                .thenThrow(new KubernetesClientException("unavailable"))
+                .thenThrow(new KubernetesClientException("unavailable"))
+                .thenReturn(list);
+        cache.onClose(new KubernetesClientException("too old resource version"));
+        assertThat(cache.isSynced(), is(false));
+        waitUntilSynced(cache);
+        // The list call above, the initial sync, three failures and the success
+        verify(op, times(6)).list();
+        assertThat(cache.get("ns", "a").getMetadata().getResourceVersion(), is("5"));
+    }
+
+    private static void waitUntilSynced(ResourceCache<?, ?> cache) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!cache.isSynced() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.isSynced(), is(true));
+    }
+}
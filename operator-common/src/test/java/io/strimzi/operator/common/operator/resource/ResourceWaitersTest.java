@@ -0,0 +1,175 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.strimzi.operator.common.WorkerPool;
+import io.strimzi.operator.common.WorkerPools;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(VertxExtension.class)
+public class ResourceWaitersTest {
+
+    private static Vertx vertx;
+
+    @BeforeAll
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterAll
+    public static void after() {
+        vertx.close();
+    }
+
+    private static ConfigMap configMap(String name) {
+        return new ConfigMapBuilder().withNewMetadata().withNamespace("ns").withName(name).endMetadata().build();
+    }
+
+    /**
+     * Records the watchers opened by the waiters, and the number of watches opened per namespace.
+     */
+    private static class Watches {
+        private final Map<String, Watcher<ConfigMap>> watchers = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> opened = new ConcurrentHashMap<>();
+        private final Watch watch = mock(Watch.class);
+        private final CountDownLatch openLatch = new CountDownLatch(1);
+
+        Watch open(String namespace, Watcher<ConfigMap> watcher) {
+            watchers.put(namespace, watcher);
+            opened.computeIfAbsent(namespace, ns -> new AtomicInteger()).incrementAndGet();
+            openLatch.countDown();
+            return watch;
+        }
+    }
+
+    @Test
+    public void testWaitersAreCompletedByWatchEvents(VertxTestContext context) throws InterruptedException {
+        Watches watches = new Watches();
+        ResourceWaiters<ConfigMap> waiters = new ResourceWaiters<>(vertx, WorkerPools.executor(vertx, WorkerPool.KUBERNETES), "ConfigMap", watches::open);
+        Set<String> ready = ConcurrentHashMap.newKeySet();
+
+        // A poll interval so long that only the events can make the waiters ready
+        Future<Void> a = waiters.waitFor("ns", "a", 60_000, 10_000, (ns, name) -> ready.contains(name));
+        Future<Void> b = waiters.waitFor("ns", "b", 60_000, 10_000, (ns, name) -> ready.contains(name));
+        assertThat(watches.openLatch.await(10, TimeUnit.SECONDS), is(true));
+        context.verify(() -> assertThat(waiters.watchedNamespaces(), is(1)));
+
+        Checkpoint async = context.checkpoint();
+        ready.add("a");
+        watches.watchers.get("ns").eventReceived(Watcher.Action.MODIFIED, configMap("a"));
+        a.setHandler(context.succeeding(v -> context.verify(() -> {
+            assertThat(b.isComplete(), is(false));
+            assertThat(waiters.watchedNamespaces(), is(1));
+
+            ready.add("b");
+            watches.watchers.get("ns").eventReceived(Watcher.Action.MODIFIED, configMap("b"));
+            b.setHandler(context.succeeding(v2 -> context.verify(() -> {
+                // Both waiters shared a single watch, which is closed once nothing waits any more
+                assertThat(watches.opened.get("ns").get(), is(1));
+                assertThat(waiters.watchedNamespaces(), is(0));
+                verify(watches.watch).close();
+                async.flag();
+            })));
+        })));
+    }
+
+    @Test
+    public void testEventPredicateIsTestedAgainstTheEventResource(VertxTestContext context) throws InterruptedException {
+        Watches watches = new Watches();
+        ResourceWaiters<ConfigMap> waiters = new ResourceWaiters<>(vertx, WorkerPools.executor(vertx, WorkerPool.KUBERNETES), "ConfigMap", watches::open);
+        AtomicInteger evaluations = new AtomicInteger();
+
+        Future<Void> a = waiters.waitFor("ns", "a", 60_000, 10_000,
+            (ns, name) -> evaluations.incrementAndGet() < 0,
+            cm -> cm.getData() != null && "true".equals(cm.getData().get("ready")));
+        assertThat(watches.openLatch.await(10, TimeUnit.SECONDS), is(true));
+
+        Checkpoint async = context.checkpoint();
+        ConfigMap notReady = configMap("a");
+        ConfigMap ready = new ConfigMapBuilder(notReady).addToData("ready", "true").build();
+        watches.watchers.get("ns").eventReceived(Watcher.Action.MODIFIED, notReady);
+        // The last state of a deleted resource does not count
+        watches.watchers.get("ns").eventReceived(Watcher.Action.DELETED, ready);
+        context.verify(() -> assertThat(a.isComplete(), is(false)));
+        watches.watchers.get("ns").eventReceived(Watcher.Action.ADDED, ready);
+        a.setHandler(context.succeeding(v -> context.verify(() -> {
+            // At most the initial evaluation used the predicate, the events didn't
+            assertThat(evaluations.get() <= 1, is(true));
+            assertThat(waiters.watchedNamespaces(), is(0));
+            async.flag();
+        })));
+    }
+
+    @Test
+    public void testWaiterTimesOut(VertxTestContext context) {
+        Watches watches = new Watches();
+        ResourceWaiters<ConfigMap> waiters = new ResourceWaiters<>(vertx, WorkerPools.executor(vertx, WorkerPool.KUBERNETES), "ConfigMap", watches::open);
+
+        waiters.waitFor("ns", "a", 20, 100, (ns, name) -> false).setHandler(context.failing(e -> context.verify(() -> {
+            assertThat(e, instanceOf(TimeoutException.class));
+            assertThat(waiters.watchedNamespaces(), is(0));
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    public void testFallsBackToPollingWithoutWatch(VertxTestContext context) {
+        ResourceWaiters<ConfigMap> waiters = new ResourceWaiters<>(vertx, WorkerPools.executor(vertx, WorkerPool.KUBERNETES), "ConfigMap", (ns, watcher) -> null);
+        AtomicInteger count = new AtomicInteger();
+
+        waiters.waitFor("ns", "a", 20, 5_000, (ns, name) -> count.incrementAndGet() > 2).setHandler(context.succeeding(v -> context.verify(() -> {
+            assertThat(count.get(), is(3));
+            assertThat(waiters.watchedNamespaces(), is(0));
+            context.completeNow();
+        })));
+    }
+
+    @Test
+    public void testPollingFallbackOnlyWaitsForTheRemainingTimeout(VertxTestContext context) {
+        // Opening the watch takes most of the timeout, and then fails
+        ResourceWaiters<ConfigMap> waiters = new ResourceWaiters<>(vertx, WorkerPools.executor(vertx, WorkerPool.KUBERNETES), "ConfigMap", (ns, watcher) -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+
+        long start = System.currentTimeMillis();
+        waiters.waitFor("ns", "a", 20, 1_200, (ns, name) -> false).setHandler(context.failing(e -> context.verify(() -> {
+            assertThat(e, instanceOf(TimeoutException.class));
+            // Rather than polling for the whole timeout after the watch failed
+            assertThat(System.currentTimeMillis() - start, lessThan(2_000L));
+            context.completeNow();
+        })));
+    }
+}
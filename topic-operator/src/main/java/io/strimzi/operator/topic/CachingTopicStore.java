@@ -0,0 +1,131 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A {@link TopicStore} which keeps the state of all the topics of another store in memory,
+ * serving reads from memory and writing through to the other store.</p>
+ *
+ * <p>Only this operator writes to the store, so once the state of all the topics has been
+ * {@linkplain #load(List) loaded}, the state in memory is authoritative:
+ * a topic which isn't in memory doesn't exist in the store.
+ * Until then, and for topics whose state couldn't be loaded or whose write failed,
+ * reads are served by the other store.</p>
+ */
+class CachingTopicStore implements TopicStore {
+
+    private final static Logger LOGGER = LogManager.getLogger(CachingTopicStore.class);
+
+    private final TopicStore delegate;
+
+    private final ConcurrentHashMap<TopicName, Topic> topics = new ConcurrentHashMap<>();
+
+    /** The topics whose state in memory isn't known to be the state in the other store */
+    private final Set<TopicName> uncached = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loaded = false;
+
+    /**
+     * Constructor
+     *
+     * @param delegate The store to read from and write through to.
+     */
+    CachingTopicStore(TopicStore delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Reads the state of the given topics from the other store in parallel, after which reads are served from memory.
+     * This should be called before the store is used, with the names of all the topics in the other store.
+     * @param topicNames The names of all the topics in the other store.
+     * @return A future which completes once all the topics have been read.
+     * Topics which couldn't be read will be read from the other store when they're next read from this one.
+     */
+    Future<Void> load(List<TopicName> topicNames) {
+        LOGGER.debug("Loading {} topics", topicNames.size());
+        List<Future> reads = new ArrayList<>(topicNames.size());
+        for (TopicName topicName : topicNames) {
+            Future<Void> read = Future.future();
+            delegate.read(topicName).setHandler(ar -> {
+                if (ar.failed()) {
+                    LOGGER.warn("Error loading topic {}", topicName, ar.cause());
+                    uncached.add(topicName);
+                } else if (ar.result() != null) {
+                    topics.put(topicName, ar.result());
+                }
+                read.complete();
+            });
+            reads.add(read);
+        }
+        return CompositeFuture.join(reads).map(ignored -> {
+            loaded = true;
+            LOGGER.debug("Loaded {} topics", topics.size());
+            return null;
+        });
+    }
+
+    @Override
+    public Future<Topic> read(TopicName topicName) {
+        if (loaded && !uncached.contains(topicName)) {
+            return Future.succeededFuture(topics.get(topicName));
+        }
+        return delegate.read(topicName).map(topic -> {
+            // Unless the topic's been successfully written since
+            if (uncached.remove(topicName)) {
+                if (topic != null) {
+                    topics.put(topicName, topic);
+                } else {
+                    topics.remove(topicName);
+                }
+            }
+            return topic;
+        });
+    }
+
+    @Override
+    public Future<Void> create(Topic topic) {
+        TopicName topicName = topic.getTopicName();
+        return written(topicName, delegate.create(topic), () -> topics.put(topicName, topic));
+    }
+
+    @Override
+    public Future<Void> update(Topic topic) {
+        TopicName topicName = topic.getTopicName();
+        return written(topicName, delegate.update(topic), () -> topics.put(topicName, topic));
+    }
+
+    @Override
+    public Future<Void> delete(TopicName topicName) {
+        return written(topicName, delegate.delete(topicName), () -> topics.remove(topicName));
+    }
+
+    /**
+     * Updates the state in memory once the write to the other store has completed.
+     * If the write failed the topic's state in the other store isn't known, so it's read from there next time.
+     */
+    private Future<Void> written(TopicName topicName, Future<Void> write, Runnable update) {
+        Future<Void> result = Future.future();
+        write.setHandler(ar -> {
+            if (ar.succeeded()) {
+                update.run();
+                uncached.remove(topicName);
+            } else {
+                uncached.add(topicName);
+            }
+            result.handle(ar);
+        });
+        return result;
+    }
+}
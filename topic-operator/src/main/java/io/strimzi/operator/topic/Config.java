@@ -7,6 +7,7 @@ package io.strimzi.operator.topic;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -57,6 +58,16 @@ public class Config {
         }
     };
 
+    /**
+     * A {@link ZookeeperWatchMode}.
+     */
+    private static final Type<? extends ZookeeperWatchMode> ZOOKEEPER_WATCH_MODE_TYPE = new Type<ZookeeperWatchMode>() {
+        @Override
+        public ZookeeperWatchMode parse(String s) {
+            return ZookeeperWatchMode.valueOf(s.toUpperCase(Locale.ENGLISH));
+        }
+    };
+
     /**
      * A kubernetes selector.
      */
@@ -67,6 +78,19 @@ public class Config {
         }
     };
 
+    /**
+     * How changes to topics in ZooKeeper are watched.
+     */
+    enum ZookeeperWatchMode {
+        /** Watch the znodes of each topic for changes to its config and partitions */
+        TOPICS,
+        /**
+         * Watch the config change notifications for changes to the config of topics,
+         * and periodically describe the topics for changes to their partitions
+         */
+        NOTIFICATIONS
+    }
+
     static class Value<T> {
         public final String key;
         public final String defaultValue;
@@ -95,10 +119,16 @@ public class Config {
     public static final String TC_ZK_CONNECT = "STRIMZI_ZOOKEEPER_CONNECT";
     public static final String TC_ZK_SESSION_TIMEOUT_MS = "STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS";
     public static final String TC_ZK_CONNECTION_TIMEOUT_MS = "TC_ZK_CONNECTION_TIMEOUT_MS";
+    public static final String TC_ZK_WATCH_MODE = "STRIMZI_ZOOKEEPER_WATCH_MODE";
+    public static final String TC_PARTITIONS_POLL_INTERVAL_MS = "STRIMZI_PARTITIONS_POLL_INTERVAL_MS";
     public static final String TC_PERIODIC_INTERVAL_MS = "STRIMZI_FULL_RECONCILIATION_INTERVAL_MS";
+    public static final String TC_MAX_CONCURRENT_RECONCILIATIONS = "STRIMZI_MAX_CONCURRENT_RECONCILIATIONS";
     public static final String TC_REASSIGN_THROTTLE = "STRIMZI_REASSIGN_THROTTLE";
     public static final String TC_REASSIGN_VERIFY_INTERVAL_MS = "STRIMZI_REASSIGN_VERIFY_INTERVAL_MS";
     public static final String TC_TOPIC_METADATA_MAX_ATTEMPTS = "STRIMZI_TOPIC_METADATA_MAX_ATTEMPTS";
+    public static final String TC_TOPIC_METADATA_BATCH_SIZE = "STRIMZI_TOPIC_METADATA_BATCH_SIZE";
+    public static final String TC_TOPIC_METADATA_MAX_CONCURRENT_BATCHES = "STRIMZI_TOPIC_METADATA_MAX_CONCURRENT_BATCHES";
+    public static final String TC_TOPIC_METADATA_BATCH_LINGER_MS = "STRIMZI_TOPIC_METADATA_BATCH_LINGER_MS";
 
     public static final String TC_TLS_ENABLED = "STRIMZI_TLS_ENABLED";
     public static final String TC_TLS_TRUSTSTORE_LOCATION = "STRIMZI_TRUSTSTORE_LOCATION";
@@ -126,9 +156,18 @@ public class Config {
     /** The zookeeper connection timeout. */
     public static final Value<Long> ZOOKEEPER_CONNECTION_TIMEOUT_MS = new Value<>(TC_ZK_CONNECTION_TIMEOUT_MS, DURATION, "20000");
 
+    /** How changes to topics in ZooKeeper are watched: {@code topics} or {@code notifications}. */
+    public static final Value<ZookeeperWatchMode> ZOOKEEPER_WATCH_MODE = new Value<>(TC_ZK_WATCH_MODE, ZOOKEEPER_WATCH_MODE_TYPE, "topics");
+
+    /** The period between checks for changes to the partitions of topics, when watching config change notifications. */
+    public static final Value<Long> PARTITIONS_POLL_INTERVAL_MS = new Value<>(TC_PARTITIONS_POLL_INTERVAL_MS, DURATION, "30000");
+
     /** The period between full reconciliations. */
     public static final Value<Long> FULL_RECONCILIATION_INTERVAL_MS = new Value<>(TC_PERIODIC_INTERVAL_MS, DURATION, "900000");
 
+    /** The maximum number of topics reconciled at once by a periodic reconciliation */
+    public static final Value<Integer> MAX_CONCURRENT_RECONCILIATIONS = new Value<>(TC_MAX_CONCURRENT_RECONCILIATIONS, POSITIVE_INTEGER, "500");
+
     /** The interbroker throttled rate to use when a topic change requires partition reassignment. */
     public static final Value<Long> REASSIGN_THROTTLE = new Value<>(TC_REASSIGN_THROTTLE, LONG, Long.toString(Long.MAX_VALUE));
 
@@ -141,6 +180,15 @@ public class Config {
     /** The maximum number of retries for getting topic metadata from the Kafka cluster */
     public static final Value<Integer> TOPIC_METADATA_MAX_ATTEMPTS = new Value<>(TC_TOPIC_METADATA_MAX_ATTEMPTS, POSITIVE_INTEGER, "6");
 
+    /** The maximum number of topics whose metadata is described by a single request to the Kafka cluster */
+    public static final Value<Integer> TOPIC_METADATA_BATCH_SIZE = new Value<>(TC_TOPIC_METADATA_BATCH_SIZE, POSITIVE_INTEGER, "500");
+
+    /** The maximum number of requests for topic metadata in flight to the Kafka cluster at once */
+    public static final Value<Integer> TOPIC_METADATA_MAX_CONCURRENT_BATCHES = new Value<>(TC_TOPIC_METADATA_MAX_CONCURRENT_BATCHES, POSITIVE_INTEGER, "4");
+
+    /** How long to wait for further topics to describe before sending a request for topic metadata which isn't full */
+    public static final Value<Long> TOPIC_METADATA_BATCH_LINGER_MS = new Value<>(TC_TOPIC_METADATA_BATCH_LINGER_MS, DURATION, "10");
+
     /** If the connection with Kafka has to be encrypted by TLS protocol */
     public static final Value<String> TLS_ENABLED = new Value<>(TC_TLS_ENABLED, STRING, "false");
     /** The truststore with CA certificate for Kafka broker/server authentication */
@@ -160,10 +208,16 @@ public class Config {
         addConfigValue(configValues, ZOOKEEPER_CONNECT);
         addConfigValue(configValues, ZOOKEEPER_SESSION_TIMEOUT_MS);
         addConfigValue(configValues, ZOOKEEPER_CONNECTION_TIMEOUT_MS);
+        addConfigValue(configValues, ZOOKEEPER_WATCH_MODE);
+        addConfigValue(configValues, PARTITIONS_POLL_INTERVAL_MS);
         addConfigValue(configValues, FULL_RECONCILIATION_INTERVAL_MS);
+        addConfigValue(configValues, MAX_CONCURRENT_RECONCILIATIONS);
         addConfigValue(configValues, REASSIGN_THROTTLE);
         addConfigValue(configValues, REASSIGN_VERIFY_INTERVAL_MS);
         addConfigValue(configValues, TOPIC_METADATA_MAX_ATTEMPTS);
+        addConfigValue(configValues, TOPIC_METADATA_BATCH_SIZE);
+        addConfigValue(configValues, TOPIC_METADATA_MAX_CONCURRENT_BATCHES);
+        addConfigValue(configValues, TOPIC_METADATA_BATCH_LINGER_MS);
         addConfigValue(configValues, TLS_ENABLED);
         addConfigValue(configValues, TLS_TRUSTSTORE_LOCATION);
         addConfigValue(configValues, TLS_TRUSTSTORE_PASSWORD);
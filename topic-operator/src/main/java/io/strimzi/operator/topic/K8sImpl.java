@@ -14,9 +14,12 @@ import io.strimzi.api.kafka.KafkaTopicList;
 import io.strimzi.api.kafka.model.DoneableKafkaTopic;
 import io.strimzi.api.kafka.model.KafkaTopic;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPool;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -34,8 +37,11 @@ public class K8sImpl implements K8s {
 
     private final Vertx vertx;
 
+    private final WorkerExecutor workerPool;
+
     public K8sImpl(Vertx vertx, KubernetesClient client, Labels labels, String namespace) {
         this.vertx = vertx;
+        this.workerPool = WorkerPools.executor(vertx, WorkerPool.KUBERNETES);
         this.client = client;
         this.crdOperator = new CrdOperator<>(vertx, client, KafkaTopic.class, KafkaTopicList.class, DoneableKafkaTopic.class);
         this.labels = labels;
@@ -45,7 +51,7 @@ public class K8sImpl implements K8s {
     @Override
     public Future<KafkaTopic> createResource(KafkaTopic topicResource) {
         Future<KafkaTopic> handler = Future.future();
-        vertx.executeBlocking(future -> {
+        workerPool.executeBlocking(future -> {
             try {
                 KafkaTopic kafkaTopic = operation().inNamespace(namespace).create(topicResource);
                 LOGGER.debug("KafkaTopic {} created with version {}->{}",
@@ -63,7 +69,7 @@ public class K8sImpl implements K8s {
     @Override
     public Future<KafkaTopic> updateResource(KafkaTopic topicResource) {
         Future<KafkaTopic> handler = Future.future();
-        vertx.executeBlocking(future -> {
+        workerPool.executeBlocking(future -> {
             try {
                 KafkaTopic kafkaTopic = operation().inNamespace(namespace).withName(topicResource.getMetadata().getName()).patch(topicResource);
                 LOGGER.debug("KafkaTopic {} updated with version {}->{}",
@@ -86,7 +92,7 @@ public class K8sImpl implements K8s {
     @Override
     public Future<Void> deleteResource(ResourceName resourceName) {
         Future<Void> handler = Future.future();
-        vertx.executeBlocking(future -> {
+        workerPool.executeBlocking(future -> {
             try {
                 // Delete the resource by the topic name, because neither ZK nor Kafka know the resource name
                 if (!Boolean.TRUE.equals(operation().inNamespace(namespace).withName(resourceName.toString()).delete())) {
@@ -127,7 +133,7 @@ public class K8sImpl implements K8s {
     @Override
     public Future<Void> createEvent(Event event) {
         Future<Void> handler = Future.future();
-        vertx.executeBlocking(future -> {
+        workerPool.executeBlocking(future -> {
             try {
                 try {
                     LOGGER.debug("Creating event {}", event);
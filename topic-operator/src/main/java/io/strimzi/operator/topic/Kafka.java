@@ -5,6 +5,7 @@
 package io.strimzi.operator.topic;
 
 import io.vertx.core.Future;
+import org.apache.kafka.clients.admin.TopicDescription;
 
 import java.util.Set;
 
@@ -65,6 +66,17 @@ public interface Kafka {
      */
     Future<TopicMetadata> topicMetadata(TopicName topicName);
 
+    /**
+     * Asynchronously describe the partitions of the topic in Kafka, without its config,
+     * completing the returned Future with the description.
+     * If the topic does not exist the returned Future will be completed with null result.
+     * If the operation fails the returned Future will be failed with the
+     * KafkaException (not an ExecutionException).
+     * @param topicName The name of the topic to describe.
+     * @return A future which is completed with the description of the topic.
+     */
+    Future<TopicDescription> topicDescription(TopicName topicName);
+
     /**
      * Asynchronously list the names of the topics available in Kafka,
      * completing the returned Future with the topic names.
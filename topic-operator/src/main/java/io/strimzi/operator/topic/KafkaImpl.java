@@ -5,9 +5,9 @@
 package io.strimzi.operator.topic;
 
 import io.strimzi.operator.common.Util;
-import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
-import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.Config;
@@ -22,9 +22,13 @@ import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -41,189 +45,99 @@ public class KafkaImpl implements Kafka {
 
     protected final Vertx vertx;
 
+    private final TopicMetadataBatcher<TopicMetadata> batcher;
+
+    private final TopicMetadataBatcher<TopicDescription> descriptionBatcher;
+
     private volatile boolean stopped = false;
 
     public KafkaImpl(AdminClient adminClient, Vertx vertx) {
+        this(adminClient, vertx,
+                Integer.parseInt(io.strimzi.operator.topic.Config.TOPIC_METADATA_BATCH_SIZE.defaultValue),
+                Integer.parseInt(io.strimzi.operator.topic.Config.TOPIC_METADATA_MAX_CONCURRENT_BATCHES.defaultValue),
+                Long.parseLong(io.strimzi.operator.topic.Config.TOPIC_METADATA_BATCH_LINGER_MS.defaultValue));
+    }
+
+    /**
+     * @param adminClient The AdminClient.
+     * @param vertx The Vertx instance.
+     * @param batchSize The maximum number of topics described by each request for topic metadata.
+     * @param maxConcurrentBatches The maximum number of requests for topic metadata in flight at once.
+     * @param batchLingerMs How long to wait for further topics to describe before sending a request which isn't full.
+     */
+    public KafkaImpl(AdminClient adminClient, Vertx vertx, int batchSize, int maxConcurrentBatches, long batchLingerMs) {
         this.adminClient = adminClient;
         this.vertx = vertx;
+        this.batcher = new TopicMetadataBatcher<>(vertx, batchSize, maxConcurrentBatches, batchLingerMs, this::topicMetadata);
+        this.descriptionBatcher = new TopicMetadataBatcher<>(vertx, batchSize, maxConcurrentBatches, batchLingerMs, this::topicDescription);
     }
 
     public void stop() {
         this.stopped = true;
     }
 
-    abstract class Work implements Runnable, Handler<Void> {
-        @Override
-        public void run() {
-            if (!stopped && !complete()) {
-                vertx.runOnContext(this);
-            }
-        }
-
-        @Override
-        public void handle(Void v) {
-            run();
-        }
-
-        protected abstract boolean complete();
-    }
-
-    /** Some work that depends on a single future */
-    class UniWork<T> extends Work {
-        private final KafkaFuture<T> future;
-        private final Handler<AsyncResult<T>> handler;
-        private final String name;
-
-        public UniWork(String name, KafkaFuture<T> future, Handler<AsyncResult<T>> handler) {
-            if (future == null) {
-                throw new NullPointerException();
-            }
-            if (handler == null) {
-                throw new NullPointerException();
-            }
-            this.future = future;
-            this.handler = handler;
-            this.name = name;
-        }
-
-        @Override
-        protected boolean complete() {
-            if (this.future.isDone()) {
-                LOGGER.trace("Future {} of work {} is done", future, this);
-                try {
-                    try {
-                        T result = this.future.get();
-                        LOGGER.debug("Future {} has result {}", future, result);
-                        this.handler.handle(Future.succeededFuture(result));
-                        LOGGER.debug("Handler for work {} executed ok", this);
-                    } catch (ExecutionException e) {
-                        LOGGER.debug("Future {} threw {}", future, e.toString());
-                        this.handler.handle(Future.failedFuture(e.getCause()));
-                    } catch (InterruptedException e) {
-                        LOGGER.debug("Future {} threw {}", future, e.toString());
-                        this.handler.handle(Future.failedFuture(e));
-                    }
-                } catch (OperatorException e) {
-                    // TODO handler threw, but I have no context for creating a k8s error event
-                    LOGGER.trace("Handler for work {} threw {}", this, e.toString());
-                    e.printStackTrace();
-                }
-                return true;
-            } else {
-                if (LOGGER.isTraceEnabled()) {
-                    LOGGER.trace("Future {} is not done", future);
-                }
-                return false;
-            }
-        }
-
-        @Override
-        public String toString() {
-            return name + System.identityHashCode(this);
+    /**
+     * Adapts the given KafkaFuture to a Vert.x Future. When the KafkaFuture completes (on a thread of the AdminClient)
+     * the returned Future is completed on the Vert.x context of the caller, so no thread waits, or polls, for the
+     * result of the KafkaFuture.
+     */
+    protected <T> Future<T> toFuture(String name, KafkaFuture<T> future) {
+        if (future == null) {
+            throw new NullPointerException();
         }
-    }
-
-    /** Some work that depends on two futures */
-    class MetadataWork extends Work {
-        private final KafkaFuture<TopicDescription> descFuture;
-        private final KafkaFuture<Config> configFuture;
-        private final Handler<AsyncResult<TopicMetadata>> handler;
-        private boolean handled = false;
-
-        public MetadataWork(KafkaFuture<TopicDescription> descFuture,
-                            KafkaFuture<Config> configFuture, Handler<AsyncResult<TopicMetadata>> handler) {
-            if (descFuture == null) {
-                throw new NullPointerException();
-            }
-            if (configFuture == null) {
-                throw new NullPointerException();
+        Context context = vertx.getOrCreateContext();
+        Future<T> result = Future.future();
+        future.whenComplete((value, error) -> {
+            if (stopped) {
+                LOGGER.debug("Ignoring completion of {} after stop", name);
+                return;
             }
-            if (handler == null) {
-                throw new NullPointerException();
-            }
-            this.descFuture = descFuture;
-            this.configFuture = configFuture;
-            this.handler = handler;
-        }
-
-
-        private <T> T result(KafkaFuture<T> future) {
-            T result;
-            try {
-                result = future.get();
-                LOGGER.trace("Future {} has result {}", future, result);
-            } catch (ExecutionException e) {
-                if (e.getCause() instanceof UnknownTopicOrPartitionException) {
-                    result = null;
+            context.runOnContext(ignored -> {
+                if (error == null) {
+                    LOGGER.debug("Future {} has result {}", name, value);
+                    result.complete(value);
                 } else {
-                    LOGGER.debug("Future {} threw {}", future, e.toString());
-                    if (!handled) {
-                        handler.handle(Future.failedFuture(e.getCause()));
-                    }
-                    handled = true;
-                    return null;
-                }
-            } catch (InterruptedException e) {
-                LOGGER.debug("Future {} threw {}", future, e.toString());
-                if (!handled) {
-                    handler.handle(Future.failedFuture(e));
+                    Throwable cause = unwrap(error);
+                    LOGGER.debug("Future {} threw {}", name, cause.toString());
+                    result.fail(cause);
                 }
-                handled = true;
-                return null;
-            }
-            return result;
-        }
+            });
+        });
+        return result;
+    }
 
-        @Override
-        protected boolean complete() {
-            if (this.descFuture.isDone()
-                    && this.configFuture.isDone()) {
-                final TopicDescription desc = result(this.descFuture);
-                final Config config = result(this.configFuture);
-                if (!handled) {
-                    TopicMetadata metadata;
-                    if (desc != null && config != null) {
-                        metadata = new TopicMetadata(desc, config);
-                    } else {
-                        metadata = null;
-                    }
-                    this.handler.handle(Future.succeededFuture(metadata));
-                    this.handled = true;
-                    LOGGER.trace("Handler for work {} executed ok", this);
-                } else {
-                }
-                return handled;
-            } else {
-                if (!this.descFuture.isDone())
-                    LOGGER.trace("Description future {} is not done", descFuture);
-                if (!this.configFuture.isDone())
-                    LOGGER.trace("Config future {} is not done", configFuture);
-                return false;
-            }
+    private static Throwable unwrap(Throwable error) {
+        if ((error instanceof ExecutionException || error instanceof CompletionException)
+                && error.getCause() != null) {
+            return error.getCause();
         }
+        return error;
     }
 
     /**
-     * Queue a future and callback. The callback will be invoked (on a separate thread)
-     * when the future is ready.
+     * Like {@link #toFuture(String, KafkaFuture)}, but completes the returned Future with null if the topic
+     * does not exist.
      */
-    protected void queueWork(Work work) {
-        LOGGER.trace("Queuing work {} for immediate execution", work);
-        vertx.runOnContext(work);
+    private <T> Future<T> toFutureOrNull(String name, KafkaFuture<T> future) {
+        return toFuture(name, future).recover(error -> {
+            if (error instanceof UnknownTopicOrPartitionException) {
+                return Future.succeededFuture();
+            } else {
+                return Future.failedFuture(error);
+            }
+        });
     }
 
     /**
-     * Delete a topic via the Kafka AdminClient API, calling the given handler
-     * (in a different thread) with the result.
+     * Delete a topic via the Kafka AdminClient API, completing the returned
+     * Future with the result.
      */
     @Override
     public Future<Void> deleteTopic(TopicName topicName) {
-        Future<Void> handler = Future.future();
         LOGGER.debug("Deleting topic {}", topicName);
         KafkaFuture<Void> future = adminClient.deleteTopics(
                 Collections.singleton(topicName.toString())).values().get(topicName.toString());
-        queueWork(new UniWork<>("deleteTopic", future, handler));
-        return handler.compose(ig ->
+        return toFuture("deleteTopic", future).compose(ig ->
                 Util.waitFor(vertx, "deleted sync " + topicName, Long.MAX_VALUE, 1000, () -> {
                     try {
                         return adminClient.describeTopics(Collections.singleton(topicName.toString())).all().get().get(topicName.toString()) == null;
@@ -242,70 +156,110 @@ public class KafkaImpl implements Kafka {
     @SuppressWarnings("deprecation")
     @Override
     public Future<Void> updateTopicConfig(Topic topic) {
-        Future<Void> handler = Future.future();
         Map<ConfigResource, Config> configs = TopicSerialization.toTopicConfig(topic);
         KafkaFuture<Void> future = adminClient.alterConfigs(configs).values().get(configs.keySet().iterator().next());
-        queueWork(new UniWork<>("updateTopicConfig", future, handler));
-        return handler;
+        return toFuture("updateTopicConfig", future);
     }
 
     /**
-     * Get a topic config via the Kafka AdminClient API, calling the given handler
-     * (in a different thread) with the result.
+     * Get a topic config via the Kafka AdminClient API, completing the returned
+     * Future with the result.
+     * The metadata of topics requested at about the same time is described in batches.
      */
     @Override
     public Future<TopicMetadata> topicMetadata(TopicName topicName) {
-        Future<TopicMetadata> handler = Future.future();
         LOGGER.debug("Getting metadata for topic {}", topicName);
-        ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, topicName.toString());
-        KafkaFuture<TopicDescription> descriptionFuture = adminClient.describeTopics(
-                Collections.singleton(topicName.toString())).values().get(topicName.toString());
-        KafkaFuture<Config> configFuture = adminClient.describeConfigs(
-                Collections.singleton(resource)).values().get(resource);
-        queueWork(new MetadataWork(descriptionFuture,
-            configFuture,
-            result -> handler.handle(result)));
-        return handler;
+        return batcher.topicMetadata(topicName);
+    }
+
+    /**
+     * Describe the given topics, and their configs, with a single request of each kind.
+     * @return A future for the metadata of each topic, which is completed with null if the topic does not exist.
+     */
+    private Map<TopicName, Future<TopicMetadata>> topicMetadata(List<TopicName> topicNames) {
+        List<String> names = new ArrayList<>(topicNames.size());
+        List<ConfigResource> resources = new ArrayList<>(topicNames.size());
+        for (TopicName topicName : topicNames) {
+            names.add(topicName.toString());
+            resources.add(new ConfigResource(ConfigResource.Type.TOPIC, topicName.toString()));
+        }
+        Map<String, KafkaFuture<TopicDescription>> descriptionFutures = adminClient.describeTopics(names).values();
+        Map<ConfigResource, KafkaFuture<Config>> configFutures = adminClient.describeConfigs(resources).values();
+        Map<TopicName, Future<TopicMetadata>> result = new HashMap<>(topicNames.size());
+        for (int i = 0; i < topicNames.size(); i++) {
+            Future<TopicDescription> description = toFutureOrNull("describeTopics", descriptionFutures.get(names.get(i)));
+            Future<Config> config = toFutureOrNull("describeConfigs", configFutures.get(resources.get(i)));
+            result.put(topicNames.get(i), CompositeFuture.all(description, config).map(ignored -> {
+                if (description.result() != null && config.result() != null) {
+                    return new TopicMetadata(description.result(), config.result());
+                } else {
+                    return null;
+                }
+            }));
+        }
+        return result;
+    }
+
+    /**
+     * Describe the partitions of a topic via the Kafka AdminClient API, without its config,
+     * completing the returned Future with the result.
+     * The topics requested at about the same time are described in batches.
+     */
+    @Override
+    public Future<TopicDescription> topicDescription(TopicName topicName) {
+        LOGGER.debug("Getting description of topic {}", topicName);
+        return descriptionBatcher.topicMetadata(topicName);
+    }
+
+    /**
+     * Describe the given topics with a single request.
+     * @return A future for the description of each topic, which is completed with null if the topic does not exist.
+     */
+    private Map<TopicName, Future<TopicDescription>> topicDescription(List<TopicName> topicNames) {
+        List<String> names = new ArrayList<>(topicNames.size());
+        for (TopicName topicName : topicNames) {
+            names.add(topicName.toString());
+        }
+        Map<String, KafkaFuture<TopicDescription>> descriptionFutures = adminClient.describeTopics(names).values();
+        Map<TopicName, Future<TopicDescription>> result = new HashMap<>(topicNames.size());
+        for (int i = 0; i < topicNames.size(); i++) {
+            result.put(topicNames.get(i), toFutureOrNull("describeTopics", descriptionFutures.get(names.get(i))));
+        }
+        return result;
     }
 
     @Override
     public Future<Set<String>> listTopics() {
-        Future<Set<String>> handler = Future.future();
         LOGGER.debug("Listing topics");
 
         ListTopicsOptions listOptions = new ListTopicsOptions();
         listOptions.listInternal(true);
 
         ListTopicsResult future = adminClient.listTopics(listOptions);
-        queueWork(new UniWork<>("listTopics", future.names(), handler));
-        return handler;
+        return toFuture("listTopics", future.names());
     }
 
 
     @Override
     public Future<Void> increasePartitions(Topic topic) {
-        Future<Void> handler = Future.future();
         final NewPartitions newPartitions = NewPartitions.increaseTo(topic.getNumPartitions());
         final Map<String, NewPartitions> request = Collections.singletonMap(topic.getTopicName().toString(), newPartitions);
         KafkaFuture<Void> future = adminClient.createPartitions(request).values().get(topic.getTopicName().toString());
-        queueWork(new UniWork<>("increasePartitions", future, handler));
-        return handler;
+        return toFuture("increasePartitions", future);
     }
 
     /**
-     * Create a new topic via the Kafka AdminClient API, calling the given handler
-     * (in a different thread) with the result.
+     * Create a new topic via the Kafka AdminClient API, completing the returned
+     * Future with the result.
      */
     @Override
     public Future<Void> createTopic(Topic topic) {
-        Future<Void> handler = Future.future();
         NewTopic newTopic = TopicSerialization.toNewTopic(topic, null);
 
         LOGGER.debug("Creating topic {}", newTopic);
         KafkaFuture<Void> future = adminClient.createTopics(
                 Collections.singleton(newTopic)).values().get(newTopic.name());
-        queueWork(new UniWork<>("createTopic", future, handler));
-        return handler;
+        return toFuture("createTopic", future);
     }
 
 }
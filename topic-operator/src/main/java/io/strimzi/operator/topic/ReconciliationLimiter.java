@@ -0,0 +1,108 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.Future;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of reconciliations which are in flight at once.
+ * Reconciliations submitted while the limit is reached wait, in the order they were submitted,
+ * until one of the reconciliations in flight completes.
+ *
+ * <p>The periodic reconciliation of all the topics goes through a limiter, so that it doesn't start a reconciliation
+ * of every topic at once. Reconciliations triggered by watch events don't, so they're never queued behind
+ * periodic ones.</p>
+ */
+class ReconciliationLimiter {
+
+    private final int maxInFlight;
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+    private int inFlight = 0;
+    private boolean starting = false;
+
+    /**
+     * Constructor
+     *
+     * @param maxInFlight The maximum number of reconciliations in flight at once.
+     */
+    ReconciliationLimiter(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of reconciliations in flight must be greater than zero");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Starts the given reconciliation once fewer than the maximum number of reconciliations are in flight.
+     * @param reconciliation Starts the reconciliation, returning a future which completes when it has completed.
+     * @param <T> The type of the result of the reconciliation.
+     * @return A future which completes with the result of the reconciliation.
+     */
+    <T> Future<T> submit(Supplier<Future<T>> reconciliation) {
+        Future<T> result = Future.future();
+        synchronized (this) {
+            waiting.add(() -> {
+                Future<T> started;
+                try {
+                    started = reconciliation.get();
+                } catch (RuntimeException e) {
+                    started = Future.failedFuture(e);
+                }
+                started.setHandler(ar -> {
+                    synchronized (this) {
+                        inFlight--;
+                    }
+                    result.handle(ar);
+                    startWaiting();
+                });
+            });
+        }
+        startWaiting();
+        return result;
+    }
+
+    /**
+     * Starts waiting reconciliations until the limit is reached.
+     * Reconciliations which complete synchronously start the next one from this loop rather than recursively.
+     */
+    private void startWaiting() {
+        synchronized (this) {
+            if (starting) {
+                return;
+            }
+            starting = true;
+        }
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                if (inFlight >= maxInFlight || waiting.isEmpty()) {
+                    starting = false;
+                    return;
+                }
+                inFlight++;
+                next = waiting.poll();
+            }
+            next.run();
+        }
+    }
+
+    /**
+     * @return The number of reconciliations in flight.
+     */
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return The number of reconciliations waiting to start.
+     */
+    synchronized int waiting() {
+        return waiting.size();
+    }
+}
@@ -10,6 +10,8 @@ import io.strimzi.api.kafka.Crds;
 import io.strimzi.api.kafka.KafkaTopicList;
 import io.strimzi.api.kafka.model.DoneableKafkaTopic;
 import io.strimzi.api.kafka.model.KafkaTopic;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.MicrometerMetricsProvider;
 import io.strimzi.operator.topic.zk.Zk;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
@@ -40,13 +42,14 @@ public class Session extends AbstractVerticle {
     /*test*/ TopicOperator topicOperator;
     private Watch topicWatch;
     /*test*/ ZkTopicsWatcher topicsWatcher;
-    /*test*/ TopicConfigsWatcher topicConfigsWatcher;
-    /*test*/ ZkTopicWatcher topicWatcher;
+    /*test*/ ZkWatcher topicConfigsWatcher;
+    /*test*/ ZkWatcher topicWatcher;
     /** The id of the periodic reconciliation timer. This is null during a periodic reconciliation. */
     private volatile Long timerId;
     private volatile boolean stopped = false;
     private Zk zk;
     private volatile HttpServer healthServer;
+    private MetricsProvider metricsProvider;
 
     public Session(KubernetesClient kubeClient, Config config) {
         this.kubeClient = kubeClient;
@@ -126,6 +129,7 @@ public class Session extends AbstractVerticle {
     @Override
     public void start(Future<Void> startupFuture) {
         LOGGER.info("Starting");
+        this.metricsProvider = new MicrometerMetricsProvider();
         Properties adminClientProps = new Properties();
         adminClientProps.setProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, config.get(Config.KAFKA_BOOTSTRAP_SERVERS));
 
@@ -140,7 +144,10 @@ public class Session extends AbstractVerticle {
 
         this.adminClient = AdminClient.create(adminClientProps);
         LOGGER.debug("Using AdminClient {}", adminClient);
-        this.kafka = new KafkaImpl(adminClient, vertx);
+        this.kafka = new KafkaImpl(adminClient, vertx,
+                config.get(Config.TOPIC_METADATA_BATCH_SIZE),
+                config.get(Config.TOPIC_METADATA_MAX_CONCURRENT_BATCHES),
+                config.get(Config.TOPIC_METADATA_BATCH_LINGER_MS));
         LOGGER.debug("Using Kafka {}", kafka);
         Labels labels = config.get(Config.LABELS);
 
@@ -160,68 +167,89 @@ public class Session extends AbstractVerticle {
                 this.zk = zkResult.result();
                 LOGGER.debug("Using ZooKeeper {}", zk);
 
-                ZkTopicStore topicStore = new ZkTopicStore(zk);
+                ZkTopicStore zkTopicStore = new ZkTopicStore(zk, vertx);
+                CachingTopicStore topicStore = new CachingTopicStore(zkTopicStore);
                 LOGGER.debug("Using TopicStore {}", topicStore);
 
-                this.topicOperator = new TopicOperator(vertx, kafka, k8s, topicStore, labels, namespace, config);
-                LOGGER.debug("Using Operator {}", topicOperator);
-
-                this.topicConfigsWatcher = new TopicConfigsWatcher(topicOperator);
-                LOGGER.debug("Using TopicConfigsWatcher {}", topicConfigsWatcher);
-                this.topicWatcher = new ZkTopicWatcher(topicOperator);
-                LOGGER.debug("Using TopicWatcher {}", topicWatcher);
-                this.topicsWatcher = new ZkTopicsWatcher(topicOperator, topicConfigsWatcher, topicWatcher);
-                LOGGER.debug("Using TopicsWatcher {}", topicsWatcher);
-                topicsWatcher.start(zk);
-
-                Future<Void> f = Future.future();
-                Future<Void> initReconcileFuture = Future.future();
-                K8sTopicWatcher watcher = new K8sTopicWatcher(topicOperator, initReconcileFuture);
-                Thread resourceThread = new Thread(() -> {
-                    try {
-                        LOGGER.debug("Watching KafkaTopics matching {}", labels.labels());
+                zkTopicStore.topicNames().compose(topicStore::load).setHandler(loadResult -> {
+                    if (loadResult.failed()) {
+                        startupFuture.fail(loadResult.cause());
+                        return;
+                    }
+                    startOperator(startupFuture, topicStore, labels, namespace);
+                });
+            });
+    }
 
-                        Session.this.topicWatch = kubeClient.customResources(Crds.topic(), KafkaTopic.class, KafkaTopicList.class, DoneableKafkaTopic.class)
-                                .inNamespace(namespace).withLabels(labels.labels()).watch(watcher);
-                        LOGGER.debug("Watching setup");
+    /**
+     * Start the operator, the ZooKeeper and Kubernetes watches and the periodic reconciliation,
+     * using the given (loaded) topic store.
+     */
+    private void startOperator(Future<Void> startupFuture, TopicStore topicStore, Labels labels, String namespace) {
+        this.topicOperator = new TopicOperator(vertx, kafka, k8s, topicStore, labels, namespace, config, metricsProvider);
+        LOGGER.debug("Using Operator {}", topicOperator);
 
-                        // start the HTTP server for healthchecks
-                        healthServer = this.startHealthServer();
-                        f.complete();
-                    } catch (Throwable t) {
-                        f.fail(t);
-                    }
+        if (config.get(Config.ZOOKEEPER_WATCH_MODE) == Config.ZookeeperWatchMode.NOTIFICATIONS) {
+            this.topicConfigsWatcher = new TopicConfigChangesWatcher(topicOperator);
+            this.topicWatcher = new TopicPartitionsPoller(topicOperator, vertx, kafka,
+                    config.get(Config.PARTITIONS_POLL_INTERVAL_MS));
+        } else {
+            this.topicConfigsWatcher = new TopicConfigsWatcher(topicOperator);
+            this.topicWatcher = new ZkTopicWatcher(topicOperator);
+        }
+        LOGGER.debug("Using TopicConfigsWatcher {}", topicConfigsWatcher);
+        LOGGER.debug("Using TopicWatcher {}", topicWatcher);
+        this.topicsWatcher = new ZkTopicsWatcher(topicOperator, topicConfigsWatcher, topicWatcher);
+        LOGGER.debug("Using TopicsWatcher {}", topicsWatcher);
+        topicsWatcher.start(zk);
+
+        Future<Void> f = Future.future();
+        Future<Void> initReconcileFuture = Future.future();
+        K8sTopicWatcher watcher = new K8sTopicWatcher(topicOperator, initReconcileFuture);
+        Thread resourceThread = new Thread(() -> {
+            try {
+                LOGGER.debug("Watching KafkaTopics matching {}", labels.labels());
+
+                Session.this.topicWatch = kubeClient.customResources(Crds.topic(), KafkaTopic.class, KafkaTopicList.class, DoneableKafkaTopic.class)
+                        .inNamespace(namespace).withLabels(labels.labels()).watch(watcher);
+                LOGGER.debug("Watching setup");
 
-                }, "resource-watcher");
-                LOGGER.debug("Starting {}", resourceThread);
-                resourceThread.start();
+                // start the HTTP server for healthchecks
+                healthServer = this.startHealthServer();
+                f.complete();
+            } catch (Throwable t) {
+                f.fail(t);
+            }
 
-                final Long interval = config.get(Config.FULL_RECONCILIATION_INTERVAL_MS);
-                Handler<Long> periodic = new Handler<Long>() {
-                    @Override
-                    public void handle(Long oldTimerId) {
+        }, "resource-watcher");
+        LOGGER.debug("Starting {}", resourceThread);
+        resourceThread.start();
+
+        final Long interval = config.get(Config.FULL_RECONCILIATION_INTERVAL_MS);
+        Handler<Long> periodic = new Handler<Long>() {
+            @Override
+            public void handle(Long oldTimerId) {
+                if (!stopped) {
+                    timerId = null;
+                    boolean isInitialReconcile = oldTimerId == null;
+                    topicOperator.reconcileAllTopics(isInitialReconcile ? "initial " : "periodic ").setHandler(result -> {
+                        if (isInitialReconcile) {
+                            initReconcileFuture.complete();
+                        }
                         if (!stopped) {
-                            timerId = null;
-                            boolean isInitialReconcile = oldTimerId == null;
-                            topicOperator.reconcileAllTopics(isInitialReconcile ? "initial " : "periodic ").setHandler(result -> {
-                                if (isInitialReconcile) {
-                                    initReconcileFuture.complete();
-                                }
-                                if (!stopped) {
-                                    timerId = vertx.setTimer(interval, this);
-                                }
-                            });
+                            timerId = vertx.setTimer(interval, this);
                         }
-                    }
-                };
-                periodic.handle(null);
-                f.setHandler(startupFuture);
-                LOGGER.info("Started");
-            });
+                    });
+                }
+            }
+        };
+        periodic.handle(null);
+        f.setHandler(startupFuture);
+        LOGGER.info("Started");
     }
 
     /**
-     * Start an HTTP health server
+     * Start an HTTP health server, which also serves the operator's metrics in the Prometheus format on {@code /metrics}
      */
     private HttpServer startHealthServer() {
 
@@ -232,6 +260,13 @@ public class Session extends AbstractVerticle {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
                         request.response().setStatusCode(200).end();
+                    } else if (request.path().equals("/metrics")) {
+                        String metrics = metricsProvider.scrape();
+                        if (metrics != null) {
+                            request.response().setStatusCode(200).end(metrics);
+                        } else {
+                            request.response().setStatusCode(404).end();
+                        }
                     }
                 })
                 .listen(HEALTH_SERVER_PORT);
@@ -0,0 +1,174 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.strimzi.operator.topic.zk.Zk;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>ZooKeeper watcher for the sequential config change notifications, the {@code config_change_*} child znodes
+ * of {@code /config/changes} which Kafka creates whenever the config of a topic (or other entity) is changed,
+ * calling {@link TopicOperator#onTopicConfigChanged(LogContext, TopicName)} for the topics they refer to.</p>
+ *
+ * <p>Unlike {@link TopicConfigsWatcher}, which watches the config znode of every topic, this uses a single watch
+ * however many topics there are, and doesn't read the config of each topic when it starts.</p>
+ */
+class TopicConfigChangesWatcher extends ZkWatcher {
+
+    static final String CONFIG_CHANGES_ZNODE = "/config/changes";
+    private static final String CONFIG_CHANGE_PREFIX = "config_change_";
+    private static final String TOPICS_ENTITY = "topics";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final Set<String> topics = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The sequence number of the last notification seen,
+     * or UNKNOWN until the notifications which existed when the watcher was started are known
+     */
+    private volatile long lastSequence = UNKNOWN;
+
+    TopicConfigChangesWatcher(TopicOperator topicOperator) {
+        super(topicOperator, CONFIG_CHANGES_ZNODE);
+    }
+
+    @Override
+    protected void start(Zk zk) {
+        super.start(zk);
+        lastSequence = UNKNOWN;
+        zk.watchChildren(CONFIG_CHANGES_ZNODE, childResult -> onNotifications(zk, childResult)).compose(zk2 -> {
+            zk.children(CONFIG_CHANGES_ZNODE, childResult -> {
+                if (childResult.failed()) {
+                    log.error("Error on znode {} children", CONFIG_CHANGES_ZNODE, childResult.cause());
+                    return;
+                }
+                // Changes made before we started are picked up by the initial reconciliation
+                NavigableMap<Long, String> notifications = notifications(childResult.result());
+                lastSequence = notifications.isEmpty() ? -1 : notifications.lastKey();
+                log.debug("Watching config change notifications after {}", lastSequence);
+            });
+            return Future.succeededFuture();
+        });
+    }
+
+    private void onNotifications(Zk zk, AsyncResult<List<String>> childResult) {
+        if (!started()) {
+            zk.unwatchChildren(CONFIG_CHANGES_ZNODE);
+            return;
+        }
+        if (childResult.failed()) {
+            log.error("Error on znode {} children", CONFIG_CHANGES_ZNODE, childResult.cause());
+            return;
+        }
+        long last = lastSequence;
+        if (last == UNKNOWN) {
+            return;
+        }
+        NavigableMap<Long, String> notifications = notifications(childResult.result()).tailMap(last, false);
+        if (notifications.isEmpty()) {
+            return;
+        }
+        lastSequence = notifications.lastKey();
+        for (String notification : notifications.values()) {
+            String path = getPath(notification);
+            zk.getData(path, dataResult -> {
+                if (dataResult.failed()) {
+                    // Kafka deletes old notifications, so this one might already have gone
+                    log.debug("Error getting config change notification {}", path, dataResult.cause());
+                    return;
+                }
+                String topicName = topicName(dataResult.result());
+                if (topicName != null && watching(topicName)) {
+                    notifyOperator(topicName);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return The given config change notification znodes, by their sequence number.
+     */
+    static NavigableMap<Long, String> notifications(List<String> children) {
+        NavigableMap<Long, String> notifications = new TreeMap<>();
+        for (String child : children) {
+            if (child.startsWith(CONFIG_CHANGE_PREFIX)) {
+                try {
+                    notifications.put(Long.parseLong(child.substring(CONFIG_CHANGE_PREFIX.length())), child);
+                } catch (NumberFormatException e) {
+                    // Not a notification
+                }
+            }
+        }
+        return notifications;
+    }
+
+    /**
+     * @return The name of the topic whose config has changed according to the given config change notification,
+     * or null if the notification is about some other kind of entity, or can't be parsed.
+     */
+    static String topicName(byte[] notification) {
+        if (notification == null) {
+            return null;
+        }
+        try {
+            JsonNode json = MAPPER.readTree(notification);
+            if (json == null) {
+                return null;
+            }
+            JsonNode entityPath = json.get("entity_path");
+            if (entityPath != null) {
+                // Version 2: {"version":2,"entity_path":"topics/my-topic"}
+                String path = entityPath.asText();
+                return path.startsWith(TOPICS_ENTITY + "/") ? path.substring(TOPICS_ENTITY.length() + 1) : null;
+            }
+            // Version 1: {"version":1,"entity_type":"topics","entity_name":"my-topic"}
+            JsonNode entityType = json.get("entity_type");
+            JsonNode entityName = json.get("entity_name");
+            if (entityType != null && TOPICS_ENTITY.equals(entityType.asText()) && entityName != null) {
+                return entityName.asText();
+            }
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected void addChild(String child) {
+        topics.add(child);
+    }
+
+    @Override
+    protected void removeChild(String child) {
+        topics.remove(child);
+    }
+
+    @Override
+    protected boolean watching(String child) {
+        return topics.contains(child);
+    }
+
+    @Override
+    protected void notifyOperator(String child) {
+        LogContext logContext = LogContext.zkWatch(CONFIG_CHANGES_ZNODE, "=" + child);
+        log.info("{}: Topic config change", logContext);
+        topicOperator.onTopicConfigChanged(logContext, new TopicName(child)).setHandler(ar2 -> {
+            log.info("{}: Reconciliation result due to topic config change on topic {}: {}", logContext, child, ar2);
+        });
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p>Collects the names of the topics whose metadata is requested and describes them in batches,
+ * fanning the metadata in the result of each batch back out to the futures returned for each topic.
+ * A full reconciliation requests the metadata of every topic in the cluster, so describing them in batches
+ * turns thousands of requests to the Kafka cluster into a few dozen.</p>
+ *
+ * <p>A batch is sent once it's full, or once the first topic in it has waited for the linger time.
+ * At most {@code maxConcurrentBatches} batches are in flight at once; topics requested while the limit is reached
+ * are sent in the next batch once one of the in-flight batches completes.
+ * Concurrent requests for the metadata of the same topic share the same place in a batch.</p>
+ *
+ * @param <T> The type of the metadata of each topic.
+ */
+class TopicMetadataBatcher<T> {
+
+    private final static Logger LOGGER = LogManager.getLogger(TopicMetadataBatcher.class);
+
+    private final Vertx vertx;
+    private final int batchSize;
+    private final int maxConcurrentBatches;
+    private final long lingerMs;
+    private final Function<List<TopicName>, Map<TopicName, Future<T>>> describe;
+
+    private final Map<TopicName, List<Future<T>>> pending = new LinkedHashMap<>();
+    private int inFlight = 0;
+    private boolean flushScheduled = false;
+
+    /**
+     * Constructor
+     *
+     * @param vertx The Vertx instance.
+     * @param batchSize The maximum number of topics described by each batch.
+     * @param maxConcurrentBatches The maximum number of batches in flight at once.
+     * @param lingerMs How long to wait for further topics before sending a batch which isn't full.
+     * @param describe Describes the given topics, returning a future for the metadata of each of them.
+     */
+    TopicMetadataBatcher(Vertx vertx, int batchSize, int maxConcurrentBatches, long lingerMs,
+                         Function<List<TopicName>, Map<TopicName, Future<T>>> describe) {
+        if (batchSize <= 0 || maxConcurrentBatches <= 0) {
+            throw new IllegalArgumentException("The batch size and the maximum number of concurrent batches must be greater than zero");
+        }
+        this.vertx = vertx;
+        this.batchSize = batchSize;
+        this.maxConcurrentBatches = maxConcurrentBatches;
+        this.lingerMs = lingerMs;
+        this.describe = describe;
+    }
+
+    /**
+     * @param topicName The topic.
+     * @return A future for the metadata of the given topic,
+     * which is completed with null if the topic does not exist.
+     */
+    Future<T> topicMetadata(TopicName topicName) {
+        Future<T> result = Future.future();
+        boolean full;
+        boolean schedule;
+        synchronized (this) {
+            pending.computeIfAbsent(topicName, k -> new ArrayList<>(1)).add(result);
+            full = pending.size() >= batchSize;
+            schedule = !full && !flushScheduled;
+            if (schedule) {
+                flushScheduled = true;
+            }
+        }
+        if (full) {
+            flush();
+        } else if (schedule) {
+            if (lingerMs > 0) {
+                vertx.setTimer(lingerMs, timerId -> flush());
+            } else {
+                vertx.runOnContext(ignored -> flush());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sends as many batches of the pending topics as the limit on the number of concurrent batches allows.
+     */
+    private void flush() {
+        while (true) {
+            Map<TopicName, List<Future<T>>> batch;
+            synchronized (this) {
+                flushScheduled = false;
+                if (pending.isEmpty() || inFlight >= maxConcurrentBatches) {
+                    return;
+                }
+                inFlight++;
+                batch = new LinkedHashMap<>();
+                Iterator<Map.Entry<TopicName, List<Future<T>>>> iterator = pending.entrySet().iterator();
+                while (iterator.hasNext() && batch.size() < batchSize) {
+                    Map.Entry<TopicName, List<Future<T>>> entry = iterator.next();
+                    batch.put(entry.getKey(), entry.getValue());
+                    iterator.remove();
+                }
+            }
+            send(batch);
+        }
+    }
+
+    private void send(Map<TopicName, List<Future<T>>> batch) {
+        LOGGER.debug("Describing a batch of {} topics", batch.size());
+        Map<TopicName, Future<T>> results;
+        try {
+            results = describe.apply(new ArrayList<>(batch.keySet()));
+        } catch (RuntimeException e) {
+            LOGGER.debug("Describing a batch of {} topics threw {}", batch.size(), e.toString());
+            results = null;
+            for (List<Future<T>> futures : batch.values()) {
+                futures.forEach(future -> future.tryFail(e));
+            }
+        }
+        List<Future> completions = new ArrayList<>(batch.size());
+        if (results != null) {
+            for (Map.Entry<TopicName, List<Future<T>>> entry : batch.entrySet()) {
+                Future<T> result = results.get(entry.getKey());
+                if (result == null) {
+                    result = Future.failedFuture(new OperatorException("No metadata for topic " + entry.getKey() + " in the result of the batch"));
+                }
+                List<Future<T>> futures = entry.getValue();
+                Future<Void> completion = Future.future();
+                result.setHandler(ar -> {
+                    for (Future<T> future : futures) {
+                        if (ar.succeeded()) {
+                            future.tryComplete(ar.result());
+                        } else {
+                            future.tryFail(ar.cause());
+                        }
+                    }
+                    completion.complete();
+                });
+                completions.add(completion);
+            }
+        }
+        CompositeFuture.join(completions).setHandler(ignored -> {
+            synchronized (this) {
+                inFlight--;
+            }
+            flush();
+        });
+    }
+}
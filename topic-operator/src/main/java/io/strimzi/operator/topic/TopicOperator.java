@@ -8,12 +8,17 @@ import io.fabric8.kubernetes.api.model.EventBuilder;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.client.Watcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import io.strimzi.api.kafka.model.KafkaTopic;
 import io.strimzi.api.kafka.model.KafkaTopicBuilder;
 import io.strimzi.api.kafka.model.status.KafkaTopicStatus;
 import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.common.BackOff;
 import io.strimzi.operator.common.MaxAttemptsExceededException;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.MicrometerMetricsProvider;
 import io.strimzi.operator.common.operator.resource.StatusUtils;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
@@ -34,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
@@ -52,6 +58,14 @@ class TopicOperator {
     private TopicStore topicStore;
     private final Config config;
     private final ConcurrentHashMap<TopicName, Integer> inflight = new ConcurrentHashMap<>();
+    private final MetricsProvider metrics;
+    private final Counter reconciliationsCounter;
+    private final Counter successfulReconciliationsCounter;
+    private final Counter failedReconciliationsCounter;
+    private final Timer reconciliationsTimer;
+    private final Timer lockWaitTimer;
+    /** Limits the topics reconciled at once by a periodic reconciliation; watch events aren't limited */
+    private final ReconciliationLimiter periodicReconciliations;
 
     enum EventType {
         INFO("Info"),
@@ -359,6 +373,16 @@ class TopicOperator {
                          Labels labels,
                          String namespace,
                          Config config) {
+        this(vertx, kafka, k8s, topicStore, labels, namespace, config, new MicrometerMetricsProvider());
+    }
+
+    public TopicOperator(Vertx vertx, Kafka kafka,
+                         K8s k8s,
+                         TopicStore topicStore,
+                         Labels labels,
+                         String namespace,
+                         Config config,
+                         MetricsProvider metrics) {
         this.kafka = kafka;
         this.k8s = k8s;
         this.vertx = vertx;
@@ -366,6 +390,23 @@ class TopicOperator {
         this.topicStore = topicStore;
         this.namespace = namespace;
         this.config = config;
+        this.metrics = metrics;
+        this.periodicReconciliations = new ReconciliationLimiter(config.get(Config.MAX_CONCURRENT_RECONCILIATIONS));
+
+        Tags tags = Tags.of("kind", "KafkaTopic");
+        this.reconciliationsCounter = metrics.counter("strimzi.reconciliations",
+                "Number of reconciliations done by the operator for individual topics", tags);
+        this.successfulReconciliationsCounter = metrics.counter("strimzi.reconciliations.successful",
+                "Number of reconciliations done by the operator for individual topics which were successful", tags);
+        this.failedReconciliationsCounter = metrics.counter("strimzi.reconciliations.failed",
+                "Number of reconciliations done by the operator for individual topics which failed", tags);
+        this.reconciliationsTimer = metrics.timer("strimzi.reconciliations.duration",
+                "The time the reconciliation takes to complete", tags);
+        this.lockWaitTimer = metrics.timer("strimzi.reconciliations.lock.wait",
+                "The time spent waiting for the lock of the topic being reconciled", tags);
+        metrics.gauge("strimzi.reconciliations.in.flight",
+                "Number of reconciliations which are running or waiting for the lock of their topic", tags,
+            () -> inflight.values().stream().mapToInt(Integer::intValue).sum());
     }
 
 
@@ -404,7 +445,21 @@ class TopicOperator {
                 return waiters + 1;
             }
         });
+        reconciliationsCounter.increment();
+        Timer.Sample reconciliationSample = Timer.start(metrics.meterRegistry());
+        Future<Void> measured = Future.future();
+        result.setHandler(ar -> {
+            reconciliationSample.stop(reconciliationsTimer);
+            if (ar.succeeded()) {
+                successfulReconciliationsCounter.increment();
+            } else {
+                failedReconciliationsCounter.increment();
+            }
+            measured.handle(ar);
+        });
+        long lockRequestedNs = System.nanoTime();
         vertx.sharedData().getLockWithTimeout(lockName, timeoutMs, lockResult -> {
+            lockWaitTimer.record(System.nanoTime() - lockRequestedNs, TimeUnit.NANOSECONDS);
             if (lockResult.succeeded()) {
                 LOGGER.debug("{}: Lock acquired", logContext);
                 LOGGER.debug("{}: Executing action {} on topic {}", logContext, action, lockName);
@@ -440,7 +495,16 @@ class TopicOperator {
                 }
             }
         });
-        return result;
+        return measured;
+    }
+
+    /**
+     * Like {@link #executeWithTopicLockHeld(LogContext, TopicName, Reconciliation)}, for the reconciliations of
+     * a periodic reconciliation, which wait for a place among the {@link Config#MAX_CONCURRENT_RECONCILIATIONS}
+     * reconciliations in flight before waiting for the lock.
+     */
+    private Future<Void> executePeriodic(LogContext logContext, TopicName key, Reconciliation action) {
+        return periodicReconciliations.submit(() -> executeWithTopicLockHeld(logContext, key, action));
     }
 
     /**
@@ -1187,7 +1251,7 @@ class TopicOperator {
                 // anything left in undetermined doesn't exist in topic store nor kube
                 for (TopicName tn : reconcileState.undetermined) {
                     LogContext logContext = LogContext.periodic(reconciliationType + "-" + tn);
-                    futs2.add(executeWithTopicLockHeld(logContext, tn, new Reconciliation("delete-remaining") {
+                    futs2.add(executePeriodic(logContext, tn, new Reconciliation("delete-remaining") {
                         @Override
                         public Future<Void> execute() {
                             observedTopicFuture(null);
@@ -1216,7 +1280,7 @@ class TopicOperator {
             List<Future<Void>> futures = new ArrayList<>();
             for (TopicName topicName : topicsFromKafka) {
                 LogContext logContext = LogContext.periodic(reconciliationType + "kafka " + topicName);
-                futures.add(executeWithTopicLockHeld(logContext, topicName, new Reconciliation("reconcile-from-kafka") {
+                futures.add(executePeriodic(logContext, topicName, new Reconciliation("reconcile-from-kafka") {
                     @Override
                     public Future<Void> execute() {
                         return getFromTopicStore(topicName).recover(error -> {
@@ -1320,7 +1384,7 @@ class TopicOperator {
 
     private Future<Void> reconcileWithKubeTopic(LogContext logContext, HasMetadata involvedObject,
                                                 String reconciliationType, ResourceName kubeName, TopicName topicName) {
-        return executeWithTopicLockHeld(logContext, topicName, new Reconciliation("reconcile-with-kube") {
+        return executePeriodic(logContext, topicName, new Reconciliation("reconcile-with-kube") {
             @Override
             public Future<Void> execute() {
                 Reconciliation self = this;
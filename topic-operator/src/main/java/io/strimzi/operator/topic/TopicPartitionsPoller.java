@@ -0,0 +1,153 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.strimzi.operator.topic.zk.Zk;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Periodically describes the topics of {@code /brokers/topics},
+ * calling {@link TopicOperator#onTopicPartitionsChanged(LogContext, TopicName)}
+ * for those whose partitions, or the assignment of their replicas to brokers, have changed since the last time.</p>
+ *
+ * <p>Unlike {@link ZkTopicWatcher}, which watches the znode of every topic, this uses no watches,
+ * and the topics are described in batches by {@link Kafka#topicDescription(TopicName)},
+ * which doesn't describe their configs.</p>
+ */
+class TopicPartitionsPoller extends ZkWatcher {
+
+    private static final String TOPICS_ZNODE = "/brokers/topics";
+
+    /** The assignment of a topic which hasn't been described yet */
+    private static final String UNKNOWN = "";
+
+    private final Vertx vertx;
+    private final Kafka kafka;
+    private final long intervalMs;
+
+    /** The assignment of each topic, as of the last time it was described */
+    private final ConcurrentHashMap<String, String> assignments = new ConcurrentHashMap<>();
+
+    private volatile Long timerId;
+
+    /**
+     * Constructor
+     *
+     * @param topicOperator    Operator instance to notify
+     * @param vertx     Vertx instance
+     * @param kafka     Kafka for describing the topics
+     * @param intervalMs    The interval between describing the topics
+     */
+    TopicPartitionsPoller(TopicOperator topicOperator, Vertx vertx, Kafka kafka, long intervalMs) {
+        super(topicOperator, TOPICS_ZNODE);
+        this.vertx = vertx;
+        this.kafka = kafka;
+        this.intervalMs = intervalMs;
+    }
+
+    @Override
+    protected void start(Zk zk) {
+        super.start(zk);
+        schedule();
+    }
+
+    @Override
+    protected void stop() {
+        super.stop();
+        Long timerId = this.timerId;
+        if (timerId != null) {
+            vertx.cancelTimer(timerId);
+        }
+    }
+
+    private void schedule() {
+        timerId = vertx.setTimer(intervalMs, ignored -> poll().setHandler(ignored2 -> {
+            if (started()) {
+                schedule();
+            }
+        }));
+    }
+
+    /**
+     * Describes all the topics, notifying the operator about those whose assignment has changed.
+     * The first time a topic is described its assignment is just recorded.
+     * @return A future which completes once all the topics have been described.
+     */
+    Future<Void> poll() {
+        if (!started()) {
+            return Future.succeededFuture();
+        }
+        List<String> topics = new ArrayList<>(assignments.keySet());
+        log.debug("Describing {} topics for changes to their partitions", topics.size());
+        List<Future> described = new ArrayList<>(topics.size());
+        for (String topic : topics) {
+            Future<Void> done = Future.future();
+            kafka.topicDescription(new TopicName(topic)).setHandler(ar -> {
+                if (ar.failed()) {
+                    log.debug("Error describing topic {}", topic, ar.cause());
+                } else if (ar.result() != null) {
+                    String assignment = assignment(ar.result());
+                    String previous = assignments.replace(topic, assignment);
+                    if (previous != null && !UNKNOWN.equals(previous) && !previous.equals(assignment)) {
+                        notifyOperator(topic);
+                    }
+                }
+                done.complete();
+            });
+            described.add(done);
+        }
+        return CompositeFuture.join(described).map(ignored -> null);
+    }
+
+    /**
+     * @return The replicas of each partition of the given topic, as a string.
+     */
+    static String assignment(TopicDescription description) {
+        return description.partitions().stream()
+                .map(TopicPartitionsPoller::assignment)
+                .collect(Collectors.joining(";"));
+    }
+
+    private static String assignment(TopicPartitionInfo partition) {
+        return partition.partition() + "=" + partition.replicas().stream()
+                .map(Node::idString)
+                .collect(Collectors.joining(","));
+    }
+
+    @Override
+    protected void addChild(String child) {
+        assignments.putIfAbsent(child, UNKNOWN);
+    }
+
+    @Override
+    protected void removeChild(String child) {
+        assignments.remove(child);
+    }
+
+    @Override
+    protected boolean watching(String child) {
+        return assignments.containsKey(child);
+    }
+
+    @Override
+    protected void notifyOperator(String child) {
+        LogContext logContext = LogContext.zkWatch(TOPICS_ZNODE, "=" + child);
+        log.info("{}: Partitions change", logContext);
+        topicOperator.onTopicPartitionsChanged(logContext,
+            new TopicName(child)).setHandler(ar -> {
+                log.info("{}: Reconciliation result due to topic partitions change on topic {}: {}", logContext, child, ar);
+            });
+    }
+}
@@ -20,6 +20,13 @@ interface TopicStore {
 
     }
 
+    /**
+     * The topic has been modified, or deleted and recreated, in the store since it was last read.
+     */
+    public static class ConcurrentModificationException extends Exception {
+
+    }
+
     /**
      * Asynchronously get the topic with the given name
      * completing the returned future when done.
@@ -45,6 +52,8 @@ interface TopicStore {
      * completing the returned future when done.
      * If no topic with the given name exists, the future will complete with a
      * {@link NoSuchEntityExistsException}.
+     * If the topic has been modified in the store since it was last read, the future may complete with a
+     * {@link ConcurrentModificationException}.
      * @param topic The topic.
      * @return A future which completes when the given topic has been updated.
      */
@@ -55,6 +64,8 @@ interface TopicStore {
      * completing the returned future when done.
      * If no topic with the given name exists, the future will complete with a
      * {@link NoSuchEntityExistsException}.
+     * If the topic has been modified in the store since it was last read, the future may complete with a
+     * {@link ConcurrentModificationException}.
      * @param topic The topic.
      * @return A future which completes when the given topic has been deleted.
      */
@@ -8,67 +8,171 @@ import io.strimzi.operator.topic.zk.AclBuilder;
 import io.strimzi.operator.topic.zk.Zk;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Vertx;
 import org.I0Itec.zkclient.exception.ZkNoNodeException;
 import org.I0Itec.zkclient.exception.ZkNodeExistsException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.OpResult;
 import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Implementation of {@link TopicStore} that stores the topic state in ZooKeeper.
+ * <p>Implementation of {@link TopicStore} that stores the topic state in ZooKeeper.</p>
+ *
+ * <p>The version of each topic's znode is tracked as of when it was last read or written by this store,
+ * and updates and deletes are conditional on the znode still having that version, so that a concurrent
+ * modification of the topic isn't lost.</p>
+ *
+ * <p>Creates, updates and deletes are queued and written in batches, each as a single ZooKeeper transaction
+ * ({@code multi()}), once the batch is full or the first write in it has waited for the linger time.
+ * One batch is written at a time, so writes are applied in the order they were made.
+ * Should a write in a batch fail, that write is failed and the other writes in the batch are retried
+ * in the next batch.</p>
  */
 public class ZkTopicStore implements TopicStore {
 
     private final static Logger LOGGER = LogManager.getLogger(ZkTopicStore.class);
     public static final String TOPICS_PATH = "/strimzi/topics";
 
+    /** The default maximum number of writes in a batch */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    /** The default time the first write in a batch waits for further writes */
+    public static final long DEFAULT_BATCH_LINGER_MS = 5;
+
+    private static final int UNKNOWN_VERSION = -1;
+
     private final Zk zk;
 
+    private final Vertx vertx;
+
     private final List<ACL> acl;
 
-    public ZkTopicStore(Zk zk) {
+    private final int maxBatchSize;
+
+    private final long lingerMs;
+
+    /** The version of the znode of each topic, as of when it was last read or written */
+    private final Map<TopicName, Integer> versions = new ConcurrentHashMap<>();
+
+    private final Deque<Write> pending = new ArrayDeque<>();
+
+    /** Whether a batch is being written; initially true, so nothing is written until {@link #TOPICS_PATH} exists */
+    private boolean writing = true;
+
+    private boolean flushScheduled = false;
+
+    /** Why {@link #TOPICS_PATH} couldn't be created, or null */
+    private Throwable topicsPathFailure;
+
+    private enum Kind {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private static class Write {
+        private final Kind kind;
+        private final TopicName topicName;
+        private final byte[] data;
+        private final Future<Void> result = Future.future();
+
+        Write(Kind kind, TopicName topicName, byte[] data) {
+            this.kind = kind;
+            this.topicName = topicName;
+            this.data = data;
+        }
+    }
+
+    public ZkTopicStore(Zk zk, Vertx vertx) {
+        this(zk, vertx, DEFAULT_MAX_BATCH_SIZE, DEFAULT_BATCH_LINGER_MS);
+    }
+
+    public ZkTopicStore(Zk zk, Vertx vertx, int maxBatchSize, long lingerMs) {
         this.zk = zk;
+        this.vertx = vertx;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMs = lingerMs;
         acl = new AclBuilder().setWorld(AclBuilder.Permission.values()).build();
         createStrimziTopicsPath();
     }
 
     private void createStrimziTopicsPath() {
         zk.create("/strimzi", null, acl, CreateMode.PERSISTENT, result -> {
-            if (result.failed()) {
-                if (!(result.cause() instanceof ZkNodeExistsException)) {
-                    LOGGER.error("Error creating {}", "/strimzi", result.cause());
-                    throw new RuntimeException(result.cause());
-                }
+            if (result.failed() && !(result.cause() instanceof ZkNodeExistsException)) {
+                topicsPathCreated("/strimzi", result.cause());
+                return;
             }
             zk.create(TOPICS_PATH, null, acl, CreateMode.PERSISTENT, result2 -> {
-                if (result2.failed()) {
-                    if (!(result2.cause() instanceof ZkNodeExistsException)) {
-                        LOGGER.error("Error creating {}", TOPICS_PATH, result2.cause());
-                        throw new RuntimeException(result2.cause());
-                    }
-                }
+                topicsPathCreated(TOPICS_PATH, result2.failed() && !(result2.cause() instanceof ZkNodeExistsException) ? result2.cause() : null);
             });
         });
     }
 
+    /**
+     * Starts writing once {@link #TOPICS_PATH} exists.
+     * If it couldn't be created the pending writes, and all later ones, fail with the cause.
+     */
+    private void topicsPathCreated(String path, Throwable cause) {
+        if (cause != null) {
+            LOGGER.error("Error creating {}", path, cause);
+        }
+        synchronized (this) {
+            topicsPathFailure = cause;
+            writing = false;
+        }
+        flush();
+    }
 
     private static String getTopicPath(TopicName name) {
         return TOPICS_PATH + "/" + name;
     }
 
+    /**
+     * @return A future for the names of all the topics in the store.
+     */
+    public Future<List<TopicName>> topicNames() {
+        Future<List<TopicName>> handler = Future.future();
+        zk.children(TOPICS_PATH, result -> {
+            if (result.succeeded()) {
+                List<TopicName> topicNames = new ArrayList<>(result.result().size());
+                for (String child : result.result()) {
+                    topicNames.add(new TopicName(child));
+                }
+                handler.complete(topicNames);
+            } else if (result.cause() instanceof ZkNoNodeException) {
+                handler.complete(new ArrayList<>(0));
+            } else {
+                handler.fail(result.cause());
+            }
+        });
+        return handler;
+    }
+
     @Override
     public Future<Topic> read(TopicName topicName) {
         Future<Topic> handler = Future.future();
         String topicPath = getTopicPath(topicName);
-        zk.getData(topicPath, result -> {
+        Stat stat = new Stat();
+        zk.getData(topicPath, stat, result -> {
             final AsyncResult<Topic> fut;
             if (result.succeeded()) {
+                versions.put(topicName, stat.getVersion());
                 fut = Future.succeededFuture(TopicSerialization.fromJson(result.result()));
             } else {
                 if (result.cause() instanceof ZkNoNodeException) {
+                    versions.remove(topicName);
                     fut = Future.succeededFuture(null);
                 } else {
                     fut = result.map((Topic) null);
@@ -81,44 +185,184 @@ public class ZkTopicStore implements TopicStore {
 
     @Override
     public Future<Void> create(Topic topic) {
-        Future<Void> handler = Future.future();
-        byte[] data = TopicSerialization.toJson(topic);
-        String topicPath = getTopicPath(topic.getTopicName());
-        LOGGER.debug("create znode {}", topicPath);
-        zk.create(topicPath, data, acl, CreateMode.PERSISTENT, result -> {
-            if (result.failed() && result.cause() instanceof ZkNodeExistsException) {
-                handler.handle(Future.failedFuture(new EntityExistsException()));
-            } else {
-                handler.handle(result);
-            }
-        });
-        return handler;
+        LOGGER.debug("create znode {}", getTopicPath(topic.getTopicName()));
+        return enqueue(new Write(Kind.CREATE, topic.getTopicName(), TopicSerialization.toJson(topic)));
     }
 
     @Override
     public Future<Void> update(Topic topic) {
-        Future<Void> handler = Future.future();
-        byte[] data = TopicSerialization.toJson(topic);
-        // TODO pass a non-zero version
-        String topicPath = getTopicPath(topic.getTopicName());
-        LOGGER.debug("update znode {}", topicPath);
-        zk.setData(topicPath, data, -1, handler);
-        return handler;
+        LOGGER.debug("update znode {}", getTopicPath(topic.getTopicName()));
+        return enqueue(new Write(Kind.UPDATE, topic.getTopicName(), TopicSerialization.toJson(topic)));
     }
 
     @Override
     public Future<Void> delete(TopicName topicName) {
-        Future<Void> handler = Future.future();
-        // TODO pass a non-zero version
-        String topicPath = getTopicPath(topicName);
-        LOGGER.debug("delete znode {}", topicPath);
-        zk.delete(topicPath, -1, result -> {
-            if (result.failed() && result.cause() instanceof ZkNoNodeException) {
-                handler.handle(Future.failedFuture(new NoSuchEntityExistsException()));
+        LOGGER.debug("delete znode {}", getTopicPath(topicName));
+        return enqueue(new Write(Kind.DELETE, topicName, null));
+    }
+
+    private Future<Void> enqueue(Write write) {
+        boolean flushNow;
+        boolean schedule;
+        synchronized (this) {
+            pending.add(write);
+            flushNow = pending.size() >= maxBatchSize;
+            schedule = !flushNow && !flushScheduled;
+            if (schedule) {
+                flushScheduled = true;
+            }
+        }
+        if (flushNow) {
+            flush();
+        } else if (schedule) {
+            vertx.setTimer(lingerMs, timerId -> flush());
+        }
+        return write.result;
+    }
+
+    /**
+     * Writes the next batch of pending writes, unless a batch is already being written.
+     */
+    private void flush() {
+        List<Write> batch;
+        Throwable failure;
+        synchronized (this) {
+            flushScheduled = false;
+            if (writing || pending.isEmpty()) {
+                return;
+            }
+            failure = topicsPathFailure;
+            if (failure != null) {
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            } else {
+                writing = true;
+                batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+                while (!pending.isEmpty() && batch.size() < maxBatchSize) {
+                    batch.add(pending.poll());
+                }
+            }
+        }
+        if (failure != null) {
+            for (Write write : batch) {
+                write.result.fail(failure);
+            }
+            return;
+        }
+        // The versions the znodes will have as each write in the batch is applied
+        Map<TopicName, Integer> batchVersions = new HashMap<>();
+        List<Op> ops = new ArrayList<>(batch.size());
+        for (Write write : batch) {
+            String topicPath = getTopicPath(write.topicName);
+            Integer version = batchVersions.containsKey(write.topicName) ? batchVersions.get(write.topicName) : versions.get(write.topicName);
+            int expectedVersion = version != null ? version : UNKNOWN_VERSION;
+            switch (write.kind) {
+                case CREATE:
+                    ops.add(Op.create(topicPath, write.data, acl, CreateMode.PERSISTENT));
+                    batchVersions.put(write.topicName, 0);
+                    break;
+                case UPDATE:
+                    ops.add(Op.setData(topicPath, write.data, expectedVersion));
+                    batchVersions.put(write.topicName, version != null ? version + 1 : null);
+                    break;
+                case DELETE:
+                    ops.add(Op.delete(topicPath, expectedVersion));
+                    batchVersions.put(write.topicName, null);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown write " + write.kind);
+            }
+        }
+        LOGGER.debug("Writing a batch of {} topics", batch.size());
+        zk.multi(ops, ar -> {
+            if (ar.succeeded()) {
+                completed(batch, ar.result());
             } else {
-                handler.handle(result);
+                failed(batch, ar.cause());
             }
+            synchronized (this) {
+                writing = false;
+            }
+            flush();
         });
-        return handler;
+    }
+
+    private void completed(List<Write> batch, List<OpResult> results) {
+        for (int i = 0; i < batch.size(); i++) {
+            Write write = batch.get(i);
+            switch (write.kind) {
+                case CREATE:
+                    versions.put(write.topicName, 0);
+                    break;
+                case UPDATE:
+                    versions.put(write.topicName, ((OpResult.SetDataResult) results.get(i)).getStat().getVersion());
+                    break;
+                default:
+                    versions.remove(write.topicName);
+                    break;
+            }
+        }
+        for (Write write : batch) {
+            write.result.complete();
+        }
+    }
+
+    /**
+     * Fails the writes of the batch which caused the transaction to fail, and requeues the others.
+     * If the outcome of each operation isn't known (for example because the session expired or the
+     * connection was lost) all the writes of the batch are failed.
+     */
+    private void failed(List<Write> batch, Throwable cause) {
+        List<OpResult> results = cause instanceof KeeperException ? ((KeeperException) cause).getResults() : null;
+        if (results == null || results.size() != batch.size()) {
+            failAll(batch, cause);
+            return;
+        }
+        List<Write> retry = new ArrayList<>(batch.size());
+        List<Write> failed = new ArrayList<>(batch.size());
+        List<Throwable> causes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            int err = results.get(i) instanceof OpResult.ErrorResult ? ((OpResult.ErrorResult) results.get(i)).getErr() : KeeperException.Code.OK.intValue();
+            if (err == KeeperException.Code.OK.intValue()
+                    || err == KeeperException.Code.RUNTIMEINCONSISTENCY.intValue()) {
+                retry.add(batch.get(i));
+            } else {
+                failed.add(batch.get(i));
+                causes.add(exception(batch.get(i), KeeperException.Code.get(err)));
+            }
+        }
+        if (failed.isEmpty()) {
+            // Couldn't tell which write failed
+            failAll(batch, cause);
+            return;
+        }
+        synchronized (this) {
+            for (int i = retry.size() - 1; i >= 0; i--) {
+                pending.addFirst(retry.get(i));
+            }
+        }
+        for (int i = 0; i < failed.size(); i++) {
+            failed.get(i).result.fail(causes.get(i));
+        }
+    }
+
+    private void failAll(List<Write> batch, Throwable cause) {
+        LOGGER.debug("Error writing a batch of {} topics", batch.size(), cause);
+        for (Write write : batch) {
+            write.result.fail(cause);
+        }
+    }
+
+    private static Throwable exception(Write write, KeeperException.Code code) {
+        switch (code) {
+            case NODEEXISTS:
+                return new EntityExistsException();
+            case NONODE:
+                return new NoSuchEntityExistsException();
+            case BADVERSION:
+                return new ConcurrentModificationException();
+            default:
+                return KeeperException.create(code, getTopicPath(write.topicName));
+        }
     }
 }
@@ -25,8 +25,8 @@ class ZkTopicsWatcher {
     private static final String TOPICS_ZNODE = "/brokers/topics";
 
     private final TopicOperator topicOperator;
-    private final TopicConfigsWatcher tcw;
-    private final ZkTopicWatcher tw;
+    private final ZkWatcher tcw;
+    private final ZkWatcher tw;
 
     private List<String> children;
 
@@ -39,7 +39,7 @@ class ZkTopicsWatcher {
      * @param tcw   watcher for the topics config changes
      * @param tw    watcher for the topics partitions changes
      */
-    ZkTopicsWatcher(TopicOperator topicOperator, TopicConfigsWatcher tcw, ZkTopicWatcher tw) {
+    ZkTopicsWatcher(TopicOperator topicOperator, ZkWatcher tcw, ZkWatcher tw) {
         this.topicOperator = topicOperator;
         this.tcw = tcw;
         this.tw = tw;
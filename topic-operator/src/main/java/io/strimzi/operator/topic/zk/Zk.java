@@ -11,7 +11,10 @@ import io.vertx.core.Vertx;
 import org.I0Itec.zkclient.ZkClient;
 import org.I0Itec.zkclient.serialize.BytesPushThroughSerializer;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.OpResult;
 import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
 
 import java.util.List;
 
@@ -116,6 +119,18 @@ public interface Zk {
      */
     Zk getData(String path, Handler<AsyncResult<byte[]>> handler);
 
+    /**
+     * Asynchronously fetch the data of the given znode at the given path, filling in the given {@code stat}
+     * with the znode's stat (such as its version) before calling the given handler with the result.
+     * Unlike {@link #getData(String, Handler)} calls are not ordered with respect to each other,
+     * so many znodes can be read in parallel.
+     * @param path The path.
+     * @param stat The stat to fill in.
+     * @param handler The result handler.
+     * @return This instance.
+     */
+    Zk getData(String path, Stat stat, Handler<AsyncResult<byte[]>> handler);
+
     /**
      * Asynchronously set given the data {@code watcher} on the given {@code path},
      * returning a future which completes when the watcher is subscribed.
@@ -135,7 +150,22 @@ public interface Zk {
      */
     Zk unwatchData(String path);
 
-    // TODO getAcl(), setAcl(), multi()
+    /**
+     * Asynchronously execute the given operations as a single transaction, calling the given handler
+     * with the result of each operation.
+     * If any of the operations fails none of them is applied, and the handler is called with the failure.
+     * If the transaction was executed the failure is the {@link org.apache.zookeeper.KeeperException}
+     * of the failed operation, whose {@link org.apache.zookeeper.KeeperException#getResults()} give the outcome
+     * of each operation. Otherwise (for example if the session expired, the connection was lost or the operation
+     * timed out) the failure may be some other exception, or a KeeperException without results, and the outcome
+     * of each operation isn't known.
+     * @param ops The operations.
+     * @param handler The result handler.
+     * @return This instance.
+     */
+    Zk multi(List<Op> ops, Handler<AsyncResult<List<OpResult>>> handler);
+
+    // TODO getAcl(), setAcl()
 
 }
 
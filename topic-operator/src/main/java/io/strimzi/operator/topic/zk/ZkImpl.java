@@ -4,6 +4,8 @@
  */
 package io.strimzi.operator.topic.zk;
 
+import io.strimzi.operator.common.WorkerPool;
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -12,11 +14,16 @@ import io.vertx.core.WorkerExecutor;
 import org.I0Itec.zkclient.IZkChildListener;
 import org.I0Itec.zkclient.IZkDataListener;
 import org.I0Itec.zkclient.ZkClient;
+import org.I0Itec.zkclient.exception.ZkException;
 import org.I0Itec.zkclient.exception.ZkNoNodeException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.OpResult;
 import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
 
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,7 +39,7 @@ public class ZkImpl implements Zk {
             LOGGER.trace("{} returned {}", msg, ignored);
         };
     }
-    private final Vertx vertx;
+    private final WorkerExecutor workerPool;
     private final ZkClient zookeeper;
 
     // Only accessed on the vertx context.
@@ -41,14 +48,14 @@ public class ZkImpl implements Zk {
     private final ConcurrentHashMap<String, IZkChildListener> childWatches = new ConcurrentHashMap<>();
 
     public ZkImpl(Vertx vertx, ZkClient zkClient) {
-        this.vertx = vertx;
+        this.workerPool = WorkerPools.executor(vertx, WorkerPool.ZOOKEEPER);
         this.zookeeper = zkClient;
     }
 
 
     @Override
     public Zk create(String path, byte[] data, List<ACL> acls, CreateMode createMode, Handler<AsyncResult<Void>> handler) {
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     zookeeper.create(path, data == null ? new byte[0] : data, acls, createMode);
@@ -63,7 +70,7 @@ public class ZkImpl implements Zk {
 
     @Override
     public Zk setData(String path, byte[] data, int version, Handler<AsyncResult<Void>> handler) {
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     zookeeper.writeData(path, data, version);
@@ -79,7 +86,7 @@ public class ZkImpl implements Zk {
     @Override
     public Zk disconnect(Handler<AsyncResult<Void>> handler) {
 
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     zookeeper.close();
@@ -94,7 +101,7 @@ public class ZkImpl implements Zk {
 
     @Override
     public Zk getData(String path, Handler<AsyncResult<byte[]>> handler) {
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     future.complete(zookeeper.readData(path));
@@ -106,6 +113,38 @@ public class ZkImpl implements Zk {
         return this;
     }
 
+    @Override
+    public Zk getData(String path, Stat stat, Handler<AsyncResult<byte[]>> handler) {
+        workerPool.executeBlocking(
+            future -> {
+                try {
+                    future.complete(zookeeper.readData(path, stat));
+                } catch (Throwable t) {
+                    future.fail(t);
+                }
+            },
+            false,
+            handler);
+        return this;
+    }
+
+    @Override
+    public Zk multi(List<Op> ops, Handler<AsyncResult<List<OpResult>>> handler) {
+        workerPool.executeBlocking(
+            future -> {
+                try {
+                    future.complete(zookeeper.multi(ops));
+                } catch (ZkException e) {
+                    // Unwrap, so that the results of the operations are available to the handler
+                    future.fail(e.getCause() instanceof KeeperException ? e.getCause() : e);
+                } catch (Throwable t) {
+                    future.fail(t);
+                }
+            },
+            handler);
+        return this;
+    }
+
     static class DataWatchAdapter implements IZkDataListener {
 
         private final Handler<AsyncResult<byte[]>> watcher;
@@ -128,7 +167,7 @@ public class ZkImpl implements Zk {
     @Override
     public Future<Zk> watchData(String path, Handler<AsyncResult<byte[]>> watcher) {
         Future<Zk> result = Future.future();
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     IZkDataListener listener = new DataWatchAdapter(watcher);
@@ -152,7 +191,7 @@ public class ZkImpl implements Zk {
 
     @Override
     public Zk unwatchData(String path) {
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     IZkDataListener listener = dataWatches.remove(path);
@@ -170,7 +209,7 @@ public class ZkImpl implements Zk {
 
     @Override
     public Zk delete(String path, int version, Handler<AsyncResult<Void>> handler) {
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     if (zookeeper.delete(path, version)) {
@@ -186,13 +225,9 @@ public class ZkImpl implements Zk {
         return this;
     }
 
-    private WorkerExecutor workerPool() {
-        return vertx.createSharedWorkerExecutor(getClass().getName(), 4);
-    }
-
     @Override
     public Zk children(String path, Handler<AsyncResult<List<String>>> handler) {
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     future.complete(zookeeper.getChildren(path));
@@ -208,7 +243,7 @@ public class ZkImpl implements Zk {
     @Override
     public Future<Zk> watchChildren(String path, Handler<AsyncResult<List<String>>> watcher) {
         Future<Zk> result = Future.future();
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     IZkChildListener listener = (parentPath, currentChilds) -> watcher.handle(Future.succeededFuture(currentChilds));
@@ -232,7 +267,7 @@ public class ZkImpl implements Zk {
 
     @Override
     public Zk unwatchChildren(String path) {
-        workerPool().executeBlocking(
+        workerPool.executeBlocking(
             future -> {
                 try {
                     IZkChildListener listener = childWatches.remove(path);
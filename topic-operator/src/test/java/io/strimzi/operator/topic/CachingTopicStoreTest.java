@@ -0,0 +1,115 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CachingTopicStoreTest {
+
+    private static final TopicName FOO = new TopicName("foo");
+    private static final TopicName BAR = new TopicName("bar");
+
+    /** A MockTopicStore which counts the reads */
+    private static class CountingTopicStore extends MockTopicStore {
+        int reads = 0;
+
+        @Override
+        public Future<Topic> read(TopicName name) {
+            reads++;
+            return super.read(name);
+        }
+    }
+
+    private CountingTopicStore delegate;
+    private CachingTopicStore store;
+
+    @BeforeEach
+    public void setup() {
+        delegate = new CountingTopicStore();
+        delegate.setCreateTopicResponse(FOO, null);
+        delegate.setCreateTopicResponse(BAR, null);
+        delegate.setDeleteTopicResponse(FOO, null);
+        delegate.create(topic(FOO, 1));
+        store = new CachingTopicStore(delegate);
+    }
+
+    private static Topic topic(TopicName topicName, int numPartitions) {
+        return new Topic.Builder(topicName.toString(), numPartitions, (short) 1, Collections.emptyMap()).build();
+    }
+
+    @Test
+    public void testReadsAreServedFromMemoryOnceLoaded() {
+        // Until loaded reads go to the other store
+        assertThat(store.read(FOO).result(), is(topic(FOO, 1)));
+        assertThat(delegate.reads, is(1));
+
+        assertThat(store.load(asList(FOO)).succeeded(), is(true));
+        assertThat(delegate.reads, is(2));
+
+        assertThat(store.read(FOO).result(), is(topic(FOO, 1)));
+        assertThat(store.read(FOO).result(), is(topic(FOO, 1)));
+        // A topic which wasn't loaded doesn't exist
+        assertThat(store.read(BAR).result(), is(nullValue()));
+        assertThat(delegate.reads, is(2));
+    }
+
+    @Test
+    public void testWritesAreWrittenThrough() {
+        store.load(asList(FOO));
+
+        assertThat(store.create(topic(BAR, 1)).succeeded(), is(true));
+        assertThat(store.update(topic(FOO, 2)).succeeded(), is(true));
+        assertThat(store.read(BAR).result(), is(topic(BAR, 1)));
+        assertThat(store.read(FOO).result(), is(topic(FOO, 2)));
+        assertThat(delegate.reads, is(1));
+        assertThat(delegate.read(BAR).result(), is(topic(BAR, 1)));
+        assertThat(delegate.read(FOO).result(), is(topic(FOO, 2)));
+
+        assertThat(store.delete(FOO).succeeded(), is(true));
+        assertThat(store.read(FOO).result(), is(nullValue()));
+        assertThat(delegate.reads, is(3));
+        assertThat(delegate.read(FOO).result(), is(nullValue()));
+    }
+
+    @Test
+    public void testTopicIsReadFromTheOtherStoreAfterAFailedWrite() {
+        store.load(asList(FOO));
+
+        // The topic doesn't exist in the other store, so the update fails
+        Future<Void> update = store.update(topic(BAR, 1));
+        assertThat(update.failed(), is(true));
+        assertThat(update.cause(), instanceOf(TopicStore.NoSuchEntityExistsException.class));
+        assertThat(delegate.reads, is(1));
+
+        // So it's read from the other store, which the mock updated anyway
+        assertThat(store.read(BAR).result(), is(topic(BAR, 1)));
+        assertThat(delegate.reads, is(2));
+        // And then from memory
+        assertThat(store.read(BAR).result(), is(topic(BAR, 1)));
+        assertThat(delegate.reads, is(2));
+    }
+
+    @Test
+    public void testTopicWhichFailedToLoadIsReadFromTheOtherStore() {
+        delegate.setGetTopicResponse(BAR, Future.failedFuture("boom"));
+        assertThat(store.load(asList(FOO, BAR)).succeeded(), is(true));
+        assertThat(delegate.reads, is(2));
+
+        assertThat(store.read(BAR).failed(), is(true));
+        assertThat(delegate.reads, is(3));
+        assertThat(store.read(FOO).result(), is(topic(FOO, 1)));
+        assertThat(delegate.reads, is(3));
+    }
+}
@@ -81,4 +81,60 @@ public class ConfigTest {
         Config c = new Config(map);
         assertThat(c.get(Config.TOPIC_METADATA_MAX_ATTEMPTS).intValue(), is(3));
     }
+
+    @Test
+    public void topicMetadataBatching() {
+        Map<String, String> map = new HashMap<>(MANDATORY);
+        Config c = new Config(map);
+        assertThat(c.get(Config.TOPIC_METADATA_BATCH_SIZE).intValue(), is(500));
+        assertThat(c.get(Config.TOPIC_METADATA_MAX_CONCURRENT_BATCHES).intValue(), is(4));
+
+        map.put(Config.TC_TOPIC_METADATA_BATCH_SIZE, "100");
+        map.put(Config.TC_TOPIC_METADATA_MAX_CONCURRENT_BATCHES, "2");
+        c = new Config(map);
+        assertThat(c.get(Config.TOPIC_METADATA_BATCH_SIZE).intValue(), is(100));
+        assertThat(c.get(Config.TOPIC_METADATA_MAX_CONCURRENT_BATCHES).intValue(), is(2));
+
+        try {
+            map.put(Config.TC_TOPIC_METADATA_BATCH_SIZE, "0");
+            new Config(map);
+            fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+    }
+
+    @Test
+    public void maxConcurrentReconciliations() {
+        Map<String, String> map = new HashMap<>(MANDATORY);
+        assertThat(new Config(map).get(Config.MAX_CONCURRENT_RECONCILIATIONS).intValue(), is(500));
+
+        map.put(Config.TC_MAX_CONCURRENT_RECONCILIATIONS, "20");
+        assertThat(new Config(map).get(Config.MAX_CONCURRENT_RECONCILIATIONS).intValue(), is(20));
+
+        try {
+            map.put(Config.TC_MAX_CONCURRENT_RECONCILIATIONS, "0");
+            new Config(map);
+            fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+    }
+
+    @Test
+    public void zookeeperWatchMode() {
+        Map<String, String> map = new HashMap<>(MANDATORY);
+        assertThat(new Config(map).get(Config.ZOOKEEPER_WATCH_MODE), is(Config.ZookeeperWatchMode.TOPICS));
+
+        map.put(Config.TC_ZK_WATCH_MODE, "notifications");
+        assertThat(new Config(map).get(Config.ZOOKEEPER_WATCH_MODE), is(Config.ZookeeperWatchMode.NOTIFICATIONS));
+
+        try {
+            map.put(Config.TC_ZK_WATCH_MODE, "polling");
+            new Config(map);
+            fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+    }
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListTopicsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.TopicAuthorizationException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(VertxExtension.class)
+public class KafkaImplTest {
+
+    private Vertx vertx;
+    private AdminClient adminClient;
+    private final Map<String, KafkaFutureImpl<TopicDescription>> descriptions = new HashMap<>();
+    private final Map<ConfigResource, KafkaFutureImpl<Config>> configs = new HashMap<>();
+
+    @BeforeEach
+    public void setup() {
+        vertx = Vertx.vertx();
+        adminClient = mock(AdminClient.class);
+        when(adminClient.describeTopics(any())).thenAnswer(invocation -> {
+            Map<String, KafkaFuture<TopicDescription>> values = new HashMap<>();
+            for (String topic : invocation.<Collection<String>>getArgument(0)) {
+                KafkaFutureImpl<TopicDescription> future = new KafkaFutureImpl<>();
+                synchronized (descriptions) {
+                    descriptions.put(topic, future);
+                }
+                values.put(topic, future);
+            }
+            DescribeTopicsResult result = mock(DescribeTopicsResult.class);
+            when(result.values()).thenReturn(values);
+            return result;
+        });
+        when(adminClient.describeConfigs(any())).thenAnswer(invocation -> {
+            Map<ConfigResource, KafkaFuture<Config>> values = new HashMap<>();
+            for (ConfigResource resource : invocation.<Collection<ConfigResource>>getArgument(0)) {
+                KafkaFutureImpl<Config> future = new KafkaFutureImpl<>();
+                synchronized (configs) {
+                    configs.put(resource, future);
+                }
+                values.put(resource, future);
+            }
+            DescribeConfigsResult result = mock(DescribeConfigsResult.class);
+            when(result.values()).thenReturn(values);
+            return result;
+        });
+    }
+
+    @AfterEach
+    public void teardown() {
+        vertx.close();
+    }
+
+    private static ConfigResource resource(String topic) {
+        return new ConfigResource(ConfigResource.Type.TOPIC, topic);
+    }
+
+    private static TopicDescription description(String topic) {
+        return new TopicDescription(topic, false, emptyList());
+    }
+
+    @Test
+    public void testTopicMetadata(VertxTestContext context) {
+        KafkaImpl kafka = new KafkaImpl(adminClient, vertx, 500, 4, 0);
+        vertx.runOnContext(ignored -> {
+            Future<TopicMetadata> existing = kafka.topicMetadata(new TopicName("existing"));
+            Future<TopicMetadata> missing = kafka.topicMetadata(new TopicName("missing"));
+            Future<TopicMetadata> forbidden = kafka.topicMetadata(new TopicName("forbidden"));
+
+            // Once the batch has been sent, complete the futures from a thread which is not a Vert.x thread,
+            // as the AdminClient would
+            vertx.runOnContext(ignored2 -> new Thread(() -> {
+                descriptions.get("existing").complete(description("existing"));
+                configs.get(resource("existing")).complete(new Config(emptyList()));
+                descriptions.get("missing").completeExceptionally(new UnknownTopicOrPartitionException());
+                configs.get(resource("missing")).completeExceptionally(new UnknownTopicOrPartitionException());
+                descriptions.get("forbidden").completeExceptionally(new TopicAuthorizationException("forbidden"));
+                configs.get(resource("forbidden")).complete(new Config(emptyList()));
+            }).start());
+
+            CompositeFuture.join(existing, missing, forbidden).setHandler(ar -> context.verify(() -> {
+                assertThat(existing.result(), is(notNullValue()));
+                assertThat(existing.result().getDescription().name(), is("existing"));
+                assertThat(missing.succeeded(), is(true));
+                assertThat(missing.result(), is(nullValue()));
+                assertThat(forbidden.failed(), is(true));
+                assertThat(forbidden.cause(), instanceOf(TopicAuthorizationException.class));
+                context.completeNow();
+            }));
+        });
+    }
+
+    /**
+     * Issues 10,000 topic metadata requests and, once all their batches have been sent, measures the CPU time
+     * the event loop uses while they're in flight, which, since the operator waits for the results of the
+     * AdminClient without polling, should be negligible.
+     */
+    @Test
+    public void testPendingRequestsDoNotUseTheEventLoop(VertxTestContext context) throws Exception {
+        int numRequests = 10_000;
+        long inFlightMs = 1_000;
+        // Allow all the requests to be in flight at once
+        KafkaImpl kafka = new KafkaImpl(adminClient, vertx, 500, numRequests / 500, 0);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        CompletableFuture<Long> eventLoop = new CompletableFuture<>();
+        List<Future> results = new ArrayList<>(numRequests);
+        vertx.runOnContext(ignored -> {
+            for (int i = 0; i < numRequests; i++) {
+                results.add(kafka.topicMetadata(new TopicName("topic-" + i)));
+            }
+            eventLoop.complete(Thread.currentThread().getId());
+        });
+        long eventLoopThreadId = eventLoop.get(60, TimeUnit.SECONDS);
+        // Only measure once all the batches have been sent, so that sending them isn't counted
+        verify(adminClient, timeout(60_000).times(numRequests / 500)).describeTopics(any());
+        verify(adminClient, timeout(60_000).times(numRequests / 500)).describeConfigs(any());
+
+        long cpuBeforeNs = threads.getThreadCpuTime(eventLoopThreadId);
+        Thread.sleep(inFlightMs);
+        long cpuInFlightMs = TimeUnit.NANOSECONDS.toMillis(threads.getThreadCpuTime(eventLoopThreadId) - cpuBeforeNs);
+        // A loop polling the pending futures would keep the event loop busy for the whole time
+        assertThat("Event loop CPU time while " + numRequests + " requests were in flight: " + cpuInFlightMs + "ms",
+                cpuInFlightMs, lessThan(inFlightMs / 4));
+
+        for (int i = 0; i < numRequests; i++) {
+            String topic = "topic-" + i;
+            descriptions.get(topic).complete(description(topic));
+            configs.get(resource(topic)).complete(new Config(emptyList()));
+        }
+        CompositeFuture.all(results).setHandler(context.succeeding(ignored -> context.verify(() -> {
+            assertThat(results.stream().allMatch(result -> result.result() != null), is(true));
+            context.completeNow();
+        })));
+        assertThat(context.awaitCompletion(60, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void testTopicMetadataIsDescribedInBatches(VertxTestContext context) {
+        KafkaImpl kafka = new KafkaImpl(adminClient, vertx, 500, 4, 0);
+        List<Future> results = new ArrayList<>();
+        vertx.runOnContext(ignored -> {
+            for (int i = 0; i < 1_200; i++) {
+                results.add(kafka.topicMetadata(new TopicName("topic-" + i)));
+            }
+            vertx.runOnContext(ignored2 -> {
+                context.verify(() -> {
+                    verify(adminClient, times(3)).describeTopics(any());
+                    verify(adminClient, times(3)).describeConfigs(any());
+                    assertThat(descriptions.size(), is(1_200));
+                });
+                for (int i = 0; i < 1_200; i++) {
+                    String topic = "topic-" + i;
+                    descriptions.get(topic).complete(description(topic));
+                    configs.get(resource(topic)).complete(new Config(emptyList()));
+                }
+            });
+            CompositeFuture.all(results).setHandler(context.succeeding(all -> context.verify(() -> {
+                assertThat(((TopicMetadata) results.get(1_199).result()).getDescription().name(), is("topic-1199"));
+                context.completeNow();
+            })));
+        });
+    }
+
+    @Test
+    public void testTopicDescriptionDoesNotDescribeConfigs(VertxTestContext context) {
+        KafkaImpl kafka = new KafkaImpl(adminClient, vertx, 500, 4, 0);
+        List<Future> results = new ArrayList<>();
+        vertx.runOnContext(ignored -> {
+            for (int i = 0; i < 1_200; i++) {
+                results.add(kafka.topicDescription(new TopicName("topic-" + i)));
+            }
+            results.add(kafka.topicDescription(new TopicName("missing")));
+            vertx.runOnContext(ignored2 -> {
+                context.verify(() -> {
+                    verify(adminClient, times(3)).describeTopics(any());
+                    verify(adminClient, never()).describeConfigs(any());
+                });
+                for (int i = 0; i < 1_200; i++) {
+                    String topic = "topic-" + i;
+                    descriptions.get(topic).complete(description(topic));
+                }
+                descriptions.get("missing").completeExceptionally(new UnknownTopicOrPartitionException());
+            });
+            CompositeFuture.all(results).setHandler(context.succeeding(all -> context.verify(() -> {
+                assertThat(((TopicDescription) results.get(1_199).result()).name(), is("topic-1199"));
+                assertThat(results.get(1_200).result(), is(nullValue()));
+                context.completeNow();
+            })));
+        });
+    }
+
+    @Test
+    public void testListTopics(VertxTestContext context) {
+        KafkaFutureImpl<Set<String>> names = new KafkaFutureImpl<>();
+        ListTopicsResult listTopicsResult = mock(ListTopicsResult.class);
+        when(listTopicsResult.names()).thenReturn(names);
+        when(adminClient.listTopics(any())).thenReturn(listTopicsResult);
+        KafkaImpl kafka = new KafkaImpl(adminClient, vertx);
+        vertx.runOnContext(ignored -> {
+            kafka.listTopics().setHandler(context.succeeding(topics -> context.verify(() -> {
+                assertThat(topics, is(singleton("foo")));
+                context.completeNow();
+            })));
+            names.complete(singleton("foo"));
+        });
+    }
+}
@@ -7,6 +7,7 @@ package io.strimzi.operator.topic;
 import io.vertx.core.Future;
 import io.vertx.junit5.VertxTestContext;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
 
 import java.lang.reflect.Field;
 import java.util.Collections;
@@ -188,6 +189,11 @@ public class MockKafka implements Kafka {
         return getTopicNameFutureFunction().apply(topicName);
     }
 
+    @Override
+    public Future<TopicDescription> topicDescription(TopicName topicName) {
+        return topicMetadata(topicName).map(metadata -> metadata != null ? metadata.getDescription() : null);
+    }
+
     Function<TopicName, Future<TopicMetadata>> getTopicNameFutureFunction() {
         return topicMetadataRespose.get(min(topicMetadataResposeCall++, topicMetadataRespose.size() - 1));
     }
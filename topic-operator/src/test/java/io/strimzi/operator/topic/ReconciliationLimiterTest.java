@@ -0,0 +1,71 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.Future;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ReconciliationLimiterTest {
+
+    @Test
+    public void testReconciliationsWaitForAPlaceInFlight() {
+        ReconciliationLimiter limiter = new ReconciliationLimiter(2);
+        List<Future<Void>> started = new ArrayList<>();
+        List<Future<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(limiter.submit(() -> {
+                Future<Void> reconciliation = Future.future();
+                started.add(reconciliation);
+                return reconciliation;
+            }));
+        }
+        assertThat(started.size(), is(2));
+        assertThat(limiter.inFlight(), is(2));
+        assertThat(limiter.waiting(), is(3));
+
+        // Completing (or failing) a reconciliation starts the next waiting one
+        started.get(0).complete();
+        assertThat(results.get(0).succeeded(), is(true));
+        assertThat(started.size(), is(3));
+        started.get(1).fail("failed");
+        assertThat(results.get(1).failed(), is(true));
+        assertThat(started.size(), is(4));
+
+        started.get(2).complete();
+        started.get(3).complete();
+        started.get(4).complete();
+        assertThat(started.size(), is(5));
+        assertThat(limiter.inFlight(), is(0));
+        assertThat(limiter.waiting(), is(0));
+        for (int i = 2; i < 5; i++) {
+            assertThat(results.get(i).succeeded(), is(true));
+        }
+    }
+
+    @Test
+    public void testManySynchronousReconciliations() {
+        ReconciliationLimiter limiter = new ReconciliationLimiter(1);
+        Future<Void> first = Future.future();
+        limiter.submit(() -> first);
+        List<Future<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            results.add(limiter.submit(() -> {
+                throw new IllegalStateException("boom");
+            }));
+        }
+        assertThat(limiter.waiting(), is(100_000));
+
+        // Completing the first starts the rest, each of which completes straight away, without overflowing the stack
+        first.complete();
+        assertThat(limiter.inFlight(), is(0));
+        assertThat(results.stream().allMatch(Future::failed), is(true));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ExtendWith(VertxExtension.class)
+public class TopicMetadataBatcherTest {
+
+    private Vertx vertx;
+    /** The topics in each batch, and the futures for their metadata */
+    private final List<Map<TopicName, Future<TopicMetadata>>> batches = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    public void teardown() {
+        vertx.close();
+    }
+
+    private Map<TopicName, Future<TopicMetadata>> describe(List<TopicName> topicNames) {
+        Map<TopicName, Future<TopicMetadata>> batch = new HashMap<>();
+        for (TopicName topicName : topicNames) {
+            batch.put(topicName, Future.future());
+        }
+        batches.add(batch);
+        return batch;
+    }
+
+    private static void completeAll(Map<TopicName, Future<TopicMetadata>> batch) {
+        batch.values().forEach(future -> future.complete(null));
+    }
+
+    @Test
+    public void testBatchesAreLimitedInSizeAndConcurrency(VertxTestContext context) {
+        TopicMetadataBatcher<TopicMetadata> batcher = new TopicMetadataBatcher<>(vertx, 2, 2, 0, this::describe);
+        List<Future> results = new ArrayList<>();
+        vertx.runOnContext(ignored -> {
+            for (int i = 0; i < 7; i++) {
+                results.add(batcher.topicMetadata(new TopicName("topic-" + i)));
+            }
+            vertx.runOnContext(ignored2 -> {
+                context.verify(() -> {
+                    // Only two batches of two topics are in flight
+                    assertThat(batches.size(), is(2));
+                    assertThat(batches.get(0).keySet(), is(asSet("topic-0", "topic-1")));
+                    assertThat(batches.get(1).keySet(), is(asSet("topic-2", "topic-3")));
+                });
+                // Completing a batch lets the next one be sent
+                completeAll(batches.get(0));
+                context.verify(() -> {
+                    assertThat(batches.size(), is(3));
+                    assertThat(batches.get(2).keySet(), is(asSet("topic-4", "topic-5")));
+                });
+                completeAll(batches.get(1));
+                completeAll(batches.get(2));
+                context.verify(() -> {
+                    assertThat(batches.size(), is(4));
+                    assertThat(batches.get(3).keySet(), is(asSet("topic-6")));
+                });
+                completeAll(batches.get(3));
+            });
+            CompositeFuture.all(results).setHandler(context.succeeding(all -> context.completeNow()));
+        });
+    }
+
+    @Test
+    public void testResultsAreFannedOutToEachRequest(VertxTestContext context) {
+        TopicMetadataBatcher<TopicMetadata> batcher = new TopicMetadataBatcher<>(vertx, 10, 1, 10, this::describe);
+        vertx.runOnContext(ignored -> {
+            Future<TopicMetadata> foo1 = batcher.topicMetadata(new TopicName("foo"));
+            Future<TopicMetadata> foo2 = batcher.topicMetadata(new TopicName("foo"));
+            Future<TopicMetadata> bar = batcher.topicMetadata(new TopicName("bar"));
+            vertx.setTimer(100, timerId -> {
+                context.verify(() -> {
+                    assertThat(batches.size(), is(1));
+                    assertThat(batches.get(0).keySet(), is(asSet("foo", "bar")));
+                });
+                batches.get(0).get(new TopicName("foo")).complete(null);
+                batches.get(0).get(new TopicName("bar")).fail(new OperatorException("bar failed"));
+                context.verify(() -> {
+                    assertThat(foo1.succeeded(), is(true));
+                    assertThat(foo1.result(), is(nullValue()));
+                    assertThat(foo2.succeeded(), is(true));
+                    assertThat(bar.failed(), is(true));
+                    assertThat(bar.cause().getMessage(), is("bar failed"));
+                });
+                context.completeNow();
+            });
+        });
+    }
+
+    @Test
+    public void testFailureToDescribeFailsTheBatch(VertxTestContext context) {
+        TopicMetadataBatcher<TopicMetadata> batcher = new TopicMetadataBatcher<>(vertx, 10, 1, 0, topicNames -> {
+            throw new IllegalStateException("closed");
+        });
+        vertx.runOnContext(ignored -> {
+            batcher.topicMetadata(new TopicName("foo")).setHandler(context.failing(error -> context.verify(() -> {
+                assertThat(error.getMessage(), is("closed"));
+                context.completeNow();
+            })));
+        });
+    }
+
+    private static Set<TopicName> asSet(String... topicNames) {
+        Set<TopicName> result = new HashSet<>();
+        for (String topicName : asList(topicNames)) {
+            result.add(new TopicName(topicName));
+        }
+        return result;
+    }
+}
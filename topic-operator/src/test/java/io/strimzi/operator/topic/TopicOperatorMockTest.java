@@ -55,8 +55,8 @@ public class TopicOperatorMockTest {
     private Vertx vertx;
     private String deploymentId;
     private AdminClient adminClient;
-    private TopicConfigsWatcher topicsConfigWatcher;
-    private ZkTopicWatcher topicWatcher;
+    private ZkWatcher topicsConfigWatcher;
+    private ZkWatcher topicWatcher;
     private ZkTopicsWatcher topicsWatcher;
 
     // TODO this is all in common with TOIT, so factor out a common base class
@@ -6,11 +6,19 @@ package io.strimzi.operator.topic;
 
 import io.strimzi.operator.topic.zk.Zk;
 import io.strimzi.test.EmbeddedZooKeeper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.junit5.Checkpoint;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
+import org.I0Itec.zkclient.exception.ZkException;
+import org.I0Itec.zkclient.exception.ZkTimeoutException;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.ACL;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -18,14 +26,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
-@Disabled
 @ExtendWith(VertxExtension.class)
 public class ZkTopicStoreTest {
 
@@ -41,7 +51,7 @@ public class ZkTopicStoreTest {
             throws IOException, InterruptedException {
         this.zkServer = new EmbeddedZooKeeper();
         zk = Zk.createSync(vertx, zkServer.getZkConnectString(), 60_000, 10_000);
-        this.store = new ZkTopicStore(zk);
+        this.store = new ZkTopicStore(zk, vertx);
     }
 
     @AfterEach
@@ -54,6 +64,7 @@ public class ZkTopicStoreTest {
         vertx.close();
     }
 
+    @Disabled
     @Test
     public void testCrud(VertxTestContext context) throws ExecutionException, InterruptedException {
         Topic topic = new Topic.Builder("my_topic", 2,
@@ -142,4 +153,160 @@ public class ZkTopicStoreTest {
         });
     }
 
+    @Test
+    public void testSequencedCrud(VertxTestContext context) {
+        Topic topic = new Topic.Builder("my_topic", 2,
+                (short) 3, Collections.singletonMap("foo", "bar")).build();
+        Topic updated = new Topic.Builder(topic)
+                .withNumPartitions(3)
+                .withConfigEntry("fruit", "apple").build();
+        TopicName topicName = topic.getTopicName();
+
+        store.create(topic)
+            .compose(ignored -> store.read(topicName))
+            .compose(readTopic -> {
+                context.verify(() -> assertTopicEquals(readTopic, topic));
+                return store.create(topic).otherwise(error -> {
+                    context.verify(() -> assertThat(error, instanceOf(TopicStore.EntityExistsException.class)));
+                    return null;
+                });
+            })
+            .compose(ignored -> store.update(updated))
+            .compose(ignored -> store.read(topicName))
+            .compose(readTopic -> {
+                context.verify(() -> assertTopicEquals(readTopic, updated));
+                return store.delete(topicName);
+            })
+            .compose(ignored -> store.read(topicName))
+            .compose(readTopic -> {
+                context.verify(() -> assertThat(readTopic, is(nullValue())));
+                return store.delete(topicName);
+            })
+            .setHandler(context.failing(error -> context.verify(() -> {
+                assertThat(error, instanceOf(TopicStore.NoSuchEntityExistsException.class));
+                context.completeNow();
+            })));
+    }
+
+    @Test
+    public void testUpdateFailsIfModifiedSinceRead(VertxTestContext context) {
+        Topic topic = new Topic.Builder("my_topic", 2,
+                (short) 3, Collections.singletonMap("foo", "bar")).build();
+        Topic updated = new Topic.Builder(topic)
+                .withNumPartitions(3).build();
+        TopicName topicName = topic.getTopicName();
+
+        store.create(topic)
+            .compose(ignored -> store.read(topicName))
+            .compose(ignored -> {
+                // Modify the znode behind the store's back
+                Future<Void> modified = Future.future();
+                zk.setData(ZkTopicStore.TOPICS_PATH + "/" + topicName, TopicSerialization.toJson(topic), -1, modified);
+                return modified;
+            })
+            .compose(ignored -> store.update(updated))
+            .setHandler(context.failing(error -> {
+                context.verify(() -> assertThat(error, instanceOf(TopicStore.ConcurrentModificationException.class)));
+                // Having re-read the topic the update succeeds
+                store.read(topicName)
+                    .compose(ignored -> store.update(updated))
+                    .compose(ignored -> store.read(topicName))
+                    .setHandler(context.succeeding(readTopic -> context.verify(() -> {
+                        assertTopicEquals(readTopic, updated);
+                        context.completeNow();
+                    })));
+            }));
+    }
+
+    @Test
+    public void testConcurrentWritesAreBatched(VertxTestContext context) {
+        List<Topic> topics = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            topics.add(new Topic.Builder("topic-" + i, 1, (short) 1, Collections.emptyMap()).build());
+        }
+        List<Future> created = new ArrayList<>();
+        for (Topic topic : topics) {
+            created.add(store.create(topic));
+        }
+        // A create of an existing topic fails without failing the other writes in its batch
+        Future<Void> duplicate = store.create(topics.get(0));
+        List<Future> updated = new ArrayList<>();
+        for (Topic topic : topics) {
+            updated.add(store.update(new Topic.Builder(topic).withNumPartitions(2).build()));
+        }
+        CompositeFuture.all(created)
+            .compose(ignored -> CompositeFuture.all(updated))
+            .compose(ignored -> {
+                context.verify(() -> {
+                    assertThat(duplicate.failed(), is(true));
+                    assertThat(duplicate.cause(), instanceOf(TopicStore.EntityExistsException.class));
+                });
+                List<Future> read = new ArrayList<>();
+                for (Topic topic : topics) {
+                    read.add(store.read(topic.getTopicName()));
+                }
+                return CompositeFuture.all(read);
+            })
+            .setHandler(context.succeeding(read -> context.verify(() -> {
+                for (int i = 0; i < topics.size(); i++) {
+                    Topic readTopic = read.resultAt(i);
+                    assertThat(readTopic.getTopicName(), is(topics.get(i).getTopicName()));
+                    assertThat(readTopic.getNumPartitions(), is(2));
+                }
+                context.completeNow();
+            })));
+    }
+
+    @Test
+    public void testWritesFailIfTopicsPathCannotBeCreated(VertxTestContext context) {
+        List<Handler<AsyncResult<Void>>> creates = new ArrayList<>();
+        MockZk mockZk = new MockZk() {
+            @Override
+            public Zk create(String path, byte[] data, List<ACL> acls, CreateMode createMode, Handler<AsyncResult<Void>> handler) {
+                creates.add(handler);
+                return this;
+            }
+        };
+        ZkTopicStore failingStore = new ZkTopicStore(mockZk, vertx);
+        Topic topic = new Topic.Builder("my_topic", 1, (short) 1, Collections.emptyMap()).build();
+
+        // A write made before /strimzi could be created fails with the cause, as does a later one
+        Future<Void> pendingWrite = failingStore.create(topic);
+        vertx.setTimer(100, timerId -> {
+            context.verify(() -> assertThat(creates.size(), is(1)));
+            creates.get(0).handle(Future.failedFuture(new ZkException("denied")));
+            context.verify(() -> assertThat(pendingWrite.failed(), is(true)));
+            failingStore.update(topic).setHandler(context.failing(error -> context.verify(() -> {
+                assertThat(error, instanceOf(ZkException.class));
+                assertThat(pendingWrite.cause(), instanceOf(ZkException.class));
+                context.completeNow();
+            })));
+        });
+    }
+
+    @Test
+    public void testWritesFailIfTransactionFailsWithoutResults(VertxTestContext context) {
+        MockZk mockZk = new MockZk();
+        mockZk.createResult = Future.succeededFuture();
+        mockZk.multiResult = Future.failedFuture(new ZkTimeoutException("timed out"));
+        ZkTopicStore failingStore = new ZkTopicStore(mockZk, vertx);
+        Topic topic = new Topic.Builder("my_topic", 1, (short) 1, Collections.emptyMap()).build();
+
+        // The outcome of each write isn't known, so all the writes of the batch fail with the cause
+        CompositeFuture.join(failingStore.create(topic), failingStore.update(topic)).setHandler(context.failing(error -> {
+            context.verify(() -> assertThat(error, instanceOf(ZkTimeoutException.class)));
+            mockZk.multiResult = Future.failedFuture(KeeperException.create(KeeperException.Code.CONNECTIONLOSS));
+            failingStore.delete(topic.getTopicName()).setHandler(context.failing(error2 -> context.verify(() -> {
+                assertThat(error2, instanceOf(KeeperException.ConnectionLossException.class));
+                context.completeNow();
+            })));
+        }));
+    }
+
+    private static void assertTopicEquals(Topic actual, Topic expected) {
+        assertThat(actual.getTopicName(), is(expected.getTopicName()));
+        assertThat(actual.getNumPartitions(), is(expected.getNumPartitions()));
+        assertThat(actual.getNumReplicas(), is(expected.getNumReplicas()));
+        assertThat(actual.getConfig(), is(expected.getConfig()));
+    }
 }
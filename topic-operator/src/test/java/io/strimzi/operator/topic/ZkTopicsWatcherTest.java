@@ -6,14 +6,27 @@ package io.strimzi.operator.topic;
 
 import io.strimzi.operator.topic.MockTopicOperator.MockOperatorEvent.Type;
 import io.vertx.core.Future;
+import io.vertx.core.Vertx;
 import io.vertx.junit5.VertxExtension;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 @ExtendWith(VertxExtension.class)
@@ -80,4 +93,108 @@ public class ZkTopicsWatcherTest {
                 Type.DELETE, new TopicName("bar")))));
         assertThat(topicConfigsWatcher.watching("baz"), is(false));
     }
+
+    @Test
+    public void testTopicConfigChangeNotification() {
+        operator = new MockTopicOperator();
+        operator.topicCreatedResult = Future.succeededFuture();
+        operator.topicModifiedResult = Future.succeededFuture();
+        mockZk = new MockZk();
+        mockZk.childrenResult = Future.succeededFuture(asList("foo", "bar"));
+        mockZk.childrenResults.put("/config/changes", Future.succeededFuture(asList("config_change_0000000041")));
+        TopicConfigChangesWatcher topicConfigsWatcher = new TopicConfigChangesWatcher(operator);
+        ZkTopicsWatcher topicsWatcher = new ZkTopicsWatcher(operator, topicConfigsWatcher, new ZkTopicWatcher(operator));
+        mockZk.dataResult = Future.succeededFuture(new byte[0]);
+        topicsWatcher.start(mockZk);
+        assertThat(topicConfigsWatcher.watching("foo"), is(true));
+
+        mockZk.dataResults.put("/config/changes/config_change_0000000042",
+                Future.succeededFuture("{\"version\":2,\"entity_path\":\"topics/foo\"}".getBytes(StandardCharsets.UTF_8)));
+        mockZk.dataResults.put("/config/changes/config_change_0000000043",
+                Future.succeededFuture("{\"version\":2,\"entity_path\":\"brokers/0\"}".getBytes(StandardCharsets.UTF_8)));
+        mockZk.triggerChildren("/config/changes", Future.succeededFuture(
+                asList("config_change_0000000041", "config_change_0000000042", "config_change_0000000043")));
+        assertThat(operator.getMockOperatorEvents(), is(singletonList(
+                new MockTopicOperator.MockOperatorEvent(Type.MODIFY_CONFIG, new TopicName("foo")))));
+
+        // Notifications which have already been seen are ignored
+        operator.clearEvents();
+        mockZk.triggerChildren("/config/changes", Future.succeededFuture(
+                asList("config_change_0000000042", "config_change_0000000043")));
+        assertThat(operator.getMockOperatorEvents(), is(emptyList()));
+
+        // Changes to topics created since are notified
+        mockZk.triggerChildren(Future.succeededFuture(asList("foo", "bar", "baz")));
+        operator.clearEvents();
+        mockZk.dataResults.put("/config/changes/config_change_0000000044",
+                Future.succeededFuture("{\"version\":1,\"entity_type\":\"topics\",\"entity_name\":\"baz\"}".getBytes(StandardCharsets.UTF_8)));
+        mockZk.triggerChildren("/config/changes", Future.succeededFuture(
+                asList("config_change_0000000043", "config_change_0000000044")));
+        assertThat(operator.getMockOperatorEvents(), is(singletonList(
+                new MockTopicOperator.MockOperatorEvent(Type.MODIFY_CONFIG, new TopicName("baz")))));
+    }
+
+    @Test
+    public void testTopicConfigChangeNotificationParsing() {
+        assertThat(TopicConfigChangesWatcher.topicName("{\"version\":2,\"entity_path\":\"topics/foo\"}".getBytes(StandardCharsets.UTF_8)), is("foo"));
+        assertThat(TopicConfigChangesWatcher.topicName("{\"version\":2,\"entity_path\":\"users/foo\"}".getBytes(StandardCharsets.UTF_8)), is(nullValue()));
+        assertThat(TopicConfigChangesWatcher.topicName("{\"version\":1,\"entity_type\":\"topics\",\"entity_name\":\"foo\"}".getBytes(StandardCharsets.UTF_8)), is("foo"));
+        assertThat(TopicConfigChangesWatcher.topicName("not json".getBytes(StandardCharsets.UTF_8)), is(nullValue()));
+        assertThat(TopicConfigChangesWatcher.topicName(null), is(nullValue()));
+    }
+
+    /** Metadata for a topic with a single replica of each partition, on the given brokers */
+    private static TopicMetadata metadata(String topic, List<Integer> brokers) {
+        List<TopicPartitionInfo> partitions = new ArrayList<>();
+        for (int partition = 0; partition < brokers.size(); partition++) {
+            Node node = new Node(brokers.get(partition), "localhost", 9092);
+            partitions.add(new TopicPartitionInfo(partition, node, singletonList(node), singletonList(node)));
+        }
+        return new TopicMetadata(new TopicDescription(topic, false, partitions), new Config(emptyList()));
+    }
+
+    @Test
+    public void testTopicPartitionsPoll() {
+        Vertx vertx = Vertx.vertx();
+        try {
+            operator = new MockTopicOperator();
+            operator.topicCreatedResult = Future.succeededFuture();
+            operator.topicDeletedResult = Future.succeededFuture();
+            operator.topicModifiedResult = Future.succeededFuture();
+            mockZk = new MockZk();
+            mockZk.childrenResult = Future.succeededFuture(asList("foo", "bar"));
+            mockZk.dataResult = Future.succeededFuture(new byte[0]);
+            Map<String, TopicMetadata> metadata = new HashMap<>();
+            metadata.put("foo", metadata("foo", asList(0)));
+            metadata.put("bar", metadata("bar", asList(0, 1)));
+            MockKafka kafka = new MockKafka();
+            kafka.setTopicMetadataResponse(topicName -> Future.succeededFuture(metadata.get(topicName.toString())));
+            TopicPartitionsPoller topicWatcher = new TopicPartitionsPoller(operator, vertx, kafka, Long.MAX_VALUE);
+            ZkTopicsWatcher topicsWatcher = new ZkTopicsWatcher(operator, new TopicConfigsWatcher(operator), topicWatcher);
+            topicsWatcher.start(mockZk);
+            assertThat(topicWatcher.watching("foo"), is(true));
+
+            // The first poll just records the assignments
+            assertThat(topicWatcher.poll().succeeded(), is(true));
+            assertThat(operator.getMockOperatorEvents(), is(emptyList()));
+
+            metadata.put("foo", metadata("foo", asList(0, 1)));
+            metadata.put("bar", metadata("bar", asList(0, 1)));
+            assertThat(topicWatcher.poll().succeeded(), is(true));
+            assertThat(operator.getMockOperatorEvents(), is(singletonList(
+                    new MockTopicOperator.MockOperatorEvent(Type.MODIFY_PARTITIONS, new TopicName("foo")))));
+
+            operator.clearEvents();
+            metadata.put("bar", metadata("bar", asList(1, 0)));
+            mockZk.triggerChildren(Future.succeededFuture(asList("bar")));
+            operator.clearEvents();
+            assertThat(topicWatcher.watching("foo"), is(false));
+            assertThat(topicWatcher.poll().succeeded(), is(true));
+            assertThat(operator.getMockOperatorEvents(), is(singletonList(
+                    new MockTopicOperator.MockOperatorEvent(Type.MODIFY_PARTITIONS, new TopicName("bar")))));
+            topicsWatcher.stop();
+        } finally {
+            vertx.close();
+        }
+    }
 }
@@ -12,6 +12,9 @@ import io.strimzi.api.kafka.model.DoneableKafkaUser;
 import io.strimzi.api.kafka.KafkaUserList;
 import io.strimzi.api.kafka.model.KafkaUser;
 import io.strimzi.certs.OpenSslCertManager;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.MicrometerMetricsProvider;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
 import io.strimzi.operator.user.operator.KafkaUserOperator;
@@ -43,7 +46,8 @@ public class Main {
     public static void main(String[] args) {
         log.info("UserOperator {} is starting", Main.class.getPackage().getImplementationVersion());
         UserOperatorConfig config = UserOperatorConfig.fromMap(System.getenv());
-        Vertx vertx = Vertx.vertx();
+        Vertx vertx = Vertx.vertx(MicrometerMetricsProvider.vertxOptions());
+        WorkerPools.configure(vertx, System.getenv());
         KubernetesClient client = new DefaultKubernetesClient();
         SimpleAclAuthorizer authorizer = createSimpleAclAuthorizer(config);
 
@@ -58,6 +62,7 @@ public class Main {
     static Future<String> run(Vertx vertx, KubernetesClient client, SimpleAclAuthorizer authorizer, UserOperatorConfig config) {
         printEnvInfo();
         OpenSslCertManager certManager = new OpenSslCertManager();
+        MetricsProvider metricsProvider = new MicrometerMetricsProvider();
         SecretOperator secretOperations = new SecretOperator(vertx, client);
         CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser> crdOperations = new CrdOperator<>(vertx, client, KafkaUser.class, KafkaUserList.class, DoneableKafkaUser.class);
         SimpleAclOperator aclOperations = new SimpleAclOperator(vertx, authorizer);
@@ -67,13 +72,15 @@ public class Main {
         KafkaUserOperator kafkaUserOperations = new KafkaUserOperator(vertx,
                 certManager, crdOperations,
                 config.getLabels(),
-                secretOperations, scramShaCredentialsOperator, aclOperations, config.getCaCertSecretName(), config.getCaKeySecretName(), config.getCaNamespace());
+                secretOperations, scramShaCredentialsOperator, aclOperations, config.getCaCertSecretName(), config.getCaKeySecretName(), config.getCaNamespace(),
+                config.getMaxConcurrentReconciliations(), metricsProvider);
 
         Future<String> fut = Future.future();
         UserOperator operator = new UserOperator(config.getNamespace(),
                 config,
                 client,
-                kafkaUserOperations);
+                kafkaUserOperations,
+                metricsProvider);
         vertx.deployVerticle(operator,
             res -> {
                 if (res.succeeded()) {
@@ -6,6 +6,7 @@ package io.strimzi.operator.user;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.Watch;
+import io.strimzi.operator.common.MetricsProvider;
 import io.strimzi.operator.user.operator.KafkaUserOperator;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
@@ -13,7 +14,6 @@ import io.vertx.core.http.HttpServer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.concurrent.TimeUnit;
 
 /**
  * An "operator" for managing assemblies of various types <em>in a particular namespace</em>.
@@ -28,6 +28,7 @@ public class UserOperator extends AbstractVerticle {
     private final String namespace;
     private final long reconciliationInterval;
     private final KafkaUserOperator kafkaUserOperator;
+    private final MetricsProvider metricsProvider;
 
     private Watch watch;
     private long reconcileTimer;
@@ -35,21 +36,20 @@ public class UserOperator extends AbstractVerticle {
     public UserOperator(String namespace,
                         UserOperatorConfig config,
                         KubernetesClient client,
-                        KafkaUserOperator kafkaUserOperator) {
+                        KafkaUserOperator kafkaUserOperator,
+                        MetricsProvider metricsProvider) {
         log.info("Creating UserOperator for namespace {}", namespace);
         this.namespace = namespace;
         this.reconciliationInterval = config.getReconciliationIntervalMs();
         this.client = client;
         this.kafkaUserOperator = kafkaUserOperator;
+        this.metricsProvider = metricsProvider;
     }
 
     @Override
     public void start(Future<Void> start) {
         log.info("Starting UserOperator for namespace {}", namespace);
 
-        // Configure the executor here, but it is used only in other places
-        getVertx().createSharedWorkerExecutor("kubernetes-ops-pool", 10, TimeUnit.SECONDS.toNanos(120));
-
         kafkaUserOperator.createWatch(namespace, kafkaUserOperator.recreateWatch(namespace))
             .compose(w -> {
                 log.info("Started operator for {} kind", "KafkaUser");
@@ -86,7 +86,7 @@ public class UserOperator extends AbstractVerticle {
     }
 
     /**
-     * Start an HTTP health server
+     * Start an HTTP health server, which also serves the operator's metrics in the Prometheus format on {@code /metrics}
      */
     private Future<HttpServer> startHealthServer() {
         Future<HttpServer> result = Future.future();
@@ -96,6 +96,13 @@ public class UserOperator extends AbstractVerticle {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
                         request.response().setStatusCode(200).end();
+                    } else if (request.path().equals("/metrics")) {
+                        String metrics = metricsProvider.scrape();
+                        if (metrics != null) {
+                            request.response().setStatusCode(200).end(metrics);
+                        } else {
+                            request.response().setStatusCode(404).end();
+                        }
                     }
                 })
                 .listen(HEALTH_SERVER_PORT, ar -> {
@@ -6,6 +6,7 @@ package io.strimzi.operator.user;
 
 import io.strimzi.api.kafka.model.CertificateAuthority;
 import io.strimzi.operator.common.InvalidConfigurationException;
+import io.strimzi.operator.common.WorkQueue;
 import io.strimzi.operator.common.model.Labels;
 
 import java.util.Map;
@@ -25,10 +26,12 @@ public class UserOperatorConfig {
     public static final String STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS = "STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS";
     public static final String STRIMZI_CLIENTS_CA_VALIDITY = "STRIMZI_CA_VALIDITY";
     public static final String STRIMZI_CLIENTS_CA_RENEWAL = "STRIMZI_CA_RENEWAL";
+    public static final String STRIMZI_MAX_CONCURRENT_RECONCILIATIONS = "STRIMZI_MAX_CONCURRENT_RECONCILIATIONS";
 
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final String DEFAULT_ZOOKEEPER_CONNECT = "localhost:2181";
     public static final long DEFAULT_ZOOKEEPER_SESSION_TIMEOUT_MS = 6_000;
+    public static final int DEFAULT_MAX_CONCURRENT_RECONCILIATIONS = WorkQueue.DEFAULT_MAX_IN_FLIGHT;
 
     private final String namespace;
     private final long reconciliationIntervalMs;
@@ -38,6 +41,7 @@ public class UserOperatorConfig {
     private final String caCertSecretName;
     private final String caKeySecretName;
     private final String caNamespace;
+    private final int maxConcurrentReconciliations;
 
     /**
      * Constructor
@@ -50,6 +54,7 @@ public class UserOperatorConfig {
      * @param caCertSecretName Name of the secret containing the Certification Authority certificate.
      * @param caKeySecretName The name of the secret containing the Certification Authority key.
      * @param caNamespace Namespace with the CA secret.
+     * @param maxConcurrentReconciliations The maximum number of KafkaUser reconciliations which may run at once.
      */
     public UserOperatorConfig(String namespace,
                               long reconciliationIntervalMs,
@@ -57,7 +62,8 @@ public class UserOperatorConfig {
                               long zookeeperSessionTimeoutMs,
                               Labels labels, String caCertSecretName,
                               String caKeySecretName,
-                              String caNamespace) {
+                              String caNamespace,
+                              int maxConcurrentReconciliations) {
         this.namespace = namespace;
         this.reconciliationIntervalMs = reconciliationIntervalMs;
         this.zookeperConnect = zookeperConnect;
@@ -66,6 +72,7 @@ public class UserOperatorConfig {
         this.caCertSecretName = caCertSecretName;
         this.caKeySecretName = caKeySecretName;
         this.caNamespace = caNamespace;
+        this.maxConcurrentReconciliations = maxConcurrentReconciliations;
     }
 
     /**
@@ -122,7 +129,21 @@ public class UserOperatorConfig {
             caNamespace = namespace;
         }
 
-        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace);
+        int maxConcurrentReconciliations = parseMaxConcurrentReconciliations(map.get(UserOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS));
+
+        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace,
+                maxConcurrentReconciliations);
+    }
+
+    private static int parseMaxConcurrentReconciliations(String maxConcurrentReconciliationsEnvVar) {
+        int maxConcurrentReconciliations = DEFAULT_MAX_CONCURRENT_RECONCILIATIONS;
+        if (maxConcurrentReconciliationsEnvVar != null) {
+            maxConcurrentReconciliations = Integer.parseInt(maxConcurrentReconciliationsEnvVar);
+            if (maxConcurrentReconciliations <= 0) {
+                throw new InvalidConfigurationException(UserOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS + " must be a positive integer");
+            }
+        }
+        return maxConcurrentReconciliations;
     }
 
     public static int getClientsCaValidityDays() {
@@ -198,6 +219,13 @@ public class UserOperatorConfig {
         return zookeeperSessionTimeoutMs;
     }
 
+    /**
+     * @return  The maximum number of KafkaUser reconciliations which may run at once
+     */
+    public int getMaxConcurrentReconciliations() {
+        return maxConcurrentReconciliations;
+    }
+
     @Override
     public String toString() {
         return "ClusterOperatorConfig(" +
@@ -208,6 +236,7 @@ public class UserOperatorConfig {
                 ",labels=" + labels +
                 ",caName=" + caCertSecretName +
                 ",caNamespace=" + caNamespace +
+                ",maxConcurrentReconciliations=" + maxConcurrentReconciliations +
                 ")";
     }
 }
@@ -4,6 +4,8 @@
  */
 package io.strimzi.operator.user.operator;
 
+import io.strimzi.operator.common.WorkerPool;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
@@ -23,7 +25,7 @@ public class ScramShaCredentialsOperator {
 
     Future<ReconcileResult<Void>> reconcile(String username, String password) {
         Future<ReconcileResult<Void>> fut = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        WorkerPools.executor(vertx, WorkerPool.ZOOKEEPER).executeBlocking(
             future -> {
                 boolean exists = credsManager.exists(username);
                 if (password != null) {